@@ -0,0 +1,82 @@
+package com.recicar.marketplace.benchmark;
+
+import com.recicar.marketplace.config.MarketplaceUxProperties;
+import com.recicar.marketplace.web.ux.ClientPreferences;
+import com.recicar.marketplace.web.ux.ClientPreferencesService;
+import jakarta.servlet.http.Cookie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ClientPreferencesService#resolve}, run on every storefront request: a first visit
+ * without cookies, a returning visitor with region and VAT cookies among the usual session and
+ * consent cookies, and a stale region cookie that falls back to the default.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClientPreferencesBenchmark {
+
+    private ClientPreferencesService service;
+    private MockHttpServletRequest firstVisit;
+    private MockHttpServletRequest returning;
+    private MockHttpServletRequest staleRegion;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MarketplaceUxProperties market = new MarketplaceUxProperties();
+        market.setRegions(List.of(region("ES"), region("FR"), region("DE"), region("IT"), region("PT"), region("NL")));
+        service = new ClientPreferencesService(market);
+
+        firstVisit = new MockHttpServletRequest("GET", "/shop");
+        returning = new MockHttpServletRequest("GET", "/shop");
+        returning.setCookies(
+                new Cookie("JSESSIONID", "4A1F0C2E9B7D"),
+                new Cookie("cookie_consent", "analytics"),
+                new Cookie(ClientPreferences.COOKIE_REGION, "pt"),
+                new Cookie(ClientPreferences.COOKIE_VAT, "0"));
+        staleRegion = new MockHttpServletRequest("GET", "/shop");
+        staleRegion.setCookies(
+                new Cookie("JSESSIONID", "4A1F0C2E9B7D"),
+                new Cookie(ClientPreferences.COOKIE_REGION, "XX"));
+    }
+
+    private static MarketplaceUxProperties.Region region(String code) {
+        MarketplaceUxProperties.Region region = new MarketplaceUxProperties.Region();
+        region.setCode(code);
+        region.setVat(new BigDecimal("0.21"));
+        return region;
+    }
+
+    @Benchmark
+    public ClientPreferences firstVisit() {
+        return service.resolve(firstVisit);
+    }
+
+    @Benchmark
+    public ClientPreferences returningVisitor() {
+        return service.resolve(returning);
+    }
+
+    @Benchmark
+    public ClientPreferences staleRegionCookie() {
+        return service.resolve(staleRegion);
+    }
+}
@@ -0,0 +1,162 @@
+package com.recicar.marketplace.benchmark;
+
+import com.recicar.marketplace.config.CheckoutProperties;
+import com.recicar.marketplace.config.MarketplaceUxProperties;
+import com.recicar.marketplace.dto.CartDto;
+import com.recicar.marketplace.dto.CartItemDto;
+import com.recicar.marketplace.entity.Cart;
+import com.recicar.marketplace.entity.CartItem;
+import com.recicar.marketplace.repository.CartRepository;
+import com.recicar.marketplace.service.CartPricingService;
+import com.recicar.marketplace.service.DpdShippingService;
+import com.recicar.marketplace.web.ux.ClientPreferences;
+import com.recicar.marketplace.web.ux.MarketDisplayPriceService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Price arithmetic run for every card and cart render: {@link MarketDisplayPriceService}
+ * converting catalog prices for the visitor's region and VAT choice, and
+ * {@link CartPricingService#applyPricing} on carts of one to five catalog products.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class PricingBenchmark {
+
+    private static final int CARTS = 4096;
+    private static final Long USER_ID = 7L;
+
+    @Param({"10000", "100000", "1000000"})
+    public int catalogSize;
+
+    private MarketplaceUxProperties market;
+    private MarketDisplayPriceService displayPrices;
+    private CartPricingService cartPricing;
+    private BigDecimal[] prices;
+    private CartDto[] carts;
+    private final ClientPreferences spainWithVat = new ClientPreferences("ES", true);
+    private final ClientPreferences portugalWithVat = new ClientPreferences("PT", true);
+    private final ClientPreferences withoutVat = new ClientPreferences("FR", false);
+    private int nextPrice;
+    private int nextCart;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticCatalog catalog = new SyntheticCatalog(catalogSize);
+        prices = catalog.prices();
+
+        market = new MarketplaceUxProperties();
+        market.setRegions(List.of(region("ES", "0.21"), region("FR", "0.20"), region("DE", "0.19"),
+                region("IT", "0.22"), region("PT", "0.23"), region("NL", "0.21")));
+        displayPrices = new MarketDisplayPriceService(market);
+
+        SplittableRandom random = new SplittableRandom(42);
+        carts = new CartDto[CARTS];
+        for (int c = 0; c < CARTS; c++) {
+            carts[c] = cart(catalog, random, 1 + random.nextInt(5));
+        }
+        Cart stored = new Cart();
+        stored.setItems(new ArrayList<>());
+        for (CartItemDto line : carts[0].getItems()) {
+            CartItem item = new CartItem();
+            item.setPrice(line.getPrice());
+            item.setQuantity(line.getQuantity());
+            stored.getItems().add(item);
+        }
+        CartRepository cartRepository = SyntheticCatalog.repository(CartRepository.class, (proxy, method, args) -> {
+            if (method.getName().equals("findByUserId")) {
+                return Optional.of(stored);
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+        cartPricing = new CartPricingService(new CheckoutProperties(), cartRepository, new DpdShippingService());
+    }
+
+    private static MarketplaceUxProperties.Region region(String code, String vat) {
+        MarketplaceUxProperties.Region region = new MarketplaceUxProperties.Region();
+        region.setCode(code);
+        region.setName(code);
+        region.setVat(new BigDecimal(vat));
+        return region;
+    }
+
+    private static CartDto cart(SyntheticCatalog catalog, SplittableRandom random, int lines) {
+        List<CartItemDto> items = new ArrayList<>(lines);
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (int i = 0; i < lines; i++) {
+            CartItemDto item = new CartItemDto();
+            item.setProductId(1L + random.nextInt(catalog.size()));
+            item.setPrice(catalog.product(item.getProductId()).price());
+            item.setQuantity(1 + random.nextInt(2));
+            items.add(item);
+            subtotal = subtotal.add(item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+        }
+        CartDto cart = new CartDto();
+        cart.setUserId(USER_ID);
+        cart.setItems(items);
+        cart.setSubtotal(subtotal);
+        return cart;
+    }
+
+    private BigDecimal nextPrice() {
+        BigDecimal price = prices[nextPrice];
+        nextPrice = nextPrice + 1 == prices.length ? 0 : nextPrice + 1;
+        return price;
+    }
+
+    private CartDto nextCart() {
+        CartDto cart = carts[nextCart];
+        nextCart = (nextCart + 1) & (CARTS - 1);
+        return cart;
+    }
+
+    @Benchmark
+    public BigDecimal displayAmountReferenceRegion() {
+        return displayPrices.toDisplayAmount(nextPrice(), spainWithVat, market);
+    }
+
+    @Benchmark
+    public BigDecimal displayAmountOtherRegion() {
+        return displayPrices.toDisplayAmount(nextPrice(), portugalWithVat, market);
+    }
+
+    @Benchmark
+    public BigDecimal displayAmountWithoutVat() {
+        return displayPrices.toDisplayAmount(nextPrice(), withoutVat, market);
+    }
+
+    @Benchmark
+    public CartDto applyPricingWithoutAddress() {
+        CartDto cart = nextCart();
+        cartPricing.applyPricing(cart, null, null, null, null);
+        return cart;
+    }
+
+    @Benchmark
+    public CartDto applyPricingWithShipping() {
+        CartDto cart = nextCart();
+        cartPricing.applyPricing(cart, USER_ID, "ES", "Madrid", "28001");
+        return cart;
+    }
+}
@@ -0,0 +1,84 @@
+package com.recicar.marketplace.benchmark;
+
+import com.recicar.marketplace.dto.ProductCardDto;
+import com.recicar.marketplace.repository.VendorRatingRepository;
+import com.recicar.marketplace.repository.VendorRepository;
+import com.recicar.marketplace.service.ProductCardAssembler;
+import com.recicar.marketplace.service.SellerRatingCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping a listing page of 24 products, scattered across the catalog, to cards with
+ * {@link ProductCardAssembler}. Repository reads are answered from memory and seller ratings
+ * come from a warm {@link SellerRatingCache}, so this is the per-card mapping cost alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ProductCardBenchmark {
+
+    private static final int PAGE_SIZE = 24;
+    private static final int PAGES = 1024;
+
+    @Param({"10000", "100000", "1000000"})
+    public int catalogSize;
+
+    private ProductCardAssembler assembler;
+    private List<List<Long>> pages;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticCatalog catalog = new SyntheticCatalog(catalogSize);
+        VendorRatingRepository ratings = SyntheticCatalog.repository(VendorRatingRepository.class,
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findAllById")) {
+                        return List.of();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        VendorRepository vendors = SyntheticCatalog.repository(VendorRepository.class, (proxy, method, args) -> {
+            throw new UnsupportedOperationException(method.getName());
+        });
+        assembler = new ProductCardAssembler(catalog.productRepository(), vendors,
+                new SellerRatingCache(ratings, Duration.ofDays(1)));
+
+        SplittableRandom random = new SplittableRandom(42);
+        pages = new ArrayList<>(PAGES);
+        for (int p = 0; p < PAGES; p++) {
+            List<Long> ids = new ArrayList<>(PAGE_SIZE);
+            for (int i = 0; i < PAGE_SIZE; i++) {
+                ids.add(1L + random.nextInt(catalogSize));
+            }
+            pages.add(ids);
+        }
+        pages.forEach(assembler::assemble);
+    }
+
+    @Benchmark
+    public List<ProductCardDto> assemblePage() {
+        List<Long> page = pages.get(next);
+        next = (next + 1) & (PAGES - 1);
+        return assembler.assemble(page);
+    }
+}
@@ -0,0 +1,78 @@
+package com.recicar.marketplace.benchmark;
+
+import com.recicar.marketplace.service.ratelimit.StripedGcraRateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Permits per second through {@link StripedGcraRateLimiter} with the production limits
+ * ({@code app.rate-limit}: 100,000 keys over 64 stripes, search at 120 per minute).
+ * {@code clients} is the number of distinct client IPs: one is every thread contending on a
+ * single key, 1,000,000 keeps the limiter evicting at its key cap.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private static final int MAX_REQUESTS = 120;
+    private static final Duration WINDOW = Duration.ofMinutes(1);
+
+    @State(Scope.Benchmark)
+    public static class Limiter {
+
+        @Param({"1", "10000", "1000000"})
+        public int clients;
+
+        StripedGcraRateLimiter limiter;
+        String[] keys;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            limiter = new StripedGcraRateLimiter(100_000, 64);
+            keys = new String[clients];
+            for (int i = 0; i < clients; i++) {
+                keys[i] = "search:10." + (i >>> 16 & 0xff) + "." + (i >>> 8 & 0xff) + "." + (i & 0xff);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+
+        private final SplittableRandom random = new SplittableRandom();
+
+        String next(Limiter state) {
+            return state.keys[state.keys.length == 1 ? 0 : random.nextInt(state.keys.length)];
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long tryAcquire(Limiter state, Client client) {
+        return state.limiter.tryAcquire(client.next(state), MAX_REQUESTS, WINDOW);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long tryAcquireContended(Limiter state, Client client) {
+        return state.limiter.tryAcquire(client.next(state), MAX_REQUESTS, WINDOW);
+    }
+}
@@ -0,0 +1,82 @@
+package com.recicar.marketplace.benchmark;
+
+import com.recicar.marketplace.service.search.ProductSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First page of {@link ProductSearchIndex} results for typical storefront queries: one common
+ * word, a narrower multi-word query, a part number fragment and an exact part code.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SearchBenchmark {
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 24);
+    private static final Pageable CHEAPEST_FIRST = PageRequest.of(0, 24, Sort.by("price"));
+
+    @Param({"10000", "100000", "1000000"})
+    public int catalogSize;
+
+    private ProductSearchIndex index;
+    private String partNumberFragment;
+    private String partNumber;
+
+    @Setup(Level.Trial)
+    public void buildIndex() {
+        SyntheticCatalog catalog = new SyntheticCatalog(catalogSize);
+        index = new ProductSearchIndex(catalog.productRepository());
+        index.rebuild();
+        if (index.size() != catalogSize) {
+            throw new IllegalStateException("Index holds " + index.size() + " of " + catalogSize + " products");
+        }
+        partNumber = catalog.product(catalogSize / 2).partNumber();
+        partNumberFragment = partNumber.substring(3);
+    }
+
+    @Benchmark
+    public Optional<?> commonWord() {
+        return index.search("faro", FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Optional<?> commonWordByPrice() {
+        return index.search("faro", CHEAPEST_FIRST);
+    }
+
+    @Benchmark
+    public Optional<?> narrowQuery() {
+        return index.search("bomba agua seat", FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Optional<?> partNumberFragment() {
+        return index.search(partNumberFragment, FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Optional<List<Long>> exactPartCode() {
+        return index.findByPartCode(partNumber);
+    }
+}
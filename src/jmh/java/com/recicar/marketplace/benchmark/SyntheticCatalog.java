@@ -0,0 +1,132 @@
+package com.recicar.marketplace.benchmark;
+
+import com.recicar.marketplace.dto.ProductCardRow;
+import com.recicar.marketplace.dto.ProductSnapshot;
+import com.recicar.marketplace.entity.ProductCondition;
+import com.recicar.marketplace.repository.ProductRepository;
+import org.springframework.data.domain.Pageable;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic catalog of {@code size} active products with ids {@code 1..size}, shaped like
+ * the real one: part names built from a small vocabulary, a few hundred vendors, part and OEM
+ * numbers, and prices between 5 and 2,000 euros.
+ * <p>
+ * {@link #productRepository()} answers the queries the benchmarked services run from memory, so
+ * the benchmarks measure the code on top of the database rather than the database.
+ */
+final class SyntheticCatalog {
+
+    static final int VENDORS = 400;
+
+    private static final String[] PARTS = {
+            "Faro", "Piloto", "Retrovisor", "Paragolpes", "Aleta", "Capó", "Puerta", "Alternador",
+            "Motor de arranque", "Compresor", "Radiador", "Bomba de agua", "Turbo", "Caja de cambios",
+            "Embrague", "Amortiguador", "Pinza de freno", "Disco de freno", "Centralita", "Elevalunas"
+    };
+    private static final String[] SIDES = {"delantero", "trasero", "izquierdo", "derecho", ""};
+    private static final String[] MAKES = {
+            "Seat", "Volkswagen", "Renault", "Peugeot", "Citroën", "Ford", "Opel", "Toyota", "BMW", "Audi"
+    };
+    private static final ProductCondition[] CONDITIONS = ProductCondition.values();
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private final ProductSnapshot[] products;
+
+    SyntheticCatalog(int size) {
+        SplittableRandom random = new SplittableRandom(size);
+        products = new ProductSnapshot[size];
+        for (int i = 0; i < size; i++) {
+            long id = i + 1L;
+            String side = SIDES[random.nextInt(SIDES.length)];
+            String name = PARTS[random.nextInt(PARTS.length)] + (side.isEmpty() ? "" : " " + side)
+                    + " " + MAKES[random.nextInt(MAKES.length)];
+            products[i] = new ProductSnapshot(
+                    id,
+                    name,
+                    String.format("%c%c-%06d", 'A' + random.nextInt(26), 'A' + random.nextInt(26), random.nextInt(1_000_000)),
+                    String.format("%010d", random.nextLong(10_000_000_000L)),
+                    BigDecimal.valueOf(500 + random.nextInt(199_500), 2),
+                    CONDITIONS[random.nextInt(CONDITIONS.length)],
+                    random.nextInt(4),
+                    true,
+                    1L + random.nextInt(60),
+                    1L + random.nextInt(VENDORS),
+                    EPOCH.plusMinutes(i));
+        }
+    }
+
+    int size() {
+        return products.length;
+    }
+
+    ProductSnapshot product(long id) {
+        return products[(int) id - 1];
+    }
+
+    BigDecimal[] prices() {
+        return Arrays.stream(products).map(ProductSnapshot::price).toArray(BigDecimal[]::new);
+    }
+
+    /**
+     * Serves the snapshot, card and image queries; any other repository method throws.
+     */
+    ProductRepository productRepository() {
+        return repository(ProductRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "findActiveSnapshotsAfter" -> snapshotsAfter((Long) args[0], (Pageable) args[1]);
+            case "findCardRowsByIdIn" -> cardRows((Collection<?>) args[0]);
+            case "findImageUrlsByProductIdIn" -> imageUrls((Collection<?>) args[0]);
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    /**
+     * A repository of {@code type} backed by {@code handler}, with {@code Object} methods answered
+     * by identity.
+     */
+    static <T> T repository(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) ->
+                switch (method.getName()) {
+                    case "toString" -> type.getSimpleName() + " (synthetic)";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> handler.invoke(proxy, method, args);
+                }));
+    }
+
+    private List<ProductSnapshot> snapshotsAfter(long afterId, Pageable pageable) {
+        int from = (int) Math.min(afterId, products.length);
+        int to = (int) Math.min((long) from + pageable.getPageSize(), products.length);
+        return Arrays.asList(products).subList(from, to);
+    }
+
+    private List<ProductCardRow> cardRows(Collection<?> ids) {
+        // Like WHERE id IN (...), each product once however often it is asked for
+        List<ProductCardRow> rows = new ArrayList<>(ids.size());
+        for (Object id : new LinkedHashSet<>(ids)) {
+            ProductSnapshot p = product((Long) id);
+            rows.add(new ProductCardRow(p.id(), p.name(), p.partNumber(), p.price(), p.condition(),
+                    p.stockQuantity(), p.vendorId(), "Desguace " + p.vendorId()));
+        }
+        return rows;
+    }
+
+    private static List<Object[]> imageUrls(Collection<?> ids) {
+        List<Object[]> rows = new ArrayList<>(ids.size() * 2);
+        for (Object id : ids) {
+            rows.add(new Object[]{id, "https://images.recicar.example/products/" + id + "/1.jpg"});
+            rows.add(new Object[]{id, "https://images.recicar.example/products/" + id + "/2.jpg"});
+        }
+        return rows;
+    }
+}
@@ -1,32 +1,42 @@
 package com.recicar.marketplace.audit;
 
-import org.aspectj.lang.JoinPoint;
-import org.aspectj.lang.annotation.AfterReturning;
-import org.aspectj.lang.annotation.AfterThrowing;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Before;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.stereotype.Component;
 
+/**
+ * Feeds service calls to the {@link AuditTrail}. A call that is not sampled costs one map lookup;
+ * a sampled one adds its timing and a bounded argument summary, but nothing is logged or written
+ * on the calling thread.
+ */
 @Aspect
 @Component
 public class AuditAspect {
 
-    private static final Logger logger = LoggerFactory.getLogger(AuditAspect.class);
+    private final AuditTrail auditTrail;
 
-    @Before("execution(* com.recicar.marketplace.service.*Service.*(..)) && !execution(* com.recicar.marketplace.service.CustomUserDetailsService.*(..))")
-    public void logBefore(JoinPoint joinPoint) {
-        logger.info("Before method: {} with arguments: {}", joinPoint.getSignature().toShortString(), joinPoint.getArgs());
+    public AuditAspect(AuditTrail auditTrail) {
+        this.auditTrail = auditTrail;
     }
 
-    @AfterReturning(pointcut = "execution(* com.recicar.marketplace.service.*Service.*(..)) && !execution(* com.recicar.marketplace.service.CustomUserDetailsService.*(..))", returning = "result")
-    public void logAfterReturning(JoinPoint joinPoint, Object result) {
-        logger.info("After method: {} with result: {}", joinPoint.getSignature().toShortString(), result);
-    }
-
-    @AfterThrowing(pointcut = "execution(* com.recicar.marketplace.service.*Service.*(..)) && !execution(* com.recicar.marketplace.service.CustomUserDetailsService.*(..))", throwing = "error")
-    public void logAfterThrowing(JoinPoint joinPoint, Throwable error) {
-        logger.error("After method: {} with exception: {}", joinPoint.getSignature().toShortString(), error.getMessage());
+    @Around("execution(* com.recicar.marketplace.service..*Service.*(..)) && !execution(* com.recicar.marketplace.service.CustomUserDetailsService.*(..))")
+    public Object audit(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        if (!auditTrail.sample(signature.getMethod())) {
+            return joinPoint.proceed();
+        }
+        long started = System.nanoTime();
+        String outcome = "ok";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            auditTrail.record(signature.getMethod(), signature.getParameterNames(), joinPoint.getArgs(),
+                    System.nanoTime() - started, outcome);
+        }
     }
 }
@@ -0,0 +1,21 @@
+package com.recicar.marketplace.audit;
+
+import java.time.Instant;
+
+/**
+ * One recorded service call.
+ *
+ * @param operation  {@code Type.method} of the service method
+ * @param principal  authenticated user name, or {@code null} outside a request
+ * @param outcome    {@code ok}, or the simple class name of the exception thrown
+ * @param arguments  bounded summary; never the result of {@code toString()} on entities or pages
+ */
+public record AuditEvent(
+        Instant at,
+        String operation,
+        String principal,
+        long durationMicros,
+        String outcome,
+        String arguments
+) {
+}
@@ -0,0 +1,11 @@
+package com.recicar.marketplace.audit;
+
+import java.util.List;
+
+/**
+ * Destination of drained audit events; called from the drain thread only, never on a request.
+ */
+public interface AuditSink {
+
+    void write(List<AuditEvent> events);
+}
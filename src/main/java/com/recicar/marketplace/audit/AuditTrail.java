@@ -0,0 +1,190 @@
+package com.recicar.marketplace.audit;
+
+import com.recicar.marketplace.config.AuditProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.data.domain.Page;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.time.Instant;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Records service calls into an {@link AuditRingBuffer} on the calling thread and hands them to
+ * the {@link AuditSink} from the scheduled drain. Which calls are recorded is decided once per
+ * method: operations in {@code app.audit.always-record} always, everything else at the sampling
+ * rate of its package.
+ * <p>
+ * Argument summaries look at types only: scalars and strings are rendered (truncated),
+ * collections, maps and pages by size, anything else by class name. Nothing is lazily loaded
+ * and no {@code toString()} runs on entities. Parameters named like credentials are masked.
+ */
+@Slf4j
+@Component
+public class AuditTrail {
+
+    static final String SERVICE_PACKAGE = "com.recicar.marketplace.service";
+
+    private static final int DRAIN_BATCH = 1024;
+    private static final int MAX_STRING = 64;
+    private static final Pattern SECRET = Pattern.compile("(?i).*(password|token|secret).*");
+
+    private final AuditSink sink;
+    private final AuditRingBuffer buffer;
+    private final double defaultSampleRate;
+    private final Map<String, Double> sampling;
+    private final Set<String> alwaysRecord;
+    private final int maxArgumentsLength;
+    private final Map<Method, Double> rates = new ConcurrentHashMap<>();
+    private long droppedReported;
+
+    public AuditTrail(AuditSink sink, AuditProperties properties) {
+        this.sink = sink;
+        this.buffer = new AuditRingBuffer(properties.getBufferSize());
+        this.defaultSampleRate = properties.getDefaultSampleRate();
+        this.sampling = Map.copyOf(properties.getSampling());
+        this.alwaysRecord = Set.copyOf(properties.getAlwaysRecord());
+        this.maxArgumentsLength = Math.max(16, properties.getMaxArgumentsLength());
+    }
+
+    /**
+     * Whether this call of {@code method} should be recorded.
+     */
+    public boolean sample(Method method) {
+        double rate = rates.computeIfAbsent(method, this::rateOf);
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    /**
+     * @param parameterNames may be {@code null} when the classes were compiled without them
+     */
+    public void record(Method method, String[] parameterNames, Object[] args, long durationNanos, String outcome) {
+        AuditEvent event = new AuditEvent(Instant.now(), operation(method), principal(), durationNanos / 1000,
+                outcome, summarize(parameterNames, args));
+        buffer.offer(event);
+    }
+
+    /**
+     * Hands everything recorded so far to the sink.
+     *
+     * @return number of events written
+     */
+    public synchronized int drain() {
+        int total = 0;
+        List<AuditEvent> batch = new ArrayList<>(DRAIN_BATCH);
+        while (buffer.drain(batch::add, DRAIN_BATCH) > 0) {
+            sink.write(batch);
+            total += batch.size();
+            batch.clear();
+        }
+        long dropped = buffer.dropped();
+        if (dropped > droppedReported) {
+            log.warn("Audit buffer full; dropped {} events since the previous drain", dropped - droppedReported);
+            droppedReported = dropped;
+        }
+        return total;
+    }
+
+    @PreDestroy
+    public void flush() {
+        try {
+            drain();
+        } catch (RuntimeException e) {
+            log.warn("Flushing the audit buffer on shutdown failed", e);
+        }
+    }
+
+    private double rateOf(Method method) {
+        String type = method.getDeclaringClass().getSimpleName();
+        if (alwaysRecord.contains(type + "." + method.getName()) || alwaysRecord.contains(type + ".*")) {
+            return 1.0;
+        }
+        String pkg = method.getDeclaringClass().getPackageName();
+        String relative = pkg.startsWith(SERVICE_PACKAGE + ".") ? pkg.substring(SERVICE_PACKAGE.length() + 1) : "";
+        // Longest configured package prefix wins
+        while (!relative.isEmpty()) {
+            Double rate = sampling.get(relative);
+            if (rate != null) {
+                return rate;
+            }
+            int dot = relative.lastIndexOf('.');
+            relative = dot > 0 ? relative.substring(0, dot) : "";
+        }
+        return defaultSampleRate;
+    }
+
+    private static String operation(Method method) {
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    }
+
+    private static String principal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+
+    String summarize(String[] parameterNames, Object[] args) {
+        StringBuilder out = new StringBuilder("[");
+        for (int i = 0; i < args.length && out.length() < maxArgumentsLength; i++) {
+            if (i > 0) {
+                out.append(", ");
+            }
+            String name = parameterNames != null && i < parameterNames.length ? parameterNames[i] : null;
+            if (name != null) {
+                out.append(name).append('=');
+            }
+            if (name != null && args[i] != null && SECRET.matcher(name).matches()) {
+                out.append("***");
+            } else {
+                describe(args[i], out);
+            }
+        }
+        if (out.length() >= maxArgumentsLength) {
+            out.setLength(maxArgumentsLength - 3);
+            out.append("...");
+        }
+        return out.append(']').toString();
+    }
+
+    private static void describe(Object value, StringBuilder out) {
+        if (value != null && !Hibernate.isInitialized(value)) {
+            // Uninitialized proxy or lazy collection: name it, never load it
+            out.append(Hibernate.getClassLazy(value).getSimpleName());
+        } else if (value == null || value instanceof Number || value instanceof Boolean || value instanceof Enum<?>
+                || value instanceof Temporal || value instanceof Character) {
+            out.append(value);
+        } else if (value instanceof CharSequence text) {
+            out.append('"');
+            if (text.length() > MAX_STRING) {
+                out.append(text, 0, MAX_STRING).append("...");
+            } else {
+                out.append(text);
+            }
+            out.append('"');
+        } else if (value instanceof Page<?> page) {
+            out.append("Page(").append(page.getNumberOfElements()).append(" of ").append(page.getTotalElements()).append(')');
+        } else if (value instanceof Collection<?> collection) {
+            out.append(collection instanceof List<?> ? "List" : collection instanceof Set<?> ? "Set" : "Collection")
+                    .append("(size=").append(collection.size()).append(')');
+        } else if (value instanceof Map<?, ?> map) {
+            out.append("Map(size=").append(map.size()).append(')');
+        } else if (value.getClass().isArray()) {
+            out.append(value.getClass().getComponentType().getSimpleName())
+                    .append("[").append(Array.getLength(value)).append(']');
+        } else {
+            out.append(Hibernate.getClassLazy(value).getSimpleName());
+        }
+    }
+}
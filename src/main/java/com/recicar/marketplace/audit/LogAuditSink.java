@@ -0,0 +1,29 @@
+package com.recicar.marketplace.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Writes audit events as {@code key=value} lines to the {@code audit} logger, so they can be
+ * routed to their own appender.
+ */
+@Component
+public class LogAuditSink implements AuditSink {
+
+    private static final Logger audit = LoggerFactory.getLogger("audit");
+
+    @Override
+    public void write(List<AuditEvent> events) {
+        if (!audit.isInfoEnabled()) {
+            return;
+        }
+        for (AuditEvent event : events) {
+            audit.info("at={} op={} principal={} outcome={} durationMicros={} args={}",
+                    event.at(), event.operation(), event.principal(), event.outcome(),
+                    event.durationMicros(), event.arguments());
+        }
+    }
+}
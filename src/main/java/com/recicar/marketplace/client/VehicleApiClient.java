@@ -1,12 +1,63 @@
 package com.recicar.marketplace.client;
 
 import com.recicar.marketplace.dto.VehicleInfo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Plate registry client. With {@code app.plate-lookup.registry-url} set it asks
+ * {@code GET {registry-url}/plates/{plate}}, which answers the vehicle as JSON or 404; without
+ * it, a built-in list of demo plates is used. Callers go through
+ * {@code LicensePlateLookupService}, which caches and bounds these calls.
+ */
 @Component
 public class VehicleApiClient {
 
+    private final RestClient restClient;
+
+    public VehicleApiClient() {
+        this.restClient = null;
+    }
+
+    @Autowired
+    public VehicleApiClient(@Value("${app.plate-lookup.registry-url:}") String registryUrl,
+                            @Value("${app.plate-lookup.connect-timeout:2s}") Duration connectTimeout,
+                            @Value("${app.plate-lookup.read-timeout:3s}") Duration readTimeout) {
+        if (registryUrl == null || registryUrl.isBlank()) {
+            this.restClient = null;
+            return;
+        }
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(
+                HttpClient.newBuilder().connectTimeout(connectTimeout).build());
+        requestFactory.setReadTimeout(readTimeout);
+        this.restClient = RestClient.builder()
+                .baseUrl(registryUrl)
+                .requestFactory(requestFactory)
+                .build();
+    }
+
+    /**
+     * @return the vehicle, or {@code null} if the registry does not know the plate
+     * @throws org.springframework.web.client.RestClientException if the registry could not answer
+     */
     public VehicleInfo lookupLicensePlate(String licensePlate) {
+        if (restClient != null) {
+            try {
+                return restClient.get()
+                        .uri("/plates/{plate}", licensePlate)
+                        .retrieve()
+                        .body(VehicleInfo.class);
+            } catch (HttpClientErrorException.NotFound e) {
+                return null;
+            }
+        }
         // Simulate API call to external vehicle database
         if ("ABC123".equals(licensePlate)) {
             VehicleInfo vehicleInfo = new VehicleInfo();
@@ -0,0 +1,81 @@
+package com.recicar.marketplace.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service-call audit trail: which calls are recorded and how much of them is kept.
+ */
+@ConfigurationProperties("app.audit")
+public class AuditProperties {
+
+    /**
+     * Events held between drains; calls recorded while the buffer is full are dropped and counted.
+     */
+    private int bufferSize = 8192;
+
+    /**
+     * Share of calls recorded (0..1) for services without a more specific rate.
+     */
+    private double defaultSampleRate = 0.01;
+
+    /**
+     * Share of calls recorded per sub-package of {@code com.recicar.marketplace.service}
+     * (e.g. {@code search}, {@code auth}); the longest matching package wins.
+     */
+    private Map<String, Double> sampling = new LinkedHashMap<>();
+
+    /**
+     * Security-relevant operations recorded on every call, as {@code Type.method} or {@code Type.*}.
+     */
+    private List<String> alwaysRecord = new ArrayList<>();
+
+    /**
+     * Upper bound on the rendered argument summary per call, in characters.
+     */
+    private int maxArgumentsLength = 256;
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public double getDefaultSampleRate() {
+        return defaultSampleRate;
+    }
+
+    public void setDefaultSampleRate(double defaultSampleRate) {
+        this.defaultSampleRate = defaultSampleRate;
+    }
+
+    public Map<String, Double> getSampling() {
+        return sampling;
+    }
+
+    public void setSampling(Map<String, Double> sampling) {
+        this.sampling = sampling;
+    }
+
+    public List<String> getAlwaysRecord() {
+        return alwaysRecord;
+    }
+
+    public void setAlwaysRecord(List<String> alwaysRecord) {
+        this.alwaysRecord = alwaysRecord;
+    }
+
+    public int getMaxArgumentsLength() {
+        return maxArgumentsLength;
+    }
+
+    public void setMaxArgumentsLength(int maxArgumentsLength) {
+        this.maxArgumentsLength = maxArgumentsLength;
+    }
+}
@@ -1,6 +1,7 @@
 package com.recicar.marketplace.config;
 
 import com.recicar.marketplace.repository.UserRepository;
+import com.recicar.marketplace.security.AuthVersionCache;
 import com.recicar.marketplace.security.SessionAuthVersionFilter;
 import com.recicar.marketplace.service.CustomUserDetailsService;
 import com.recicar.marketplace.service.PostLoginActionsService;
@@ -9,6 +10,7 @@ import com.recicar.marketplace.service.auth.AuthLoginAuditService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -80,8 +82,8 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SessionAuthVersionFilter sessionAuthVersionFilter(UserRepository userRepository) {
-        return new SessionAuthVersionFilter(userRepository);
+    public SessionAuthVersionFilter sessionAuthVersionFilter(AuthVersionCache authVersionCache) {
+        return new SessionAuthVersionFilter(authVersionCache);
     }
 
     @Bean
@@ -165,6 +167,7 @@ public class SecurityConfig {
                         .requestMatchers("/wishlist/**", "/checkout/**", "/my-account/**").authenticated()
                         .requestMatchers("/vendor/**", "/api/vendor/**", "/api/v1/vendor/**").hasAnyRole("VENDOR", "ADMIN")
                         .requestMatchers("/admin/**").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/car-data/reload").hasRole("ADMIN")
                         .anyRequest().permitAll()
                 )
                 .exceptionHandling(ex -> ex
@@ -2,15 +2,19 @@ package com.recicar.marketplace.config;
 
 import com.recicar.marketplace.service.CategoryService;
 import com.recicar.marketplace.entity.Category;
+import com.recicar.marketplace.service.image.ImageStorage;
+import com.recicar.marketplace.web.RateLimitInterceptor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -23,13 +27,21 @@ import org.springframework.lang.Nullable;
 public class WebMvcConfig implements WebMvcConfigurer {
 
     private final CategoryInterceptor categoryInterceptor;
+    private final RateLimitInterceptor rateLimitInterceptor;
+    private final ImageStorage imageStorage;
 
-    public WebMvcConfig(CategoryInterceptor categoryInterceptor) {
+    public WebMvcConfig(CategoryInterceptor categoryInterceptor, RateLimitInterceptor rateLimitInterceptor,
+                        ImageStorage imageStorage) {
         this.categoryInterceptor = categoryInterceptor;
+        this.rateLimitInterceptor = rateLimitInterceptor;
+        this.imageStorage = imageStorage;
     }
 
     @Override
     public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        registry.addInterceptor(rateLimitInterceptor)
+                .addPathPatterns("/search", "/search/**", "/api/v1/search", "/api/v1/search/**",
+                        "/contact", "/contactos");
         registry.addInterceptor(categoryInterceptor);
     }
 
@@ -54,7 +66,12 @@ public class WebMvcConfig implements WebMvcConfigurer {
         registry.addResourceHandler("/fonts/**")
                 .addResourceLocations("classpath:/static/fonts/");
 
-        // Configure upload directory for vendor logos and banners
+        // Content-hashed uploads and their derivatives never change under the same name
+        registry.addResourceHandler(ImageStorage.URL_PREFIX + "**")
+                .addResourceLocations(imageStorage.directory().toUri().toString())
+                .setCacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable());
+
+        // Configure upload directory for vendor logos and banners uploaded before content hashing
         registry.addResourceHandler("/uploads/**")
                 .addResourceLocations("file:uploads/");
     }
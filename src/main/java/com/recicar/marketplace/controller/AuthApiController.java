@@ -12,7 +12,8 @@ import com.recicar.marketplace.service.PostLoginActionsService;
 import com.recicar.marketplace.service.UserService;
 import com.recicar.marketplace.service.auth.AuthLoginAuditService;
 import com.recicar.marketplace.service.auth.EmailVerificationService;
-import com.recicar.marketplace.service.auth.InMemoryAuthRateLimiter;
+import com.recicar.marketplace.service.ratelimit.RateLimiter;
+import com.recicar.marketplace.util.ClientIp;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
@@ -45,7 +46,7 @@ public class AuthApiController {
     private final UserService userService;
     private final PostLoginActionsService postLoginActionsService;
     private final EmailVerificationService emailVerificationService;
-    private final InMemoryAuthRateLimiter rateLimiter;
+    private final RateLimiter rateLimiter;
     private final AuthLoginAuditService authLoginAuditService;
 
     public AuthApiController(
@@ -53,7 +54,7 @@ public class AuthApiController {
             UserService userService,
             PostLoginActionsService postLoginActionsService,
             EmailVerificationService emailVerificationService,
-            InMemoryAuthRateLimiter rateLimiter,
+            RateLimiter rateLimiter,
             AuthLoginAuditService authLoginAuditService) {
         this.authenticationManager = authenticationManager;
         this.userService = userService;
@@ -65,7 +66,7 @@ public class AuthApiController {
 
     @PostMapping("/login")
     public ResponseEntity<?> login(@Valid @RequestBody LoginForm loginForm, HttpServletRequest request) {
-        String ip = clientIp(request);
+        String ip = ClientIp.of(request);
         String bucket = "login:" + ip;
         if (!rateLimiter.allow(bucket, LOGIN_MAX_PER_IP, LOGIN_WINDOW)) {
             return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
@@ -100,7 +101,7 @@ public class AuthApiController {
 
     @PostMapping("/register")
     public ResponseEntity<?> register(@Valid @RequestBody UserRegistrationDto registrationDto, HttpServletRequest request) {
-        String ip = clientIp(request);
+        String ip = ClientIp.of(request);
         if (!rateLimiter.allow("reg:" + ip, REGISTER_MAX_PER_IP, REGISTER_WINDOW)) {
             return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
                     .body(Map.of("message", "Demasiados registros desde esta IP."));
@@ -143,7 +144,7 @@ public class AuthApiController {
 
     @PostMapping("/forgot-password")
     public ResponseEntity<?> forgotPassword(@RequestBody ForgotPasswordRequest body, HttpServletRequest request) {
-        String ip = clientIp(request);
+        String ip = ClientIp.of(request);
         if (!rateLimiter.allow("forgot:" + ip, 5, Duration.ofHours(1))) {
             return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
                     .body(Map.of("message", "Demasiadas solicitudes."));
@@ -167,7 +168,7 @@ public class AuthApiController {
 
     @PostMapping("/resend-verification")
     public ResponseEntity<?> resendVerification(@RequestBody ForgotPasswordRequest body, HttpServletRequest request) {
-        String ip = clientIp(request);
+        String ip = ClientIp.of(request);
         if (!rateLimiter.allow("resend:" + ip, 3, Duration.ofHours(1))) {
             return ResponseEntity.accepted().body(Map.of("message", "Si procede, enviaremos un correo."));
         }
@@ -238,15 +239,4 @@ public class AuthApiController {
         SecurityContextHolder.clearContext();
         return ResponseEntity.ok(Map.of("message", "Cuenta anonimizada."));
     }
-
-    private static String clientIp(HttpServletRequest request) {
-        if (request == null) {
-            return "unknown";
-        }
-        String xff = request.getHeader("X-Forwarded-For");
-        if (xff != null && !xff.isBlank()) {
-            return xff.split(",")[0].trim();
-        }
-        return request.getRemoteAddr();
-    }
 }
@@ -1,34 +1,86 @@
-
 package com.recicar.marketplace.controller;
 
-import com.recicar.marketplace.domain.CarMake;
-import com.recicar.marketplace.domain.CarModel;
-import com.recicar.marketplace.domain.CarTrim;
-import com.recicar.marketplace.service.CarDataService;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.recicar.marketplace.service.CarReferenceData;
+import com.recicar.marketplace.service.CarReferenceDataService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.time.Duration;
+import java.util.Map;
 
+/**
+ * Make, model and trim dropdown data. Bodies come pre-serialized from the in-memory
+ * {@link CarReferenceData}, gzipped when the client accepts it, with a strong ETag, so
+ * revalidations are answered with 304 and no query runs at all.
+ */
 @RestController
 @RequestMapping("/api/car-data")
 public class CarDataApiController {
 
-    @Autowired
-    private CarDataService carDataService;
+    private final CarReferenceDataService carReferenceDataService;
+    private final CacheControl cacheControl;
+
+    public CarDataApiController(CarReferenceDataService carReferenceDataService,
+                                @Value("${app.car-data.max-age:1d}") Duration maxAge) {
+        this.carReferenceDataService = carReferenceDataService;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+    }
 
     @GetMapping("/makes")
-    public List<CarMake> getMakes() {
-        return carDataService.getAllMakes();
+    public ResponseEntity<byte[]> getMakes(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return serve(carReferenceDataService.current().makes(), acceptEncoding);
     }
 
     @GetMapping("/models")
-    public List<CarModel> getModels(@RequestParam("makeId") Long makeId) {
-        return carDataService.getModelsByMake(makeId);
+    public ResponseEntity<byte[]> getModels(@RequestParam("makeId") Long makeId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return serve(carReferenceDataService.current().models(makeId), acceptEncoding);
     }
 
     @GetMapping("/trims")
-    public List<CarTrim> getTrims(@RequestParam("modelId") Long modelId) {
-        return carDataService.getTrimsByModel(modelId);
+    public ResponseEntity<byte[]> getTrims(@RequestParam("modelId") Long modelId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return serve(carReferenceDataService.current().trims(modelId), acceptEncoding);
+    }
+
+    /**
+     * Rebuilds the snapshot after the reference tables were changed outside the application.
+     */
+    @PostMapping("/reload")
+    public Map<String, Integer> reload() {
+        CarReferenceData data = carReferenceDataService.reload();
+        return Map.of("makes", data.makeCount(), "models", data.modelCount(), "trims", data.trimCount());
+    }
+
+    private ResponseEntity<byte[]> serve(CarReferenceData.Json json, String acceptEncoding) {
+        boolean gzip = json.gzipBody() != null && acceptsGzip(acceptEncoding);
+        // A matching If-None-Match turns this into a 304 without a body
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(cacheControl)
+                .eTag(json.etag(gzip))
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(gzip ? json.gzipBody() : json.body());
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
     }
 }
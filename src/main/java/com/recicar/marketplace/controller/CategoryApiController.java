@@ -74,7 +74,7 @@ public class CategoryApiController {
 
     private List<CategoryBreadcrumbItemDto> toBreadcrumb(Category c) {
         return categoryService.getCategoryHierarchy(c).stream()
-                .map(x -> new CategoryBreadcrumbItemDto(x.getName(), x.getSlug()))
+                .map(x -> new CategoryBreadcrumbItemDto(x.name(), x.slug()))
                 .toList();
     }
 }
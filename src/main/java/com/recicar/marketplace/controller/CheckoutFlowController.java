@@ -59,6 +59,7 @@ public class CheckoutFlowController {
             return "redirect:/login";
         }
         cartService.validateCart(user.getId());
+        cartService.reserveCartStock(user.getId());
         model.addAttribute("step", 1);
         model.addAttribute("cart", cartService.getCart(user.getId()));
         model.addAttribute("checkoutForm", CheckoutSessionSupport.getShippingDraft(session));
@@ -93,6 +94,7 @@ public class CheckoutFlowController {
             return "redirect:/checkout/shipping";
         }
         cartService.validateCart(user.getId());
+        cartService.reserveCartStock(user.getId());
         CartDto cart = cartService.getCart(user.getId());
         cartPricingService.applyPricing(
                 cart, user.getId(), ship.getCountry(), ship.getState(), ship.getZipCode());
@@ -1,5 +1,6 @@
 package com.recicar.marketplace.controller;
 
+import com.recicar.marketplace.dto.CursorPage;
 import com.recicar.marketplace.dto.ProductCardDto;
 import com.recicar.marketplace.service.ProductService;
 import org.springframework.data.domain.Page;
@@ -10,12 +11,15 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/products")
 public class ProductListingApiController {
 
+    private static final int MAX_SCROLL_SIZE = 100;
+
     private final ProductService productService;
 
     public ProductListingApiController(ProductService productService) {
@@ -37,6 +41,31 @@ public class ProductListingApiController {
         ));
     }
 
+    /**
+     * Keyset-paginated listing, newest first. Pass the returned {@code nextCursor} to get the
+     * following page; the total is only counted when {@code includeTotal=true}.
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<Map<String, Object>> scroll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal
+    ) {
+        CursorPage<ProductCardDto> result;
+        try {
+            result = productService.getProductCardsAfter(cursor, Math.max(1, Math.min(size, MAX_SCROLL_SIZE)), includeTotal);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("content", result.content());
+        body.put("nextCursor", result.nextCursor());
+        if (result.totalElements() != null) {
+            body.put("totalElements", result.totalElements());
+        }
+        return ResponseEntity.ok(body);
+    }
+
     @GetMapping("/count")
     public ResponseEntity<Map<String, Long>> count() {
         return ResponseEntity.ok(Map.of("count", productService.countActiveProducts()));
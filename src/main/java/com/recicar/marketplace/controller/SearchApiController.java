@@ -1,5 +1,7 @@
 package com.recicar.marketplace.controller;
 
+import com.recicar.marketplace.dto.CursorPage;
+import com.recicar.marketplace.dto.FacetedPage;
 import com.recicar.marketplace.entity.Product;
 import com.recicar.marketplace.entity.SavedSearch;
 import com.recicar.marketplace.entity.User;
@@ -16,6 +18,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -23,6 +26,8 @@ import java.util.Map;
 @RequestMapping("/api/v1")
 public class SearchApiController {
 
+    private static final int MAX_SCROLL_SIZE = 100;
+
     private final SearchService searchService;
     private final UserRepository userRepository;
 
@@ -42,6 +47,33 @@ public class SearchApiController {
         return ResponseEntity.ok(toPageResponse(results));
     }
 
+    /**
+     * Keyset-paginated {@link #search}, newest first. Pass the returned {@code nextCursor} to get
+     * the following page; the total is only counted when {@code includeTotal=true}.
+     */
+    @GetMapping("/search/scroll")
+    public ResponseEntity<Map<String, Object>> searchScroll(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "12") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal
+    ) {
+        CursorPage<Product> results;
+        try {
+            results = searchService.searchProductsAfter(
+                    query, cursor, Math.max(1, Math.min(size, MAX_SCROLL_SIZE)), includeTotal);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("content", results.content().stream().map(this::toItem).toList());
+        body.put("nextCursor", results.nextCursor());
+        if (results.totalElements() != null) {
+            body.put("totalElements", results.totalElements());
+        }
+        return ResponseEntity.ok(body);
+    }
+
     @GetMapping("/search/advanced")
     public ResponseEntity<Map<String, Object>> searchAdvanced(
             @RequestParam(required = false) String query,
@@ -57,10 +89,12 @@ public class SearchApiController {
             @RequestParam(defaultValue = "12") int size
     ) {
         Pageable pageable = toPageable(page, size, sort);
-        Page<Product> results = searchService.searchAdvanced(
+        FacetedPage<Product> results = searchService.searchAdvancedWithFacets(
                 query, brand, model, modification, condition, inStock, minPrice, maxPrice, pageable
         );
-        return ResponseEntity.ok(toPageResponse(results));
+        Map<String, Object> body = new LinkedHashMap<>(toPageResponse(results.page()));
+        body.put("facets", results.facets());
+        return ResponseEntity.ok(body);
     }
 
     @GetMapping("/search/suggestions")
@@ -135,15 +169,7 @@ public class SearchApiController {
 
     private Map<String, Object> toPageResponse(Page<Product> page) {
         List<Map<String, Object>> items = page.getContent().stream()
-                .map(product -> Map.<String, Object>of(
-                        "id", product.getId(),
-                        "name", product.getName(),
-                        "partNumber", product.getPartNumber() == null ? "" : product.getPartNumber(),
-                        "oemNumber", product.getOemNumber() == null ? "" : product.getOemNumber(),
-                        "price", product.getPrice(),
-                        "condition", product.getCondition() == null ? "" : product.getCondition().name(),
-                        "inStock", product.isInStock()
-                ))
+                .map(this::toItem)
                 .toList();
 
         return Map.of(
@@ -155,6 +181,18 @@ public class SearchApiController {
         );
     }
 
+    private Map<String, Object> toItem(Product product) {
+        return Map.of(
+                "id", product.getId(),
+                "name", product.getName(),
+                "partNumber", product.getPartNumber() == null ? "" : product.getPartNumber(),
+                "oemNumber", product.getOemNumber() == null ? "" : product.getOemNumber(),
+                "price", product.getPrice(),
+                "condition", product.getCondition() == null ? "" : product.getCondition().name(),
+                "inStock", product.isInStock()
+        );
+    }
+
     private User resolveUser(UserDetails userDetails) {
         if (userDetails == null) {
             return null;
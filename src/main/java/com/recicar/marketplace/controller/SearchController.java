@@ -1,6 +1,5 @@
 package com.recicar.marketplace.controller;
 
-import com.recicar.marketplace.entity.Category;
 import com.recicar.marketplace.entity.Product;
 import com.recicar.marketplace.entity.ProductCondition;
 import com.recicar.marketplace.service.CategoryService;
@@ -22,7 +21,6 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -184,27 +182,46 @@ public class SearchController {
     }
 
     /**
-     * Search by vehicle compatibility (Make/Model/Engine Type)
+     * Search by vehicle compatibility (Make/Model/Engine Type). With a model year (plate lookups)
+     * the engine is optional and the fitment index answers the query. The optional part name
+     * narrows either kind of search.
      */
     @GetMapping("/vehicle")
     public String searchByVehicle(
             @RequestParam("make") String make,
             @RequestParam("model") String model,
-            @RequestParam("engineType") String engineType,
+            @RequestParam(value = "engineType", required = false) String engineType,
+            @RequestParam(value = "year", required = false) Integer year,
             @RequestParam(value = "partName", required = false) String partName,
             @RequestParam(value = "page", defaultValue = "0") int page,
             Model modelAttr
     ) {
-        if (make == null || make.isBlank() || model == null || model.isBlank() || engineType == null || engineType.isBlank()) {
+        boolean byYear = year != null;
+        if (make == null || make.isBlank() || model == null || model.isBlank()
+                || (!byYear && (engineType == null || engineType.isBlank()))) {
             modelAttr.addAttribute("errorMessage", "Make, Model and Engine Type are required");
             shopListingModelHelper.putEmptyListing(modelAttr);
             modelAttr.addAttribute("categories", categoryService.findRootCategories());
             return "shop-list";
         }
 
-        Page<Product> productPage = productService.findByMakeModelEngineAndPartName(
-                make.trim(), model.trim(), engineType.trim(), partName,
-                PageRequest.of(page, ShopListingConstants.PAGE_SIZE));
+        Page<Product> productPage;
+        if (byYear) {
+            try {
+                productPage = searchService.searchByVehicleCompatibility(
+                        make, model, engineType, year, partName, PageRequest.of(page, ShopListingConstants.PAGE_SIZE));
+            } catch (IllegalArgumentException e) {
+                modelAttr.addAttribute("errorMessage", e.getMessage());
+                shopListingModelHelper.putEmptyListing(modelAttr);
+                modelAttr.addAttribute("categories", categoryService.findRootCategories());
+                return "shop-list";
+            }
+            modelAttr.addAttribute("vehicleYear", year);
+        } else {
+            productPage = productService.findByMakeModelEngineAndPartName(
+                    make.trim(), model.trim(), engineType.trim(), partName,
+                    PageRequest.of(page, ShopListingConstants.PAGE_SIZE));
+        }
 
         shopListingModelHelper.putPagedListing(modelAttr, productPage);
         modelAttr.addAttribute("vehicleMake", make);
@@ -241,9 +258,8 @@ public class SearchController {
                 .map(category -> {
                     Page<Product> productPage;
 
-                    if (!category.getChildren().isEmpty()) {
-                        List<Long> categoryIds = new ArrayList<>();
-                        collectCategoryAndChildrenIds(category, categoryIds);
+                    List<Long> categoryIds = categoryService.findSubtreeIds(category.getId());
+                    if (categoryIds.size() > 1) {
                         productPage = productService.findByCategoryIds(
                                 categoryIds, PageRequest.of(page, ShopListingConstants.PAGE_SIZE));
                         model.addAttribute("selectedCategoryIds", categoryIds);
@@ -269,13 +285,6 @@ public class SearchController {
                 });
     }
 
-    private void collectCategoryAndChildrenIds(Category category, List<Long> categoryIds) {
-        categoryIds.add(category.getId());
-        for (Category child : category.getChildren()) {
-            collectCategoryAndChildrenIds(child, categoryIds);
-        }
-    }
-
     /**
      * Search by multiple categories (for advanced filtering)
      */
@@ -1,15 +1,17 @@
 package com.recicar.marketplace.controller;
 
 import com.recicar.marketplace.service.SitemapService;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.util.List;
 
 /**
  * Robots and XML sitemap for search engines.
@@ -17,6 +19,8 @@ import java.util.List;
 @RestController
 public class SeoController {
 
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+
     private final SitemapService sitemapService;
 
     public SeoController(SitemapService sitemapService) {
@@ -24,8 +28,8 @@ public class SeoController {
     }
 
     @GetMapping(value = "/robots.txt", produces = MediaType.TEXT_PLAIN_VALUE)
-    public ResponseEntity<String> robots(HttpServletRequest request) {
-        String base = ServletUriComponentsBuilder.fromContextPath(request).toUriString();
+    public ResponseEntity<String> robots() {
+        String base = sitemapService.baseUrl();
         String body = "User-agent: *\n"
                 + "Disallow: /api/\n"
                 + "Disallow: /user-dashboard\n"
@@ -40,33 +44,22 @@ public class SeoController {
                 .body(body);
     }
 
+    /**
+     * Sitemap index, streamed; the child sitemaps are served by {@link #sitemapShard}.
+     */
     @GetMapping(value = "/sitemap.xml", produces = MediaType.APPLICATION_XML_VALUE)
-    public ResponseEntity<String> sitemap(HttpServletRequest request) {
-        String base = ServletUriComponentsBuilder.fromContextPath(request).toUriString();
-        List<String> paths = sitemapService.allPathsForSitemap();
-        StringBuilder xml = new StringBuilder();
-        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
-        xml.append("<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">\n");
-        for (String path : paths) {
-            String loc = base + (path.startsWith("/") ? path : "/" + path);
-            xml.append("  <url><loc>");
-            xml.append(escapeXml(loc));
-            xml.append("</loc></url>\n");
-        }
-        xml.append("</urlset>");
-        return ResponseEntity.ok()
-                .contentType(new MediaType(MediaType.APPLICATION_XML, StandardCharsets.UTF_8))
-                .body(xml.toString());
+    public void sitemap(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_XML_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        sitemapService.writeIndex(response.getOutputStream());
     }
 
-    private static String escapeXml(String s) {
-        if (s == null) {
-            return "";
-        }
-        return s.replace("&", "&amp;")
-                .replace("<", "&lt;")
-                .replace(">", "&gt;")
-                .replace("\"", "&quot;")
-                .replace("'", "&apos;");
+    @GetMapping("/sitemaps/{name}.xml.gz")
+    public ResponseEntity<Resource> sitemapShard(@PathVariable("name") String name) throws IOException {
+        return sitemapService.shardFile(name)
+                .map(file -> ResponseEntity.ok()
+                        .contentType(GZIP)
+                        .<Resource>body(new FileSystemResource(file)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 }
@@ -1,21 +1,27 @@
 package com.recicar.marketplace.controller;
 
+import com.recicar.marketplace.dto.BulkInventoryResult;
 import com.recicar.marketplace.dto.VendorOrderListItemDto;
 import com.recicar.marketplace.dto.VendorPanelSummaryDto;
 import com.recicar.marketplace.entity.Vendor;
 import com.recicar.marketplace.service.ProductService;
 import com.recicar.marketplace.service.VendorContextService;
+import com.recicar.marketplace.service.VendorInventoryBulkService;
 import com.recicar.marketplace.service.VendorOrderMetricsService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
 import java.util.Map;
 
 /**
@@ -28,14 +34,17 @@ public class VendorApiController {
     private final VendorContextService vendorContextService;
     private final ProductService productService;
     private final VendorOrderMetricsService vendorOrderMetricsService;
+    private final VendorInventoryBulkService vendorInventoryBulkService;
 
     public VendorApiController(
             VendorContextService vendorContextService,
             ProductService productService,
-            VendorOrderMetricsService vendorOrderMetricsService) {
+            VendorOrderMetricsService vendorOrderMetricsService,
+            VendorInventoryBulkService vendorInventoryBulkService) {
         this.vendorContextService = vendorContextService;
         this.productService = productService;
         this.vendorOrderMetricsService = vendorOrderMetricsService;
+        this.vendorInventoryBulkService = vendorInventoryBulkService;
     }
 
     /** Same payload as {@link #getSummary(UserDetails)} — REST alias for dashboards / mobile clients. */
@@ -84,4 +93,27 @@ public class VendorApiController {
         Page<VendorOrderListItemDto> orders = vendorOrderMetricsService.getOrderListItemPage(vendor, page, size);
         return ResponseEntity.ok(orders.getContent());
     }
+
+    /**
+     * Bulk stock/price update for the seller's own products. Body: JSON array of
+     * {@code {"productId": 1, "stockQuantity": 3, "price": 45.00}}, read as a stream; omitted
+     * fields stay unchanged. Responds 400 with the partial summary if the body cannot be read to the end.
+     */
+    @PostMapping(value = "/inventory/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> bulkUpdateInventory(
+            @AuthenticationPrincipal UserDetails userDetails,
+            HttpServletRequest request) throws IOException {
+        if (userDetails == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "Authentication required"));
+        }
+        Vendor vendor = vendorContextService.findVendorForUserDetails(userDetails).orElse(null);
+        if (vendor == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", "No vendor account linked to this user"));
+        }
+        BulkInventoryResult result = vendorInventoryBulkService.apply(vendor, request.getInputStream());
+        if (result.error() != null) {
+            return ResponseEntity.badRequest().body(result);
+        }
+        return ResponseEntity.ok(result);
+    }
 }
@@ -0,0 +1,133 @@
+package com.recicar.marketplace.controller;
+
+import com.recicar.marketplace.dto.CatalogImportProgress;
+import com.recicar.marketplace.entity.CatalogImport;
+import com.recicar.marketplace.entity.CatalogImportFormat;
+import com.recicar.marketplace.entity.Vendor;
+import com.recicar.marketplace.service.VendorContextService;
+import com.recicar.marketplace.service.catalogimport.CatalogImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Catalog feed imports for the seller panel. A feed is uploaded as the raw request body
+ * ({@code text/csv} or {@code application/json}), queued, and imported in the background;
+ * clients poll {@code GET /{id}} for progress.
+ */
+@RestController
+@RequestMapping("/api/v1/vendor/catalog-imports")
+public class VendorCatalogImportApiController {
+
+    private final VendorContextService vendorContextService;
+    private final CatalogImportService catalogImportService;
+
+    public VendorCatalogImportApiController(VendorContextService vendorContextService,
+                                            CatalogImportService catalogImportService) {
+        this.vendorContextService = vendorContextService;
+        this.catalogImportService = catalogImportService;
+    }
+
+    @PostMapping
+    public ResponseEntity<?> upload(@AuthenticationPrincipal UserDetails userDetails,
+                                    HttpServletRequest request) throws IOException {
+        if (userDetails == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "Authentication required"));
+        }
+        Vendor vendor = vendorContextService.findVendorForUserDetails(userDetails).orElse(null);
+        if (vendor == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", "No vendor account linked to this user"));
+        }
+        CatalogImportFormat format = format(request.getContentType());
+        if (format == null) {
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+                    .body(Map.of("message", "Upload the feed as text/csv or application/json"));
+        }
+        try {
+            CatalogImport job = catalogImportService.stage(vendor, format, request.getInputStream());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(CatalogImportProgress.of(job, List.of()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<?> list(@AuthenticationPrincipal UserDetails userDetails,
+                                  @RequestParam(defaultValue = "20") int size) {
+        if (userDetails == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "Authentication required"));
+        }
+        Vendor vendor = vendorContextService.findVendorForUserDetails(userDetails).orElse(null);
+        if (vendor == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", "No vendor account linked to this user"));
+        }
+        return ResponseEntity.ok(catalogImportService.recent(vendor, Math.min(Math.max(size, 1), 100)));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> progress(@AuthenticationPrincipal UserDetails userDetails, @PathVariable Long id) {
+        if (userDetails == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "Authentication required"));
+        }
+        Vendor vendor = vendorContextService.findVendorForUserDetails(userDetails).orElse(null);
+        if (vendor == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", "No vendor account linked to this user"));
+        }
+        return catalogImportService.progress(vendor, id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /** Queues a failed import again; it continues after the last line it committed. */
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<?> resume(@AuthenticationPrincipal UserDetails userDetails, @PathVariable Long id) {
+        if (userDetails == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "Authentication required"));
+        }
+        Vendor vendor = vendorContextService.findVendorForUserDetails(userDetails).orElse(null);
+        if (vendor == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", "No vendor account linked to this user"));
+        }
+        try {
+            return catalogImportService.resume(vendor, id)
+                    .<ResponseEntity<?>>map(job -> ResponseEntity.status(HttpStatus.ACCEPTED)
+                            .body(CatalogImportProgress.of(job, List.of())))
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    private static CatalogImportFormat format(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        MediaType mediaType;
+        try {
+            mediaType = MediaType.parseMediaType(contentType);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        String subtype = mediaType.getSubtype();
+        if (subtype.equals("json") || subtype.endsWith("+json")) {
+            return CatalogImportFormat.JSON;
+        }
+        if (subtype.equals("csv") || MediaType.TEXT_PLAIN.equalsTypeAndSubtype(mediaType)) {
+            return CatalogImportFormat.CSV;
+        }
+        return null;
+    }
+}
@@ -63,7 +63,7 @@ public class VendorProductFormController {
         if (!product.getVendor().getId().equals(vendor.getId())) {
             throw new ResponseStatusException(FORBIDDEN, "Not allowed to edit this product");
         }
-        model.addAttribute("productRequest", toRequest(product));
+        model.addAttribute("productRequest", toRequest(product, productService.getStockOnHand(product)));
         model.addAttribute("categories", categoryService.findAllActive());
         model.addAttribute("conditions", ProductCondition.values());
         model.addAttribute("pageTitle", "Edit product");
@@ -90,7 +90,7 @@ public class VendorProductFormController {
         return "redirect:/vendor/inventory";
     }
 
-    private static ProductRequest toRequest(Product p) {
+    private static ProductRequest toRequest(Product p, int stockOnHand) {
         ProductRequest r = new ProductRequest();
         r.setId(p.getId());
         r.setVendorId(p.getVendor().getId());
@@ -101,7 +101,7 @@ public class VendorProductFormController {
         r.setPartNumber(p.getPartNumber());
         r.setOemNumber(p.getOemNumber());
         r.setCondition(p.getCondition());
-        r.setStockQuantity(p.getStockQuantity());
+        r.setStockQuantity(stockOnHand);
         r.setWeightKg(p.getWeightKg());
         r.setActive(p.isActive());
         return r;
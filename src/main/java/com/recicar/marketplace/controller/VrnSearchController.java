@@ -1,7 +1,7 @@
 package com.recicar.marketplace.controller;
 
-import com.recicar.marketplace.client.VehicleApiClient;
 import com.recicar.marketplace.dto.VehicleInfo;
+import com.recicar.marketplace.service.LicensePlateLookupService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -9,40 +9,49 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.util.concurrent.CompletableFuture;
+
 @Controller
 @RequiredArgsConstructor
 public class VrnSearchController {
 
-    private final VehicleApiClient vehicleApiClient;
+    private final LicensePlateLookupService licensePlateLookupService;
 
+    /**
+     * Completes asynchronously, so a slow plate registry holds no servlet thread.
+     */
     @GetMapping("/vrn")
-    public String handleVrnSearch(@RequestParam("reg") String reg,
-                                  @RequestParam(value = "partType", required = false) String partType,
-                                  RedirectAttributes redirectAttributes) {
+    public CompletableFuture<String> handleVrnSearch(@RequestParam("reg") String reg,
+                                                     @RequestParam(value = "partType", required = false) String partType,
+                                                     RedirectAttributes redirectAttributes) {
         if (reg == null || reg.trim().isEmpty()) {
             redirectAttributes.addFlashAttribute("errorMessage", "Please enter a valid registration number.");
-            return "redirect:/";
-        }
-
-        VehicleInfo info = vehicleApiClient.lookupLicensePlate(reg.trim().toUpperCase());
-        if (info == null) {
-            redirectAttributes.addFlashAttribute("errorMessage", "We couldn't find that registration. Please check and try again.");
-            return "redirect:/";
+            return CompletableFuture.completedFuture("redirect:/");
         }
 
-        // Engine unknown from VRN mock; pass placeholder to satisfy validation
-        String engine = "unknown";
+        return licensePlateLookupService.lookupAsync(reg).thenApply(result -> switch (result.status()) {
+            case FOUND -> redirectToVehicleSearch(result.vehicle());
+            case NOT_FOUND -> {
+                redirectAttributes.addFlashAttribute("errorMessage", "We couldn't find that registration. Please check and try again.");
+                yield "redirect:/";
+            }
+            case UNAVAILABLE -> {
+                redirectAttributes.addFlashAttribute("errorMessage", "Registration lookup is temporarily unavailable. Please try again in a moment.");
+                yield "redirect:/";
+            }
+        });
+    }
 
+    private static String redirectToVehicleSearch(VehicleInfo info) {
+        // The plate gives no engine; make/model/year is answered from the fitment index
         String redirectUrl = UriComponentsBuilder
-                .fromPath("/products/vehicle")
+                .fromPath("/search/vehicle")
                 .queryParam("make", info.getMake())
                 .queryParam("model", info.getModel())
                 .queryParam("year", info.getYear())
-                .queryParam("engine", engine)
                 .build()
                 .toUriString();
 
         return "redirect:" + redirectUrl;
     }
 }
-
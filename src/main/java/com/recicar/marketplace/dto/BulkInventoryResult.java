@@ -0,0 +1,22 @@
+package com.recicar.marketplace.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk inventory upload. Every row not listed in {@code rejectedRows} was applied;
+ * the list is capped, {@code rejected} is not. {@code error} is set when the upload stopped early,
+ * on an unreadable payload or a chunk the database refused; rows before that point were applied.
+ */
+public record BulkInventoryResult(
+        int received,
+        int updated,
+        int rejected,
+        long elapsedMillis,
+        double rowsPerSecond,
+        List<BulkInventoryRowError> rejectedRows,
+        String error
+) {
+    public BulkInventoryResult {
+        rejectedRows = List.copyOf(rejectedRows);
+    }
+}
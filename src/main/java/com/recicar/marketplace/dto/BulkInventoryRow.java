@@ -0,0 +1,9 @@
+package com.recicar.marketplace.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * One line of a vendor's bulk inventory upload. {@code null} fields are left unchanged.
+ */
+public record BulkInventoryRow(Long productId, Integer stockQuantity, BigDecimal price) {
+}
@@ -0,0 +1,7 @@
+package com.recicar.marketplace.dto;
+
+/**
+ * A rejected upload line; {@code row} is its zero-based position in the payload.
+ */
+public record BulkInventoryRowError(int row, Long productId, String reason) {
+}
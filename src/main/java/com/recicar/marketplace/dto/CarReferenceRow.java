@@ -0,0 +1,12 @@
+package com.recicar.marketplace.dto;
+
+/**
+ * Scalar copy of a car make, model or trim row; {@code parentId} is the make of a model and the
+ * model of a trim, {@code null} for makes.
+ */
+public record CarReferenceRow(
+        long id,
+        Long parentId,
+        String name
+) {
+}
@@ -0,0 +1,45 @@
+package com.recicar.marketplace.dto;
+
+import com.recicar.marketplace.entity.CatalogImport;
+import com.recicar.marketplace.entity.CatalogImportFormat;
+import com.recicar.marketplace.entity.CatalogImportStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Progress of a catalog feed import as shown to the vendor. {@code rowsCommitted} is the resume
+ * point; {@code rowErrors} holds the first rejected lines only, {@code rejected} counts them all.
+ */
+public record CatalogImportProgress(
+        Long id,
+        CatalogImportFormat format,
+        CatalogImportStatus status,
+        int rowsCommitted,
+        int created,
+        int updated,
+        int rejected,
+        double rowsPerSecond,
+        LocalDateTime createdAt,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt,
+        String error,
+        List<CatalogImportRowError> rowErrors
+) {
+
+    public static CatalogImportProgress of(CatalogImport job, List<CatalogImportRowError> rowErrors) {
+        return new CatalogImportProgress(job.getId(), job.getFormat(), job.getStatus(), job.getRowsCommitted(),
+                job.getCreatedCount(), job.getUpdatedCount(), job.getRejectedCount(), rowsPerSecond(job),
+                job.getCreatedAt(), job.getStartedAt(), job.getFinishedAt(), job.getError(), List.copyOf(rowErrors));
+    }
+
+    private static double rowsPerSecond(CatalogImport job) {
+        LocalDateTime until = job.getFinishedAt() != null ? job.getFinishedAt() : job.getHeartbeatAt();
+        if (job.getStartedAt() == null || until == null) {
+            return 0.0;
+        }
+        long millis = Duration.between(job.getStartedAt(), until).toMillis();
+        return millis > 0 ? job.getRowsCommitted() * 1000.0 / millis : 0.0;
+    }
+}
@@ -0,0 +1,26 @@
+package com.recicar.marketplace.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * One product line of a vendor catalog feed, as read from CSV or JSON. {@code images} and
+ * {@code fitments} replace the product's current ones when present and leave them alone when {@code null}.
+ */
+public record CatalogImportRow(
+        String partNumber,
+        String oemNumber,
+        String name,
+        String description,
+        String category,
+        BigDecimal price,
+        String condition,
+        Integer stockQuantity,
+        BigDecimal weightKg,
+        List<String> images,
+        List<Fitment> fitments
+) {
+
+    public record Fitment(String make, String model, Integer yearFrom, Integer yearTo, String engine) {
+    }
+}
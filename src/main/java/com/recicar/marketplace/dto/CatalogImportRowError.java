@@ -0,0 +1,7 @@
+package com.recicar.marketplace.dto;
+
+/**
+ * A rejected catalog feed line; {@code rowNumber} counts data lines from 1.
+ */
+public record CatalogImportRowError(int rowNumber, String reason) {
+}
@@ -0,0 +1,36 @@
+package com.recicar.marketplace.dto;
+
+import com.recicar.marketplace.entity.ProductCondition;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * A validated catalog feed line with its category and vehicle makes resolved, ready to be
+ * written. {@code images} and {@code fitments} are {@code null} when the feed leaves them unchanged.
+ */
+public record CatalogProductRow(
+        int rowNumber,
+        String partNumber,
+        String oemNumber,
+        String partNumberNormalized,
+        String oemNumberNormalized,
+        String name,
+        String description,
+        Long categoryId,
+        BigDecimal price,
+        ProductCondition condition,
+        int stockQuantity,
+        BigDecimal weightKg,
+        List<String> images,
+        List<CatalogImportRow.Fitment> fitments
+) {
+
+    /**
+     * Deduplication key within a vendor's catalog: the normalized part number, or the normalized
+     * OEM number for parts listed without one.
+     */
+    public String dedupKey() {
+        return partNumberNormalized != null ? "P:" + partNumberNormalized : "O:" + oemNumberNormalized;
+    }
+}
@@ -0,0 +1,14 @@
+package com.recicar.marketplace.dto;
+
+/**
+ * Scalar copy of a category row, the input of the in-memory category tree.
+ */
+public record CategoryTreeRow(
+        Long id,
+        Long parentId,
+        String name,
+        String slug,
+        boolean active,
+        Integer sortOrder
+) {
+}
@@ -0,0 +1,10 @@
+package com.recicar.marketplace.dto;
+
+import java.util.List;
+
+/**
+ * One keyset page. {@code nextCursor} is {@code null} on the last page; {@code totalElements}
+ * is {@code null} unless the caller asked for it.
+ */
+public record CursorPage<T>(List<T> content, String nextCursor, Long totalElements) {
+}
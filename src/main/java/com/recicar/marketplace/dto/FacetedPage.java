@@ -0,0 +1,9 @@
+package com.recicar.marketplace.dto;
+
+import org.springframework.data.domain.Page;
+
+/**
+ * A page of search results together with the facet counts of the whole result set.
+ */
+public record FacetedPage<T>(Page<T> page, SearchFacets facets) {
+}
@@ -0,0 +1,23 @@
+package com.recicar.marketplace.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Immutable set of product rails rendered on the home page.
+ */
+public record HomePageContent(
+        List<HomeRailProduct> latest,
+        List<HomeRailProduct> bodyParts,
+        List<HomeRailProduct> engineParts,
+        LocalDateTime builtAt
+) {
+
+    public static final HomePageContent EMPTY = new HomePageContent(List.of(), List.of(), List.of(), null);
+
+    public HomePageContent {
+        latest = List.copyOf(latest);
+        bodyParts = List.copyOf(bodyParts);
+        engineParts = List.copyOf(engineParts);
+    }
+}
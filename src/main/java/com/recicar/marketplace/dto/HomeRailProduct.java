@@ -0,0 +1,36 @@
+package com.recicar.marketplace.dto;
+
+import com.recicar.marketplace.entity.Product;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Scalar copy of a product as shown in a home-page rail; safe to keep in the home-page
+ * snapshot after the persistence context is closed.
+ */
+public record HomeRailProduct(
+        Long id,
+        String name,
+        String categoryName,
+        BigDecimal price,
+        Integer discount,
+        String primaryImageUrl,
+        String secondaryImageUrl
+) {
+
+    /**
+     * @param imageUrls the product's image URLs, primary image first
+     */
+    public static HomeRailProduct of(Product product, List<String> imageUrls) {
+        return new HomeRailProduct(
+                product.getId(),
+                product.getName(),
+                product.getCategory() != null ? product.getCategory().getName() : null,
+                product.getPrice(),
+                product.getDiscount(),
+                imageUrls.isEmpty() ? null : imageUrls.get(0),
+                imageUrls.size() > 1 ? imageUrls.get(1) : null
+        );
+    }
+}
@@ -0,0 +1,32 @@
+package com.recicar.marketplace.dto;
+
+/**
+ * Outcome of a licence plate lookup. {@code vehicle} is set for {@link Status#FOUND} only.
+ */
+public record PlateLookupResult(
+        Status status,
+        VehicleInfo vehicle
+) {
+
+    public enum Status {
+        FOUND,
+        NOT_FOUND,
+        /** The registry failed, timed out or was saturated; worth retrying later. */
+        UNAVAILABLE
+    }
+
+    private static final PlateLookupResult NOT_FOUND = new PlateLookupResult(Status.NOT_FOUND, null);
+    private static final PlateLookupResult UNAVAILABLE = new PlateLookupResult(Status.UNAVAILABLE, null);
+
+    public static PlateLookupResult found(VehicleInfo vehicle) {
+        return new PlateLookupResult(Status.FOUND, vehicle);
+    }
+
+    public static PlateLookupResult notFound() {
+        return NOT_FOUND;
+    }
+
+    public static PlateLookupResult unavailable() {
+        return UNAVAILABLE;
+    }
+}
@@ -0,0 +1,25 @@
+package com.recicar.marketplace.dto;
+
+import com.recicar.marketplace.entity.ProductCondition;
+
+import java.math.BigDecimal;
+
+/**
+ * Product and vendor columns needed to render a listing card, read in one set-based query
+ * instead of walking the entity graph card by card.
+ */
+public record ProductCardRow(
+        Long id,
+        String name,
+        String partNumber,
+        BigDecimal price,
+        ProductCondition condition,
+        Integer stockQuantity,
+        Long vendorId,
+        String sellerName
+) {
+
+    public boolean inStock() {
+        return stockQuantity != null && stockQuantity > 0;
+    }
+}
@@ -0,0 +1,72 @@
+package com.recicar.marketplace.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Keyset position in a newest-first product listing: the {@code (createdAt, id)} of the last
+ * row a client has seen. Clients only ever see the opaque {@link #encode()} form.
+ */
+public record ProductCursor(LocalDateTime createdAt, Long id) {
+
+    public ProductCursor {
+        createdAt = storedPrecision(createdAt);
+    }
+
+    /**
+     * Position before the newest product; every row sorts after it.
+     */
+    public static final ProductCursor START = new ProductCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    /**
+     * Parses a cursor previously produced by {@link #encode()}; {@code null} or blank means {@link #START}.
+     *
+     * @throws IllegalArgumentException if the token was not produced by this class
+     */
+    public static ProductCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new ProductCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Whether a row at {@code (rowCreatedAt, rowId)} comes after this position in
+     * {@code createdAt DESC, id DESC} order, compared the way PostgreSQL evaluates
+     * {@code (created_at, id) < (:createdAt, :id)}: at microsecond precision, and never for a
+     * row without {@code createdAt}, since the row comparison is then {@code NULL}.
+     */
+    public boolean precedes(LocalDateTime rowCreatedAt, Long rowId) {
+        if (rowCreatedAt == null || createdAt == null) {
+            return false;
+        }
+        int byDate = storedPrecision(rowCreatedAt).compareTo(createdAt);
+        return byDate < 0 || (byDate == 0 && rowId < id);
+    }
+
+    /**
+     * {@code value} at the precision PostgreSQL stores timestamps with, so in-memory
+     * comparisons agree with the database on ties.
+     */
+    public static LocalDateTime storedPrecision(LocalDateTime value) {
+        return value != null ? value.truncatedTo(ChronoUnit.MICROS) : null;
+    }
+}
@@ -0,0 +1,46 @@
+package com.recicar.marketplace.dto;
+
+import com.recicar.marketplace.entity.Product;
+import com.recicar.marketplace.entity.ProductCondition;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Scalar copy of a product row used by the in-memory catalog structures; safe to keep
+ * after the persistence context is closed.
+ */
+public record ProductSnapshot(
+        Long id,
+        String name,
+        String partNumber,
+        String oemNumber,
+        BigDecimal price,
+        ProductCondition condition,
+        Integer stockQuantity,
+        boolean active,
+        Long categoryId,
+        Long vendorId,
+        LocalDateTime createdAt
+) {
+
+    public static ProductSnapshot of(Product product) {
+        return new ProductSnapshot(
+                product.getId(),
+                product.getName(),
+                product.getPartNumber(),
+                product.getOemNumber(),
+                product.getPrice(),
+                product.getCondition(),
+                product.getStockQuantity(),
+                product.isActive(),
+                product.getCategory() != null ? product.getCategory().getId() : null,
+                product.getVendor() != null ? product.getVendor().getId() : null,
+                product.getCreatedAt()
+        );
+    }
+
+    public boolean inStock() {
+        return stockQuantity != null && stockQuantity > 0;
+    }
+}
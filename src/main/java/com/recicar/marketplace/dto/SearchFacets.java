@@ -0,0 +1,21 @@
+package com.recicar.marketplace.dto;
+
+import java.util.Map;
+
+/**
+ * Result counts per facet value for an advanced search. Each facet is counted with every
+ * other active filter applied but not its own, so the UI can show the alternatives.
+ * Models are only listed once a make is selected.
+ */
+public record SearchFacets(
+        Map<String, Long> condition,
+        Map<String, Long> make,
+        Map<String, Long> model,
+        Map<String, Long> priceRange,
+        Map<String, Long> inStock
+) {
+
+    public static SearchFacets empty() {
+        return new SearchFacets(Map.of(), Map.of(), Map.of(), Map.of(), Map.of());
+    }
+}
@@ -0,0 +1,19 @@
+package com.recicar.marketplace.dto;
+
+import com.recicar.marketplace.entity.VendorRating;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Seller rating shown on cards and product pages. {@code refreshedAt} is when the snapshot row
+ * was computed, {@code null} for vendors without metrics.
+ */
+public record SellerRating(BigDecimal rating, boolean topSeller, Instant refreshedAt) {
+
+    public static final SellerRating DEFAULT = new SellerRating(new BigDecimal("4.00"), false, null);
+
+    public static SellerRating of(VendorRating row) {
+        return new SellerRating(row.getRating(), row.isTopSeller(), row.getRefreshedAt());
+    }
+}
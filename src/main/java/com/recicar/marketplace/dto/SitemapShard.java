@@ -0,0 +1,10 @@
+package com.recicar.marketplace.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A child sitemap listed in the sitemap index. {@code fingerprint} changes whenever the URLs in
+ * the shard do, so a cached copy is reused as long as it matches.
+ */
+public record SitemapShard(String name, String fingerprint, LocalDateTime lastModified) {
+}
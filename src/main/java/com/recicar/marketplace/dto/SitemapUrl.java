@@ -0,0 +1,9 @@
+package com.recicar.marketplace.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One sitemap entry: a site-relative path and, where the page's source row has one, its last change.
+ */
+public record SitemapUrl(String path, LocalDateTime lastModified) {
+}
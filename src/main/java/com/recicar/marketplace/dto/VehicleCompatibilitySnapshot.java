@@ -0,0 +1,29 @@
+package com.recicar.marketplace.dto;
+
+import com.recicar.marketplace.entity.VehicleCompatibility;
+
+/**
+ * Scalar copy of a vehicle fitment row used by the in-memory catalog structures.
+ */
+public record VehicleCompatibilitySnapshot(
+        Long id,
+        Long productId,
+        String make,
+        String model,
+        Integer yearFrom,
+        Integer yearTo,
+        String engine
+) {
+
+    public static VehicleCompatibilitySnapshot of(VehicleCompatibility compatibility) {
+        return new VehicleCompatibilitySnapshot(
+                compatibility.getId(),
+                compatibility.getProduct() != null ? compatibility.getProduct().getId() : null,
+                compatibility.getMake(),
+                compatibility.getModel(),
+                compatibility.getYearFrom(),
+                compatibility.getYearTo(),
+                compatibility.getEngine()
+        );
+    }
+}
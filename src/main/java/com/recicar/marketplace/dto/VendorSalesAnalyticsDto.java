@@ -4,13 +4,16 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 /**
- * Aggregated seller sales for analytics (based on shipped line totals for this vendor's lines).
+ * Aggregated seller sales for analytics (based on line totals for this vendor's lines). All
+ * figures but {@code canceledOrderCount} exclude canceled orders.
  */
 public record VendorSalesAnalyticsDto(
         LocalDate periodFromInclusive,
         LocalDate periodToInclusive,
         BigDecimal grossLineRevenue,
         long distinctOrderCount,
-        long lineItemCount
+        long lineItemCount,
+        long unitsSold,
+        long canceledOrderCount
 ) {
 }
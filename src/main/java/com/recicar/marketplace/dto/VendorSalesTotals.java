@@ -0,0 +1,18 @@
+package com.recicar.marketplace.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Sales of one vendor over a date range, summed from the daily rollup. Everything but
+ * {@code canceledOrders} excludes canceled orders.
+ */
+public record VendorSalesTotals(
+        BigDecimal revenue,
+        long orders,
+        long lines,
+        long units,
+        long canceledOrders
+) {
+
+    public static final VendorSalesTotals EMPTY = new VendorSalesTotals(BigDecimal.ZERO, 0, 0, 0, 0);
+}
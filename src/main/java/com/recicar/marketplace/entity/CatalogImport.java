@@ -0,0 +1,158 @@
+package com.recicar.marketplace.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One vendor catalog feed upload. Counters and {@link #getRowsCommitted()} are advanced with
+ * each committed chunk by {@code CatalogImportJdbcRepository}; this entity only creates the row
+ * and moves it between statuses.
+ */
+@Entity
+@Table(name = "catalog_imports")
+public class CatalogImport {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "vendor_id", nullable = false)
+    private Long vendorId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private CatalogImportFormat format;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private CatalogImportStatus status;
+
+    @Column(name = "staged_file", nullable = false, length = 500)
+    private String stagedFile;
+
+    @Column(name = "rows_committed", nullable = false)
+    private Integer rowsCommitted = 0;
+
+    @Column(name = "created_count", nullable = false)
+    private Integer createdCount = 0;
+
+    @Column(name = "updated_count", nullable = false)
+    private Integer updatedCount = 0;
+
+    @Column(name = "rejected_count", nullable = false)
+    private Integer rejectedCount = 0;
+
+    private String error;
+
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    protected CatalogImport() {
+    }
+
+    public CatalogImport(Long vendorId, CatalogImportFormat format, String stagedFile) {
+        this.vendorId = vendorId;
+        this.format = format;
+        this.stagedFile = stagedFile;
+        this.status = CatalogImportStatus.PENDING;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public void start(LocalDateTime at) {
+        status = CatalogImportStatus.RUNNING;
+        heartbeatAt = at;
+        if (startedAt == null) {
+            startedAt = at;
+        }
+    }
+
+    public void complete(LocalDateTime at) {
+        status = CatalogImportStatus.COMPLETED;
+        finishedAt = at;
+        error = null;
+    }
+
+    public void fail(LocalDateTime at, String error) {
+        status = CatalogImportStatus.FAILED;
+        finishedAt = at;
+        this.error = error;
+    }
+
+    /**
+     * Queues a failed import again; it continues after the last committed row.
+     */
+    public void resume() {
+        status = CatalogImportStatus.PENDING;
+        finishedAt = null;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getVendorId() {
+        return vendorId;
+    }
+
+    public CatalogImportFormat getFormat() {
+        return format;
+    }
+
+    public CatalogImportStatus getStatus() {
+        return status;
+    }
+
+    public String getStagedFile() {
+        return stagedFile;
+    }
+
+    public Integer getRowsCommitted() {
+        return rowsCommitted;
+    }
+
+    public Integer getCreatedCount() {
+        return createdCount;
+    }
+
+    public Integer getUpdatedCount() {
+        return updatedCount;
+    }
+
+    public Integer getRejectedCount() {
+        return rejectedCount;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public LocalDateTime getHeartbeatAt() {
+        return heartbeatAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+}
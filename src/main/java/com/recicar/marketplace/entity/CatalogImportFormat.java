@@ -0,0 +1,6 @@
+package com.recicar.marketplace.entity;
+
+public enum CatalogImportFormat {
+    CSV,
+    JSON
+}
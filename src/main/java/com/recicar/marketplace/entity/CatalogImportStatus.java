@@ -0,0 +1,8 @@
+package com.recicar.marketplace.entity;
+
+public enum CatalogImportStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
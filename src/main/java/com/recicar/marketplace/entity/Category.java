@@ -1,5 +1,6 @@
 package com.recicar.marketplace.entity;
 
+import com.recicar.marketplace.event.CategoryChangePublisher;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -10,6 +11,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "categories")
+@EntityListeners(CategoryChangePublisher.class)
 public class Category {
 
     @Id
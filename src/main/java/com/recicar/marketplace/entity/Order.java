@@ -1,5 +1,6 @@
 package com.recicar.marketplace.entity;
 
+import com.recicar.marketplace.event.OrderChangePublisher;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,6 +12,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "orders")
+@EntityListeners(OrderChangePublisher.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -1,5 +1,6 @@
 package com.recicar.marketplace.entity;
 
+import com.recicar.marketplace.event.OrderItemChangePublisher;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -10,6 +11,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "order_items")
+@EntityListeners(OrderItemChangePublisher.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,127 @@
+package com.recicar.marketplace.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Side effect of a committed transaction still to be delivered. Stays
+ * {@link OutboxEventStatus#PENDING} until delivered or out of attempts.
+ */
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 50)
+    private OutboxEventType eventType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Column(name = "recipient_id")
+    private Long recipientId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OutboxEventStatus status;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "delivered_at")
+    private LocalDateTime deliveredAt;
+
+    protected OutboxEvent() {
+    }
+
+    public OutboxEvent(OutboxEventType eventType, Long aggregateId, Long recipientId, LocalDateTime dueAt) {
+        this.eventType = eventType;
+        this.aggregateId = aggregateId;
+        this.recipientId = recipientId;
+        this.nextAttemptAt = dueAt;
+        this.status = OutboxEventStatus.PENDING;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    /**
+     * Counts a delivery attempt and keeps other dispatchers off the event until {@code leaseUntil}.
+     */
+    public void claim(LocalDateTime leaseUntil) {
+        attempts++;
+        nextAttemptAt = leaseUntil;
+    }
+
+    public void delivered(LocalDateTime at) {
+        status = OutboxEventStatus.DELIVERED;
+        deliveredAt = at;
+        lastError = null;
+    }
+
+    public void retryAt(LocalDateTime at, String error) {
+        nextAttemptAt = at;
+        lastError = error;
+    }
+
+    public void failed(String error) {
+        status = OutboxEventStatus.FAILED;
+        lastError = error;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public OutboxEventType getEventType() {
+        return eventType;
+    }
+
+    public Long getAggregateId() {
+        return aggregateId;
+    }
+
+    public Long getRecipientId() {
+        return recipientId;
+    }
+
+    public OutboxEventStatus getStatus() {
+        return status;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getDeliveredAt() {
+        return deliveredAt;
+    }
+}
@@ -0,0 +1,11 @@
+package com.recicar.marketplace.entity;
+
+/**
+ * Side effect recorded in the outbox. {@link OutboxEvent#getAggregateId()} is the order id for
+ * every type; {@link OutboxEvent#getRecipientId()} is the vendor id for vendor notifications.
+ */
+public enum OutboxEventType {
+    ORDER_CONFIRMATION,
+    VENDOR_ORDER_NOTIFICATION,
+    ORDER_ANALYTICS
+}
@@ -1,5 +1,7 @@
 package com.recicar.marketplace.entity;
 
+import com.recicar.marketplace.event.ProductChangePublisher;
+import com.recicar.marketplace.util.PartCodeNormalizer;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
@@ -14,6 +16,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "products")
+@EntityListeners(ProductChangePublisher.class)
 public class Product {
 
     @Id
@@ -55,6 +58,18 @@ public class Product {
     @Column(name = "oem_number")
     private String oemNumber;
 
+    /**
+     * {@link PartCodeNormalizer} form of {@link #partNumber}; maintained by the setter.
+     */
+    @Column(name = "part_number_normalized", length = 100)
+    private String partNumberNormalized;
+
+    /**
+     * {@link PartCodeNormalizer} form of {@link #oemNumber}; maintained by the setter.
+     */
+    @Column(name = "oem_number_normalized", length = 100)
+    private String oemNumberNormalized;
+
     @NotNull
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
@@ -179,6 +194,11 @@ public class Product {
 
     public void setPartNumber(String partNumber) {
         this.partNumber = partNumber;
+        this.partNumberNormalized = PartCodeNormalizer.normalize(partNumber);
+    }
+
+    public String getPartNumberNormalized() {
+        return partNumberNormalized;
     }
 
     public String getOemNumber() {
@@ -187,6 +207,11 @@ public class Product {
 
     public void setOemNumber(String oemNumber) {
         this.oemNumber = oemNumber;
+        this.oemNumberNormalized = PartCodeNormalizer.normalize(oemNumber);
+    }
+
+    public String getOemNumberNormalized() {
+        return oemNumberNormalized;
     }
 
     public ProductCondition getCondition() {
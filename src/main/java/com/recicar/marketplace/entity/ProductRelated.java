@@ -0,0 +1,79 @@
+package com.recicar.marketplace.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Precomputed neighbours of one product, stored as a single id array so the product page
+ * reads them with one primary-key lookup.
+ */
+@Entity
+@Table(name = "product_related")
+public class ProductRelated implements Persistable<Long> {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "related_ids", nullable = false, columnDefinition = "bigint[]")
+    private Long[] relatedIds = new Long[0];
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+
+    @Transient
+    private boolean isNew;
+
+    protected ProductRelated() {
+    }
+
+    public ProductRelated(Long productId) {
+        this.productId = productId;
+        this.isNew = true;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+
+    @Override
+    public Long getId() {
+        return productId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    /**
+     * Related product ids, best first.
+     */
+    public List<Long> getRelatedIds() {
+        return List.of(relatedIds);
+    }
+
+    public void setRelatedIds(List<Long> relatedIds) {
+        this.relatedIds = relatedIds.toArray(new Long[0]);
+    }
+
+    public LocalDateTime getComputedAt() {
+        return computedAt;
+    }
+
+    public void setComputedAt(LocalDateTime computedAt) {
+        this.computedAt = computedAt;
+    }
+}
@@ -0,0 +1,7 @@
+package com.recicar.marketplace.entity;
+
+public enum StockReservationStatus {
+    HELD,
+    COMMITTED,
+    RELEASED
+}
@@ -1,5 +1,6 @@
 package com.recicar.marketplace.entity;
 
+import com.recicar.marketplace.event.VehicleCompatibilityChangePublisher;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
@@ -11,6 +12,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "vehicle_compatibility")
+@EntityListeners(VehicleCompatibilityChangePublisher.class)
 public class VehicleCompatibility {
 
     @Id
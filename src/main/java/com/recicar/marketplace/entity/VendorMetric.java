@@ -1,5 +1,6 @@
 package com.recicar.marketplace.entity;
 
+import com.recicar.marketplace.event.VendorMetricChangePublisher;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
@@ -14,6 +15,7 @@ import java.time.LocalDateTime;
 @Table(name = "vendor_metrics", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"vendor_id", "metric_date"})
 })
+@EntityListeners(VendorMetricChangePublisher.class)
 public class VendorMetric {
 
     @Id
@@ -0,0 +1,106 @@
+package com.recicar.marketplace.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Precomputed seller rating of one vendor, keyed by vendor id. Rows are rewritten from
+ * {@link VendorMetric}s and never edited by hand.
+ */
+@Entity
+@Table(name = "vendor_rating")
+public class VendorRating implements Persistable<Long> {
+
+    @Id
+    @Column(name = "vendor_id")
+    private Long vendorId;
+
+    @Column(name = "metric_count", nullable = false)
+    private Integer metricCount;
+
+    @Column(name = "conversion_rate_sum", nullable = false, precision = 14, scale = 4)
+    private BigDecimal conversionRateSum;
+
+    @Column(nullable = false, precision = 3, scale = 2)
+    private BigDecimal rating;
+
+    @Column(name = "top_seller", nullable = false)
+    private boolean topSeller;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private Instant refreshedAt;
+
+    @Transient
+    private boolean isNew;
+
+    protected VendorRating() {
+    }
+
+    public VendorRating(Long vendorId) {
+        this.vendorId = vendorId;
+        this.isNew = true;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+
+    @Override
+    public Long getId() {
+        return vendorId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    public Long getVendorId() {
+        return vendorId;
+    }
+
+    public Integer getMetricCount() {
+        return metricCount;
+    }
+
+    public void setMetricCount(Integer metricCount) {
+        this.metricCount = metricCount;
+    }
+
+    public BigDecimal getConversionRateSum() {
+        return conversionRateSum;
+    }
+
+    public void setConversionRateSum(BigDecimal conversionRateSum) {
+        this.conversionRateSum = conversionRateSum;
+    }
+
+    public BigDecimal getRating() {
+        return rating;
+    }
+
+    public void setRating(BigDecimal rating) {
+        this.rating = rating;
+    }
+
+    public boolean isTopSeller() {
+        return topSeller;
+    }
+
+    public void setTopSeller(boolean topSeller) {
+        this.topSeller = topSeller;
+    }
+
+    public Instant getRefreshedAt() {
+        return refreshedAt;
+    }
+
+    public void setRefreshedAt(Instant refreshedAt) {
+        this.refreshedAt = refreshedAt;
+    }
+}
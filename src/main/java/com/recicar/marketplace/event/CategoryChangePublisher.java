@@ -0,0 +1,39 @@
+package com.recicar.marketplace.event;
+
+import com.recicar.marketplace.entity.Category;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA entity listener on {@link Category}: turns persistence callbacks into
+ * {@link CategoryChangedEvent}s for the in-memory category tree.
+ * <p>
+ * Instantiated by Hibernate through Spring's bean container; the publisher stays
+ * {@code null} in plain JPA tests and events are simply not sent.
+ */
+public class CategoryChangePublisher {
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Category category) {
+        publish(category, false);
+    }
+
+    @PostRemove
+    public void onRemove(Category category) {
+        publish(category, true);
+    }
+
+    private void publish(Category category, boolean removed) {
+        if (publisher == null || category.getId() == null) {
+            return;
+        }
+        publisher.publishEvent(new CategoryChangedEvent(category.getId(), removed));
+    }
+}
@@ -0,0 +1,7 @@
+package com.recicar.marketplace.event;
+
+/**
+ * Published whenever a category row is inserted, updated or deleted.
+ */
+public record CategoryChangedEvent(Long categoryId, boolean removed) {
+}
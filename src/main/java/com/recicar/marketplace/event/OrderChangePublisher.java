@@ -0,0 +1,28 @@
+package com.recicar.marketplace.event;
+
+import com.recicar.marketplace.entity.Order;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA entity listener on {@link Order}: publishes {@link OrderChangedEvent}s so the vendor sales
+ * rollup recomputes the order's day, whichever code path placed, updated or removed it.
+ */
+public class OrderChangePublisher {
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Order order) {
+        if (publisher == null || order.getId() == null || order.getCreatedAt() == null) {
+            return;
+        }
+        publisher.publishEvent(new OrderChangedEvent(order.getId(), order.getCreatedAt().toLocalDate()));
+    }
+}
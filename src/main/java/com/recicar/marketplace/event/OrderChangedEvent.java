@@ -0,0 +1,11 @@
+package com.recicar.marketplace.event;
+
+import java.time.LocalDate;
+
+/**
+ * Published whenever an order row is inserted, updated (e.g. a status change) or deleted.
+ *
+ * @param orderDate the date of the order's {@code createdAt}, i.e. the sales day it counts towards
+ */
+public record OrderChangedEvent(Long orderId, LocalDate orderDate) {
+}
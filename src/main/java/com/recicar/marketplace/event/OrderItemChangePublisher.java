@@ -0,0 +1,25 @@
+package com.recicar.marketplace.event;
+
+import com.recicar.marketplace.entity.OrderItem;
+import jakarta.persistence.PostPersist;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA entity listener on {@link OrderItem}: publishes {@link OrderItemCreatedEvent}s for
+ * structures derived from purchase history, whichever code path places the order.
+ */
+public class OrderItemChangePublisher {
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    @PostPersist
+    public void onCreate(OrderItem item) {
+        if (publisher == null || item.getProduct() == null) {
+            return;
+        }
+        publisher.publishEvent(new OrderItemCreatedEvent(
+                item.getOrder() != null ? item.getOrder().getId() : null, item.getProduct().getId()));
+    }
+}
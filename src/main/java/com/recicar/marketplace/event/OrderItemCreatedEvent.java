@@ -0,0 +1,7 @@
+package com.recicar.marketplace.event;
+
+/**
+ * Published when an order line is stored, i.e. a product was bought.
+ */
+public record OrderItemCreatedEvent(Long orderId, Long productId) {
+}
@@ -0,0 +1,41 @@
+package com.recicar.marketplace.event;
+
+import com.recicar.marketplace.dto.ProductSnapshot;
+import com.recicar.marketplace.entity.Product;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA entity listener on {@link Product}: turns persistence callbacks into
+ * {@link ProductChangedEvent}s so every save path (services, order placement, imports)
+ * is covered without each caller publishing explicitly.
+ * <p>
+ * Instantiated by Hibernate through Spring's bean container; the publisher stays
+ * {@code null} in plain JPA tests and events are simply not sent.
+ */
+public class ProductChangePublisher {
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Product product) {
+        publish(product, false);
+    }
+
+    @PostRemove
+    public void onRemove(Product product) {
+        publish(product, true);
+    }
+
+    private void publish(Product product, boolean removed) {
+        if (publisher == null || product.getId() == null) {
+            return;
+        }
+        publisher.publishEvent(new ProductChangedEvent(ProductSnapshot.of(product), removed));
+    }
+}
@@ -0,0 +1,10 @@
+package com.recicar.marketplace.event;
+
+import com.recicar.marketplace.dto.ProductSnapshot;
+
+/**
+ * Published whenever a product row is inserted, updated or deleted. Listeners that keep
+ * in-memory catalog structures should react after commit.
+ */
+public record ProductChangedEvent(ProductSnapshot product, boolean removed) {
+}
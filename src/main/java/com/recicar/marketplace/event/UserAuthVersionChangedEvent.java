@@ -0,0 +1,8 @@
+package com.recicar.marketplace.event;
+
+/**
+ * Published when a user's auth version moves (password change or reset, session revocation,
+ * account anonymization), i.e. when all their existing sessions must end.
+ */
+public record UserAuthVersionChangedEvent(Long userId) {
+}
@@ -0,0 +1,38 @@
+package com.recicar.marketplace.event;
+
+import com.recicar.marketplace.dto.VehicleCompatibilitySnapshot;
+import com.recicar.marketplace.entity.VehicleCompatibility;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA entity listener on {@link VehicleCompatibility}, the fitment counterpart of
+ * {@link ProductChangePublisher}.
+ */
+public class VehicleCompatibilityChangePublisher {
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(VehicleCompatibility compatibility) {
+        publish(compatibility, false);
+    }
+
+    @PostRemove
+    public void onRemove(VehicleCompatibility compatibility) {
+        publish(compatibility, true);
+    }
+
+    private void publish(VehicleCompatibility compatibility, boolean removed) {
+        if (publisher == null || compatibility.getId() == null) {
+            return;
+        }
+        publisher.publishEvent(new VehicleCompatibilityChangedEvent(
+                VehicleCompatibilitySnapshot.of(compatibility), removed));
+    }
+}
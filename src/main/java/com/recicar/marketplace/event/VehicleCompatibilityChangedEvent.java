@@ -0,0 +1,9 @@
+package com.recicar.marketplace.event;
+
+import com.recicar.marketplace.dto.VehicleCompatibilitySnapshot;
+
+/**
+ * Published whenever a vehicle fitment row is inserted, updated or deleted.
+ */
+public record VehicleCompatibilityChangedEvent(VehicleCompatibilitySnapshot compatibility, boolean removed) {
+}
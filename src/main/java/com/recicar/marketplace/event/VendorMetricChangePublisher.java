@@ -0,0 +1,28 @@
+package com.recicar.marketplace.event;
+
+import com.recicar.marketplace.entity.VendorMetric;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA entity listener on {@link VendorMetric}: publishes {@link VendorMetricChangedEvent}s so
+ * the vendor rating snapshot follows metric writes from any code path.
+ */
+public class VendorMetricChangePublisher {
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(VendorMetric metric) {
+        if (publisher == null || metric.getVendor() == null) {
+            return;
+        }
+        publisher.publishEvent(new VendorMetricChangedEvent(metric.getVendor().getId()));
+    }
+}
@@ -0,0 +1,7 @@
+package com.recicar.marketplace.event;
+
+/**
+ * Published whenever a vendor metric row is inserted, updated or deleted.
+ */
+public record VendorMetricChangedEvent(Long vendorId) {
+}
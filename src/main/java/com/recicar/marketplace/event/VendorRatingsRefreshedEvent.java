@@ -0,0 +1,10 @@
+package com.recicar.marketplace.event;
+
+import java.util.Set;
+
+/**
+ * Published when {@code vendor_rating} rows have been recomputed: the given vendors, or every
+ * vendor when {@code fullRefresh} is set. Readers caching ratings should drop them after commit.
+ */
+public record VendorRatingsRefreshedEvent(Set<Long> vendorIds, boolean fullRefresh) {
+}
@@ -0,0 +1,130 @@
+package com.recicar.marketplace.repository;
+
+import com.recicar.marketplace.dto.CarReferenceRow;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * The make, model and trim reference tables. Reads take a whole table in one pass, already in
+ * the order the dropdowns list them: children grouped by parent, then by name. Writes are one
+ * statement per chunk, with the chunk's values passed as arrays and expanded by {@code unnest};
+ * ids are reserved up front so children can be written in the same round as their parents.
+ */
+@Repository
+public class CarReferenceJdbcRepository {
+
+    private static final RowMapper<CarReferenceRow> ROW = (rs, rowNum) -> new CarReferenceRow(
+            rs.getLong("id"),
+            rs.getObject("parent_id", Long.class),
+            rs.getString("name"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CarReferenceJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<CarReferenceRow> findMakes() {
+        return jdbcTemplate.query("""
+                SELECT id, CAST(NULL AS BIGINT) AS parent_id, name
+                FROM car_make
+                ORDER BY name, id
+                """, ROW);
+    }
+
+    public List<CarReferenceRow> findModels() {
+        return jdbcTemplate.query("""
+                SELECT id, make_id AS parent_id, name
+                FROM car_model
+                ORDER BY make_id, name, id
+                """, ROW);
+    }
+
+    public List<CarReferenceRow> findTrims() {
+        return jdbcTemplate.query("""
+                SELECT id, model_id AS parent_id, name
+                FROM car_trim
+                ORDER BY model_id, name, id
+                """, ROW);
+    }
+
+    public long countMakes() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM car_make", Long.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Takes {@code count} ids from the id sequence of {@code table} ({@code car_make},
+     * {@code car_model} or {@code car_trim}).
+     */
+    public long[] reserveIds(String table, int count) {
+        return jdbcTemplate.queryForList(
+                        "SELECT nextval(pg_get_serial_sequence(?, 'id')) FROM generate_series(1, ?)",
+                        Long.class, table, count)
+                .stream().mapToLong(Long::longValue).toArray();
+    }
+
+    public void insertMakes(List<Long> ids, List<String> names) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO car_make (id, name) SELECT * FROM unnest(?::bigint[], ?::varchar[])", ps -> {
+            array(ps, 1, "bigint", ids.toArray());
+            array(ps, 2, "varchar", names.toArray());
+        });
+    }
+
+    public void insertModels(List<Long> ids, List<Long> makeIds, List<String> names) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update("""
+                INSERT INTO car_model (id, make_id, name)
+                SELECT * FROM unnest(?::bigint[], ?::bigint[], ?::varchar[])
+                """, ps -> {
+            array(ps, 1, "bigint", ids.toArray());
+            array(ps, 2, "bigint", makeIds.toArray());
+            array(ps, 3, "varchar", names.toArray());
+        });
+    }
+
+    public void insertTrims(List<Long> ids, List<Long> modelIds, List<String> names) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update("""
+                INSERT INTO car_trim (id, model_id, name)
+                SELECT * FROM unnest(?::bigint[], ?::bigint[], ?::varchar[])
+                """, ps -> {
+            array(ps, 1, "bigint", ids.toArray());
+            array(ps, 2, "bigint", modelIds.toArray());
+            array(ps, 3, "varchar", names.toArray());
+        });
+    }
+
+    /**
+     * Deletes trims, then models, then makes; callers pass the children of every removed parent.
+     */
+    public void delete(List<Long> trimIds, List<Long> modelIds, List<Long> makeIds) {
+        deleteByIds("car_trim", trimIds);
+        deleteByIds("car_model", modelIds);
+        deleteByIds("car_make", makeIds);
+    }
+
+    private void deleteByIds(String table, List<Long> ids) {
+        if (!ids.isEmpty()) {
+            // table is one of three constants, never input
+            jdbcTemplate.update("DELETE FROM " + table + " WHERE id = ANY(?)",
+                    ps -> array(ps, 1, "bigint", ids.toArray()));
+        }
+    }
+
+    private static void array(PreparedStatement ps, int index, String type, Object[] values) throws SQLException {
+        ps.setArray(index, ps.getConnection().createArrayOf(type, values));
+    }
+}
@@ -0,0 +1,304 @@
+package com.recicar.marketplace.repository;
+
+import com.recicar.marketplace.dto.CatalogImportRow;
+import com.recicar.marketplace.dto.CatalogImportRowError;
+import com.recicar.marketplace.dto.CatalogProductRow;
+import com.recicar.marketplace.dto.VehicleCompatibilitySnapshot;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based writes for catalog feed imports: every method is one statement per chunk, with the
+ * chunk's values passed as arrays and expanded by {@code unnest}.
+ */
+@Repository
+public class CatalogImportJdbcRepository {
+
+    /**
+     * A vendor product matched by normalized part or OEM number.
+     */
+    public record ExistingProduct(Long id, String partNumberNormalized, String oemNumberNormalized) {
+    }
+
+    private static final RowMapper<ExistingProduct> EXISTING_PRODUCT = (rs, rowNum) ->
+            new ExistingProduct(rs.getLong(1), rs.getString(2), rs.getString(3));
+
+    private static final RowMapper<VehicleCompatibilitySnapshot> FITMENT = (rs, rowNum) ->
+            new VehicleCompatibilitySnapshot(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getString(4),
+                    rs.getInt(5), rs.getInt(6), rs.getString(7));
+
+    private static final String FIND_EXISTING_SQL = """
+            SELECT id, part_number_normalized, oem_number_normalized FROM products
+            WHERE vendor_id = ? AND (part_number_normalized = ANY(?) OR oem_number_normalized = ANY(?))
+            ORDER BY id
+            """;
+
+    // Stock net of units held by open checkouts, as for bulk inventory updates
+    private static final String UPDATE_PRODUCTS_SQL = """
+            UPDATE products p
+            SET category_id = u.category_id, name = u.name, description = u.description, price = u.price,
+                part_number = u.part_number, oem_number = u.oem_number,
+                part_number_normalized = u.part_norm, oem_number_normalized = u.oem_norm,
+                condition = u.condition,
+                stock_quantity = GREATEST(u.stock - (SELECT COALESCE(SUM(r.quantity), 0) FROM stock_reservations r
+                                                     WHERE r.product_id = p.id AND r.status = 'HELD'), 0),
+                weight_kg = u.weight, active = TRUE, updated_at = CURRENT_TIMESTAMP
+            FROM unnest(?::bigint[], ?::bigint[], ?::varchar[], ?::text[], ?::numeric[], ?::varchar[], ?::varchar[],
+                        ?::varchar[], ?::varchar[], ?::varchar[], ?::integer[], ?::numeric[])
+                 AS u(id, category_id, name, description, price, part_number, oem_number,
+                      part_norm, oem_norm, condition, stock, weight)
+            WHERE p.id = u.id
+            """;
+
+    private static final String INSERT_PRODUCTS_SQL = """
+            INSERT INTO products (vendor_id, category_id, name, description, price, part_number, oem_number,
+                                  part_number_normalized, oem_number_normalized, condition, stock_quantity,
+                                  weight_kg, active, created_at, updated_at)
+            SELECT ?, u.category_id, u.name, u.description, u.price, u.part_number, u.oem_number,
+                   u.part_norm, u.oem_norm, u.condition, u.stock, u.weight, TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+            FROM unnest(?::bigint[], ?::varchar[], ?::text[], ?::numeric[], ?::varchar[], ?::varchar[],
+                        ?::varchar[], ?::varchar[], ?::varchar[], ?::integer[], ?::numeric[])
+                 AS u(category_id, name, description, price, part_number, oem_number,
+                      part_norm, oem_norm, condition, stock, weight)
+            RETURNING id, part_number_normalized, oem_number_normalized
+            """;
+
+    private static final String INSERT_IMAGES_SQL = """
+            INSERT INTO product_images (product_id, image_url, alt_text, is_primary, sort_order)
+            SELECT * FROM unnest(?::bigint[], ?::varchar[], ?::varchar[], ?::boolean[], ?::integer[])
+            """;
+
+    private static final String DELETE_FITMENTS_SQL = """
+            DELETE FROM vehicle_compatibility WHERE product_id = ANY(?)
+            RETURNING id, product_id, make, model, year_from, year_to, engine
+            """;
+
+    private static final String INSERT_FITMENTS_SQL = """
+            INSERT INTO vehicle_compatibility (product_id, make, model, year_from, year_to, engine)
+            SELECT * FROM unnest(?::bigint[], ?::varchar[], ?::varchar[], ?::integer[], ?::integer[], ?::varchar[])
+            RETURNING id, product_id, make, model, year_from, year_to, engine
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CatalogImportJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * The vendor's products carrying any of the given normalized part or OEM numbers, oldest first.
+     */
+    public List<ExistingProduct> findExisting(Long vendorId, Collection<String> partKeys, Collection<String> oemKeys) {
+        return jdbcTemplate.query(FIND_EXISTING_SQL, ps -> {
+            ps.setLong(1, vendorId);
+            array(ps, 2, "varchar", partKeys.toArray());
+            array(ps, 3, "varchar", oemKeys.toArray());
+        }, EXISTING_PRODUCT);
+    }
+
+    /**
+     * Overwrites the given products (product id to feed line) with their feed values.
+     */
+    public void updateProducts(Map<Long, CatalogProductRow> rowsByProductId) {
+        if (rowsByProductId.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(rowsByProductId.keySet());
+        List<CatalogProductRow> rows = ids.stream().map(rowsByProductId::get).toList();
+        jdbcTemplate.update(UPDATE_PRODUCTS_SQL, ps -> {
+            array(ps, 1, "bigint", ids.toArray());
+            bindProductColumns(ps, 2, rows);
+        });
+    }
+
+    /**
+     * Inserts new products for the vendor.
+     *
+     * @return the inserted rows with their ids, to be matched back by normalized codes
+     */
+    public List<ExistingProduct> insertProducts(Long vendorId, List<CatalogProductRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(INSERT_PRODUCTS_SQL, ps -> {
+            ps.setLong(1, vendorId);
+            bindProductColumns(ps, 2, rows);
+        }, EXISTING_PRODUCT);
+    }
+
+    /**
+     * Replaces the images of the given products; the first URL of each becomes the primary image.
+     */
+    public void replaceImages(Map<Long, CatalogProductRow> rowsByProductId) {
+        if (rowsByProductId.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update("DELETE FROM product_images WHERE product_id = ANY(?)",
+                ps -> array(ps, 1, "bigint", rowsByProductId.keySet().toArray()));
+        List<Object> productIds = new ArrayList<>();
+        List<Object> urls = new ArrayList<>();
+        List<Object> altTexts = new ArrayList<>();
+        List<Object> primary = new ArrayList<>();
+        List<Object> sortOrders = new ArrayList<>();
+        rowsByProductId.forEach((productId, row) -> {
+            for (int i = 0; i < row.images().size(); i++) {
+                productIds.add(productId);
+                urls.add(row.images().get(i));
+                altTexts.add(row.name());
+                primary.add(i == 0);
+                sortOrders.add(i);
+            }
+        });
+        if (productIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(INSERT_IMAGES_SQL, ps -> {
+            array(ps, 1, "bigint", productIds.toArray());
+            array(ps, 2, "varchar", urls.toArray());
+            array(ps, 3, "varchar", altTexts.toArray());
+            array(ps, 4, "boolean", primary.toArray());
+            array(ps, 5, "integer", sortOrders.toArray());
+        });
+    }
+
+    /**
+     * Removes the fitments of the given products.
+     *
+     * @return the removed rows
+     */
+    public List<VehicleCompatibilitySnapshot> deleteFitments(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(DELETE_FITMENTS_SQL, ps -> array(ps, 1, "bigint", productIds.toArray()), FITMENT);
+    }
+
+    /**
+     * Adds the feed fitments of the given products.
+     *
+     * @return the inserted rows
+     */
+    public List<VehicleCompatibilitySnapshot> insertFitments(Map<Long, CatalogProductRow> rowsByProductId) {
+        List<Object> productIds = new ArrayList<>();
+        List<Object> makes = new ArrayList<>();
+        List<Object> models = new ArrayList<>();
+        List<Object> yearsFrom = new ArrayList<>();
+        List<Object> yearsTo = new ArrayList<>();
+        List<Object> engines = new ArrayList<>();
+        rowsByProductId.forEach((productId, row) -> {
+            for (CatalogImportRow.Fitment fitment : row.fitments()) {
+                productIds.add(productId);
+                makes.add(fitment.make());
+                models.add(fitment.model());
+                yearsFrom.add(fitment.yearFrom());
+                yearsTo.add(fitment.yearTo());
+                engines.add(fitment.engine());
+            }
+        });
+        if (productIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(INSERT_FITMENTS_SQL, ps -> {
+            array(ps, 1, "bigint", productIds.toArray());
+            array(ps, 2, "varchar", makes.toArray());
+            array(ps, 3, "varchar", models.toArray());
+            array(ps, 4, "integer", yearsFrom.toArray());
+            array(ps, 5, "integer", yearsTo.toArray());
+            array(ps, 6, "varchar", engines.toArray());
+        }, FITMENT);
+    }
+
+    /**
+     * Moves a running import past a committed chunk. Guarded by the previous resume point, so a
+     * worker that lost the import to another one rolls its chunk back instead of applying it twice.
+     *
+     * @return whether this worker still owns the import
+     */
+    public boolean advance(Long importId, int expectedRowsCommitted, int rowsCommitted,
+                           int created, int updated, int rejected) {
+        return jdbcTemplate.update("""
+                UPDATE catalog_imports
+                SET rows_committed = ?, created_count = created_count + ?, updated_count = updated_count + ?,
+                    rejected_count = rejected_count + ?, heartbeat_at = CURRENT_TIMESTAMP
+                WHERE id = ? AND rows_committed = ? AND status = 'RUNNING'
+                """, rowsCommitted, created, updated, rejected, importId, expectedRowsCommitted) == 1;
+    }
+
+    public void insertErrors(Long importId, List<CatalogImportRowError> errors) {
+        if (errors.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO catalog_import_errors (import_id, row_number, reason) VALUES (?, ?, ?)",
+                errors, errors.size(), (ps, error) -> {
+                    ps.setLong(1, importId);
+                    ps.setInt(2, error.rowNumber());
+                    ps.setString(3, error.reason().length() > 500 ? error.reason().substring(0, 500) : error.reason());
+                });
+    }
+
+    public int countErrors(Long importId) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM catalog_import_errors WHERE import_id = ?", Integer.class, importId);
+        return count != null ? count : 0;
+    }
+
+    public List<CatalogImportRowError> findErrors(Long importId, int limit) {
+        return jdbcTemplate.query(
+                "SELECT row_number, reason FROM catalog_import_errors WHERE import_id = ? ORDER BY row_number LIMIT ?",
+                (rs, rowNum) -> new CatalogImportRowError(rs.getInt(1), rs.getString(2)), importId, limit);
+    }
+
+    private static void bindProductColumns(PreparedStatement ps, int first, List<CatalogProductRow> rows)
+            throws SQLException {
+        int n = rows.size();
+        Object[] categoryIds = new Object[n];
+        Object[] names = new Object[n];
+        Object[] descriptions = new Object[n];
+        BigDecimal[] prices = new BigDecimal[n];
+        Object[] partNumbers = new Object[n];
+        Object[] oemNumbers = new Object[n];
+        Object[] partKeys = new Object[n];
+        Object[] oemKeys = new Object[n];
+        Object[] conditions = new Object[n];
+        Object[] stocks = new Object[n];
+        BigDecimal[] weights = new BigDecimal[n];
+        for (int i = 0; i < n; i++) {
+            CatalogProductRow row = rows.get(i);
+            categoryIds[i] = row.categoryId();
+            names[i] = row.name();
+            descriptions[i] = row.description();
+            prices[i] = row.price();
+            partNumbers[i] = row.partNumber();
+            oemNumbers[i] = row.oemNumber();
+            partKeys[i] = row.partNumberNormalized();
+            oemKeys[i] = row.oemNumberNormalized();
+            conditions[i] = row.condition().name();
+            stocks[i] = row.stockQuantity();
+            weights[i] = row.weightKg();
+        }
+        array(ps, first, "bigint", categoryIds);
+        array(ps, first + 1, "varchar", names);
+        array(ps, first + 2, "text", descriptions);
+        array(ps, first + 3, "numeric", prices);
+        array(ps, first + 4, "varchar", partNumbers);
+        array(ps, first + 5, "varchar", oemNumbers);
+        array(ps, first + 6, "varchar", partKeys);
+        array(ps, first + 7, "varchar", oemKeys);
+        array(ps, first + 8, "varchar", conditions);
+        array(ps, first + 9, "integer", stocks);
+        array(ps, first + 10, "numeric", weights);
+    }
+
+    private static void array(PreparedStatement ps, int index, String type, Object[] values) throws SQLException {
+        ps.setArray(index, ps.getConnection().createArrayOf(type, values));
+    }
+}
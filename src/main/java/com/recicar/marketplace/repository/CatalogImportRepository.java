@@ -0,0 +1,33 @@
+package com.recicar.marketplace.repository;
+
+import com.recicar.marketplace.entity.CatalogImport;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface CatalogImportRepository extends JpaRepository<CatalogImport, Long> {
+
+    Optional<CatalogImport> findByIdAndVendorId(Long id, Long vendorId);
+
+    List<CatalogImport> findByVendorIdOrderByCreatedAtDesc(Long vendorId, Pageable pageable);
+
+    /**
+     * Oldest queued import, or a running one whose worker stopped reporting before
+     * {@code staleBefore}; locked with {@code SKIP LOCKED} so two instances never take the same one.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT i FROM CatalogImport i WHERE i.status = com.recicar.marketplace.entity.CatalogImportStatus.PENDING " +
+           "OR (i.status = com.recicar.marketplace.entity.CatalogImportStatus.RUNNING AND i.heartbeatAt < :staleBefore) " +
+           "ORDER BY i.id")
+    List<CatalogImport> lockNextRunnable(@Param("staleBefore") LocalDateTime staleBefore, Pageable limit);
+}
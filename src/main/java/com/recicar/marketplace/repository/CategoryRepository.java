@@ -1,5 +1,6 @@
 package com.recicar.marketplace.repository;
 
+import com.recicar.marketplace.dto.CategoryTreeRow;
 import com.recicar.marketplace.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -75,14 +76,6 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
                      ") SELECT id FROM category_path", nativeQuery = true)
        List<Long> findHierarchy(@Param("slug") String slug);
 
-       /**
-        * Count products in category (including subcategories)
-        */
-       @Query("SELECT COUNT(p) FROM Product p WHERE p.category.id IN " +
-                     "(SELECT c.id FROM Category c WHERE c.id = :categoryId OR c.parent.id = :categoryId) " +
-                     "AND p.active = true")
-       long countProductsInCategory(@Param("categoryId") Long categoryId);
-
        /**
         * Find categories with products
         */
@@ -90,11 +83,9 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
        List<Category> findCategoriesWithProducts();
 
        /**
-        * Find top-level categories with product counts
+        * Every category as a scalar row, for the in-memory category tree
         */
-       @Query("SELECT c, COUNT(p) as productCount FROM Category c " +
-                     "LEFT JOIN c.products p ON p.active = true " +
-                     "WHERE c.parent IS NULL AND c.active = true " +
-                     "GROUP BY c ORDER BY c.sortOrder ASC")
-       List<Object[]> findRootCategoriesWithProductCounts();
+       @Query("SELECT new com.recicar.marketplace.dto.CategoryTreeRow(c.id, parent.id, c.name, c.slug, c.active, c.sortOrder) " +
+                     "FROM Category c LEFT JOIN c.parent parent")
+       List<CategoryTreeRow> findTreeRows();
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.recicar.marketplace.repository;
 import com.recicar.marketplace.entity.Order;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -16,6 +17,12 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     Optional<Order> findByOrderNumber(String orderNumber);
 
+    /**
+     * The order with its customer and lines loaded, usable after the transaction has ended.
+     */
+    @EntityGraph(attributePaths = {"customer", "items"})
+    Optional<Order> findWithItemsById(Long id);
+
     List<Order> findByCustomer_IdOrderByCreatedAtDesc(Long customerId, Pageable pageable);
 
     /**
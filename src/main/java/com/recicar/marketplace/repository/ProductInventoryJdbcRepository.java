@@ -0,0 +1,64 @@
+package com.recicar.marketplace.repository;
+
+import com.recicar.marketplace.dto.BulkInventoryRow;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.util.List;
+
+/**
+ * Set-based inventory writes for vendor bulk uploads; one statement per chunk instead of a
+ * load and save per product.
+ */
+@Repository
+public class ProductInventoryJdbcRepository {
+
+    /*
+     * products.stock_quantity is the stock still available to new checkouts (see
+     * StockReservationService), so units held by open checkouts are taken off the vendor's count.
+     */
+    private static final String APPLY_SQL = """
+            UPDATE products p
+            SET stock_quantity = CASE WHEN u.stock IS NULL THEN p.stock_quantity
+                    ELSE GREATEST(u.stock - (SELECT COALESCE(SUM(r.quantity), 0) FROM stock_reservations r
+                                             WHERE r.product_id = p.id AND r.status = 'HELD'), 0) END,
+                price = COALESCE(u.price, p.price),
+                updated_at = CURRENT_TIMESTAMP
+            FROM unnest(?::bigint[], ?::integer[], ?::numeric[]) AS u(id, stock, price)
+            WHERE p.id = u.id AND p.vendor_id = ?
+            RETURNING p.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductInventoryJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Applies {@code rows} (distinct product ids) to the vendor's products.
+     *
+     * @return ids of the products updated; rows for products that do not exist or belong to
+     * another vendor are absent
+     */
+    public List<Long> applyForVendor(Long vendorId, List<BulkInventoryRow> rows) {
+        Long[] ids = new Long[rows.size()];
+        Integer[] stocks = new Integer[rows.size()];
+        BigDecimal[] prices = new BigDecimal[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            BulkInventoryRow row = rows.get(i);
+            ids[i] = row.productId();
+            stocks[i] = row.stockQuantity();
+            prices[i] = row.price();
+        }
+        return jdbcTemplate.query(APPLY_SQL, ps -> {
+            Connection connection = ps.getConnection();
+            ps.setArray(1, connection.createArrayOf("bigint", ids));
+            ps.setArray(2, connection.createArrayOf("integer", stocks));
+            ps.setArray(3, connection.createArrayOf("numeric", prices));
+            ps.setLong(4, vendorId);
+        }, (rs, rowNum) -> rs.getLong(1));
+    }
+}
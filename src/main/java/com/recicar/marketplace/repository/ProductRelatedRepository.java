@@ -0,0 +1,73 @@
+package com.recicar.marketplace.repository;
+
+import com.recicar.marketplace.entity.ProductRelated;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductRelatedRepository extends JpaRepository<ProductRelated, Long> {
+
+    /**
+     * Products whose stored neighbours include any of {@code productIds}.
+     */
+    @Query(value = "SELECT product_id FROM product_related " +
+                   "WHERE related_ids && CAST(ARRAY[:productIds] AS BIGINT[])", nativeQuery = true)
+    List<Long> findProductIdsListingAny(@Param("productIds") Collection<Long> productIds);
+
+    /**
+     * Neighbour candidates of each source product as {@code (sourceId, candidateId, signal, strength)}:
+     * signal 1 = bought in the same orders (strength = orders), 2 = fits the same make/model
+     * (strength = shared fitments), 3 = same category, 4 = same vendor (newest first, strength 1).
+     * Each signal is capped at {@code pool} candidates per source; only active candidates are returned.
+     */
+    @Query(value = """
+            SELECT s.id AS source_id, c.candidate_id, 1 AS signal, c.strength
+            FROM products s
+            CROSS JOIN LATERAL (
+                SELECT oi2.product_id AS candidate_id, COUNT(DISTINCT oi2.order_id) AS strength
+                FROM order_items oi1
+                JOIN order_items oi2 ON oi2.order_id = oi1.order_id AND oi2.product_id <> oi1.product_id
+                JOIN products p ON p.id = oi2.product_id AND p.active = true
+                WHERE oi1.product_id = s.id
+                GROUP BY oi2.product_id
+                ORDER BY strength DESC
+                LIMIT :pool) c
+            WHERE s.id IN (:ids)
+            UNION ALL
+            SELECT s.id, c.candidate_id, 2, c.strength
+            FROM products s
+            CROSS JOIN LATERAL (
+                SELECT vc2.product_id AS candidate_id, COUNT(*) AS strength
+                FROM vehicle_compatibility vc1
+                JOIN vehicle_compatibility vc2 ON vc2.make = vc1.make AND vc2.model = vc1.model
+                    AND vc2.product_id <> vc1.product_id
+                JOIN products p ON p.id = vc2.product_id AND p.active = true
+                WHERE vc1.product_id = s.id
+                GROUP BY vc2.product_id
+                ORDER BY strength DESC
+                LIMIT :pool) c
+            WHERE s.id IN (:ids)
+            UNION ALL
+            SELECT s.id, c.id, 3, 1
+            FROM products s
+            CROSS JOIN LATERAL (
+                SELECT p.id FROM products p
+                WHERE p.category_id = s.category_id AND p.active = true AND p.id <> s.id
+                ORDER BY p.created_at DESC, p.id DESC
+                LIMIT :pool) c
+            WHERE s.id IN (:ids)
+            UNION ALL
+            SELECT s.id, c.id, 4, 1
+            FROM products s
+            CROSS JOIN LATERAL (
+                SELECT p.id FROM products p
+                WHERE p.vendor_id = s.vendor_id AND p.active = true AND p.id <> s.id
+                ORDER BY p.created_at DESC, p.id DESC
+                LIMIT :pool) c
+            WHERE s.id IN (:ids)
+            """, nativeQuery = true)
+    List<Object[]> findCandidates(@Param("ids") Collection<Long> ids, @Param("pool") int pool);
+}
@@ -1,5 +1,8 @@
 package com.recicar.marketplace.repository;
 
+import com.recicar.marketplace.dto.ProductCardRow;
+import com.recicar.marketplace.dto.ProductCursor;
+import com.recicar.marketplace.dto.ProductSnapshot;
 import com.recicar.marketplace.entity.Product;
 import com.recicar.marketplace.entity.Category;
 import com.recicar.marketplace.entity.ProductCondition;
@@ -8,10 +11,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
@@ -26,9 +32,15 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT p FROM Product p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :productName, '%'))")
     Page<Product> findByProductName(@Param("productName") String productName, Pageable pageable);
 
-    @Query("SELECT p FROM Product p JOIN p.compatibilities c WHERE c.make = :make AND c.model = :model AND c.engine = :engine AND c.yearFrom <= :year AND c.yearTo >= :year")
+    @Query("SELECT p FROM Product p JOIN p.compatibilities c WHERE c.make = :make AND c.model = :model AND (:engine IS NULL OR c.engine = :engine) AND c.yearFrom <= :year AND c.yearTo >= :year")
     Page<Product> findByVehicleCompatibility(@Param("make") String make, @Param("model") String model, @Param("engine") String engine, @Param("year") Integer year, Pageable pageable);
 
+    @Query("SELECT p FROM Product p JOIN p.compatibilities c WHERE c.make = :make AND c.model = :model AND (:engine IS NULL OR c.engine = :engine) AND c.yearFrom <= :year AND c.yearTo >= :year " +
+           "AND LOWER(p.name) LIKE LOWER(CONCAT('%', :partName, '%'))")
+    Page<Product> findByVehicleCompatibilityAndPartName(@Param("make") String make, @Param("model") String model,
+                                                        @Param("engine") String engine, @Param("year") Integer year,
+                                                        @Param("partName") String partName, Pageable pageable);
+
     @Query("SELECT p FROM Product p JOIN p.compatibilities c " +
            "WHERE c.make = :make AND c.model = :model AND c.engine = :engine " +
            "AND (:partName IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :partName, '%')))")
@@ -51,12 +63,83 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     Page<Product> findByActiveTrue(Pageable pageable);
     long countByActiveTrue();
 
-    @EntityGraph(attributePaths = {"vendor", "vendor.user", "images", "vendor.metrics"})
-    @Query(value = "SELECT p FROM Product p WHERE p.active = true",
+    @Query(value = "SELECT p.id FROM Product p WHERE p.active = true",
             countQuery = "SELECT COUNT(p) FROM Product p WHERE p.active = true")
-    Page<Product> findActiveForListing(Pageable pageable);
+    Page<Long> findActiveIdsForListing(Pageable pageable);
+
+    /**
+     * Keyset positions of the next active products after {@code (createdAt, id)}, newest first.
+     * The redundant {@code createdAt <=} bound lets PostgreSQL seek on
+     * {@code idx_products_active_created_at_id}.
+     */
+    @Query("SELECT new com.recicar.marketplace.dto.ProductCursor(p.createdAt, p.id) FROM Product p " +
+           "WHERE p.active = true AND p.createdAt <= :createdAt " +
+           "AND (p.createdAt < :createdAt OR p.id < :id) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<ProductCursor> findActiveCursorsAfter(@Param("createdAt") LocalDateTime createdAt,
+                                               @Param("id") Long id,
+                                               Pageable limit);
+
+    /**
+     * Keyset positions of the newest active products. A plain list, so no count query runs.
+     */
+    @Query("SELECT new com.recicar.marketplace.dto.ProductCursor(p.createdAt, p.id) FROM Product p " +
+           "WHERE p.active = true ORDER BY p.createdAt DESC, p.id DESC")
+    List<ProductCursor> findLatestActiveCursors(Pageable limit);
+
+    @Query("SELECT p.id FROM Product p WHERE p.active = true AND (LOWER(p.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
+           "OR LOWER(p.partNumber) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) ORDER BY p.createdAt DESC, p.id DESC")
+    List<Long> findActiveIdsByNameOrPartNumber(@Param("searchTerm") String searchTerm, Pageable limit);
+
+    @Query("SELECT p.id FROM Product p WHERE p.active = true AND p.id > :afterId ORDER BY p.id")
+    List<Long> findActiveIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT p.id FROM Product p WHERE p.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Newest active products in the category of product {@code id}, excluding it.
+     */
+    @Query("SELECT p.id FROM Product p WHERE p.active = true AND p.id <> :id " +
+           "AND p.category = (SELECT q.category FROM Product q WHERE q.id = :id) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Long> findActiveIdsInSameCategory(@Param("id") Long id, Pageable limit);
+
+    /**
+     * Atomically takes {@code quantity} units if that many are available.
+     *
+     * @return 1 if the stock was taken, 0 if there was not enough (or no such product)
+     */
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity " +
+           "WHERE p.id = :id AND p.stockQuantity >= :quantity")
+    int decrementStockIfAvailable(@Param("id") Long id, @Param("quantity") int quantity);
 
-    @EntityGraph(attributePaths = {"vendor", "vendor.user", "vendor.metrics"})
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity + :quantity WHERE p.id = :id")
+    int incrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.active = false WHERE p.id = :id AND p.stockQuantity = 0")
+    int deactivateIfSoldOut(@Param("id") Long id);
+
+    @Query("SELECT new com.recicar.marketplace.dto.ProductCardRow(p.id, p.name, p.partNumber, p.price, " +
+           "p.condition, p.stockQuantity, v.id, v.businessName) " +
+           "FROM Product p JOIN p.vendor v WHERE p.id IN :ids")
+    List<ProductCardRow> findCardRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * {@code (productId, imageUrl)} rows for the given products, each product's primary image first.
+     */
+    @Query("SELECT i.product.id, i.imageUrl FROM ProductImage i WHERE i.product.id IN :ids " +
+           "ORDER BY i.product.id, i.isPrimary DESC, i.sortOrder, i.id")
+    List<Object[]> findImageUrlsByProductIdIn(@Param("ids") Collection<Long> ids);
+
+    @EntityGraph(attributePaths = {"category"})
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids")
+    List<Product> findWithCategoryByIdIn(@Param("ids") Collection<Long> ids);
+
+    @EntityGraph(attributePaths = {"vendor", "vendor.user"})
     @Query("SELECT p FROM Product p WHERE p.id = :id")
     java.util.Optional<Product> findByIdWithSellerInfo(@Param("id") Long id);
 
@@ -79,10 +162,10 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     long countByVendor(Vendor vendor);
 
-    // Methods for exact match searches (case insensitive)
-    List<Product> findByPartNumberIgnoreCase(String partNumber);
-    
-    List<Product> findByOemNumberIgnoreCase(String oemNumber);
+    // Exact match on the indexed canonical code (see PartCodeNormalizer)
+    List<Product> findByPartNumberNormalizedAndActiveTrue(String partNumberNormalized);
+
+    List<Product> findByOemNumberNormalizedAndActiveTrue(String oemNumberNormalized);
     
     // Count methods for search statistics
     long countByNameContainingIgnoreCase(String name);
@@ -90,4 +173,24 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     long countByPartNumberContainingIgnoreCase(String partNumber);
     
     long countByOemNumberContainingIgnoreCase(String oemNumber);
+
+    /**
+     * Keyset batch of active products as scalar snapshots (no entity hydration), for
+     * building in-memory catalog indexes.
+     */
+    @Query("SELECT new com.recicar.marketplace.dto.ProductSnapshot(p.id, p.name, p.partNumber, p.oemNumber, " +
+           "p.price, p.condition, p.stockQuantity, p.active, p.category.id, p.vendor.id, p.createdAt) " +
+           "FROM Product p WHERE p.active = true AND p.id > :afterId ORDER BY p.id")
+    List<ProductSnapshot> findActiveSnapshotsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT new com.recicar.marketplace.dto.ProductSnapshot(p.id, p.name, p.partNumber, p.oemNumber, " +
+           "p.price, p.condition, p.stockQuantity, p.active, p.category.id, p.vendor.id, p.createdAt) " +
+           "FROM Product p WHERE p.id IN :ids")
+    List<ProductSnapshot> findSnapshotsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Active products per category id as {@code [categoryId, count]} rows, not rolled up.
+     */
+    @Query("SELECT p.category.id, COUNT(p) FROM Product p WHERE p.active = true GROUP BY p.category.id")
+    List<Object[]> countActiveByCategoryId();
 }
@@ -8,6 +8,7 @@ import org.springframework.data.repository.Repository;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @org.springframework.stereotype.Repository
@@ -38,6 +39,46 @@ public interface SearchRepository extends Repository<Product, Long> {
             nativeQuery = true)
     Page<Product> searchSimple(@Param("query") String query, Pageable pageable);
 
+    /**
+     * Keyset variant of {@link #searchSimple}: the next {@code limit} matches after
+     * {@code (createdAt, id)}, newest first, without a count query.
+     */
+    @Query(value = """
+            SELECT p.* FROM products p
+            WHERE p.active = true
+              AND (
+                to_tsvector('simple', coalesce(p.name, '') || ' ' || coalesce(p.part_number, '') || ' ' || coalesce(p.oem_number, ''))
+                @@ plainto_tsquery('simple', :query)
+                OR lower(p.name) LIKE lower(concat('%', :query, '%'))
+                OR lower(p.part_number) LIKE lower(concat('%', :query, '%'))
+                OR lower(p.oem_number) LIKE lower(concat('%', :query, '%'))
+              )
+              AND (p.created_at, p.id) < (:createdAt, :id)
+            ORDER BY p.created_at DESC, p.id DESC
+            LIMIT :limit
+            """,
+            nativeQuery = true)
+    List<Product> searchSimpleAfter(
+            @Param("query") String query,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            @Param("limit") int limit
+    );
+
+    @Query(value = """
+            SELECT count(1) FROM products p
+            WHERE p.active = true
+              AND (
+                to_tsvector('simple', coalesce(p.name, '') || ' ' || coalesce(p.part_number, '') || ' ' || coalesce(p.oem_number, ''))
+                @@ plainto_tsquery('simple', :query)
+                OR lower(p.name) LIKE lower(concat('%', :query, '%'))
+                OR lower(p.part_number) LIKE lower(concat('%', :query, '%'))
+                OR lower(p.oem_number) LIKE lower(concat('%', :query, '%'))
+              )
+            """,
+            nativeQuery = true)
+    long countSimple(@Param("query") String query);
+
     @Query(value = """
             SELECT DISTINCT p.* FROM products p
             LEFT JOIN vehicle_compatibility vc ON vc.product_id = p.id
@@ -0,0 +1,97 @@
+package com.recicar.marketplace.repository;
+
+import com.recicar.marketplace.dto.SitemapUrl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads behind the sitemap. Products are split into fixed id ranges of {@code shardSize}, so a
+ * shard keeps its boundaries as the catalog grows and a change only invalidates the shard it
+ * falls in.
+ */
+@Repository
+public class SitemapJdbcRepository {
+
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    /**
+     * Summary of the active products in one id range; equal stamps mean an unchanged shard.
+     */
+    public record ProductShardStamp(long shard, long urls, long idSum, LocalDateTime lastModified) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SitemapJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Stamps of all non-empty product shards, in shard order.
+     */
+    public List<ProductShardStamp> findProductShardStamps(int shardSize) {
+        return jdbcTemplate.query("""
+                SELECT id / ? AS shard, COUNT(*) AS urls, SUM(id) AS id_sum, MAX(updated_at) AS last_modified
+                FROM products
+                WHERE active = TRUE
+                GROUP BY 1
+                ORDER BY 1
+                """, (rs, rowNum) -> stamp(rs, rs.getLong("shard")), shardSize);
+    }
+
+    public ProductShardStamp findProductShardStamp(long shard, int shardSize) {
+        return jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) AS urls, COALESCE(SUM(id), 0) AS id_sum, MAX(updated_at) AS last_modified
+                FROM products
+                WHERE active = TRUE AND id >= ? AND id < ?
+                """, (rs, rowNum) -> stamp(rs, shard), shard * shardSize, (shard + 1) * shardSize);
+    }
+
+    /**
+     * Streams the active products of one shard in id order without materializing them. Must run
+     * inside a transaction for the driver to fetch with a cursor.
+     */
+    public void streamProductShard(long shard, int shardSize, Consumer<SitemapUrl> consumer) {
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement("""
+                    SELECT id, updated_at FROM products
+                    WHERE active = TRUE AND id >= ? AND id < ?
+                    ORDER BY id
+                    """);
+            statement.setFetchSize(STREAM_FETCH_SIZE);
+            statement.setLong(1, shard * shardSize);
+            statement.setLong(2, (shard + 1) * shardSize);
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(new SitemapUrl("/product-details?id=" + rs.getLong("id"),
+                toLocalDateTime(rs.getTimestamp("updated_at")))));
+    }
+
+    public List<SitemapUrl> findPublishedBlogPosts() {
+        return jdbcTemplate.query("""
+                SELECT slug, updated_at FROM blog_posts WHERE published = TRUE ORDER BY id
+                """, (rs, rowNum) -> new SitemapUrl("/blog/" + rs.getString("slug"),
+                toLocalDateTime(rs.getTimestamp("updated_at"))));
+    }
+
+    public List<SitemapUrl> findBrands() {
+        return jdbcTemplate.query("SELECT slug FROM brands ORDER BY slug",
+                (rs, rowNum) -> new SitemapUrl("/marcas/" + rs.getString("slug"), null));
+    }
+
+    private static ProductShardStamp stamp(ResultSet rs, long shard) throws SQLException {
+        return new ProductShardStamp(shard, rs.getLong("urls"), rs.getLong("id_sum"),
+                toLocalDateTime(rs.getTimestamp("last_modified")));
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
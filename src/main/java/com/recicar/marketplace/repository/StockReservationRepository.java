@@ -0,0 +1,50 @@
+package com.recicar.marketplace.repository;
+
+import com.recicar.marketplace.entity.StockReservation;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    /**
+     * The customer's open holds, row-locked so a concurrent checkout step or the expiry sweep
+     * cannot close them twice. Only this customer's rows are locked.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM StockReservation r WHERE r.customerId = :customerId " +
+           "AND r.status = com.recicar.marketplace.entity.StockReservationStatus.HELD")
+    List<StockReservation> lockHeldByCustomerId(@Param("customerId") Long customerId);
+
+    /**
+     * {@code (productId, quantity)} of the customer's open holds.
+     */
+    @Query("SELECT r.productId, r.quantity FROM StockReservation r WHERE r.customerId = :customerId " +
+           "AND r.status = com.recicar.marketplace.entity.StockReservationStatus.HELD")
+    List<Object[]> findHeldQuantitiesByCustomerId(@Param("customerId") Long customerId);
+
+    /**
+     * Units of a product in open holds, expired or not, i.e. taken out of its stock but not sold.
+     */
+    @Query("SELECT COALESCE(SUM(r.quantity), 0) FROM StockReservation r WHERE r.productId = :productId " +
+           "AND r.status = com.recicar.marketplace.entity.StockReservationStatus.HELD")
+    long sumHeldByProductId(@Param("productId") Long productId);
+
+    /**
+     * Oldest expired holds, locked with {@code SKIP LOCKED} so the sweep passes over holds that a
+     * checkout is committing right now.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT r FROM StockReservation r WHERE r.status = com.recicar.marketplace.entity.StockReservationStatus.HELD " +
+           "AND r.expiresAt < :now ORDER BY r.expiresAt")
+    List<StockReservation> lockExpiredHolds(@Param("now") LocalDateTime now, Pageable limit);
+}
@@ -23,6 +23,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByEmailIgnoreCase(String email);
 
+    /**
+     * Current auth version of a user, without loading the row
+     */
+    @Query("SELECT u.authVersion FROM User u WHERE u.id = :id")
+    Optional<Long> findAuthVersionById(@Param("id") Long id);
+
     /**
      * Check if user exists by email
      */
@@ -1,6 +1,8 @@
 package com.recicar.marketplace.repository;
 
+import com.recicar.marketplace.dto.VehicleCompatibilitySnapshot;
 import com.recicar.marketplace.entity.VehicleCompatibility;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -20,5 +22,19 @@ public interface VehicleCompatibilityRepository extends JpaRepository<VehicleCom
 
     @Query("SELECT DISTINCT vc.yearFrom, vc.yearTo FROM VehicleCompatibility vc WHERE LOWER(vc.make) = LOWER(:make) AND LOWER(vc.model) = LOWER(:model) AND LOWER(vc.engine) = LOWER(:engine) ORDER BY vc.yearFrom, vc.yearTo")
     List<Object[]> findDistinctYearRangesByMakeModelAndEngine(@Param("make") String make, @Param("model") String model, @Param("engine") String engine);
-}
 
+    /**
+     * Number of distinct active products fitting each make, keyed by lower-cased make.
+     */
+    @Query("SELECT LOWER(vc.make), COUNT(DISTINCT vc.product.id) FROM VehicleCompatibility vc " +
+           "WHERE vc.product.active = true GROUP BY LOWER(vc.make)")
+    List<Object[]> countActiveProductsByMake();
+
+    /**
+     * Keyset batch of fitment rows in id order, for rebuilding in-memory indexes.
+     */
+    @Query("SELECT new com.recicar.marketplace.dto.VehicleCompatibilitySnapshot(vc.id, vc.product.id, vc.make, " +
+           "vc.model, vc.yearFrom, vc.yearTo, vc.engine) " +
+           "FROM VehicleCompatibility vc WHERE vc.id > :afterId ORDER BY vc.id")
+    List<VehicleCompatibilitySnapshot> findSnapshotsAfter(@Param("afterId") Long afterId, Pageable pageable);
+}
@@ -0,0 +1,26 @@
+package com.recicar.marketplace.repository;
+
+import com.recicar.marketplace.entity.VendorMetric;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface VendorMetricRepository extends JpaRepository<VendorMetric, Long> {
+
+    /**
+     * {@code (vendorId, sum of conversion rates, metric count)} for each of the given vendors
+     * that has metrics; vendors without any are absent.
+     */
+    @Query("SELECT m.vendor.id, SUM(m.conversionRate), COUNT(m) FROM VendorMetric m " +
+           "WHERE m.vendor.id IN :vendorIds GROUP BY m.vendor.id")
+    List<Object[]> sumConversionRatesByVendorIdIn(@Param("vendorIds") Collection<Long> vendorIds);
+
+    /**
+     * {@code (vendorId, sum of conversion rates, metric count)} for every vendor with metrics.
+     */
+    @Query("SELECT m.vendor.id, SUM(m.conversionRate), COUNT(m) FROM VendorMetric m GROUP BY m.vendor.id")
+    List<Object[]> sumConversionRatesByVendor();
+}
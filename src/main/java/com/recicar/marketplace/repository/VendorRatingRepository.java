@@ -0,0 +1,7 @@
+package com.recicar.marketplace.repository;
+
+import com.recicar.marketplace.entity.VendorRating;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface VendorRatingRepository extends JpaRepository<VendorRating, Long> {
+}
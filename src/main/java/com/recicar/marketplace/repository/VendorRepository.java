@@ -2,15 +2,25 @@ package com.recicar.marketplace.repository;
 
 import com.recicar.marketplace.entity.Vendor;
 import com.recicar.marketplace.entity.VendorStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface VendorRepository extends JpaRepository<Vendor, Long> {
 
+    /**
+     * {@code (vendorId, businessName)} rows for the given vendors
+     */
+    @Query("SELECT v.id, v.businessName FROM Vendor v WHERE v.id IN :ids")
+    List<Object[]> findBusinessNamesByIdIn(@Param("ids") Collection<Long> ids);
+
     /**
      * Find vendor by business name
      */
@@ -31,6 +41,12 @@ public interface VendorRepository extends JpaRepository<Vendor, Long> {
      */
     Optional<Vendor> findByUserId(Long userId);
 
+    /**
+     * The vendor with its account user loaded, usable after the transaction has ended.
+     */
+    @EntityGraph(attributePaths = {"user"})
+    Optional<Vendor> findWithUserById(Long id);
+
     /**
      * Check if business name exists
      */
@@ -0,0 +1,84 @@
+package com.recicar.marketplace.repository;
+
+import com.recicar.marketplace.dto.VendorSalesTotals;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+/**
+ * Reads and maintains {@code vendor_sales_daily}. A day is recomputed as a whole from its order
+ * lines rather than adjusted by deltas, so replaying a day, or refreshing one nothing happened
+ * on, is always safe.
+ */
+@Repository
+public class VendorSalesRollupJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public VendorSalesRollupJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Recomputes every vendor's rows for the days in {@code [from, toExclusive)}: upserts the days
+     * with order lines and deletes rows of days that no longer have any.
+     *
+     * @return rows written or deleted
+     */
+    public int refreshDays(LocalDate from, LocalDate toExclusive) {
+        return jdbcTemplate.update("""
+                WITH fresh AS (
+                    SELECT oi.vendor_id,
+                           CAST(o.created_at AS DATE) AS sales_date,
+                           COALESCE(SUM(oi.total_price) FILTER (WHERE o.status <> 'CANCELED'), 0) AS revenue,
+                           COUNT(DISTINCT o.id) FILTER (WHERE o.status <> 'CANCELED') AS order_count,
+                           COUNT(*) FILTER (WHERE o.status <> 'CANCELED') AS line_count,
+                           COALESCE(SUM(oi.quantity) FILTER (WHERE o.status <> 'CANCELED'), 0) AS unit_count,
+                           COUNT(DISTINCT o.id) FILTER (WHERE o.status = 'CANCELED') AS canceled_order_count
+                    FROM orders o
+                    JOIN order_items oi ON oi.order_id = o.id
+                    WHERE o.created_at >= CAST(? AS DATE) AND o.created_at < CAST(? AS DATE)
+                    GROUP BY oi.vendor_id, CAST(o.created_at AS DATE)
+                ), emptied AS (
+                    DELETE FROM vendor_sales_daily d
+                    WHERE d.sales_date >= ? AND d.sales_date < ?
+                      AND NOT EXISTS (SELECT 1 FROM fresh f WHERE f.vendor_id = d.vendor_id AND f.sales_date = d.sales_date)
+                )
+                INSERT INTO vendor_sales_daily (vendor_id, sales_date, revenue, order_count, line_count, unit_count,
+                                                canceled_order_count, refreshed_at)
+                SELECT vendor_id, sales_date, revenue, order_count, line_count, unit_count, canceled_order_count,
+                       CURRENT_TIMESTAMP
+                FROM fresh
+                ON CONFLICT (vendor_id, sales_date) DO UPDATE
+                SET revenue = EXCLUDED.revenue,
+                    order_count = EXCLUDED.order_count,
+                    line_count = EXCLUDED.line_count,
+                    unit_count = EXCLUDED.unit_count,
+                    canceled_order_count = EXCLUDED.canceled_order_count,
+                    refreshed_at = EXCLUDED.refreshed_at
+                """, from, toExclusive, from, toExclusive);
+    }
+
+    /**
+     * Sums the vendor's rows for the days in {@code [from, toInclusive]}; one row per day at most.
+     */
+    public VendorSalesTotals sumBetween(Long vendorId, LocalDate from, LocalDate toInclusive) {
+        VendorSalesTotals totals = jdbcTemplate.queryForObject("""
+                SELECT COALESCE(SUM(revenue), 0) AS revenue,
+                       COALESCE(SUM(order_count), 0) AS order_count,
+                       COALESCE(SUM(line_count), 0) AS line_count,
+                       COALESCE(SUM(unit_count), 0) AS unit_count,
+                       COALESCE(SUM(canceled_order_count), 0) AS canceled_order_count
+                FROM vendor_sales_daily
+                WHERE vendor_id = ? AND sales_date >= ? AND sales_date <= ?
+                """, (rs, rowNum) -> new VendorSalesTotals(
+                        rs.getBigDecimal("revenue"),
+                        rs.getLong("order_count"),
+                        rs.getLong("line_count"),
+                        rs.getLong("unit_count"),
+                        rs.getLong("canceled_order_count")),
+                vendorId, from, toInclusive);
+        return totals != null ? totals : VendorSalesTotals.EMPTY;
+    }
+}
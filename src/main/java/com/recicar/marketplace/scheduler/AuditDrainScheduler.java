@@ -0,0 +1,33 @@
+package com.recicar.marketplace.scheduler;
+
+import com.recicar.marketplace.audit.AuditTrail;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves recorded service calls from the audit buffer to the audit sink, off the request threads.
+ */
+@Slf4j
+@Component
+public class AuditDrainScheduler {
+
+    private final AuditTrail auditTrail;
+
+    public AuditDrainScheduler(AuditTrail auditTrail) {
+        this.auditTrail = auditTrail;
+    }
+
+    @Scheduled(initialDelayString = "${app.audit.drain-interval-ms:500}",
+            fixedDelayString = "${app.audit.drain-interval-ms:500}")
+    public void drain() {
+        try {
+            int written = auditTrail.drain();
+            if (written > 0) {
+                log.debug("Wrote {} audit events", written);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Writing audit events failed; the batch in flight is lost", e);
+        }
+    }
+}
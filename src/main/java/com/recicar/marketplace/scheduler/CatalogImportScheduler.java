@@ -0,0 +1,86 @@
+package com.recicar.marketplace.scheduler;
+
+import com.recicar.marketplace.entity.CatalogImport;
+import com.recicar.marketplace.service.catalogimport.CatalogImportService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs queued catalog imports on virtual threads, at most {@code app.catalog-import.max-concurrent}
+ * at a time per instance. Imports left behind by a stopped instance are picked up here once their
+ * heartbeat goes stale.
+ */
+@Slf4j
+@Component
+public class CatalogImportScheduler {
+
+    private final CatalogImportService catalogImportService;
+    private final Semaphore running;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("catalog-import-", 0).factory());
+
+    public CatalogImportScheduler(CatalogImportService catalogImportService,
+                                  @Value("${app.catalog-import.max-concurrent:2}") int maxConcurrent) {
+        this.catalogImportService = catalogImportService;
+        this.running = new Semaphore(maxConcurrent);
+    }
+
+    @Scheduled(initialDelayString = "${app.catalog-import.poll-interval-ms:5000}",
+            fixedDelayString = "${app.catalog-import.poll-interval-ms:5000}")
+    public void startQueued() {
+        try {
+            while (running.tryAcquire()) {
+                Optional<CatalogImport> claimed = claimNext();
+                if (claimed.isEmpty()) {
+                    running.release();
+                    return;
+                }
+                submit(claimed.get());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Claiming catalog imports failed; queued imports are picked up by the next run", e);
+        }
+    }
+
+    private Optional<CatalogImport> claimNext() {
+        try {
+            return catalogImportService.claimNext();
+        } catch (RuntimeException e) {
+            running.release();
+            throw e;
+        }
+    }
+
+    private void submit(CatalogImport job) {
+        try {
+            executor.execute(() -> {
+                try {
+                    catalogImportService.run(job);
+                } finally {
+                    running.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the heartbeat goes stale and another instance resumes the import
+            running.release();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.recicar.marketplace.scheduler;
+
+import com.recicar.marketplace.service.CategoryTreeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the category tree once at startup and refreshes its product counts shortly after
+ * product changes.
+ */
+@Slf4j
+@Component
+public class CategoryTreeScheduler {
+
+    private final CategoryTreeService categoryTreeService;
+
+    public CategoryTreeScheduler(CategoryTreeService categoryTreeService) {
+        this.categoryTreeService = categoryTreeService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            categoryTreeService.refresh();
+        } catch (RuntimeException e) {
+            log.warn("Category tree build failed; it is built on first use instead", e);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.category-tree.refresh-interval-ms:30000}",
+            fixedDelayString = "${app.category-tree.refresh-interval-ms:30000}")
+    public void refreshChanged() {
+        try {
+            if (categoryTreeService.refreshIfStale()) {
+                log.debug("Rebuilt category tree after catalog changes");
+            }
+        } catch (RuntimeException e) {
+            log.warn("Category tree refresh failed; the previous snapshot stays in place", e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.recicar.marketplace.scheduler;
+
+import com.recicar.marketplace.service.HomePageContentService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the home-page snapshot current: shortly after product changes, on the full-refresh
+ * schedule (which also picks up catalog changes made outside JPA) and once at startup.
+ */
+@Slf4j
+@Component
+public class HomePageContentScheduler {
+
+    private final HomePageContentService homePageContentService;
+
+    public HomePageContentScheduler(HomePageContentService homePageContentService) {
+        this.homePageContentService = homePageContentService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        refreshAll();
+    }
+
+    @Scheduled(initialDelayString = "${app.home-page.incremental-refresh-ms:15000}",
+            fixedDelayString = "${app.home-page.incremental-refresh-ms:15000}")
+    public void refreshChanged() {
+        try {
+            if (homePageContentService.refreshIfStale()) {
+                log.debug("Rebuilt home-page rails after product changes");
+            }
+        } catch (RuntimeException e) {
+            log.warn("Home-page rails refresh failed; the previous snapshot stays in place", e);
+        }
+    }
+
+    @Scheduled(cron = "${app.home-page.full-refresh-cron:0 */10 * * * *}")
+    public void refreshAll() {
+        try {
+            homePageContentService.refresh();
+        } catch (RuntimeException e) {
+            log.warn("Home-page rails refresh failed; the previous snapshot stays in place", e);
+        }
+    }
+}
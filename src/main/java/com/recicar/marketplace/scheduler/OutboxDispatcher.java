@@ -0,0 +1,107 @@
+package com.recicar.marketplace.scheduler;
+
+import com.recicar.marketplace.entity.OutboxEvent;
+import com.recicar.marketplace.service.OutboxService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers due outbox events on virtual threads. At most {@code app.outbox.max-concurrency}
+ * deliveries are in flight; a poll claims only as many events as there are free slots and
+ * leaves the rest for the next poll, so a slow mail provider backs the outbox up in the table
+ * rather than in memory, and never holds up the shared scheduler thread.
+ */
+@Slf4j
+@Component
+public class OutboxDispatcher {
+
+    private final OutboxService outboxService;
+    private final int batchSize;
+    private final Semaphore inFlight;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("outbox-", 0).factory());
+
+    public OutboxDispatcher(OutboxService outboxService,
+                            @Value("${app.outbox.batch-size:100}") int batchSize,
+                            @Value("${app.outbox.max-concurrency:16}") int maxConcurrency) {
+        this.outboxService = outboxService;
+        this.batchSize = batchSize;
+        this.inFlight = new Semaphore(maxConcurrency);
+    }
+
+    @Scheduled(initialDelayString = "${app.outbox.poll-interval-ms:1000}",
+            fixedDelayString = "${app.outbox.poll-interval-ms:1000}")
+    public void dispatchDue() {
+        try {
+            int limit;
+            List<OutboxEvent> claimed;
+            do {
+                // Only this method takes permits, so the free ones cannot shrink before they are used
+                limit = Math.min(batchSize, inFlight.availablePermits());
+                if (limit == 0) {
+                    return;
+                }
+                claimed = outboxService.claimDue(limit);
+                for (OutboxEvent event : claimed) {
+                    if (!inFlight.tryAcquire()) {
+                        // Not expected; the claim lease runs out and a later poll delivers it
+                        log.warn("No delivery slot for claimed outbox event {}", event.getId());
+                        continue;
+                    }
+                    submit(event);
+                }
+            } while (claimed.size() == limit);
+        } catch (RuntimeException e) {
+            log.warn("Claiming outbox events failed; due events are picked up by the next run", e);
+        }
+    }
+
+    private void submit(OutboxEvent event) {
+        try {
+            executor.execute(() -> {
+                try {
+                    deliver(event);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the claim lease runs out and another run delivers the event
+            inFlight.release();
+        }
+    }
+
+    private void deliver(OutboxEvent event) {
+        try {
+            outboxService.deliver(event);
+            outboxService.markDelivered(event.getId());
+        } catch (RuntimeException e) {
+            log.warn("Delivering outbox event {} ({}) failed on attempt {}",
+                    event.getId(), event.getEventType(), event.getAttempts(), e);
+            try {
+                outboxService.markFailed(event.getId(), e);
+            } catch (RuntimeException markError) {
+                log.warn("Recording failure of outbox event {} failed; retried after its claim lease",
+                        event.getId(), markError);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+}
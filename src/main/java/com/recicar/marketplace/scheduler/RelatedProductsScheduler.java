@@ -0,0 +1,63 @@
+package com.recicar.marketplace.scheduler;
+
+import com.recicar.marketplace.service.RelatedProductsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps {@code product_related} current: changed products every few seconds, the whole
+ * active catalog nightly, and once at startup while the table is still empty.
+ */
+@Slf4j
+@Component
+public class RelatedProductsScheduler {
+
+    private final RelatedProductsService relatedProductsService;
+
+    public RelatedProductsScheduler(RelatedProductsService relatedProductsService) {
+        this.relatedProductsService = relatedProductsService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            if (!relatedProductsService.hasStoredNeighbours()) {
+                refreshAll();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not check stored related products; waiting for the nightly refresh", e);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.related-products.incremental-refresh-ms:30000}",
+            fixedDelayString = "${app.related-products.incremental-refresh-ms:30000}")
+    public void refreshChanged() {
+        try {
+            int rescored = relatedProductsService.refreshChanged();
+            if (rescored > 0) {
+                log.debug("Re-scored related products of {} products", rescored);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Incremental related-products refresh failed; the nightly refresh will catch up", e);
+        }
+    }
+
+    @Scheduled(cron = "${app.related-products.full-refresh-cron:0 30 3 * * *}")
+    public void refreshAll() {
+        long started = System.nanoTime();
+        int batches = 0;
+        try {
+            Long afterId = 0L;
+            while ((afterId = relatedProductsService.refreshActiveAfter(afterId)) != null) {
+                batches++;
+            }
+            log.info("Related products refreshed in {} batches in {} ms", batches,
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Related-products refresh stopped after {} batches", batches, e);
+        }
+    }
+}
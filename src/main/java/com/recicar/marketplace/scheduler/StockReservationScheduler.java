@@ -0,0 +1,43 @@
+package com.recicar.marketplace.scheduler;
+
+import com.recicar.marketplace.service.StockReservationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Returns abandoned checkout holds to stock once their TTL has passed.
+ */
+@Slf4j
+@Component
+public class StockReservationScheduler {
+
+    private final StockReservationService stockReservationService;
+
+    public StockReservationScheduler(StockReservationService stockReservationService) {
+        this.stockReservationService = stockReservationService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        releaseExpired();
+    }
+
+    @Scheduled(initialDelayString = "${app.stock-reservation.release-interval-ms:30000}",
+            fixedDelayString = "${app.stock-reservation.release-interval-ms:30000}")
+    public void releaseExpired() {
+        try {
+            int released;
+            do {
+                released = stockReservationService.releaseExpired();
+                if (released > 0) {
+                    log.debug("Released {} expired stock holds", released);
+                }
+            } while (released == StockReservationService.RELEASE_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            log.warn("Releasing expired stock holds failed; they stay held until the next run", e);
+        }
+    }
+}
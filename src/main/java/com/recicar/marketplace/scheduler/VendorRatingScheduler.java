@@ -0,0 +1,50 @@
+package com.recicar.marketplace.scheduler;
+
+import com.recicar.marketplace.service.VendorReputationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the vendor rating snapshot current: changed vendors every few seconds, everyone on
+ * the full-refresh schedule and once at startup.
+ */
+@Slf4j
+@Component
+public class VendorRatingScheduler {
+
+    private final VendorReputationService vendorReputationService;
+
+    public VendorRatingScheduler(VendorReputationService vendorReputationService) {
+        this.vendorReputationService = vendorReputationService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        refreshAll();
+    }
+
+    @Scheduled(initialDelayString = "${app.vendor-rating.incremental-refresh-ms:10000}",
+            fixedDelayString = "${app.vendor-rating.incremental-refresh-ms:10000}")
+    public void refreshChanged() {
+        try {
+            int rerated = vendorReputationService.refreshChanged();
+            if (rerated > 0) {
+                log.debug("Re-rated {} vendors after metric changes", rerated);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Incremental vendor rating refresh failed; the next full refresh will catch up", e);
+        }
+    }
+
+    @Scheduled(cron = "${app.vendor-rating.full-refresh-cron:0 15 * * * *}")
+    public void refreshAll() {
+        try {
+            vendorReputationService.refreshAll();
+        } catch (RuntimeException e) {
+            log.warn("Vendor rating snapshot refresh failed; cards keep the previous ratings", e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.recicar.marketplace.scheduler;
+
+import com.recicar.marketplace.service.VendorSalesRollupService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the vendor sales rollup current: days touched by order changes shortly after the change,
+ * and the trailing {@code app.vendor-sales-rollup.reconcile-days} every night.
+ */
+@Slf4j
+@Component
+public class VendorSalesRollupScheduler {
+
+    private final VendorSalesRollupService vendorSalesRollupService;
+    private final int reconcileDays;
+
+    public VendorSalesRollupScheduler(VendorSalesRollupService vendorSalesRollupService,
+                                      @Value("${app.vendor-sales-rollup.reconcile-days:7}") int reconcileDays) {
+        this.vendorSalesRollupService = vendorSalesRollupService;
+        this.reconcileDays = reconcileDays;
+    }
+
+    @Scheduled(initialDelayString = "${app.vendor-sales-rollup.refresh-interval-ms:30000}",
+            fixedDelayString = "${app.vendor-sales-rollup.refresh-interval-ms:30000}")
+    public void refreshChanged() {
+        try {
+            int days = vendorSalesRollupService.refreshPending();
+            if (days > 0) {
+                log.debug("Recomputed vendor sales rollup for {} days", days);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Vendor sales rollup refresh failed; the days stay marked for the next run", e);
+        }
+    }
+
+    @Scheduled(cron = "${app.vendor-sales-rollup.reconcile-cron:0 20 2 * * *}")
+    public void reconcile() {
+        try {
+            vendorSalesRollupService.reconcile(reconcileDays);
+        } catch (RuntimeException e) {
+            log.warn("Vendor sales rollup reconciliation failed", e);
+        }
+    }
+}
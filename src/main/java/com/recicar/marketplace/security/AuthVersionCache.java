@@ -0,0 +1,55 @@
+package com.recicar.marketplace.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.recicar.marketplace.event.UserAuthVersionChangedEvent;
+import com.recicar.marketplace.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Auth version per user id for {@link SessionAuthVersionFilter}, so an authenticated request
+ * costs a map lookup instead of a user query. Entries are dropped once a version bump commits on
+ * this node; other nodes hear about it through {@link RedisAuthVersionInvalidationRelay} when
+ * Redis is configured, and at the latest when {@code app.auth-version-cache.ttl} runs out.
+ */
+@Component
+public class AuthVersionCache {
+
+    /**
+     * Version of users that no longer exist; never equal to a session stamp.
+     */
+    public static final long MISSING = Long.MIN_VALUE;
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Long> versions;
+
+    public AuthVersionCache(UserRepository userRepository,
+                            @Value("${app.auth-version-cache.max-users:100000}") long maxUsers,
+                            @Value("${app.auth-version-cache.ttl:30s}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * @return the user's current auth version, or {@link #MISSING}
+     */
+    public long authVersion(Long userId) {
+        return versions.get(userId, id -> userRepository.findAuthVersionById(id).orElse(MISSING));
+    }
+
+    public void invalidate(Long userId) {
+        versions.invalidate(userId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthVersionChanged(UserAuthVersionChangedEvent event) {
+        invalidate(event.userId());
+    }
+}
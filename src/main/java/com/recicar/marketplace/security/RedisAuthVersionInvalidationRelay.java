@@ -0,0 +1,68 @@
+package com.recicar.marketplace.security;
+
+import com.recicar.marketplace.event.UserAuthVersionChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Cross-node channel for {@link AuthVersionCache}: committed auth version bumps are published on
+ * a Redis topic, and every node (this one included) drops the user's cached version when the
+ * message arrives. Only with the {@code redis-cache} profile; without it, other nodes rely on the
+ * cache TTL.
+ */
+@Slf4j
+@Component
+@Profile("redis-cache")
+@Lazy(false) // Must subscribe at startup, not on the first local bump
+public class RedisAuthVersionInvalidationRelay {
+
+    static final String TOPIC = "recicar:auth-version";
+
+    private final StringRedisTemplate redis;
+    private final RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+
+    public RedisAuthVersionInvalidationRelay(RedisConnectionFactory connectionFactory, AuthVersionCache authVersionCache) {
+        this.redis = new StringRedisTemplate(connectionFactory);
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            try {
+                authVersionCache.invalidate(Long.valueOf(body));
+            } catch (NumberFormatException e) {
+                log.warn("Ignoring malformed auth version invalidation '{}'", body);
+            }
+        }, new ChannelTopic(TOPIC));
+    }
+
+    @PostConstruct
+    public void start() {
+        container.afterPropertiesSet();
+        container.start();
+    }
+
+    @PreDestroy
+    public void stop() throws Exception {
+        container.destroy();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthVersionChanged(UserAuthVersionChangedEvent event) {
+        try {
+            redis.convertAndSend(TOPIC, event.userId().toString());
+        } catch (RuntimeException e) {
+            log.warn("Publishing auth version bump of user {} failed; other nodes notice it when their cache entry expires",
+                    event.userId(), e);
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package com.recicar.marketplace.security;
 
 import com.recicar.marketplace.entity.User;
-import com.recicar.marketplace.repository.UserRepository;
 import com.recicar.marketplace.service.CustomUserDetailsService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -13,20 +12,20 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Optional;
 
 /**
  * Forces logout when {@link User#getAuthVersion()} no longer matches the session stamp
- * (e.g. after password reset from another device).
+ * (e.g. after password reset from another device). Versions come from {@link AuthVersionCache},
+ * so the check does not query the database on every request.
  */
 public class SessionAuthVersionFilter extends OncePerRequestFilter {
 
     public static final String SESSION_AUTH_VERSION_ATTR = "RECICAR_AUTH_VERSION";
 
-    private final UserRepository userRepository;
+    private final AuthVersionCache authVersionCache;
 
-    public SessionAuthVersionFilter(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public SessionAuthVersionFilter(AuthVersionCache authVersionCache) {
+        this.authVersionCache = authVersionCache;
     }
 
     @Override
@@ -39,20 +38,19 @@ public class SessionAuthVersionFilter extends OncePerRequestFilter {
 
             HttpSession session = request.getSession(false);
             if (session != null) {
-                Optional<User> dbUser = userRepository.findById(principal.getUserId());
-                if (dbUser.isEmpty()) {
+                long authVersion = authVersionCache.authVersion(principal.getUserId());
+                if (authVersion == AuthVersionCache.MISSING) {
                     SecurityContextHolder.clearContext();
                     session.invalidate();
                     reject(request, response);
                     return;
                 }
-                User u = dbUser.get();
                 Object attr = session.getAttribute(SESSION_AUTH_VERSION_ATTR);
                 if (attr == null) {
-                    session.setAttribute(SESSION_AUTH_VERSION_ATTR, u.getAuthVersion());
+                    session.setAttribute(SESSION_AUTH_VERSION_ATTR, authVersion);
                 } else {
                     long sessionV = ((Number) attr).longValue();
-                    if (sessionV != u.getAuthVersion()) {
+                    if (sessionV != authVersion) {
                         SecurityContextHolder.clearContext();
                         session.invalidate();
                         reject(request, response);
@@ -0,0 +1,11 @@
+package com.recicar.marketplace.service;
+
+import com.recicar.marketplace.entity.Order;
+
+/**
+ * Sink for business analytics events, fed from the outbox after the originating transaction commits.
+ */
+public interface AnalyticsService {
+
+    void recordOrderPlaced(Order order);
+}
@@ -0,0 +1,17 @@
+package com.recicar.marketplace.service;
+
+import com.recicar.marketplace.entity.Order;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@Service
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+    @Override
+    public void recordOrderPlaced(Order order) {
+        log.info("Analytics — order placed: {} | lines: {} | total: {}",
+                order.getOrderNumber(), order.getItems() != null ? order.getItems().size() : 0, order.getTotalAmount());
+        // In a real application, forward to the analytics pipeline here
+    }
+}
@@ -0,0 +1,181 @@
+package com.recicar.marketplace.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.recicar.marketplace.dto.CarReferenceRow;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Immutable snapshot of the car make, model and trim dropdowns, held as the exact JSON bodies
+ * they are served with. Every list is serialized, and gzipped when that pays off, once per
+ * build. A lookup is a binary search over a sorted {@code long[]} of parent ids. Each body
+ * carries a strong ETag derived from its content, so a rebuild over unchanged data keeps every
+ * ETag and clients keep getting 304s.
+ */
+public final class CarReferenceData {
+
+    /**
+     * A serialized list. {@code gzipBody} is {@code null} when the list is too small to be worth
+     * compressing.
+     */
+    public record Json(byte[] body, byte[] gzipBody, String etag) {
+
+        /**
+         * ETag of the representation actually sent; the gzipped one is a different entity.
+         */
+        public String etag(boolean gzip) {
+            return gzip ? etag + "-gz" : etag;
+        }
+    }
+
+    /** Same threshold as {@code server.compression.min-response-size}. */
+    static final int GZIP_MIN_BYTES = 1024;
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final Json EMPTY = serialize(List.of());
+
+    private final Json makes;
+    private final long[] makeIds;
+    private final Json[] modelsByMake;
+    private final long[] modelIds;
+    private final Json[] trimsByModel;
+    private final int makeCount;
+    private final int modelCount;
+    private final int trimCount;
+
+    private CarReferenceData(Json makes, long[] makeIds, Json[] modelsByMake, long[] modelIds, Json[] trimsByModel,
+                             int makeCount, int modelCount, int trimCount) {
+        this.makes = makes;
+        this.makeIds = makeIds;
+        this.modelsByMake = modelsByMake;
+        this.modelIds = modelIds;
+        this.trimsByModel = trimsByModel;
+        this.makeCount = makeCount;
+        this.modelCount = modelCount;
+        this.trimCount = trimCount;
+    }
+
+    public static CarReferenceData empty() {
+        return build(List.of(), List.of(), List.of());
+    }
+
+    /**
+     * @param makes  in display order
+     * @param models in display order within each make
+     * @param trims  in display order within each model
+     */
+    public static CarReferenceData build(List<CarReferenceRow> makes, List<CarReferenceRow> models,
+                                         List<CarReferenceRow> trims) {
+        Group modelGroups = Group.of(models);
+        Group trimGroups = Group.of(trims);
+        return new CarReferenceData(serialize(makes), modelGroups.parentIds, modelGroups.lists,
+                trimGroups.parentIds, trimGroups.lists, makes.size(), models.size(), trims.size());
+    }
+
+    public Json makes() {
+        return makes;
+    }
+
+    /**
+     * Models of the make; an empty list for unknown makes.
+     */
+    public Json models(long makeId) {
+        int index = Arrays.binarySearch(makeIds, makeId);
+        return index >= 0 ? modelsByMake[index] : EMPTY;
+    }
+
+    /**
+     * Trims of the model; an empty list for unknown models.
+     */
+    public Json trims(long modelId) {
+        int index = Arrays.binarySearch(modelIds, modelId);
+        return index >= 0 ? trimsByModel[index] : EMPTY;
+    }
+
+    public int makeCount() {
+        return makeCount;
+    }
+
+    public int modelCount() {
+        return modelCount;
+    }
+
+    public int trimCount() {
+        return trimCount;
+    }
+
+    /**
+     * Children split into one serialized list per parent, indexed by ascending parent id.
+     */
+    private record Group(long[] parentIds, Json[] lists) {
+
+        static Group of(List<CarReferenceRow> rows) {
+            List<CarReferenceRow> sorted = new ArrayList<>(rows);
+            // Stable, so the display order within a parent is kept
+            sorted.sort(Comparator.comparingLong(CarReferenceRow::parentId));
+            List<Long> parents = new ArrayList<>();
+            List<Json> lists = new ArrayList<>();
+            int start = 0;
+            for (int i = 1; i <= sorted.size(); i++) {
+                if (i == sorted.size() || sorted.get(i).parentId().longValue() != sorted.get(start).parentId()) {
+                    parents.add(sorted.get(start).parentId());
+                    lists.add(serialize(sorted.subList(start, i)));
+                    start = i;
+                }
+            }
+            return new Group(parents.stream().mapToLong(Long::longValue).toArray(), lists.toArray(Json[]::new));
+        }
+    }
+
+    static Json serialize(List<CarReferenceRow> rows) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32 + rows.size() * 32);
+        try (JsonGenerator generator = JSON.createGenerator(out)) {
+            generator.writeStartArray();
+            for (CarReferenceRow row : rows) {
+                generator.writeStartObject();
+                generator.writeNumberField("id", row.id());
+                generator.writeStringField("name", row.name());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] body = out.toByteArray();
+        return new Json(body, gzip(body), etag(body));
+    }
+
+    private static byte[] gzip(byte[] body) {
+        if (body.length < GZIP_MIN_BYTES) {
+            return null;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] compressed = out.toByteArray();
+        return compressed.length < body.length ? compressed : null;
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
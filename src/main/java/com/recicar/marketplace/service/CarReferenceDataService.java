@@ -0,0 +1,65 @@
+package com.recicar.marketplace.service;
+
+import com.recicar.marketplace.repository.CarReferenceJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Holds the current {@link CarReferenceData}. The make, model and trim tables only change with
+ * data loads, so the snapshot is built once at startup and afterwards only on an explicit
+ * {@link #reload()}; the dropdown endpoints never query.
+ */
+@Slf4j
+@Service
+public class CarReferenceDataService {
+
+    private final CarReferenceJdbcRepository repository;
+    private final TransactionTemplate snapshotTransaction;
+
+    private volatile CarReferenceData data;
+
+    public CarReferenceDataService(CarReferenceJdbcRepository repository,
+                                   PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        // Programmatic so that current() and the startup listener, which call reload() on
+        // this instance rather than through the proxy, still read in one snapshot
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * The current snapshot; only the very first call before the startup build hits the database.
+     */
+    public CarReferenceData current() {
+        CarReferenceData snapshot = data;
+        return snapshot != null ? snapshot : reload();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.warn("Car reference data load failed; it is loaded on first use instead", e);
+        }
+    }
+
+    /**
+     * Reads all three tables in one snapshot and swaps the result in; requests in flight keep
+     * the snapshot they started with.
+     */
+    public synchronized CarReferenceData reload() {
+        CarReferenceData snapshot = snapshotTransaction.execute(status -> CarReferenceData.build(
+                repository.findMakes(), repository.findModels(), repository.findTrims()));
+        data = snapshot;
+        log.info("Loaded car reference data: {} makes, {} models, {} trims",
+                snapshot.makeCount(), snapshot.modelCount(), snapshot.trimCount());
+        return snapshot;
+    }
+}
@@ -17,5 +17,10 @@ public interface CartService {
 
     void validateCart(Long userId);
 
+    /**
+     * Takes or refreshes the checkout stock holds for the items in the user's cart.
+     */
+    void reserveCartStock(Long userId);
+
     BigDecimal calculateShippingCost(Long userId, String country, String state, String zipCode);
 }
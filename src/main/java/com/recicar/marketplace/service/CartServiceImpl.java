@@ -14,6 +14,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -24,16 +26,19 @@ public class CartServiceImpl implements CartService {
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
     private final CartPricingService cartPricingService;
+    private final StockReservationService stockReservationService;
 
     public CartServiceImpl(
             CartRepository cartRepository,
             ProductRepository productRepository,
             UserRepository userRepository,
-            CartPricingService cartPricingService) {
+            CartPricingService cartPricingService,
+            StockReservationService stockReservationService) {
         this.cartRepository = cartRepository;
         this.productRepository = productRepository;
         this.userRepository = userRepository;
         this.cartPricingService = cartPricingService;
+        this.stockReservationService = stockReservationService;
     }
 
     @Override
@@ -66,7 +71,7 @@ public class CartServiceImpl implements CartService {
 
         int newQuantity = (cartItem != null) ? cartItem.getQuantity() + quantity : quantity;
 
-        if (newQuantity > product.getStockQuantity()) {
+        if (newQuantity > availableStock(userId, product)) {
             throw new RuntimeException("Not enough stock for product: " + product.getName());
         }
         if (newQuantity > 10) {
@@ -97,7 +102,7 @@ public class CartServiceImpl implements CartService {
                 .findFirst()
                 .orElseThrow(() -> new RuntimeException("Item not found in cart"));
 
-        if (cartItem.getProduct().getStockQuantity() < quantity) {
+        if (availableStock(userId, cartItem.getProduct()) < quantity) {
             throw new RuntimeException("Not enough stock for product: " + cartItem.getProduct().getName());
         }
 
@@ -136,8 +141,10 @@ public class CartServiceImpl implements CartService {
     @Transactional(readOnly = true)
     public void validateCart(Long userId) {
         Cart cart = getCartForUser(userId);
+        Map<Long, Integer> held = stockReservationService.heldQuantities(userId);
         for (CartItem item : cart.getItems()) {
-            if (item.getProduct().getStockQuantity() < item.getQuantity()) {
+            int available = item.getProduct().getStockQuantity() + held.getOrDefault(item.getProduct().getId(), 0);
+            if (available < item.getQuantity()) {
                 throw new RuntimeException("Not enough stock for product: " + item.getProduct().getName());
             }
             if (item.getQuantity() > 10) {
@@ -146,6 +153,24 @@ public class CartServiceImpl implements CartService {
         }
     }
 
+    @Override
+    @Transactional
+    public void reserveCartStock(Long userId) {
+        Cart cart = getCartForUser(userId);
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (CartItem item : cart.getItems()) {
+            quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+        }
+        stockReservationService.hold(userId, quantities);
+    }
+
+    /**
+     * Stock the user may put in the cart: what is free plus what their own checkout already holds.
+     */
+    private int availableStock(Long userId, Product product) {
+        return product.getStockQuantity() + stockReservationService.heldQuantities(userId).getOrDefault(product.getId(), 0);
+    }
+
     private Cart getCartForUser(Long userId) {
         return cartRepository.findByUserId(userId)
                 .orElseGet(() -> {
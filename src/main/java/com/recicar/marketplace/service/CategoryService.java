@@ -5,6 +5,8 @@ import com.recicar.marketplace.repository.CategoryRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,9 +15,11 @@ import java.util.Optional;
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final CategoryTreeService categoryTreeService;
 
-    public CategoryService(CategoryRepository categoryRepository) {
+    public CategoryService(CategoryRepository categoryRepository, CategoryTreeService categoryTreeService) {
         this.categoryRepository = categoryRepository;
+        this.categoryTreeService = categoryTreeService;
     }
 
     /**
@@ -83,19 +87,24 @@ public class CategoryService {
     }
 
     /**
-     * Get root categories with product counts
+     * Get root categories with product counts (including all subcategories), from the category tree
      */
-    @Transactional(readOnly = true)
-    public List<Object[]> findRootCategoriesWithProductCounts() {
-        return categoryRepository.findRootCategoriesWithProductCounts();
+    public List<CategoryTree.Node> findRootCategoriesWithProductCounts() {
+        return categoryTreeService.current().roots();
     }
 
     /**
-     * Count products in category
+     * Count active products in category and all its subcategories, from the category tree
      */
-    @Transactional(readOnly = true)
     public long countProductsInCategory(Long categoryId) {
-        return categoryRepository.countProductsInCategory(categoryId);
+        return categoryTreeService.current().productCount(categoryId);
+    }
+
+    /**
+     * Category id followed by the ids of all its subcategories, from the category tree
+     */
+    public List<Long> findSubtreeIds(Long categoryId) {
+        return categoryTreeService.current().subtreeIds(categoryId);
     }
 
     /**
@@ -198,27 +207,21 @@ public class CategoryService {
     }
 
     /**
-     * Get category hierarchy (breadcrumb)
+     * Get category hierarchy (breadcrumb), root first, from the category tree
      */
-    @Transactional(readOnly = true)
-    public List<Category> getCategoryHierarchy(Category category) {
-        List<Category> hierarchy = new java.util.ArrayList<>();
-        Category current = category;
-        
-        while (current != null) {
-            hierarchy.add(0, current);
-            current = current.getParent();
-        }
-        
-        return hierarchy;
+    public List<CategoryTree.Node> getCategoryHierarchy(Category category) {
+        return categoryTreeService.current().breadcrumb(category.getId());
     }
 
     /**
      * Returns category ids in hierarchy from current node to root.
      */
-    @Transactional(readOnly = true)
     public List<Long> findHierarchyBySlug(String slug) {
-        return categoryRepository.findHierarchy(slug);
+        CategoryTree tree = categoryTreeService.current();
+        List<Long> ids = new ArrayList<>();
+        tree.nodeBySlug(slug).ifPresent(node -> tree.breadcrumb(node.id()).forEach(step -> ids.add(step.id())));
+        Collections.reverse(ids);
+        return ids;
     }
 
     /**
@@ -0,0 +1,250 @@
+package com.recicar.marketplace.service;
+
+import com.recicar.marketplace.dto.CategoryTreeRow;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable snapshot of the whole category tree. Nodes are numbered in depth-first pre-order
+ * (Euler tour), so the subtree of a node is the contiguous range {@code [enter, exit)}:
+ * descendant checks are two comparisons and descendant id lists are array slices. Every node
+ * carries its parent index and the active product count of its whole subtree, so breadcrumbs
+ * cost O(depth) and counts O(1), without queries.
+ */
+public final class CategoryTree {
+
+    /**
+     * A category in the snapshot. {@code productCount} covers the category and all its descendants.
+     */
+    public record Node(
+            Long id,
+            Long parentId,
+            String name,
+            String slug,
+            boolean active,
+            int sortOrder,
+            int depth,
+            int enter,
+            int exit,
+            long productCount
+    ) {
+
+        public boolean hasChildren() {
+            return exit - enter > 1;
+        }
+    }
+
+    private static final Comparator<CategoryTreeRow> SIBLING_ORDER = Comparator
+            .comparing((CategoryTreeRow row) -> row.sortOrder() != null ? row.sortOrder() : 0)
+            .thenComparing(CategoryTreeRow::id);
+
+    private final Node[] nodes;
+    private final int[] parents;
+    private final List<Long> ids;
+    private final Map<Long, Integer> indexById;
+    private final Map<String, Integer> indexBySlug;
+
+    private CategoryTree(Node[] nodes, int[] parents) {
+        this.nodes = nodes;
+        this.parents = parents;
+        Long[] idArray = new Long[nodes.length];
+        Map<Long, Integer> byId = new HashMap<>(nodes.length * 2);
+        Map<String, Integer> bySlug = new HashMap<>(nodes.length * 2);
+        for (int i = 0; i < nodes.length; i++) {
+            idArray[i] = nodes[i].id();
+            byId.put(nodes[i].id(), i);
+            if (nodes[i].slug() != null) {
+                bySlug.put(nodes[i].slug(), i);
+            }
+        }
+        this.ids = Collections.unmodifiableList(Arrays.asList(idArray));
+        this.indexById = byId;
+        this.indexBySlug = bySlug;
+    }
+
+    public static CategoryTree empty() {
+        return new CategoryTree(new Node[0], new int[0]);
+    }
+
+    /**
+     * @param categories    every category, active or not
+     * @param productCounts active products per category id, not rolled up
+     */
+    public static CategoryTree build(List<CategoryTreeRow> categories, Map<Long, Long> productCounts) {
+        Map<Long, CategoryTreeRow> rowsById = new HashMap<>(categories.size() * 2);
+        for (CategoryTreeRow row : categories) {
+            rowsById.put(row.id(), row);
+        }
+        Map<Long, List<CategoryTreeRow>> childrenByParent = new HashMap<>();
+        List<CategoryTreeRow> roots = new ArrayList<>();
+        for (CategoryTreeRow row : categories) {
+            if (row.parentId() == null || !rowsById.containsKey(row.parentId())) {
+                roots.add(row);
+            } else {
+                childrenByParent.computeIfAbsent(row.parentId(), parent -> new ArrayList<>()).add(row);
+            }
+        }
+        roots.sort(SIBLING_ORDER);
+        childrenByParent.values().forEach(children -> children.sort(SIBLING_ORDER));
+
+        int size = categories.size();
+        CategoryTreeRow[] rows = new CategoryTreeRow[size];
+        int[] parents = new int[size];
+        int[] depths = new int[size];
+        int[] exits = new int[size];
+        Map<Long, Integer> visited = new HashMap<>(size * 2);
+        int next = 0;
+
+        // Roots first; then rows caught in a parent cycle, each cut loose as a root
+        List<CategoryTreeRow> starts = new ArrayList<>(roots);
+        starts.addAll(categories.stream().sorted(SIBLING_ORDER).toList());
+        for (CategoryTreeRow start : starts) {
+            if (visited.containsKey(start.id())) {
+                continue;
+            }
+            // Iterative pre-order walk; a frame is {index, next child position}
+            Deque<int[]> stack = new ArrayDeque<>();
+            rows[next] = start;
+            parents[next] = -1;
+            depths[next] = 0;
+            visited.put(start.id(), next);
+            stack.push(new int[]{next++, 0});
+            while (!stack.isEmpty()) {
+                int[] frame = stack.peek();
+                List<CategoryTreeRow> children = childrenByParent.getOrDefault(rows[frame[0]].id(), List.of());
+                CategoryTreeRow child = null;
+                while (frame[1] < children.size() && child == null) {
+                    CategoryTreeRow candidate = children.get(frame[1]++);
+                    if (!visited.containsKey(candidate.id())) {
+                        child = candidate;
+                    }
+                }
+                if (child == null) {
+                    exits[frame[0]] = next;
+                    stack.pop();
+                    continue;
+                }
+                rows[next] = child;
+                parents[next] = frame[0];
+                depths[next] = depths[frame[0]] + 1;
+                visited.put(child.id(), next);
+                stack.push(new int[]{next++, 0});
+            }
+        }
+
+        long[] counts = new long[size];
+        for (int i = size - 1; i >= 0; i--) {
+            counts[i] += productCounts.getOrDefault(rows[i].id(), 0L);
+            if (parents[i] >= 0) {
+                counts[parents[i]] += counts[i];
+            }
+        }
+        Node[] nodes = new Node[size];
+        for (int i = 0; i < size; i++) {
+            CategoryTreeRow row = rows[i];
+            nodes[i] = new Node(row.id(), parents[i] >= 0 ? rows[parents[i]].id() : null, row.name(), row.slug(),
+                    row.active(), row.sortOrder() != null ? row.sortOrder() : 0, depths[i], i, exits[i], counts[i]);
+        }
+        return new CategoryTree(nodes, parents);
+    }
+
+    public int size() {
+        return nodes.length;
+    }
+
+    /**
+     * Every category, active or not, parents before children.
+     */
+    public List<Node> nodes() {
+        return List.of(nodes);
+    }
+
+    public Optional<Node> node(Long categoryId) {
+        Integer index = indexById.get(categoryId);
+        return index != null ? Optional.of(nodes[index]) : Optional.empty();
+    }
+
+    public Optional<Node> nodeBySlug(String slug) {
+        Integer index = indexBySlug.get(slug);
+        return index != null ? Optional.of(nodes[index]) : Optional.empty();
+    }
+
+    /**
+     * Path from the root down to the category, both included; empty for unknown ids.
+     */
+    public List<Node> breadcrumb(Long categoryId) {
+        Integer index = indexById.get(categoryId);
+        if (index == null) {
+            return List.of();
+        }
+        Node[] path = new Node[nodes[index].depth() + 1];
+        for (int i = index; i >= 0; i = parents[i]) {
+            path[nodes[i].depth()] = nodes[i];
+        }
+        return List.of(path);
+    }
+
+    /**
+     * The category and all its descendants, parents before children; empty for unknown ids.
+     */
+    public List<Long> subtreeIds(Long categoryId) {
+        Integer index = indexById.get(categoryId);
+        return index != null ? ids.subList(index, nodes[index].exit()) : List.of();
+    }
+
+    /**
+     * Whether {@code categoryId} is {@code ancestorId} itself or one of its descendants.
+     */
+    public boolean isInSubtree(Long ancestorId, Long categoryId) {
+        Integer ancestor = indexById.get(ancestorId);
+        Integer index = indexById.get(categoryId);
+        return ancestor != null && index != null && ancestor <= index && index < nodes[ancestor].exit();
+    }
+
+    /**
+     * Active products in the category and all its descendants; 0 for unknown ids.
+     */
+    public long productCount(Long categoryId) {
+        Integer index = indexById.get(categoryId);
+        return index != null ? nodes[index].productCount() : 0L;
+    }
+
+    /**
+     * Active top-level categories in display order.
+     */
+    public List<Node> roots() {
+        List<Node> roots = new ArrayList<>();
+        for (int i = 0; i < nodes.length; i = nodes[i].exit()) {
+            if (nodes[i].active() && nodes[i].parentId() == null) {
+                roots.add(nodes[i]);
+            }
+        }
+        return roots;
+    }
+
+    /**
+     * Active direct children in display order; empty for unknown ids.
+     */
+    public List<Node> children(Long categoryId) {
+        Integer index = indexById.get(categoryId);
+        if (index == null) {
+            return List.of();
+        }
+        List<Node> children = new ArrayList<>();
+        for (int i = index + 1; i < nodes[index].exit(); i = nodes[i].exit()) {
+            if (nodes[i].active()) {
+                children.add(nodes[i]);
+            }
+        }
+        return children;
+    }
+}
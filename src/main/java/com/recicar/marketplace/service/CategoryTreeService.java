@@ -0,0 +1,86 @@
+package com.recicar.marketplace.service;
+
+import com.recicar.marketplace.event.CategoryChangedEvent;
+import com.recicar.marketplace.event.ProductChangedEvent;
+import com.recicar.marketplace.repository.CategoryRepository;
+import com.recicar.marketplace.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Holds the current {@link CategoryTree}. A category change rebuilds it as soon as the change
+ * commits; product changes only move the rolled-up counts, so they mark the snapshot stale and
+ * the next scheduled {@link #refreshIfStale()} picks up a whole burst of them at once.
+ */
+@Slf4j
+@Service
+public class CategoryTreeService {
+
+    private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+
+    private volatile CategoryTree tree;
+    private volatile boolean stale;
+
+    public CategoryTreeService(CategoryRepository categoryRepository, ProductRepository productRepository) {
+        this.categoryRepository = categoryRepository;
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * The current snapshot; only the very first call before the startup build hits the database.
+     */
+    public CategoryTree current() {
+        CategoryTree snapshot = tree;
+        return snapshot != null ? snapshot : refresh();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            stale = true;
+            log.warn("Category tree rebuild after change of category {} failed; retried on schedule",
+                    event.categoryId(), e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        stale = true;
+    }
+
+    /**
+     * Rebuilds the snapshot if anything changed since the previous build.
+     *
+     * @return whether the snapshot was rebuilt
+     */
+    @Transactional(readOnly = true)
+    public boolean refreshIfStale() {
+        if (!stale && tree != null) {
+            return false;
+        }
+        refresh();
+        return true;
+    }
+
+    @Transactional(readOnly = true)
+    public synchronized CategoryTree refresh() {
+        stale = false;
+        Map<Long, Long> productCounts = new HashMap<>();
+        for (Object[] row : productRepository.countActiveByCategoryId()) {
+            if (row[0] != null) {
+                productCounts.put((Long) row[0], ((Number) row[1]).longValue());
+            }
+        }
+        CategoryTree snapshot = CategoryTree.build(categoryRepository.findTreeRows(), productCounts);
+        tree = snapshot;
+        return snapshot;
+    }
+}
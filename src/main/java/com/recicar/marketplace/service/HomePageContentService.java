@@ -0,0 +1,179 @@
+package com.recicar.marketplace.service;
+
+import com.recicar.marketplace.dto.HomePageContent;
+import com.recicar.marketplace.dto.HomeRailProduct;
+import com.recicar.marketplace.dto.ProductCursor;
+import com.recicar.marketplace.dto.ProductSnapshot;
+import com.recicar.marketplace.entity.Product;
+import com.recicar.marketplace.event.ProductChangedEvent;
+import com.recicar.marketplace.repository.ProductRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Builds the home-page rails (latest, body parts, engine parts) into an immutable
+ * {@link HomePageContent} snapshot that the home page renders without touching the database.
+ * <p>
+ * The snapshot is rebuilt on a schedule and shortly after a product change that can move a
+ * rail; until the first build completes it is built on demand.
+ */
+@Service
+public class HomePageContentService {
+
+    static final int LATEST_SIZE = 12;
+    static final int KEYWORD_RAIL_SIZE = 9;
+
+    /**
+     * Keyword rails: terms are tried in order and the rail is topped up with the latest products.
+     */
+    static final List<String> BODY_PART_TERMS = List.of("controller", "body");
+    static final List<String> ENGINE_PART_TERMS = List.of("driver", "engine");
+
+    private final ProductRepository productRepository;
+
+    private volatile HomePageContent content;
+    private volatile boolean stale;
+    /** Products on the current snapshot. */
+    private volatile Set<Long> shownProductIds = Set.of();
+    /** Oldest row of a full latest rail; {@code null} while the rail has room. */
+    private volatile ProductCursor latestCutoff;
+
+    public HomePageContentService(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * The current snapshot; only the very first call before the startup build hits the database.
+     */
+    public HomePageContent current() {
+        HomePageContent snapshot = content;
+        return snapshot != null ? snapshot : refresh();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (affectsContent(event)) {
+            stale = true;
+        }
+    }
+
+    /**
+     * Whether a change can move a rail: the product is on the home page, or it is active and
+     * either new enough for the latest rail or matching a keyword rail term. Stock updates of
+     * products off the home page, the bulk of the events, are ignored.
+     */
+    private boolean affectsContent(ProductChangedEvent event) {
+        ProductSnapshot product = event.product();
+        if (product == null || shownProductIds.contains(product.id())) {
+            return true;
+        }
+        if (event.removed() || !product.active()) {
+            return false;
+        }
+        ProductCursor cutoff = latestCutoff;
+        if (cutoff == null || product.createdAt() == null || !cutoff.precedes(product.createdAt(), product.id())) {
+            return true;
+        }
+        return matchesAny(product, BODY_PART_TERMS) || matchesAny(product, ENGINE_PART_TERMS);
+    }
+
+    /**
+     * Same test as the rail query: name or part number contains the term, ignoring case.
+     */
+    private static boolean matchesAny(ProductSnapshot product, List<String> terms) {
+        String name = product.name() == null ? "" : product.name().toLowerCase(Locale.ROOT);
+        String partNumber = product.partNumber() == null ? "" : product.partNumber().toLowerCase(Locale.ROOT);
+        for (String term : terms) {
+            if (name.contains(term) || partNumber.contains(term)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Rebuilds the snapshot if a product changed since the previous build.
+     *
+     * @return whether the snapshot was rebuilt
+     */
+    @Transactional(readOnly = true)
+    public boolean refreshIfStale() {
+        if (!stale && content != null) {
+            return false;
+        }
+        refresh();
+        return true;
+    }
+
+    @Transactional(readOnly = true)
+    public HomePageContent refresh() {
+        stale = false;
+        List<ProductCursor> latestRows = productRepository.findLatestActiveCursors(PageRequest.of(0, LATEST_SIZE));
+        List<Long> latest = latestRows.stream().map(ProductCursor::id).toList();
+        List<Long> bodyParts = keywordRail(BODY_PART_TERMS, latest);
+        List<Long> engineParts = keywordRail(ENGINE_PART_TERMS, latest);
+
+        Set<Long> productIds = new LinkedHashSet<>(latest);
+        productIds.addAll(bodyParts);
+        productIds.addAll(engineParts);
+        Map<Long, HomeRailProduct> products = load(productIds);
+
+        HomePageContent snapshot = new HomePageContent(
+                rail(latest, products),
+                rail(bodyParts, products),
+                rail(engineParts, products),
+                LocalDateTime.now());
+        shownProductIds = Set.copyOf(productIds);
+        latestCutoff = latestRows.size() < LATEST_SIZE ? null : latestRows.get(latestRows.size() - 1);
+        content = snapshot;
+        return snapshot;
+    }
+
+    private List<Long> keywordRail(List<String> terms, List<Long> latest) {
+        Set<Long> productIds = new LinkedHashSet<>();
+        for (String term : terms) {
+            if (productIds.size() >= KEYWORD_RAIL_SIZE) {
+                break;
+            }
+            productIds.addAll(productRepository.findActiveIdsByNameOrPartNumber(term, PageRequest.of(0, KEYWORD_RAIL_SIZE)));
+        }
+        for (Long productId : latest) {
+            if (productIds.size() >= KEYWORD_RAIL_SIZE) {
+                break;
+            }
+            productIds.add(productId);
+        }
+        return productIds.stream().limit(KEYWORD_RAIL_SIZE).toList();
+    }
+
+    private Map<Long, HomeRailProduct> load(Set<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, List<String>> imageUrls = new HashMap<>();
+        for (Object[] row : productRepository.findImageUrlsByProductIdIn(productIds)) {
+            imageUrls.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        Map<Long, HomeRailProduct> products = new HashMap<>();
+        for (Product product : productRepository.findWithCategoryByIdIn(productIds)) {
+            products.put(product.getId(), HomeRailProduct.of(product, imageUrls.getOrDefault(product.getId(), List.of())));
+        }
+        return products;
+    }
+
+    private static List<HomeRailProduct> rail(List<Long> productIds, Map<Long, HomeRailProduct> products) {
+        return productIds.stream().map(products::get).filter(Objects::nonNull).toList();
+    }
+}
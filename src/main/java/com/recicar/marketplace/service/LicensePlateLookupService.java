@@ -0,0 +1,155 @@
+package com.recicar.marketplace.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.recicar.marketplace.client.VehicleApiClient;
+import com.recicar.marketplace.dto.PlateLookupResult;
+import com.recicar.marketplace.dto.VehicleInfo;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves licence plates through {@link VehicleApiClient} without tying up request threads:
+ * <ul>
+ *     <li>answers are cached per normalized plate, found vehicles for {@code app.plate-lookup.ttl}
+ *     and unknown plates for the shorter {@code negative-ttl}; failures are not cached</li>
+ *     <li>concurrent lookups of the same plate share one registry call</li>
+ *     <li>registry calls run on virtual threads, at most {@code max-concurrent} at a time; past
+ *     that, lookups fail fast as {@link PlateLookupResult.Status#UNAVAILABLE} instead of queueing</li>
+ *     <li>a caller waits at most {@code timeout}; the call itself carries on and still fills the
+ *     cache for the next one</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class LicensePlateLookupService {
+
+    private static final Pattern PLATE = Pattern.compile("[A-Z0-9]{2,12}");
+    private static final Pattern SEPARATORS = Pattern.compile("[\\s-]+");
+
+    private final VehicleApiClient vehicleApiClient;
+    private final AsyncCache<String, Optional<VehicleInfo>> plates;
+    private final Semaphore permits;
+    private final Duration timeout;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("plate-lookup-", 0).factory());
+
+    public LicensePlateLookupService(VehicleApiClient vehicleApiClient,
+                                     @Value("${app.plate-lookup.ttl:24h}") Duration ttl,
+                                     @Value("${app.plate-lookup.negative-ttl:10m}") Duration negativeTtl,
+                                     @Value("${app.plate-lookup.max-entries:50000}") long maxEntries,
+                                     @Value("${app.plate-lookup.max-concurrent:16}") int maxConcurrent,
+                                     @Value("${app.plate-lookup.timeout:5s}") Duration timeout) {
+        this.vehicleApiClient = vehicleApiClient;
+        this.permits = new Semaphore(Math.max(1, maxConcurrent));
+        this.timeout = timeout;
+        this.plates = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new AnswerExpiry(ttl.toNanos(), negativeTtl.toNanos()))
+                .buildAsync();
+    }
+
+    /**
+     * Looks the plate up; the future always completes normally, at the latest after
+     * {@code app.plate-lookup.timeout}.
+     */
+    public CompletableFuture<PlateLookupResult> lookupAsync(String rawPlate) {
+        String plate = normalize(rawPlate);
+        if (plate == null) {
+            return CompletableFuture.completedFuture(PlateLookupResult.notFound());
+        }
+        // A copy, so one caller's timeout does not complete the call others are waiting on
+        return plates.get(plate, (key, cacheExecutor) -> fetch(key))
+                .copy()
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .handle((vehicle, error) -> {
+                    if (error == null) {
+                        return vehicle.map(PlateLookupResult::found).orElseGet(PlateLookupResult::notFound);
+                    }
+                    log.warn("Licence plate lookup for {} failed: {}", plate, describe(error));
+                    return PlateLookupResult.unavailable();
+                });
+    }
+
+    public PlateLookupResult lookup(String rawPlate) {
+        return lookupAsync(rawPlate).join();
+    }
+
+    /**
+     * Upper case without spaces or dashes, or {@code null} if that cannot be a plate.
+     */
+    static String normalize(String rawPlate) {
+        if (rawPlate == null) {
+            return null;
+        }
+        String plate = SEPARATORS.matcher(rawPlate).replaceAll("").toUpperCase(Locale.ROOT);
+        return PLATE.matcher(plate).matches() ? plate : null;
+    }
+
+    private CompletableFuture<Optional<VehicleInfo>> fetch(String plate) {
+        if (!permits.tryAcquire()) {
+            return CompletableFuture.failedFuture(
+                    new RejectedExecutionException("Plate registry calls at capacity"));
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return Optional.ofNullable(vehicleApiClient.lookupLicensePlate(plate));
+                } finally {
+                    permits.release();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static String describe(Throwable error) {
+        Throwable cause = error.getCause() != null ? error.getCause() : error;
+        return cause instanceof TimeoutException ? "timed out" : cause.toString();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Keeps found vehicles for the positive TTL and unknown plates for the negative one.
+     */
+    private record AnswerExpiry(long foundNanos, long notFoundNanos) implements Expiry<String, Optional<VehicleInfo>> {
+
+        @Override
+        public long expireAfterCreate(String plate, Optional<VehicleInfo> vehicle, long currentTime) {
+            return vehicle.isPresent() ? foundNanos : notFoundNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String plate, Optional<VehicleInfo> vehicle, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(plate, vehicle, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String plate, Optional<VehicleInfo> vehicle, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.recicar.marketplace.service;
 
 import com.recicar.marketplace.entity.Order;
 import com.recicar.marketplace.entity.User;
+import com.recicar.marketplace.entity.Vendor;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -9,6 +10,11 @@ public interface NotificationService {
 
     void sendOrderConfirmationEmail(Order order);
 
+    /**
+     * Tells a seller that {@code order} contains some of their parts.
+     */
+    void sendVendorOrderNotification(Order order, Vendor vendor);
+
     void sendAccountVerificationEmail(User user);
 
     void sendPasswordResetEmail(User user, String resetLink);
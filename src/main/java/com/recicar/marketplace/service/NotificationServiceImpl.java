@@ -2,6 +2,7 @@ package com.recicar.marketplace.service;
 
 import com.recicar.marketplace.entity.Order;
 import com.recicar.marketplace.entity.User;
+import com.recicar.marketplace.entity.Vendor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -15,6 +16,13 @@ public class NotificationServiceImpl implements NotificationService {
         // In a real application, integrate with an email service provider here
     }
 
+    @Override
+    public void sendVendorOrderNotification(Order order, Vendor vendor) {
+        log.info("Simulating sending new order notification for order: {} to vendor: {}",
+                order.getOrderNumber(), vendor.getBusinessName());
+        // In a real application, integrate with an email service provider here
+    }
+
     @Override
     public void sendAccountVerificationEmail(User user) {
         log.info("Simulating sending account verification email to user: {}", user.getEmail());
@@ -13,7 +13,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -24,25 +26,28 @@ public class OrderServiceImpl implements OrderService {
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
     private final PaymentService paymentService;
-    private final NotificationService notificationService;
+    private final OutboxService outboxService;
     private final CartService cartService;
     private final CartPricingService cartPricingService;
+    private final StockReservationService stockReservationService;
 
     public OrderServiceImpl(
             OrderRepository orderRepository,
             ProductRepository productRepository,
             UserRepository userRepository,
             PaymentService paymentService,
-            NotificationService notificationService,
+            OutboxService outboxService,
             CartService cartService,
-            CartPricingService cartPricingService) {
+            CartPricingService cartPricingService,
+            StockReservationService stockReservationService) {
         this.orderRepository = orderRepository;
         this.productRepository = productRepository;
         this.userRepository = userRepository;
         this.paymentService = paymentService;
-        this.notificationService = notificationService;
+        this.outboxService = outboxService;
         this.cartService = cartService;
         this.cartPricingService = cartPricingService;
+        this.stockReservationService = stockReservationService;
     }
 
     @Override
@@ -59,6 +64,13 @@ public class OrderServiceImpl implements OrderService {
                 .orElseThrow(() -> new RuntimeException("Customer not found"));
         order.setCustomer(customer);
 
+        // Checkout holds become sold stock; rolled back with the order if anything below fails
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItemRequest itemRequest : orderRequest.getItems()) {
+            quantities.merge(itemRequest.getProductId(), itemRequest.getQuantity(), Integer::sum);
+        }
+        stockReservationService.commit(customer.getId(), quantities);
+
         List<OrderItem> orderItems = orderRequest.getItems().stream()
                 .map(itemRequest -> createOrderItem(itemRequest, order))
                 .collect(Collectors.toList());
@@ -102,8 +114,8 @@ public class OrderServiceImpl implements OrderService {
 
         Order savedOrder = orderRepository.save(order);
 
-        // Send order confirmation email
-        notificationService.sendOrderConfirmationEmail(savedOrder);
+        // Confirmation, vendor notifications and analytics are delivered after commit by the outbox
+        outboxService.enqueueOrderPlaced(savedOrder);
 
         return savedOrder;
     }
@@ -112,13 +124,6 @@ public class OrderServiceImpl implements OrderService {
         Product product = productRepository.findById(itemRequest.getProductId())
                 .orElseThrow(() -> new RuntimeException("Product not found"));
 
-        if (product.getStockQuantity() < itemRequest.getQuantity()) {
-            throw new RuntimeException("Not enough stock for product: " + product.getName());
-        }
-
-        product.setStockQuantity(product.getStockQuantity() - itemRequest.getQuantity());
-        productRepository.save(product);
-
         OrderItem orderItem = new OrderItem();
         orderItem.setOrder(order);
         orderItem.setProduct(product);
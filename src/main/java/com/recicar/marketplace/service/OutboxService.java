@@ -0,0 +1,183 @@
+package com.recicar.marketplace.service;
+
+import com.recicar.marketplace.entity.Order;
+import com.recicar.marketplace.entity.OrderItem;
+import com.recicar.marketplace.entity.OutboxEvent;
+import com.recicar.marketplace.entity.OutboxEventType;
+import com.recicar.marketplace.entity.Product;
+import com.recicar.marketplace.entity.Vendor;
+import com.recicar.marketplace.repository.OrderRepository;
+import com.recicar.marketplace.repository.OutboxEventRepository;
+import com.recicar.marketplace.repository.VendorRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Transactional outbox for order side effects. {@link #enqueueOrderPlaced(Order)} joins the order
+ * transaction, so the confirmation, vendor notifications and analytics event exist exactly when
+ * the order does; {@code OutboxDispatcher} delivers them afterwards, at least once.
+ * <p>
+ * A claimed event is leased for {@code app.outbox.claim-lease}; failed deliveries are retried
+ * with exponential backoff from {@code app.outbox.retry-base-delay} up to
+ * {@code app.outbox.retry-max-delay}, and marked failed after {@code app.outbox.max-attempts}.
+ */
+@Service
+public class OutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OrderRepository orderRepository;
+    private final VendorRepository vendorRepository;
+    private final NotificationService notificationService;
+    private final AnalyticsService analyticsService;
+    private final TransactionTemplate readTransaction;
+    private final Duration claimLease;
+    private final Duration retryBaseDelay;
+    private final Duration retryMaxDelay;
+    private final int maxAttempts;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository,
+                         OrderRepository orderRepository,
+                         VendorRepository vendorRepository,
+                         NotificationService notificationService,
+                         AnalyticsService analyticsService,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${app.outbox.claim-lease:5m}") Duration claimLease,
+                         @Value("${app.outbox.retry-base-delay:10s}") Duration retryBaseDelay,
+                         @Value("${app.outbox.retry-max-delay:30m}") Duration retryMaxDelay,
+                         @Value("${app.outbox.max-attempts:10}") int maxAttempts) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.orderRepository = orderRepository;
+        this.vendorRepository = vendorRepository;
+        this.notificationService = notificationService;
+        this.analyticsService = analyticsService;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.claimLease = claimLease;
+        this.retryBaseDelay = retryBaseDelay;
+        this.retryMaxDelay = retryMaxDelay;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Records the side effects of a newly saved order: the customer confirmation, one
+     * notification per vendor with parts in the order, and the analytics event.
+     */
+    @Transactional
+    public void enqueueOrderPlaced(Order order) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = new ArrayList<>();
+        events.add(new OutboxEvent(OutboxEventType.ORDER_CONFIRMATION, order.getId(), null, now));
+        for (Long vendorId : vendorIds(order)) {
+            events.add(new OutboxEvent(OutboxEventType.VENDOR_ORDER_NOTIFICATION, order.getId(), vendorId, now));
+        }
+        events.add(new OutboxEvent(OutboxEventType.ORDER_ANALYTICS, order.getId(), null, now));
+        outboxEventRepository.saveAll(events);
+    }
+
+    /**
+     * Claims up to {@code limit} due events for delivery by this instance.
+     */
+    @Transactional
+    public List<OutboxEvent> claimDue(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> due = outboxEventRepository.lockDue(now, PageRequest.of(0, limit));
+        LocalDateTime leaseUntil = now.plus(claimLease);
+        for (OutboxEvent event : due) {
+            event.claim(leaseUntil);
+        }
+        return due;
+    }
+
+    /**
+     * Performs the side effect of a claimed event. The order and vendor are loaded in a short
+     * read-only transaction that ends before the notification or analytics call, so a slow
+     * provider never holds a database connection.
+     *
+     * @throws RuntimeException if the event cannot be delivered now; it is retried later
+     */
+    public void deliver(OutboxEvent event) {
+        Recipients recipients = readTransaction.execute(status -> load(event));
+        switch (event.getEventType()) {
+            case ORDER_CONFIRMATION -> notificationService.sendOrderConfirmationEmail(recipients.order());
+            case VENDOR_ORDER_NOTIFICATION ->
+                    notificationService.sendVendorOrderNotification(recipients.order(), recipients.vendor());
+            case ORDER_ANALYTICS -> analyticsService.recordOrderPlaced(recipients.order());
+        }
+    }
+
+    private Recipients load(OutboxEvent event) {
+        Order order = orderRepository.findWithItemsById(event.getAggregateId())
+                .orElseThrow(() -> new RuntimeException("Order not found: " + event.getAggregateId()));
+        Vendor vendor = null;
+        if (event.getEventType() == OutboxEventType.VENDOR_ORDER_NOTIFICATION) {
+            vendor = vendorRepository.findWithUserById(event.getRecipientId())
+                    .orElseThrow(() -> new RuntimeException("Vendor not found: " + event.getRecipientId()));
+        }
+        return new Recipients(order, vendor);
+    }
+
+    @Transactional
+    public void markDelivered(Long eventId) {
+        outboxEventRepository.findById(eventId).ifPresent(event -> event.delivered(LocalDateTime.now()));
+    }
+
+    /**
+     * Schedules the next attempt after a failed delivery, or gives up once the event is out of attempts.
+     */
+    @Transactional
+    public void markFailed(Long eventId, RuntimeException error) {
+        outboxEventRepository.findById(eventId).ifPresent(event -> {
+            String message = truncate(Objects.toString(error.getMessage(), error.getClass().getName()));
+            if (event.getAttempts() >= maxAttempts) {
+                event.failed(message);
+            } else {
+                event.retryAt(LocalDateTime.now().plus(backoff(event.getAttempts())), message);
+            }
+        });
+    }
+
+    /**
+     * Delay before the attempt following attempt number {@code attempts}: the base delay,
+     * doubled per earlier attempt, capped at the maximum delay.
+     */
+    Duration backoff(int attempts) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 30);
+        Duration delay = retryBaseDelay.multipliedBy(1L << doublings);
+        return delay.compareTo(retryMaxDelay) > 0 ? retryMaxDelay : delay;
+    }
+
+    private static Set<Long> vendorIds(Order order) {
+        Set<Long> vendorIds = new LinkedHashSet<>();
+        if (order.getItems() == null) {
+            return vendorIds;
+        }
+        for (OrderItem item : order.getItems()) {
+            Product product = item.getProduct();
+            if (product != null && product.getVendor() != null) {
+                vendorIds.add(product.getVendor().getId());
+            }
+        }
+        return vendorIds;
+    }
+
+    private record Recipients(Order order, Vendor vendor) {
+    }
+
+    private static String truncate(String message) {
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
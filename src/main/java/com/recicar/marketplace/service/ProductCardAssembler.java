@@ -0,0 +1,164 @@
+package com.recicar.marketplace.service;
+
+import com.recicar.marketplace.dto.ProductCardDto;
+import com.recicar.marketplace.dto.ProductCardRow;
+import com.recicar.marketplace.dto.SellerRating;
+import com.recicar.marketplace.entity.Product;
+import com.recicar.marketplace.entity.ProductImage;
+import com.recicar.marketplace.entity.Vendor;
+import com.recicar.marketplace.repository.ProductRepository;
+import com.recicar.marketplace.repository.VendorRepository;
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Builds listing cards for a page of product ids with a fixed number of set-based queries:
+ * one for product and vendor columns, one for images and at most one for seller ratings not
+ * yet cached, however many cards and vendors the page holds. Pages of products the caller has
+ * already loaded skip the column query.
+ */
+@Component
+public class ProductCardAssembler {
+
+    private static final BigDecimal SERVICE_FEE_PERCENT = new BigDecimal("1.50");
+    private static final BigDecimal SERVICE_FEE_MIN = new BigDecimal("1.99");
+    private static final BigDecimal SERVICE_FEE_MAX = new BigDecimal("3.99");
+
+    private final ProductRepository productRepository;
+    private final VendorRepository vendorRepository;
+    private final SellerRatingCache sellerRatingCache;
+
+    public ProductCardAssembler(ProductRepository productRepository, VendorRepository vendorRepository,
+                                SellerRatingCache sellerRatingCache) {
+        this.productRepository = productRepository;
+        this.vendorRepository = vendorRepository;
+        this.sellerRatingCache = sellerRatingCache;
+    }
+
+    /**
+     * Cards in the order of {@code productIds}; ids without a product are skipped.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductCardDto> assemble(List<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ProductCardRow> rows = productRepository.findCardRowsByIdIn(productIds).stream()
+                .collect(Collectors.toMap(ProductCardRow::id, Function.identity()));
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, String> imageUrls = new HashMap<>();
+        putPrimaryImages(imageUrls, rows.keySet());
+        return cards(productIds, rows, imageUrls);
+    }
+
+    /**
+     * Cards for products the caller already loaded, in list order; products without a vendor
+     * are skipped, as in {@link #assemble}. Columns come from the entities; images and vendor
+     * names are read, one query each, only where the entities do not hold them already.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductCardDto> assembleLoaded(List<Product> products) {
+        if (products.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, String> imageUrls = new HashMap<>();
+        List<Long> withoutImages = new ArrayList<>();
+        Map<Long, String> sellerNames = new HashMap<>();
+        Set<Long> unnamedVendors = new LinkedHashSet<>();
+        for (Product product : products) {
+            Vendor vendor = product.getVendor();
+            if (vendor == null) {
+                continue;
+            }
+            if (Hibernate.isInitialized(product.getImages())) {
+                ProductImage primary = product.getPrimaryImage();
+                if (primary != null) {
+                    imageUrls.put(product.getId(), primary.getImageUrl());
+                }
+            } else {
+                withoutImages.add(product.getId());
+            }
+            if (Hibernate.isInitialized(vendor)) {
+                sellerNames.put(vendor.getId(), vendor.getBusinessName());
+            } else {
+                unnamedVendors.add(vendor.getId());
+            }
+        }
+        if (!withoutImages.isEmpty()) {
+            putPrimaryImages(imageUrls, withoutImages);
+        }
+        if (!unnamedVendors.isEmpty()) {
+            for (Object[] vendor : vendorRepository.findBusinessNamesByIdIn(unnamedVendors)) {
+                sellerNames.put((Long) vendor[0], (String) vendor[1]);
+            }
+        }
+
+        Map<Long, ProductCardRow> rows = new HashMap<>();
+        List<Long> productIds = new ArrayList<>(products.size());
+        for (Product product : products) {
+            if (product.getVendor() == null) {
+                continue;
+            }
+            Long vendorId = product.getVendor().getId();
+            rows.put(product.getId(), new ProductCardRow(product.getId(), product.getName(), product.getPartNumber(),
+                    product.getPrice(), product.getCondition(), product.getStockQuantity(),
+                    vendorId, sellerNames.get(vendorId)));
+            productIds.add(product.getId());
+        }
+        return cards(productIds, rows, imageUrls);
+    }
+
+    private void putPrimaryImages(Map<Long, String> imageUrls, Collection<Long> productIds) {
+        for (Object[] image : productRepository.findImageUrlsByProductIdIn(productIds)) {
+            imageUrls.putIfAbsent((Long) image[0], (String) image[1]);
+        }
+    }
+
+    private List<ProductCardDto> cards(List<Long> productIds, Map<Long, ProductCardRow> rows,
+                                       Map<Long, String> imageUrls) {
+        Set<Long> vendorIds = new LinkedHashSet<>();
+        rows.values().forEach(row -> vendorIds.add(row.vendorId()));
+        Map<Long, SellerRating> ratings = sellerRatingCache.ratingsFor(vendorIds);
+
+        List<ProductCardDto> cards = new ArrayList<>(rows.size());
+        for (Long id : productIds) {
+            ProductCardRow row = rows.get(id);
+            if (row != null) {
+                cards.add(toCard(row, imageUrls.get(id), ratings.get(row.vendorId())));
+            }
+        }
+        return cards;
+    }
+
+    private static ProductCardDto toCard(ProductCardRow row, String imageUrl, SellerRating rating) {
+        ProductCardDto dto = new ProductCardDto();
+        dto.setId(row.id());
+        dto.setName(row.name());
+        dto.setPartNumber(row.partNumber());
+        dto.setPrice(row.price());
+        dto.setCondition(row.condition() != null ? row.condition().name() : null);
+        dto.setInStock(row.inStock());
+        dto.setImageUrl(imageUrl);
+        dto.setSellerName(row.sellerName());
+        dto.setSellerRating(rating.rating());
+        dto.setTopSeller(rating.topSeller());
+        dto.setServiceFeePercent(SERVICE_FEE_PERCENT);
+        dto.setServiceFeeMin(SERVICE_FEE_MIN);
+        dto.setServiceFeeMax(SERVICE_FEE_MAX);
+        return dto;
+    }
+}
@@ -0,0 +1,40 @@
+package com.recicar.marketplace.service;
+
+import com.recicar.marketplace.dto.ProductSnapshot;
+import com.recicar.marketplace.event.ProductChangePublisher;
+import com.recicar.marketplace.event.ProductChangedEvent;
+import com.recicar.marketplace.repository.ProductRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+
+/**
+ * Publishes {@link ProductChangedEvent}s for products written by conditional or set-based SQL
+ * updates. Those bypass {@link ProductChangePublisher}, the entity listener that covers every
+ * JPA save, so the catalog indexes would otherwise never hear about them.
+ */
+@Service
+public class ProductChangeNotifier {
+
+    private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ProductChangeNotifier(ProductRepository productRepository, ApplicationEventPublisher eventPublisher) {
+        this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Publishes the current state of each product in {@code productIds}; call it after the
+     * update and in its transaction, so the snapshots read back include the written values.
+     */
+    public void productsChanged(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        for (ProductSnapshot snapshot : productRepository.findSnapshotsByIdIn(productIds)) {
+            eventPublisher.publishEvent(new ProductChangedEvent(snapshot, false));
+        }
+    }
+}
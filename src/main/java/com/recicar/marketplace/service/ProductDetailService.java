@@ -50,8 +50,7 @@ public class ProductDetailService {
             dto.setProductSpecs(getProductSpecs(product));
             dto.setVehicleSpecs(getVehicleSpecs(product.getVehicleInfo()));
             dto.setVehiclePhotoUrls(getVehiclePhotos(product.getVehicleInfo()));
-            dto.setRelatedParts(productService.mapListToProductCardPage(
-                    productService.findRelatedProducts(productId)).getContent());
+            dto.setRelatedParts(productService.getRelatedProductCards(productId));
             dto.setCategoryBreadcrumb(buildCategoryBreadcrumb(product.getCategory()));
             dto.setCompatibleVehicles(buildCompatibleVehicles(product));
             ProductCardDto selfCard = productService.mapListToProductCardPage(Collections.singletonList(product))
@@ -77,8 +76,7 @@ public class ProductDetailService {
     }
 
     public List<ProductCardDto> getRelatedParts(Long productId) {
-        return productService.mapListToProductCardPage(productService.findRelatedProducts(productId))
-                .getContent();
+        return productService.getRelatedProductCards(productId);
     }
 
     private List<VehicleCompatibilityDto> buildCompatibleVehicles(Product product) {
@@ -1,6 +1,7 @@
 package com.recicar.marketplace.service;
 
 import com.recicar.marketplace.dto.ProductRequest;
+import com.recicar.marketplace.dto.CursorPage;
 import com.recicar.marketplace.dto.ProductCardDto;
 import com.recicar.marketplace.dto.SellerInfoDto;
 import com.recicar.marketplace.entity.Product;
@@ -134,10 +135,16 @@ public interface ProductService {
     void increaseStock(Long productId, Integer quantity);
 
     /**
-     * Update product stock
+     * Update product stock to the units the vendor has on hand; units held in open checkouts
+     * are not available again, so the stored stock is {@code quantity} minus those.
      */
     void updateStock(Long productId, Integer quantity);
 
+    /**
+     * Units the vendor has on hand: available stock plus units held in open checkouts
+     */
+    int getStockOnHand(Product product);
+
     /**
      * Bulk update stock for multiple products
      */
@@ -196,24 +203,23 @@ public interface ProductService {
     List<Product> findByIds(List<Long> ids);
 
     /**
-     * Find engine parts using "driver" keyword search - returns exactly 9 products
-     */
-    List<Product> findEnginePartsForHomePage();
-
-    /**
-     * Find body parts using "controller" keyword search - returns exactly 9 products
+     * Cards of the precomputed related products shown on the product details page, best first
      */
-    List<Product> findBodyPartsForHomePage();
+    List<ProductCardDto> getRelatedProductCards(Long productId);
 
     /**
-     * Find 8 random products related to the given product for product details page
+     * Listing cards for API with seller and fee information.
      */
-    List<Product> findRelatedProducts(Long productId);
+    Page<ProductCardDto> getProductCards(int page, int size);
 
     /**
-     * Listing cards for API with seller and fee information.
+     * Keyset-paginated listing cards, newest first, for deep paging and crawlers.
+     *
+     * @param cursor {@code nextCursor} of the previous page, or {@code null} for the first page
+     * @param includeTotal whether to run the count query
+     * @throws IllegalArgumentException if the cursor is malformed
      */
-    Page<ProductCardDto> getProductCards(int page, int size);
+    CursorPage<ProductCardDto> getProductCardsAfter(String cursor, int size, boolean includeTotal);
 
     /**
      * Count all active products for listing counters.
@@ -1,8 +1,11 @@
 package com.recicar.marketplace.service;
 
 import com.recicar.marketplace.dto.ProductRequest;
+import com.recicar.marketplace.dto.CursorPage;
 import com.recicar.marketplace.dto.ProductCardDto;
+import com.recicar.marketplace.dto.ProductCursor;
 import com.recicar.marketplace.dto.SellerInfoDto;
+import com.recicar.marketplace.dto.SellerRating;
 import com.recicar.marketplace.entity.Product;
 import com.recicar.marketplace.entity.ProductCondition;
 import com.recicar.marketplace.entity.Category;
@@ -10,6 +13,7 @@ import com.recicar.marketplace.entity.Vendor;
 import com.recicar.marketplace.repository.ProductRepository;
 import com.recicar.marketplace.repository.CategoryRepository;
 import com.recicar.marketplace.repository.VendorRepository;
+import com.recicar.marketplace.util.PartCodeNormalizer;
 import com.recicar.marketplace.web.ShopListingConstants;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -20,9 +24,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -34,11 +36,25 @@ public class ProductServiceImpl implements ProductService {
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final VendorRepository vendorRepository;
-
-    public ProductServiceImpl(ProductRepository productRepository, CategoryRepository categoryRepository, VendorRepository vendorRepository) {
+    private final ProductCardAssembler productCardAssembler;
+    private final SellerRatingCache sellerRatingCache;
+    private final RelatedProductsService relatedProductsService;
+    private final StockReservationService stockReservationService;
+    private final ProductChangeNotifier productChangeNotifier;
+
+    public ProductServiceImpl(ProductRepository productRepository, CategoryRepository categoryRepository,
+                              VendorRepository vendorRepository, ProductCardAssembler productCardAssembler,
+                              SellerRatingCache sellerRatingCache, RelatedProductsService relatedProductsService,
+                              StockReservationService stockReservationService,
+                              ProductChangeNotifier productChangeNotifier) {
         this.productRepository = productRepository;
         this.categoryRepository = categoryRepository;
         this.vendorRepository = vendorRepository;
+        this.productCardAssembler = productCardAssembler;
+        this.sellerRatingCache = sellerRatingCache;
+        this.relatedProductsService = relatedProductsService;
+        this.stockReservationService = stockReservationService;
+        this.productChangeNotifier = productChangeNotifier;
     }
 
     @Override
@@ -63,7 +79,9 @@ public class ProductServiceImpl implements ProductService {
         product.setPartNumber(request.getPartNumber());
         product.setOemNumber(request.getOemNumber());
         product.setCondition(request.getCondition());
-        product.setStockQuantity(request.getStockQuantity());
+        product.setStockQuantity(product.getId() != null
+                ? availableStock(product.getId(), request.getStockQuantity())
+                : request.getStockQuantity());
         product.setWeightKg(request.getWeightKg());
         product.setActive(request.isActive());
         product.setCategory(category);
@@ -77,29 +95,32 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     public void decreaseStock(Long productId, Integer quantity) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new IllegalArgumentException("Product not found"));
-        
-        if (product.getStockQuantity() < quantity) {
+        if (productRepository.decrementStockIfAvailable(productId, quantity) == 0) {
+            if (!productRepository.existsById(productId)) {
+                throw new IllegalArgumentException("Product not found");
+            }
             throw new IllegalArgumentException("Insufficient stock");
         }
-        
-        product.setStockQuantity(product.getStockQuantity() - quantity);
-
-        if (product.getStockQuantity() == 0) {
-            product.setActive(false);
-        }
-
-        productRepository.save(product);
+        productRepository.deactivateIfSoldOut(productId);
+        productChangeNotifier.productsChanged(List.of(productId));
     }
 
     @Override
     public void increaseStock(Long productId, Integer quantity) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new IllegalArgumentException("Product not found"));
-        
-        product.setStockQuantity(product.getStockQuantity() + quantity);
-        productRepository.save(product);
+        if (productRepository.incrementStock(productId, quantity) == 0) {
+            throw new IllegalArgumentException("Product not found");
+        }
+        productChangeNotifier.productsChanged(List.of(productId));
+    }
+
+    /**
+     * Stock to store for {@code onHand} units: those held in open checkouts are already taken out.
+     */
+    private Integer availableStock(Long productId, Integer onHand) {
+        if (onHand == null) {
+            return null;
+        }
+        return Math.max(0, onHand - stockReservationService.heldQuantity(productId));
     }
 
     @Override
@@ -151,7 +172,22 @@ public class ProductServiceImpl implements ProductService {
     @Transactional(readOnly = true)
     public Page<ProductCardDto> getProductCards(int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        return productRepository.findActiveForListing(pageable).map(this::toProductCardDto);
+        return toCardPage(productRepository.findActiveIdsForListing(pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ProductCardDto> getProductCardsAfter(String cursor, int size, boolean includeTotal) {
+        ProductCursor after = ProductCursor.decode(cursor);
+        List<ProductCursor> positions = productRepository.findActiveCursorsAfter(
+                after.createdAt(), after.id(), PageRequest.of(0, size + 1));
+        boolean hasMore = positions.size() > size;
+        if (hasMore) {
+            positions = positions.subList(0, size);
+        }
+        List<ProductCardDto> cards = productCardAssembler.assemble(positions.stream().map(ProductCursor::id).toList());
+        String next = hasMore ? positions.get(positions.size() - 1).encode() : null;
+        return new CursorPage<>(cards, next, includeTotal ? productRepository.countByActiveTrue() : null);
     }
 
     @Override
@@ -163,13 +199,14 @@ public class ProductServiceImpl implements ProductService {
     @Override
     @Transactional(readOnly = true)
     public Page<ProductCardDto> mapToProductCardPage(Page<Product> products) {
-        return products.map(this::toProductCardDto);
+        return new PageImpl<>(productCardAssembler.assembleLoaded(products.getContent()),
+                products.getPageable(), products.getTotalElements());
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<ProductCardDto> mapListToProductCardPage(List<Product> products) {
-        List<ProductCardDto> content = products.stream().map(this::toProductCardDto).toList();
+        List<ProductCardDto> content = productCardAssembler.assembleLoaded(products);
         return new PageImpl<>(content, PageRequest.of(0, ShopListingConstants.PAGE_SIZE), content.size());
     }
 
@@ -181,9 +218,9 @@ public class ProductServiceImpl implements ProductService {
             dto.setSellerId(product.getVendor().getId());
             dto.setSellerName(product.getVendor().getBusinessName());
             dto.setSellerEmail(product.getVendor().getUser() != null ? product.getVendor().getUser().getEmail() : null);
-            BigDecimal rating = computeSellerRating(product.getVendor());
-            dto.setSellerRating(rating);
-            dto.setTopSeller(rating.compareTo(new BigDecimal("4.50")) >= 0);
+            SellerRating rating = sellerRatingCache.ratingFor(product.getVendor().getId());
+            dto.setSellerRating(rating.rating());
+            dto.setTopSeller(rating.topSeller());
             return dto;
         });
     }
@@ -349,10 +386,17 @@ public class ProductServiceImpl implements ProductService {
     public void updateStock(Long productId, Integer quantity) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new IllegalArgumentException("Product not found"));
-        product.setStockQuantity(quantity);
+        product.setStockQuantity(availableStock(productId, quantity));
         productRepository.save(product);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public int getStockOnHand(Product product) {
+        int available = product.getStockQuantity() != null ? product.getStockQuantity() : 0;
+        return product.getId() != null ? available + stockReservationService.heldQuantity(product.getId()) : available;
+    }
+
     private String getSortField(String sortBy) {
         return switch (sortBy) {
             case "name" -> "name";
@@ -380,12 +424,14 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     public List<Product> findByPartNumber(String partNumber) {
-        return productRepository.findByPartNumberIgnoreCase(partNumber);
+        String code = PartCodeNormalizer.normalize(partNumber);
+        return code == null ? List.of() : productRepository.findByPartNumberNormalizedAndActiveTrue(code);
     }
 
     @Override
     public List<Product> findByOemNumber(String oemNumber) {
-        return productRepository.findByOemNumberIgnoreCase(oemNumber);
+        String code = PartCodeNormalizer.normalize(oemNumber);
+        return code == null ? List.of() : productRepository.findByOemNumberNormalizedAndActiveTrue(code);
     }
 
     @Override
@@ -397,154 +443,12 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    public List<Product> findEnginePartsForHomePage() {
-        // First try to find products with "driver" in name or description
-        List<Product> driverResults = productRepository.searchByNameOrPartNumber("driver", Pageable.unpaged()).getContent();
-
-        // If we have enough results, return the first 9
-        if (driverResults.size() >= 9) {
-            return driverResults.subList(0, 9);
-        }
-
-        // If not enough, search for "engine" related products
-        List<Product> engineResults = productRepository.searchByNameOrPartNumber("engine", Pageable.unpaged()).getContent();
-
-        // Combine results and remove duplicates
-        List<Product> combinedResults = driverResults.stream()
-            .collect(Collectors.toList());
-
-        for (Product engineProduct : engineResults) {
-            if (combinedResults.size() >= 9) break;
-            if (!combinedResults.contains(engineProduct)) {
-                combinedResults.add(engineProduct);
-            }
-        }
-
-        // If still not enough, get some random active products to fill up to 9
-        if (combinedResults.size() < 9) {
-            List<Product> allActiveProducts = productRepository.findByActiveTrue(Pageable.unpaged()).getContent();
-            for (Product product : allActiveProducts) {
-                if (combinedResults.size() >= 9) break;
-                if (!combinedResults.contains(product)) {
-                    combinedResults.add(product);
-                }
-            }
-        }
-
-        return combinedResults.subList(0, Math.min(combinedResults.size(), 9));
-    }
-
-    @Override
-    public List<Product> findBodyPartsForHomePage() {
-        // First try to find products with "controller" in name or description
-        List<Product> controllerResults = productRepository.searchByNameOrPartNumber("controller", Pageable.unpaged()).getContent();
-
-        // If we have enough results, return the first 9
-        if (controllerResults.size() >= 9) {
-            return controllerResults.subList(0, 9);
-        }
-
-        // If not enough, search for "body" related products
-        List<Product> bodyResults = productRepository.searchByNameOrPartNumber("body", Pageable.unpaged()).getContent();
-
-        // Combine results and remove duplicates
-        List<Product> combinedResults = controllerResults.stream()
-            .collect(Collectors.toList());
-
-        for (Product bodyProduct : bodyResults) {
-            if (combinedResults.size() >= 9) break;
-            if (!combinedResults.contains(bodyProduct)) {
-                combinedResults.add(bodyProduct);
-            }
-        }
-
-        // If still not enough, get some random active products to fill up to 9
-        if (combinedResults.size() < 9) {
-            List<Product> allActiveProducts = productRepository.findByActiveTrue(Pageable.unpaged()).getContent();
-            for (Product product : allActiveProducts) {
-                if (combinedResults.size() >= 9) break;
-                if (!combinedResults.contains(product)) {
-                    combinedResults.add(product);
-                }
-            }
-        }
-
-        return combinedResults.subList(0, Math.min(combinedResults.size(), 9));
+    @Transactional(readOnly = true)
+    public List<ProductCardDto> getRelatedProductCards(Long productId) {
+        return productCardAssembler.assemble(relatedProductsService.findRelatedIds(productId));
     }
 
-    @Override
-    public List<Product> findRelatedProducts(Long productId) {
-        Product currentProduct = productRepository.findById(productId)
-                .orElseThrow(() -> new IllegalArgumentException("Product not found"));
-
-        List<Product> relatedProducts = new ArrayList<>();
-
-        // First, try to find products from the same category
-        List<Product> categoryProducts = productRepository.findByCategoryAndActiveTrue(currentProduct.getCategory(), Pageable.unpaged()).getContent();
-        for (Product product : categoryProducts) {
-            if (!product.getId().equals(productId) && relatedProducts.size() < 8) {
-                relatedProducts.add(product);
-            }
-        }
-
-        // If not enough products from same category, add products from same vendor
-        if (relatedProducts.size() < 8) {
-            List<Product> vendorProducts = productRepository.findByVendorAndActiveTrue(currentProduct.getVendor(), Pageable.unpaged()).getContent();
-            for (Product product : vendorProducts) {
-                if (!product.getId().equals(productId) && !relatedProducts.contains(product) && relatedProducts.size() < 8) {
-                    relatedProducts.add(product);
-                }
-            }
-        }
-
-        // If still not enough, add random active products
-        if (relatedProducts.size() < 8) {
-            List<Product> allActiveProducts = productRepository.findByActiveTrue(Pageable.unpaged()).getContent();
-            for (Product product : allActiveProducts) {
-                if (!product.getId().equals(productId) && !relatedProducts.contains(product) && relatedProducts.size() < 8) {
-                    relatedProducts.add(product);
-                }
-            }
-        }
-
-        return relatedProducts;
-    }
-
-    private ProductCardDto toProductCardDto(Product product) {
-        ProductCardDto dto = new ProductCardDto();
-        dto.setId(product.getId());
-        dto.setName(product.getName());
-        dto.setPartNumber(product.getPartNumber());
-        dto.setPrice(product.getPrice());
-        dto.setCondition(product.getCondition() != null ? product.getCondition().name() : null);
-        dto.setInStock(product.isInStock());
-        dto.setImageUrl(product.getPrimaryImage() != null ? product.getPrimaryImage().getImageUrl() : null);
-        dto.setSellerName(product.getVendor().getBusinessName());
-        BigDecimal rating = computeSellerRating(product.getVendor());
-        dto.setSellerRating(rating);
-        dto.setTopSeller(rating.compareTo(new BigDecimal("4.50")) >= 0);
-        dto.setServiceFeePercent(new BigDecimal("1.50"));
-        dto.setServiceFeeMin(new BigDecimal("1.99"));
-        dto.setServiceFeeMax(new BigDecimal("3.99"));
-        return dto;
-    }
-
-    private BigDecimal computeSellerRating(Vendor vendor) {
-        if (vendor.getMetrics() == null || vendor.getMetrics().isEmpty()) {
-            return new BigDecimal("4.00");
-        }
-        BigDecimal averageConversion = vendor.getMetrics().stream()
-                .map(metric -> metric.getConversionRate() == null ? BigDecimal.ZERO : metric.getConversionRate())
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .divide(BigDecimal.valueOf(vendor.getMetrics().size()), 4, RoundingMode.HALF_UP);
-
-        BigDecimal scaled = averageConversion.multiply(BigDecimal.valueOf(5));
-        if (scaled.compareTo(BigDecimal.ONE) < 0) {
-            return BigDecimal.ONE;
-        }
-        if (scaled.compareTo(BigDecimal.valueOf(5)) > 0) {
-            return BigDecimal.valueOf(5);
-        }
-        return scaled.setScale(2, RoundingMode.HALF_UP);
+    private Page<ProductCardDto> toCardPage(Page<Long> ids) {
+        return new PageImpl<>(productCardAssembler.assemble(ids.getContent()), ids.getPageable(), ids.getTotalElements());
     }
 }
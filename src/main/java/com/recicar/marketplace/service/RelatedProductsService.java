@@ -0,0 +1,215 @@
+package com.recicar.marketplace.service;
+
+import com.recicar.marketplace.entity.ProductRelated;
+import com.recicar.marketplace.event.OrderItemCreatedEvent;
+import com.recicar.marketplace.event.ProductChangedEvent;
+import com.recicar.marketplace.event.VehicleCompatibilityChangedEvent;
+import com.recicar.marketplace.repository.ProductRelatedRepository;
+import com.recicar.marketplace.repository.ProductRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Related-products engine. Neighbours are scored from co-purchases, shared make/model
+ * fitments, category and vendor, and the top {@value #MAX_RELATED} ids per product are stored
+ * in {@code product_related}, so the product page reads them with one primary-key lookup.
+ * <p>
+ * Products touched by product, fitment or order-line changes are re-scored in batches; when a
+ * product is deactivated or deleted, the rows listing it are re-scored too. A periodic full
+ * pass picks up new products as neighbours of existing ones.
+ */
+@Service
+public class RelatedProductsService {
+
+    static final int MAX_RELATED = 8;
+    private static final int CANDIDATE_POOL = 40;
+    private static final int REFRESH_BATCH_SIZE = 200;
+
+    /**
+     * Scoring weight per unit of strength; codes match {@link ProductRelatedRepository#findCandidates}.
+     */
+    enum Signal {
+        CO_PURCHASE(4.0),
+        SHARED_FITMENT(2.0),
+        SAME_CATEGORY(1.0),
+        SAME_VENDOR(0.5);
+
+        private final double weight;
+
+        Signal(double weight) {
+            this.weight = weight;
+        }
+
+        static Signal ofCode(int code) {
+            return values()[code - 1];
+        }
+    }
+
+    private final ProductRelatedRepository productRelatedRepository;
+    private final ProductRepository productRepository;
+    private final Set<Long> changedProductIds = ConcurrentHashMap.newKeySet();
+    private final Set<Long> retiredProductIds = ConcurrentHashMap.newKeySet();
+
+    public RelatedProductsService(ProductRelatedRepository productRelatedRepository,
+                                  ProductRepository productRepository) {
+        this.productRelatedRepository = productRelatedRepository;
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * Related product ids, best first, topped up to {@value #MAX_RELATED} with the newest
+     * products of the same category. Products not scored yet get only that fallback and are
+     * queued, so the next refresh stores their scores; the page never waits for scoring.
+     */
+    @Transactional(readOnly = true)
+    public List<Long> findRelatedIds(Long productId) {
+        Optional<ProductRelated> stored = productRelatedRepository.findById(productId);
+        List<Long> related = stored.map(ProductRelated::getRelatedIds).orElse(List.of());
+        if (stored.isEmpty()) {
+            changedProductIds.add(productId);
+        }
+        if (related.size() >= MAX_RELATED) {
+            return related;
+        }
+        Set<Long> ids = new LinkedHashSet<>(related);
+        for (Long id : productRepository.findActiveIdsInSameCategory(productId, PageRequest.of(0, MAX_RELATED))) {
+            if (ids.size() == MAX_RELATED) {
+                break;
+            }
+            ids.add(id);
+        }
+        return new ArrayList<>(ids);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Long productId = event.product().id();
+        if (event.removed() || !event.product().active()) {
+            retiredProductIds.add(productId);
+        }
+        if (!event.removed()) {
+            changedProductIds.add(productId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleCompatibilityChanged(VehicleCompatibilityChangedEvent event) {
+        changedProductIds.add(event.compatibility().productId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderItemCreated(OrderItemCreatedEvent event) {
+        changedProductIds.add(event.productId());
+    }
+
+    /**
+     * Re-scores the products changed since the previous call plus the products listing a
+     * product that was deactivated or deleted.
+     *
+     * @return number of products re-scored
+     */
+    @Transactional
+    public int refreshChanged() {
+        List<Long> retired = drain(retiredProductIds);
+        Set<Long> productIds = new LinkedHashSet<>(drain(changedProductIds));
+        for (List<Long> batch : batches(retired)) {
+            productIds.addAll(productRelatedRepository.findProductIdsListingAny(batch));
+        }
+        for (List<Long> batch : batches(new ArrayList<>(productIds))) {
+            refresh(batch);
+        }
+        return productIds.size();
+    }
+
+    /**
+     * Re-scores the next batch of active products after {@code afterId}.
+     *
+     * @return the last product id of the batch, or {@code null} once every product was scored
+     */
+    @Transactional
+    public Long refreshActiveAfter(Long afterId) {
+        List<Long> productIds = productRepository.findActiveIdsAfter(afterId, PageRequest.of(0, REFRESH_BATCH_SIZE));
+        if (productIds.isEmpty()) {
+            return null;
+        }
+        refresh(productIds);
+        return productIds.get(productIds.size() - 1);
+    }
+
+    @Transactional(readOnly = true)
+    public boolean hasStoredNeighbours() {
+        return productRelatedRepository.count() > 0;
+    }
+
+    private void refresh(List<Long> productIds) {
+        List<Long> existing = productRepository.findExistingIds(productIds);
+        if (existing.isEmpty()) {
+            return;
+        }
+        Map<Long, List<Long>> ranked = rank(productRelatedRepository.findCandidates(existing, CANDIDATE_POOL));
+        Map<Long, ProductRelated> rows = productRelatedRepository.findAllById(existing).stream()
+                .collect(Collectors.toMap(ProductRelated::getProductId, Function.identity()));
+        LocalDateTime now = LocalDateTime.now();
+        List<ProductRelated> updated = new ArrayList<>(existing.size());
+        for (Long productId : existing) {
+            ProductRelated row = rows.computeIfAbsent(productId, ProductRelated::new);
+            row.setRelatedIds(ranked.getOrDefault(productId, List.of()));
+            row.setComputedAt(now);
+            updated.add(row);
+        }
+        productRelatedRepository.saveAll(updated);
+    }
+
+    /**
+     * Best {@value #MAX_RELATED} candidates per source from {@code (sourceId, candidateId, signal,
+     * strength)} rows: signal weights times strength, summed per candidate, ties to the newer id.
+     */
+    static Map<Long, List<Long>> rank(List<Object[]> candidates) {
+        Map<Long, Map<Long, Double>> scores = new HashMap<>();
+        for (Object[] row : candidates) {
+            Long sourceId = ((Number) row[0]).longValue();
+            Long candidateId = ((Number) row[1]).longValue();
+            Signal signal = Signal.ofCode(((Number) row[2]).intValue());
+            double strength = ((Number) row[3]).doubleValue();
+            scores.computeIfAbsent(sourceId, k -> new HashMap<>())
+                    .merge(candidateId, signal.weight * strength, Double::sum);
+        }
+        Map<Long, List<Long>> ranked = new HashMap<>();
+        scores.forEach((sourceId, byCandidate) -> ranked.put(sourceId, byCandidate.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                .limit(MAX_RELATED)
+                .map(Map.Entry::getKey)
+                .toList()));
+        return ranked;
+    }
+
+    private static List<Long> drain(Set<Long> pending) {
+        List<Long> drained = new ArrayList<>(pending);
+        pending.removeAll(drained);
+        return drained;
+    }
+
+    private static List<List<Long>> batches(List<Long> ids) {
+        List<List<Long>> batches = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += REFRESH_BATCH_SIZE) {
+            batches.add(ids.subList(from, Math.min(from + REFRESH_BATCH_SIZE, ids.size())));
+        }
+        return batches;
+    }
+}
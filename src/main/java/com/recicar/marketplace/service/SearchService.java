@@ -1,5 +1,9 @@
 package com.recicar.marketplace.service;
 
+import com.recicar.marketplace.dto.CursorPage;
+import com.recicar.marketplace.dto.FacetedPage;
+import com.recicar.marketplace.dto.ProductCursor;
+import com.recicar.marketplace.dto.SearchFacets;
 import com.recicar.marketplace.entity.Product;
 import com.recicar.marketplace.entity.Category;
 import com.recicar.marketplace.entity.ProductCondition;
@@ -10,14 +14,25 @@ import com.recicar.marketplace.repository.ProductRepository;
 import com.recicar.marketplace.repository.SavedSearchRepository;
 import com.recicar.marketplace.repository.SearchRepository;
 import com.recicar.marketplace.repository.UserRepository;
-import org.springframework.cache.annotation.Cacheable;
+import com.recicar.marketplace.service.search.AdvancedSearchCriteria;
+import com.recicar.marketplace.service.search.ProductFacetIndex;
+import com.recicar.marketplace.service.search.ProductSearchIndex;
+import com.recicar.marketplace.service.search.SearchSuggestionIndex;
+import com.recicar.marketplace.service.search.VehicleFitmentIndex;
+import com.recicar.marketplace.util.PartCodeNormalizer;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -27,28 +42,77 @@ public class SearchService {
     private final SearchRepository searchRepository;
     private final SavedSearchRepository savedSearchRepository;
     private final UserRepository userRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final SearchSuggestionIndex searchSuggestionIndex;
+    private final ProductFacetIndex productFacetIndex;
+    private final VehicleFitmentIndex vehicleFitmentIndex;
 
     public SearchService(
             ProductRepository productRepository,
             SearchRepository searchRepository,
             SavedSearchRepository savedSearchRepository,
-            UserRepository userRepository
+            UserRepository userRepository,
+            ProductSearchIndex productSearchIndex,
+            SearchSuggestionIndex searchSuggestionIndex,
+            ProductFacetIndex productFacetIndex,
+            VehicleFitmentIndex vehicleFitmentIndex
     ) {
         this.productRepository = productRepository;
         this.searchRepository = searchRepository;
         this.savedSearchRepository = savedSearchRepository;
         this.userRepository = userRepository;
+        this.productSearchIndex = productSearchIndex;
+        this.searchSuggestionIndex = searchSuggestionIndex;
+        this.productFacetIndex = productFacetIndex;
+        this.vehicleFitmentIndex = vehicleFitmentIndex;
     }
 
     private static final int MIN_SEARCH_LENGTH = 2;
     private static final int MAX_SEARCH_LENGTH = 100;
+    private static final int MAX_SUGGESTIONS = 10;
     private static final String XSS_PATTERN = ".*[<>\"'`].*";
 
     /**
-     * Search products by name or part number
+     * Search products by name, part number or OEM number. Served from {@link ProductSearchIndex}
+     * when it can answer the query; otherwise falls back to the PostgreSQL full-text query.
      */
     @Transactional(readOnly = true)
     public Page<Product> searchProducts(String searchTerm, Pageable pageable) {
+        String toSearch = validateSearchTerm(searchTerm);
+        Optional<Page<Long>> indexed = productSearchIndex.search(toSearch, pageable);
+        if (indexed.isPresent()) {
+            return loadInOrder(indexed.get());
+        }
+        return searchRepository.searchSimple(toSearch, pageable);
+    }
+
+    /**
+     * Keyset-paginated {@link #searchProducts}, newest first. Each page costs the same however
+     * deep the cursor is; the total is only computed when {@code includeTotal} is set.
+     *
+     * @param cursor {@code nextCursor} of the previous page, or {@code null} for the first page
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Product> searchProductsAfter(String searchTerm, String cursor, int size, boolean includeTotal) {
+        String toSearch = validateSearchTerm(searchTerm);
+        ProductCursor after = ProductCursor.decode(cursor);
+        Optional<CursorPage<Long>> indexed = productSearchIndex.searchAfter(toSearch, after, size);
+        if (indexed.isPresent()) {
+            CursorPage<Long> ids = indexed.get();
+            return new CursorPage<>(loadInOrder(ids.content()), ids.nextCursor(),
+                    includeTotal ? ids.totalElements() : null);
+        }
+        List<Product> rows = searchRepository.searchSimpleAfter(toSearch, after.createdAt(), after.id(), size + 1);
+        String next = null;
+        if (rows.size() > size) {
+            Product last = rows.get(size - 1);
+            next = new ProductCursor(last.getCreatedAt(), last.getId()).encode();
+            rows = rows.subList(0, size);
+        }
+        return new CursorPage<>(rows, next, includeTotal ? searchRepository.countSimple(toSearch) : null);
+    }
+
+    private static String validateSearchTerm(String searchTerm) {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             throw new IllegalArgumentException("Search term cannot be empty");
         }
@@ -59,24 +123,65 @@ public class SearchService {
         if (trimmed.matches(XSS_PATTERN)) {
             throw new IllegalArgumentException("Invalid search term");
         }
-        String toSearch = trimmed.length() > MAX_SEARCH_LENGTH ? trimmed.substring(0, MAX_SEARCH_LENGTH) : trimmed;
-        return searchRepository.searchSimple(toSearch, pageable);
+        return trimmed.length() > MAX_SEARCH_LENGTH ? trimmed.substring(0, MAX_SEARCH_LENGTH) : trimmed;
     }
 
     /**
-     * Search products by part number (exact match, case insensitive)
+     * Hydrates a page of ids in one query, keeping the index order. Ids deleted since the
+     * index saw them are dropped from the content.
+     */
+    private Page<Product> loadInOrder(Page<Long> ids) {
+        return new PageImpl<>(loadInOrder(ids.getContent()), ids.getPageable(), ids.getTotalElements());
+    }
+
+    private List<Product> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Product> byId = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<Product> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Product product = byId.get(id);
+            if (product != null) {
+                ordered.add(product);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Active products by part number, ignoring case, spaces and punctuation
+     * ({@link PartCodeNormalizer}). Hash lookup in {@link ProductSearchIndex}, indexed column otherwise.
      */
     @Transactional(readOnly = true)
     public List<Product> findByPartNumber(String partNumber) {
-        return productRepository.findByPartNumberIgnoreCase(partNumber);
+        String code = PartCodeNormalizer.normalize(partNumber);
+        if (code == null) {
+            return List.of();
+        }
+        Optional<List<Long>> indexed = productSearchIndex.findByPartCode(code);
+        if (indexed.isPresent()) {
+            return loadInOrder(indexed.get());
+        }
+        return productRepository.findByPartNumberNormalizedAndActiveTrue(code);
     }
 
     /**
-     * Search products by OEM number (exact match, case insensitive)
+     * Active products by OEM number, ignoring case, spaces and punctuation
+     * ({@link PartCodeNormalizer}). Hash lookup in {@link ProductSearchIndex}, indexed column otherwise.
      */
     @Transactional(readOnly = true)
     public List<Product> findByOemNumber(String oemNumber) {
-        return productRepository.findByOemNumberIgnoreCase(oemNumber);
+        String code = PartCodeNormalizer.normalize(oemNumber);
+        if (code == null) {
+            return List.of();
+        }
+        Optional<List<Long>> indexed = productSearchIndex.findByOemCode(code);
+        if (indexed.isPresent()) {
+            return loadInOrder(indexed.get());
+        }
+        return productRepository.findByOemNumberNormalizedAndActiveTrue(code);
     }
 
     /**
@@ -102,10 +207,23 @@ public class SearchService {
     private static final int MAX_YEAR = 2100;
 
     /**
-     * Search by vehicle compatibility
+     * Search by vehicle compatibility. Served from {@link VehicleFitmentIndex}, newest first, where
+     * a blank engine matches every engine of the model; the join-table query is only used until
+     * the index has been built or when the caller asks for a specific sort.
      */
     @Transactional(readOnly = true)
     public Page<Product> searchByVehicleCompatibility(String make, String model, String engine, Integer year, Pageable pageable) {
+        return searchByVehicleCompatibility(make, model, engine, year, null, pageable);
+    }
+
+    /**
+     * As {@link #searchByVehicleCompatibility(String, String, String, Integer, Pageable)}, keeping
+     * only products whose name contains {@code partName} when it is not blank. The fitment index
+     * holds no names, so a part-name search always runs the join-table query.
+     */
+    @Transactional(readOnly = true)
+    public Page<Product> searchByVehicleCompatibility(String make, String model, String engine, Integer year,
+                                                      String partName, Pageable pageable) {
         if (make == null || make.trim().isEmpty()) {
             throw new IllegalArgumentException("Make is required");
         }
@@ -115,8 +233,27 @@ public class SearchService {
         if (year == null || year < MIN_YEAR || year > MAX_YEAR) {
             throw new IllegalArgumentException("Invalid year");
         }
-        return productRepository.findByVehicleCompatibility(make.trim(), model.trim(),
-                engine != null ? engine.trim() : null, year, pageable);
+        String engineFilter = engine == null || engine.isBlank() ? null : engine.trim();
+        if (partName != null && !partName.isBlank()) {
+            return productRepository.findByVehicleCompatibilityAndPartName(make.trim(), model.trim(),
+                    engineFilter, year, partName.trim(), pageable);
+        }
+        if (pageable.getSort().isUnsorted()) {
+            Optional<List<Long>> indexed = vehicleFitmentIndex.findProductIds(make, model, engine, year);
+            if (indexed.isPresent()) {
+                return loadInOrder(slice(indexed.get(), pageable));
+            }
+        }
+        return productRepository.findByVehicleCompatibility(make.trim(), model.trim(), engineFilter, year, pageable);
+    }
+
+    private static Page<Long> slice(List<Long> ids, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(ids, pageable, ids.size());
+        }
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + pageable.getPageSize(), ids.size());
+        return new PageImpl<>(ids.subList(from, to), pageable, ids.size());
     }
 
     /**
@@ -132,19 +269,16 @@ public class SearchService {
     }
 
     /**
-     * Get search suggestions
+     * Get search suggestions. Served from the in-memory {@link SearchSuggestionIndex}; the SQL
+     * union is only used until the index has been built.
      */
-    @Cacheable(
-            cacheNames = "searchSuggestions",
-            key = "#partialTerm == null ? '_' : #partialTerm.trim().toLowerCase()",
-            unless = "#partialTerm == null || #partialTerm.trim().length() < 2 || #result == null || #result.isEmpty()"
-    )
     @Transactional(readOnly = true)
     public List<String> getSearchSuggestions(String partialTerm) {
         if (partialTerm == null || partialTerm.trim().length() < 2) {
             return List.of();
         }
-        return searchRepository.fetchSuggestions(partialTerm.trim());
+        return searchSuggestionIndex.suggest(partialTerm.trim(), MAX_SUGGESTIONS)
+                .orElseGet(() -> searchRepository.fetchSuggestions(partialTerm.trim()));
     }
 
     @Transactional(readOnly = true)
@@ -158,11 +292,40 @@ public class SearchService {
             BigDecimal minPrice,
             BigDecimal maxPrice,
             Pageable pageable
+    ) {
+        return searchAdvancedWithFacets(query, brand, model, modification, condition, inStock,
+                minPrice, maxPrice, pageable).page();
+    }
+
+    /**
+     * Advanced search plus facet counts (condition, make, model, price range, stock) in one call.
+     * Page and counts come from {@link ProductFacetIndex}; before it is built the page is read
+     * from PostgreSQL and the facets are empty.
+     */
+    @Transactional(readOnly = true)
+    public FacetedPage<Product> searchAdvancedWithFacets(
+            String query,
+            String brand,
+            String model,
+            String modification,
+            String condition,
+            Boolean inStock,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Pageable pageable
     ) {
         if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
             throw new IllegalArgumentException("Min price cannot be greater than max price");
         }
-        return searchRepository.searchAdvanced(query, brand, model, modification, condition, inStock, minPrice, maxPrice, pageable);
+        AdvancedSearchCriteria criteria = new AdvancedSearchCriteria(
+                query, brand, model, modification, condition, inStock, minPrice, maxPrice);
+        Optional<ProductFacetIndex.Result> indexed = productFacetIndex.search(criteria, pageable);
+        if (indexed.isPresent()) {
+            return new FacetedPage<>(loadInOrder(indexed.get().ids()), indexed.get().facets());
+        }
+        Page<Product> page = searchRepository.searchAdvanced(
+                query, brand, model, modification, condition, inStock, minPrice, maxPrice, pageable);
+        return new FacetedPage<>(page, SearchFacets.empty());
     }
 
     public SavedSearch saveSearch(Long userId, String query, String filtersJson) {
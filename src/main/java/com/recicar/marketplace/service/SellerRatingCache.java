@@ -0,0 +1,75 @@
+package com.recicar.marketplace.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.recicar.marketplace.dto.SellerRating;
+import com.recicar.marketplace.entity.VendorRating;
+import com.recicar.marketplace.event.VendorRatingsRefreshedEvent;
+import com.recicar.marketplace.repository.VendorRatingRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Small read-through cache over the {@code vendor_rating} snapshot, so that a page of cards
+ * resolves every rating it needs with at most one query. Entries are dropped as soon as
+ * {@link VendorReputationService} rewrites their rows.
+ */
+@Component
+public class SellerRatingCache {
+
+    private static final int MAX_VENDORS = 10_000;
+
+    private final VendorRatingRepository vendorRatingRepository;
+    private final Cache<Long, SellerRating> ratings;
+
+    public SellerRatingCache(VendorRatingRepository vendorRatingRepository,
+                             @Value("${app.catalog.seller-rating-ttl:5m}") Duration ttl) {
+        this.vendorRatingRepository = vendorRatingRepository;
+        this.ratings = Caffeine.newBuilder()
+                .maximumSize(MAX_VENDORS)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public SellerRating ratingFor(Long vendorId) {
+        return ratingsFor(List.of(vendorId)).get(vendorId);
+    }
+
+    /**
+     * Ratings for the given vendors; only vendors not cached yet are read, in one query.
+     */
+    public Map<Long, SellerRating> ratingsFor(Collection<Long> vendorIds) {
+        if (vendorIds.isEmpty()) {
+            return Map.of();
+        }
+        return ratings.getAll(vendorIds, this::load);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVendorRatingsRefreshed(VendorRatingsRefreshedEvent event) {
+        if (event.fullRefresh()) {
+            ratings.invalidateAll();
+        } else {
+            ratings.invalidateAll(event.vendorIds());
+        }
+    }
+
+    private Map<Long, SellerRating> load(Set<? extends Long> vendorIds) {
+        Map<Long, SellerRating> loaded = new HashMap<>();
+        for (VendorRating row : vendorRatingRepository.findAllById(List.copyOf(vendorIds))) {
+            loaded.put(row.getVendorId(), SellerRating.of(row));
+        }
+        for (Long vendorId : vendorIds) {
+            loaded.putIfAbsent(vendorId, SellerRating.DEFAULT);
+        }
+        return loaded;
+    }
+}
@@ -1,19 +1,57 @@
 package com.recicar.marketplace.service;
 
-import com.recicar.marketplace.repository.BlogPostRepository;
+import com.recicar.marketplace.dto.SitemapShard;
+import com.recicar.marketplace.dto.SitemapUrl;
+import com.recicar.marketplace.repository.SitemapJdbcRepository;
+import com.recicar.marketplace.repository.SitemapJdbcRepository.ProductShardStamp;
+import com.recicar.marketplace.util.SitemapXmlWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
 
 /**
- * Generates sitemap URL lists for /sitemap.xml.
+ * Sitemap for /sitemap.xml: a sitemap index over gzip-compressed child sitemaps ("shards") for
+ * static pages and blog posts, categories, brands, and products in fixed id ranges of
+ * {@code app.sitemap.product-shard-size}.
+ * <p>
+ * Shards are written as a stream into {@code app.sitemap.cache-dir}, together with the
+ * fingerprint of the URLs they were written from. A request only rewrites a shard whose
+ * fingerprint moved; everything else is served from disk.
+ * <p>
+ * Locations are built from the configured {@code app.baseUrl}, never from the request, so the
+ * Host header a client sends cannot multiply the cached shards.
  */
+@Slf4j
 @Service
-@Transactional(readOnly = true)
 public class SitemapService {
 
+    static final String PAGES = "pages";
+    static final String CATEGORIES = "categories";
+    static final String BRANDS = "brands";
+    static final String PRODUCTS_PREFIX = "products-";
+
+    private static final int LOCK_STRIPES = 64;
+    private static final Pattern SHARD_NAME = Pattern.compile("pages|categories|brands|products-(\\d{1,9})");
+
     private static final List<String> STATIC_PATHS = List.of(
             "/",
             "/help",
@@ -22,6 +60,7 @@ public class SitemapService {
             "/acerca-de-nosotros",
             "/blog",
             "/categories",
+            "/marcas",
             "/lista-de-codigos-de-repuestos",
             "/equivalencia-neumaticos",
             "/info-de-envio",
@@ -32,17 +71,159 @@ public class SitemapService {
             "/garantias"
     );
 
-    private final BlogPostRepository blogPostRepository;
+    private final SitemapJdbcRepository sitemapJdbcRepository;
+    private final CategoryTreeService categoryTreeService;
+    private final Path cacheDir;
+    private final int productShardSize;
+    private final String baseUrl;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final Object[] shardLocks = new Object[LOCK_STRIPES];
+
+    public SitemapService(SitemapJdbcRepository sitemapJdbcRepository,
+                          CategoryTreeService categoryTreeService,
+                          @Value("${app.sitemap.cache-dir:${java.io.tmpdir}/recicar-sitemaps}") Path cacheDir,
+                          @Value("${app.sitemap.product-shard-size:50000}") int productShardSize,
+                          @Value("${app.baseUrl:http://localhost:8080}") String baseUrl) {
+        this.sitemapJdbcRepository = sitemapJdbcRepository;
+        this.categoryTreeService = categoryTreeService;
+        this.cacheDir = cacheDir;
+        this.productShardSize = Math.min(Math.max(productShardSize, 1), SitemapXmlWriter.MAX_URLS);
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            shardLocks[i] = new Object();
+        }
+    }
+
+    /**
+     * The canonical origin every sitemap location starts with.
+     */
+    public String baseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Shards listed in the sitemap index; product ranges without active products are left out.
+     */
+    public List<SitemapShard> shards() {
+        List<SitemapShard> shards = new ArrayList<>();
+        shards.add(listShard(PAGES, pages()));
+        shards.add(listShard(CATEGORIES, categories()));
+        shards.add(listShard(BRANDS, brands()));
+        for (ProductShardStamp stamp : sitemapJdbcRepository.findProductShardStamps(productShardSize)) {
+            shards.add(productShard(stamp));
+        }
+        return shards;
+    }
+
+    /**
+     * Streams the sitemap index; shard locations are {@code baseUrl/sitemaps/<name>.xml.gz}.
+     * The shard list is read before anything is written, so no connection is held while a slow
+     * client drains the response.
+     */
+    public void writeIndex(OutputStream out) throws IOException {
+        List<SitemapShard> shards = shards();
+        try (SitemapXmlWriter index = SitemapXmlWriter.index(out, zone)) {
+            for (SitemapShard shard : shards) {
+                index.write(baseUrl + "/sitemaps/" + shard.name() + ".xml.gz", shard.lastModified());
+            }
+        }
+    }
+
+    /**
+     * The gzip-compressed shard, rewritten first if its URLs changed since it was cached.
+     *
+     * @return empty for unknown shard names and product ranges without active products
+     */
+    @Transactional(readOnly = true)
+    public Optional<Path> shardFile(String name) throws IOException {
+        Matcher matcher = SHARD_NAME.matcher(name);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        if (matcher.group(1) != null) {
+            long shard = Long.parseLong(matcher.group(1));
+            ProductShardStamp stamp = sitemapJdbcRepository.findProductShardStamp(shard, productShardSize);
+            if (stamp.urls() == 0) {
+                return Optional.empty();
+            }
+            return Optional.of(cached(productShard(stamp),
+                    consumer -> sitemapJdbcRepository.streamProductShard(shard, productShardSize, consumer)));
+        }
+        List<SitemapUrl> urls = switch (name) {
+            case PAGES -> pages();
+            case CATEGORIES -> categories();
+            default -> brands();
+        };
+        return Optional.of(cached(listShard(name, urls), consumer -> urls.forEach(consumer)));
+    }
+
+    private List<SitemapUrl> pages() {
+        List<SitemapUrl> urls = new ArrayList<>();
+        for (String path : STATIC_PATHS) {
+            urls.add(new SitemapUrl(path, null));
+        }
+        urls.addAll(sitemapJdbcRepository.findPublishedBlogPosts());
+        return limit(urls);
+    }
+
+    private List<SitemapUrl> categories() {
+        List<SitemapUrl> urls = new ArrayList<>();
+        for (CategoryTree.Node node : categoryTreeService.current().nodes()) {
+            if (node.active()) {
+                urls.add(new SitemapUrl("/categories/view/" + node.slug(), null));
+            }
+        }
+        return limit(urls);
+    }
+
+    private List<SitemapUrl> brands() {
+        return limit(sitemapJdbcRepository.findBrands());
+    }
+
+    private static List<SitemapUrl> limit(List<SitemapUrl> urls) {
+        return urls.size() > SitemapXmlWriter.MAX_URLS ? urls.subList(0, SitemapXmlWriter.MAX_URLS) : urls;
+    }
+
+    private static SitemapShard listShard(String name, List<SitemapUrl> urls) {
+        LocalDateTime lastModified = urls.stream()
+                .map(SitemapUrl::lastModified)
+                .filter(Objects::nonNull)
+                .max(LocalDateTime::compareTo)
+                .orElse(null);
+        return new SitemapShard(name, urls.size() + ":" + Integer.toHexString(urls.hashCode()), lastModified);
+    }
 
-    public SitemapService(BlogPostRepository blogPostRepository) {
-        this.blogPostRepository = blogPostRepository;
+    private static SitemapShard productShard(ProductShardStamp stamp) {
+        return new SitemapShard(PRODUCTS_PREFIX + stamp.shard(),
+                stamp.urls() + ":" + stamp.idSum() + ":" + stamp.lastModified(), stamp.lastModified());
     }
 
-    public List<String> allPathsForSitemap() {
-        List<String> paths = new ArrayList<>(STATIC_PATHS);
-        for (String slug : blogPostRepository.findAllPublishedSlugs()) {
-            paths.add("/blog/" + slug);
+    private Path cached(SitemapShard shard, Consumer<Consumer<SitemapUrl>> urls) throws IOException {
+        Path file = cacheDir.resolve(shard.name() + ".xml.gz");
+        Path fingerprint = cacheDir.resolve(shard.name() + ".fingerprint");
+        // The origin is part of the fingerprint, so changing app.baseUrl rewrites every shard
+        String stamp = baseUrl + " " + shard.fingerprint();
+        synchronized (shardLocks[Math.floorMod(shard.name().hashCode(), LOCK_STRIPES)]) {
+            if (Files.exists(file) && Files.exists(fingerprint)
+                    && Files.readString(fingerprint, StandardCharsets.UTF_8).equals(stamp)) {
+                return file;
+            }
+            long started = System.nanoTime();
+            Files.createDirectories(cacheDir);
+            Path partial = Files.createTempFile(cacheDir, shard.name(), ".partial");
+            try {
+                try (OutputStream out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(partial)));
+                     SitemapXmlWriter urlset = SitemapXmlWriter.urlset(out, zone)) {
+                    urls.accept(url -> urlset.write(baseUrl + url.path(), url.lastModified()));
+                }
+                Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(partial);
+            }
+            Files.writeString(fingerprint, stamp, StandardCharsets.UTF_8);
+            log.debug("Wrote sitemap shard {} in {} ms", shard.name(),
+                    (System.nanoTime() - started) / 1_000_000);
+            return file;
         }
-        return paths;
     }
 }
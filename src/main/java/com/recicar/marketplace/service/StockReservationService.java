@@ -0,0 +1,207 @@
+package com.recicar.marketplace.service;
+
+import com.recicar.marketplace.entity.Product;
+import com.recicar.marketplace.entity.StockReservation;
+import com.recicar.marketplace.repository.ProductRepository;
+import com.recicar.marketplace.repository.StockReservationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Stock reservation ledger for checkout. {@code products.stock_quantity} is the stock still
+ * available to new checkouts and only ever moves through conditional {@code UPDATE}s, so two
+ * checkouts racing for the last unit cannot both get it and neither waits on the other.
+ * <p>
+ * A customer holds at most one {@code HELD} row per product. Holds are taken or adjusted when
+ * checkout starts, expire after {@code app.stock-reservation.hold-ttl} unless refreshed, and
+ * are committed when the order is placed. Expired holds are released by
+ * {@link #releaseExpired()}.
+ * <p>
+ * Every method touches product rows in ascending id order, whatever order the caller lists
+ * them in, so two checkouts sharing products wait on each other instead of deadlocking.
+ */
+@Service
+public class StockReservationService {
+
+    public static final int RELEASE_BATCH_SIZE = 500;
+
+    private final StockReservationRepository stockReservationRepository;
+    private final ProductRepository productRepository;
+    private final ProductChangeNotifier productChangeNotifier;
+    private final Duration holdTtl;
+
+    public StockReservationService(StockReservationRepository stockReservationRepository,
+                                   ProductRepository productRepository,
+                                   ProductChangeNotifier productChangeNotifier,
+                                   @Value("${app.stock-reservation.hold-ttl:15m}") Duration holdTtl) {
+        this.stockReservationRepository = stockReservationRepository;
+        this.productRepository = productRepository;
+        this.productChangeNotifier = productChangeNotifier;
+        this.holdTtl = holdTtl;
+    }
+
+    /**
+     * Makes the customer's holds match {@code quantities} (product id to units) and pushes their
+     * expiry out by the hold TTL. Only the difference to the current holds touches product stock.
+     *
+     * @throws RuntimeException if a product does not have enough stock; no hold is changed then
+     */
+    @Transactional
+    public void hold(Long customerId, Map<Long, Integer> quantities) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(holdTtl);
+        Map<Long, StockReservation> held = byProductId(stockReservationRepository.lockHeldByCustomerId(customerId));
+        Set<Long> changedProductIds = new LinkedHashSet<>();
+
+        for (Long productId : inLockOrder(quantities.keySet(), held.keySet())) {
+            StockReservation hold = held.get(productId);
+            Integer quantity = quantities.get(productId);
+            if (quantity == null) {
+                release(hold, now);
+                changedProductIds.add(productId);
+                continue;
+            }
+            int current = hold != null ? hold.getQuantity() : 0;
+            if (adjust(productId, quantity - current)) {
+                changedProductIds.add(productId);
+            }
+            if (hold == null) {
+                stockReservationRepository.save(new StockReservation(customerId, productId, quantity, expiresAt));
+            } else {
+                hold.setQuantity(quantity);
+                hold.setExpiresAt(expiresAt);
+            }
+        }
+        productChangeNotifier.productsChanged(changedProductIds);
+    }
+
+    /**
+     * Turns the customer's holds into sold stock for an order of {@code quantities}. Lines without
+     * a (large enough) hold, e.g. after it expired, take the missing units directly; holds for
+     * products no longer ordered are released.
+     *
+     * @throws RuntimeException if a line cannot be covered; joins the caller's transaction so the
+     *                          whole order is rolled back
+     */
+    @Transactional
+    public void commit(Long customerId, Map<Long, Integer> quantities) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, StockReservation> held = byProductId(stockReservationRepository.lockHeldByCustomerId(customerId));
+        Set<Long> changedProductIds = new LinkedHashSet<>();
+
+        for (Long productId : inLockOrder(quantities.keySet(), held.keySet())) {
+            StockReservation hold = held.get(productId);
+            Integer quantity = quantities.get(productId);
+            if (quantity == null) {
+                release(hold, now);
+                changedProductIds.add(productId);
+                continue;
+            }
+            int current = hold != null ? hold.getQuantity() : 0;
+            if (adjust(productId, quantity - current)) {
+                changedProductIds.add(productId);
+            }
+            if (hold != null) {
+                hold.setQuantity(quantity);
+                hold.commit(now);
+            }
+        }
+        productChangeNotifier.productsChanged(changedProductIds);
+    }
+
+    /**
+     * Units of each product currently held by the customer.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Integer> heldQuantities(Long customerId) {
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (Object[] row : stockReservationRepository.findHeldQuantitiesByCustomerId(customerId)) {
+            quantities.merge((Long) row[0], ((Number) row[1]).intValue(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    /**
+     * Units of a product in open holds; product stock plus this is what the vendor has on hand.
+     */
+    @Transactional(readOnly = true)
+    public int heldQuantity(Long productId) {
+        return (int) stockReservationRepository.sumHeldByProductId(productId);
+    }
+
+    /**
+     * Releases the next batch of expired holds back into stock.
+     *
+     * @return number of holds released
+     */
+    @Transactional
+    public int releaseExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        List<StockReservation> expired = new ArrayList<>(
+                stockReservationRepository.lockExpiredHolds(now, PageRequest.of(0, RELEASE_BATCH_SIZE)));
+        expired.sort(Comparator.comparing(StockReservation::getProductId));
+        Set<Long> changedProductIds = new LinkedHashSet<>();
+        for (StockReservation hold : expired) {
+            release(hold, now);
+            changedProductIds.add(hold.getProductId());
+        }
+        productChangeNotifier.productsChanged(changedProductIds);
+        return expired.size();
+    }
+
+    /**
+     * Takes {@code delta} more units of a product, or gives {@code -delta} back.
+     *
+     * @return whether product stock changed
+     */
+    private boolean adjust(Long productId, int delta) {
+        if (delta > 0) {
+            if (productRepository.decrementStockIfAvailable(productId, delta) == 0) {
+                String name = productRepository.findById(productId).map(Product::getName).orElse("#" + productId);
+                throw new RuntimeException("Not enough stock for product: " + name);
+            }
+            return true;
+        }
+        if (delta < 0) {
+            productRepository.incrementStock(productId, -delta);
+            return true;
+        }
+        return false;
+    }
+
+    private void release(StockReservation hold, LocalDateTime now) {
+        productRepository.incrementStock(hold.getProductId(), hold.getQuantity());
+        hold.release(now);
+    }
+
+    /**
+     * Ordered and held product ids together, ascending: the order product rows are locked in.
+     */
+    private static SortedSet<Long> inLockOrder(Set<Long> ordered, Set<Long> held) {
+        SortedSet<Long> productIds = new TreeSet<>(ordered);
+        productIds.addAll(held);
+        return productIds;
+    }
+
+    private static Map<Long, StockReservation> byProductId(List<StockReservation> holds) {
+        Map<Long, StockReservation> byProductId = new HashMap<>();
+        for (StockReservation hold : holds) {
+            byProductId.put(hold.getProductId(), hold);
+        }
+        return byProductId;
+    }
+}
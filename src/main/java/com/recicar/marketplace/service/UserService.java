@@ -8,6 +8,7 @@ import com.recicar.marketplace.entity.UserPasswordHistory;
 import com.recicar.marketplace.entity.UserRole;
 import com.recicar.marketplace.entity.Vendor;
 import com.recicar.marketplace.entity.VendorStatus;
+import com.recicar.marketplace.event.UserAuthVersionChangedEvent;
 import com.recicar.marketplace.repository.PasswordResetTokenRepository;
 import com.recicar.marketplace.repository.UserPasswordHistoryRepository;
 import com.recicar.marketplace.repository.UserRepository;
@@ -17,6 +18,7 @@ import com.recicar.marketplace.service.auth.EmailVerificationService;
 import com.recicar.marketplace.service.auth.UserRoleGrantService;
 import com.recicar.marketplace.service.notification.AuthMailNotificationService;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -41,6 +43,7 @@ public class UserService {
     private final UserRoleGrantService userRoleGrantService;
     private final AuthMailNotificationService mailNotificationService;
     private final VendorRepository vendorRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${app.baseUrl:http://localhost:8080}")
     private String appBaseUrl;
@@ -53,7 +56,8 @@ public class UserService {
             EmailVerificationService emailVerificationService,
             UserRoleGrantService userRoleGrantService,
             AuthMailNotificationService mailNotificationService,
-            VendorRepository vendorRepository) {
+            VendorRepository vendorRepository,
+            ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.tokenRepository = tokenRepository;
         this.passwordEncoder = passwordEncoder;
@@ -62,6 +66,7 @@ public class UserService {
         this.userRoleGrantService = userRoleGrantService;
         this.mailNotificationService = mailNotificationService;
         this.vendorRepository = vendorRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public User registerUser(UserRegistrationDto registrationDto) {
@@ -214,7 +219,7 @@ public class UserService {
     public void revokeAllSessions(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
-        user.setAuthVersion(user.getAuthVersion() + 1);
+        bumpAuthVersion(user);
         userRepository.save(user);
     }
 
@@ -334,10 +339,16 @@ public class UserService {
     }
 
     private void bumpCredentialVersion(User user) {
-        user.setAuthVersion(user.getAuthVersion() + 1);
+        bumpAuthVersion(user);
         user.setPasswordChangedAt(LocalDateTime.now());
     }
 
+    /** Cached auth versions are dropped once the surrounding transaction commits. */
+    private void bumpAuthVersion(User user) {
+        user.setAuthVersion(user.getAuthVersion() + 1);
+        eventPublisher.publishEvent(new UserAuthVersionChangedEvent(user.getId()));
+    }
+
     private void recordPasswordHistory(User user, String encodedHash) {
         UserPasswordHistory h = new UserPasswordHistory();
         h.setUser(user);
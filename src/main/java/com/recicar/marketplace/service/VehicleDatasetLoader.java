@@ -0,0 +1,288 @@
+package com.recicar.marketplace.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.recicar.marketplace.dto.CarReferenceRow;
+import com.recicar.marketplace.repository.CarReferenceJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Loads a vehicle dataset (a JSON array of {@code {make, models: [{model, trims: [{trim}]}]}})
+ * into the make, model and trim tables. The file is read one make at a time; new rows get ids
+ * from blocks reserved up front and are written in chunks of {@code app.vehicle-data.chunk-size}
+ * rows, parents before children, one statement per table and chunk.
+ * <p>
+ * Rows are matched by name within their parent, so loading over existing data only adds what
+ * is missing, and duplicate entries in the file are written once. With {@code removeMissing},
+ * rows the dataset no longer has are deleted as well, which turns a load into a diff and apply.
+ */
+@Slf4j
+@Service
+public class VehicleDatasetLoader {
+
+    static final String MAKE_TABLE = "car_make";
+    static final String MODEL_TABLE = "car_model";
+    static final String TRIM_TABLE = "car_trim";
+
+    /**
+     * What a load changed. {@code rowsRead} counts the makes, models and trims in the dataset.
+     */
+    public record Result(
+            int makesAdded,
+            int modelsAdded,
+            int trimsAdded,
+            int makesRemoved,
+            int modelsRemoved,
+            int trimsRemoved,
+            long rowsRead,
+            long elapsedMillis
+    ) {
+
+        public long rowsPerSecond() {
+            return rowsRead * 1000 / Math.max(1, elapsedMillis);
+        }
+    }
+
+    private final CarReferenceJdbcRepository repository;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public VehicleDatasetLoader(CarReferenceJdbcRepository repository, ObjectMapper objectMapper,
+                                @Value("${app.vehicle-data.chunk-size:5000}") int chunkSize) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Applies the dataset in one transaction.
+     *
+     * @param removeMissing also delete makes, models and trims the dataset does not contain
+     */
+    @Transactional
+    public Result load(InputStream in, boolean removeMissing) throws IOException {
+        long started = System.nanoTime();
+        Load load = new Load();
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array of vehicle makes");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+                load.make(objectMapper.readTree(parser));
+            }
+        }
+        load.flush();
+        int[] removed = removeMissing ? load.removeUnseen() : new int[3];
+        Result result = new Result(load.makesAdded, load.modelsAdded, load.trimsAdded,
+                removed[0], removed[1], removed[2], load.rowsRead, (System.nanoTime() - started) / 1_000_000);
+        log.info("Vehicle dataset applied: {} rows read in {} ms ({} rows/s); added {} makes, {} models, {} trims; "
+                        + "removed {} makes, {} models, {} trims",
+                result.rowsRead(), result.elapsedMillis(), result.rowsPerSecond(), result.makesAdded(),
+                result.modelsAdded(), result.trimsAdded(), result.makesRemoved(), result.modelsRemoved(),
+                result.trimsRemoved());
+        return result;
+    }
+
+    private static String key(long parentId, String name) {
+        return parentId + "\u0000" + name;
+    }
+
+    private static String name(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || !value.isTextual()) {
+            return null;
+        }
+        String name = value.asText().trim();
+        return name.isEmpty() ? null : name;
+    }
+
+    /**
+     * State of one load: the existing rows by key, which of them the dataset still has, the rows
+     * waiting for the next chunk and the reserved id blocks.
+     */
+    private final class Load {
+
+        private final Map<String, Long> makes = new HashMap<>();
+        private final Map<String, Long> models = new HashMap<>();
+        private final Map<String, Long> trims = new HashMap<>();
+        private final Set<Long> seenMakes = new HashSet<>();
+        private final Set<Long> seenModels = new HashSet<>();
+        private final Set<Long> seenTrims = new HashSet<>();
+
+        private final IdBlock makeIds = new IdBlock(MAKE_TABLE);
+        private final IdBlock modelIds = new IdBlock(MODEL_TABLE);
+        private final IdBlock trimIds = new IdBlock(TRIM_TABLE);
+
+        private final List<Long> newMakeIds = new ArrayList<>();
+        private final List<String> newMakeNames = new ArrayList<>();
+        private final List<Long> newModelIds = new ArrayList<>();
+        private final List<Long> newModelMakeIds = new ArrayList<>();
+        private final List<String> newModelNames = new ArrayList<>();
+        private final List<Long> newTrimIds = new ArrayList<>();
+        private final List<Long> newTrimModelIds = new ArrayList<>();
+        private final List<String> newTrimNames = new ArrayList<>();
+
+        private int makesAdded;
+        private int modelsAdded;
+        private int trimsAdded;
+        private long rowsRead;
+
+        Load() {
+            for (CarReferenceRow row : repository.findMakes()) {
+                makes.put(row.name(), row.id());
+            }
+            for (CarReferenceRow row : repository.findModels()) {
+                models.put(key(row.parentId(), row.name()), row.id());
+            }
+            for (CarReferenceRow row : repository.findTrims()) {
+                trims.put(key(row.parentId(), row.name()), row.id());
+            }
+        }
+
+        void make(JsonNode make) {
+            String makeName = name(make, "make");
+            if (makeName == null) {
+                return;
+            }
+            rowsRead++;
+            Long makeId = makes.get(makeName);
+            if (makeId == null) {
+                makeId = makeIds.next();
+                makes.put(makeName, makeId);
+                newMakeIds.add(makeId);
+                newMakeNames.add(makeName);
+                makesAdded++;
+            }
+            seenMakes.add(makeId);
+            flushIfFull();
+            for (JsonNode model : make.path("models")) {
+                model(makeId, model);
+            }
+        }
+
+        private void model(long makeId, JsonNode model) {
+            String modelName = name(model, "model");
+            if (modelName == null) {
+                return;
+            }
+            rowsRead++;
+            String key = key(makeId, modelName);
+            Long modelId = models.get(key);
+            if (modelId == null) {
+                modelId = modelIds.next();
+                models.put(key, modelId);
+                newModelIds.add(modelId);
+                newModelMakeIds.add(makeId);
+                newModelNames.add(modelName);
+                modelsAdded++;
+            }
+            seenModels.add(modelId);
+            flushIfFull();
+            for (JsonNode trim : model.path("trims")) {
+                trim(modelId, trim);
+            }
+        }
+
+        private void trim(long modelId, JsonNode trim) {
+            String trimName = name(trim, "trim");
+            if (trimName == null) {
+                return;
+            }
+            rowsRead++;
+            String key = key(modelId, trimName);
+            Long trimId = trims.get(key);
+            if (trimId == null) {
+                trimId = trimIds.next();
+                trims.put(key, trimId);
+                newTrimIds.add(trimId);
+                newTrimModelIds.add(modelId);
+                newTrimNames.add(trimName);
+                trimsAdded++;
+            }
+            seenTrims.add(trimId);
+            flushIfFull();
+        }
+
+        private void flushIfFull() {
+            if (newMakeIds.size() + newModelIds.size() + newTrimIds.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            repository.insertMakes(newMakeIds, newMakeNames);
+            repository.insertModels(newModelIds, newModelMakeIds, newModelNames);
+            repository.insertTrims(newTrimIds, newTrimModelIds, newTrimNames);
+            newMakeIds.clear();
+            newMakeNames.clear();
+            newModelIds.clear();
+            newModelMakeIds.clear();
+            newModelNames.clear();
+            newTrimIds.clear();
+            newTrimModelIds.clear();
+            newTrimNames.clear();
+        }
+
+        /**
+         * @return makes, models and trims removed
+         */
+        int[] removeUnseen() {
+            List<Long> makeIdsGone = unseen(makes, seenMakes);
+            List<Long> modelIdsGone = unseen(models, seenModels);
+            List<Long> trimIdsGone = unseen(trims, seenTrims);
+            repository.delete(trimIdsGone, modelIdsGone, makeIdsGone);
+            return new int[]{makeIdsGone.size(), modelIdsGone.size(), trimIdsGone.size()};
+        }
+
+        private static List<Long> unseen(Map<String, Long> rows, Set<Long> seen) {
+            List<Long> ids = new ArrayList<>();
+            for (Long id : rows.values()) {
+                if (!seen.contains(id)) {
+                    ids.add(id);
+                }
+            }
+            return ids;
+        }
+    }
+
+    /**
+     * Ids of one table, reserved from its sequence {@code chunkSize} at a time.
+     */
+    private final class IdBlock {
+
+        private final String table;
+        private long[] ids = new long[0];
+        private int next;
+
+        IdBlock(String table) {
+            this.table = table;
+        }
+
+        long next() {
+            if (next == ids.length) {
+                ids = repository.reserveIds(table, chunkSize);
+                next = 0;
+            }
+            return ids[next++];
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.recicar.marketplace.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.recicar.marketplace.dto.BulkInventoryResult;
+import com.recicar.marketplace.dto.BulkInventoryRow;
+import com.recicar.marketplace.dto.BulkInventoryRowError;
+import com.recicar.marketplace.entity.Vendor;
+import com.recicar.marketplace.repository.ProductInventoryJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk stock and price updates for a vendor's own products. The payload is a JSON array of
+ * {@link BulkInventoryRow}s read one row at a time, so a nightly upload of tens of thousands of
+ * lines never sits in memory as a whole. Valid rows are applied in chunks of
+ * {@code app.vendor-inventory.bulk-chunk-size}, each in its own transaction with one set-based
+ * statement; a failure mid-payload, unreadable input or a chunk the database refuses, stops the
+ * upload and keeps the chunks already applied.
+ */
+@Slf4j
+@Service
+public class VendorInventoryBulkService {
+
+    static final int MAX_REPORTED_ERRORS = 1000;
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+
+    private final ProductInventoryJdbcRepository productInventoryJdbcRepository;
+    private final ProductChangeNotifier productChangeNotifier;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxRows;
+    private final DistributionSummary throughput;
+    private final Counter updatedRows;
+    private final Counter rejectedRows;
+
+    public VendorInventoryBulkService(ProductInventoryJdbcRepository productInventoryJdbcRepository,
+                                      ProductChangeNotifier productChangeNotifier,
+                                      ObjectMapper objectMapper,
+                                      PlatformTransactionManager transactionManager,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${app.vendor-inventory.bulk-chunk-size:1000}") int chunkSize,
+                                      @Value("${app.vendor-inventory.bulk-max-rows:50000}") int maxRows) {
+        this.productInventoryJdbcRepository = productInventoryJdbcRepository;
+        this.productChangeNotifier = productChangeNotifier;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxRows = maxRows;
+        this.throughput = DistributionSummary.builder("vendor.inventory.bulk.throughput")
+                .description("Rows applied per second by bulk inventory uploads")
+                .baseUnit("rows/s")
+                .register(meterRegistry);
+        this.updatedRows = Counter.builder("vendor.inventory.bulk.rows")
+                .tag("result", "updated")
+                .register(meterRegistry);
+        this.rejectedRows = Counter.builder("vendor.inventory.bulk.rows")
+                .tag("result", "rejected")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Applies a bulk upload to the vendor's products. Rows for products that do not exist or
+     * belong to another vendor are rejected without telling the two apart.
+     */
+    public BulkInventoryResult apply(Vendor vendor, InputStream payload) {
+        long started = System.nanoTime();
+        Upload upload = new Upload();
+        String error = null;
+        try (JsonParser parser = objectMapper.getFactory().createParser(payload)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of inventory rows");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new IllegalArgumentException("Row " + upload.received + " is not a JSON object");
+                }
+                if (upload.received == maxRows) {
+                    throw new IllegalArgumentException("Payload exceeds " + maxRows + " rows");
+                }
+                upload.add(objectMapper.readValue(parser, BulkInventoryRow.class));
+                if (upload.pending.size() == chunkSize) {
+                    error = flush(vendor.getId(), upload);
+                    if (error != null) {
+                        break;
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            error = e instanceof IOException
+                    ? "Malformed payload at row " + upload.received + ": " + e.getMessage()
+                    : e.getMessage();
+        }
+        String flushError = flush(vendor.getId(), upload);
+        if (error == null) {
+            error = flushError;
+        }
+
+        long elapsedNanos = Math.max(System.nanoTime() - started, 1);
+        double rowsPerSecond = upload.updated * 1_000_000_000.0 / elapsedNanos;
+        throughput.record(rowsPerSecond);
+        updatedRows.increment(upload.updated);
+        rejectedRows.increment(upload.rejected);
+        log.info("Bulk inventory for vendor {}: {} rows, {} updated, {} rejected in {} ms ({} rows/s)",
+                vendor.getId(), upload.received, upload.updated, upload.rejected,
+                elapsedNanos / 1_000_000, Math.round(rowsPerSecond));
+        return new BulkInventoryResult(upload.received, upload.updated, upload.rejected,
+                elapsedNanos / 1_000_000, rowsPerSecond, upload.errors, error);
+    }
+
+    /**
+     * Applies the pending rows in one transaction. A product listed twice in the chunk takes its
+     * last row; the earlier ones are rejected as superseded. Returns the error to stop the upload
+     * with when the database refuses the chunk, whose rows are then all rejected, or null.
+     */
+    private String flush(Long vendorId, Upload upload) {
+        if (upload.pending.isEmpty()) {
+            return null;
+        }
+        Map<Long, Integer> lastRowByProductId = new LinkedHashMap<>();
+        for (int i = 0; i < upload.pending.size(); i++) {
+            Integer previous = lastRowByProductId.put(upload.pending.get(i).productId(), i);
+            if (previous != null) {
+                upload.reject(upload.pendingIndexes.get(previous), upload.pending.get(previous).productId(),
+                        "Superseded by row " + upload.pendingIndexes.get(i));
+            }
+        }
+        List<BulkInventoryRow> rows = new ArrayList<>(lastRowByProductId.size());
+        lastRowByProductId.values().forEach(i -> rows.add(upload.pending.get(i)));
+
+        Set<Long> updatedIds;
+        try {
+            updatedIds = transactionTemplate.execute(status -> {
+                Set<Long> ids = new HashSet<>(productInventoryJdbcRepository.applyForVendor(vendorId, rows));
+                productChangeNotifier.productsChanged(ids);
+                return ids;
+            });
+        } catch (DataAccessException e) {
+            int first = upload.pendingIndexes.get(0);
+            int last = upload.pendingIndexes.get(upload.pendingIndexes.size() - 1);
+            log.warn("Bulk inventory chunk for vendor {} (rows {}-{}) failed", vendorId, first, last, e);
+            for (Integer i : lastRowByProductId.values()) {
+                upload.reject(upload.pendingIndexes.get(i), upload.pending.get(i).productId(), "Not saved");
+            }
+            upload.pending.clear();
+            upload.pendingIndexes.clear();
+            return "Rows " + first + "-" + last + " could not be saved; the upload stopped there";
+        }
+        for (Integer i : lastRowByProductId.values()) {
+            Long productId = upload.pending.get(i).productId();
+            if (updatedIds != null && updatedIds.contains(productId)) {
+                upload.updated++;
+            } else {
+                upload.reject(upload.pendingIndexes.get(i), productId, "Product not found");
+            }
+        }
+        upload.pending.clear();
+        upload.pendingIndexes.clear();
+        return null;
+    }
+
+    static String validate(BulkInventoryRow row) {
+        if (row.productId() == null) {
+            return "productId is required";
+        }
+        if (row.stockQuantity() == null && row.price() == null) {
+            return "Nothing to update";
+        }
+        if (row.stockQuantity() != null && row.stockQuantity() < 0) {
+            return "stockQuantity must not be negative";
+        }
+        if (row.price() != null) {
+            if (row.price().signum() <= 0 || row.price().compareTo(MAX_PRICE) > 0) {
+                return "price must be between 0.01 and " + MAX_PRICE;
+            }
+            if (row.price().stripTrailingZeros().scale() > 2) {
+                return "price must have at most 2 decimals";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Running state of one upload.
+     */
+    private static final class Upload {
+        private final List<BulkInventoryRow> pending = new ArrayList<>();
+        private final List<Integer> pendingIndexes = new ArrayList<>();
+        private final List<BulkInventoryRowError> errors = new ArrayList<>();
+        private int received;
+        private int updated;
+        private int rejected;
+
+        void add(BulkInventoryRow row) {
+            int index = received++;
+            String invalid = validate(row);
+            if (invalid != null) {
+                reject(index, row.productId(), invalid);
+            } else {
+                pending.add(row);
+                pendingIndexes.add(index);
+            }
+        }
+
+        void reject(int row, Long productId, String reason) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new BulkInventoryRowError(row, productId, reason));
+            }
+        }
+    }
+}
@@ -4,7 +4,6 @@ import com.recicar.marketplace.dto.VendorOrderListItemDto;
 import com.recicar.marketplace.entity.Order;
 import com.recicar.marketplace.entity.OrderItem;
 import com.recicar.marketplace.entity.Vendor;
-import com.recicar.marketplace.repository.OrderItemRepository;
 import com.recicar.marketplace.repository.OrderRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -25,11 +24,11 @@ import java.util.stream.Collectors;
 public class VendorOrderMetricsService {
 
     private final OrderRepository orderRepository;
-    private final OrderItemRepository orderItemRepository;
+    private final VendorSalesRollupService vendorSalesRollupService;
 
-    public VendorOrderMetricsService(OrderRepository orderRepository, OrderItemRepository orderItemRepository) {
+    public VendorOrderMetricsService(OrderRepository orderRepository, VendorSalesRollupService vendorSalesRollupService) {
         this.orderRepository = orderRepository;
-        this.orderItemRepository = orderItemRepository;
+        this.vendorSalesRollupService = vendorSalesRollupService;
     }
 
     public long countPendingOrders(Vendor vendor) {
@@ -37,8 +36,8 @@ public class VendorOrderMetricsService {
     }
 
     public BigDecimal sumMonthRevenueExcludingCanceled(Vendor vendor) {
-        LocalDate firstDay = LocalDate.now().withDayOfMonth(1);
-        return orderItemRepository.sumLineTotalForVendorSince(vendor.getId(), firstDay.atStartOfDay());
+        LocalDate today = LocalDate.now();
+        return vendorSalesRollupService.totals(vendor.getId(), today.withDayOfMonth(1), today).revenue();
     }
 
     @Transactional(readOnly = true)
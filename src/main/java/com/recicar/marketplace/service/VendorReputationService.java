@@ -0,0 +1,167 @@
+package com.recicar.marketplace.service;
+
+import com.recicar.marketplace.entity.VendorRating;
+import com.recicar.marketplace.event.VendorMetricChangedEvent;
+import com.recicar.marketplace.event.VendorRatingsRefreshedEvent;
+import com.recicar.marketplace.repository.VendorMetricRepository;
+import com.recicar.marketplace.repository.VendorRatingRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the {@code vendor_rating} snapshot: vendors whose metrics changed are re-rated in
+ * small batches, and a periodic full pass recomputes every row so nothing is older than one
+ * full-refresh interval. The age of that pass is published as the
+ * {@code vendor.rating.snapshot.age} gauge.
+ */
+@Slf4j
+@Service
+public class VendorReputationService {
+
+    static final BigDecimal TOP_SELLER_RATING = new BigDecimal("4.50");
+    private static final int REFRESH_BATCH_SIZE = 500;
+
+    private final VendorMetricRepository vendorMetricRepository;
+    private final VendorRatingRepository vendorRatingRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Set<Long> changedVendorIds = ConcurrentHashMap.newKeySet();
+
+    private volatile Instant lastFullRefresh;
+
+    public VendorReputationService(VendorMetricRepository vendorMetricRepository,
+                                   VendorRatingRepository vendorRatingRepository,
+                                   ApplicationEventPublisher eventPublisher,
+                                   MeterRegistry meterRegistry) {
+        this.vendorMetricRepository = vendorMetricRepository;
+        this.vendorRatingRepository = vendorRatingRepository;
+        this.eventPublisher = eventPublisher;
+        Gauge.builder("vendor.rating.snapshot.age", this,
+                        service -> service.snapshotAge().map(age -> age.toMillis() / 1000.0).orElse(Double.NaN))
+                .description("Time since every vendor rating was last recomputed")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVendorMetricChanged(VendorMetricChangedEvent event) {
+        changedVendorIds.add(event.vendorId());
+    }
+
+    /**
+     * Re-rates the vendors whose metrics changed since the previous call; vendors whose refresh
+     * fails stay marked for the next one.
+     *
+     * @return number of vendors re-rated
+     */
+    @Transactional
+    public int refreshChanged() {
+        if (changedVendorIds.isEmpty()) {
+            return 0;
+        }
+        List<Long> vendorIds = new ArrayList<>(changedVendorIds);
+        changedVendorIds.removeAll(vendorIds);
+        Instant now = Instant.now();
+        try {
+            for (int from = 0; from < vendorIds.size(); from += REFRESH_BATCH_SIZE) {
+                List<Long> batch = vendorIds.subList(from, Math.min(from + REFRESH_BATCH_SIZE, vendorIds.size()));
+                write(vendorMetricRepository.sumConversionRatesByVendorIdIn(batch),
+                        vendorRatingRepository.findAllById(batch), now);
+            }
+        } catch (RuntimeException e) {
+            changedVendorIds.addAll(vendorIds);
+            throw e;
+        }
+        eventPublisher.publishEvent(new VendorRatingsRefreshedEvent(Set.copyOf(vendorIds), false));
+        return vendorIds.size();
+    }
+
+    /**
+     * Recomputes every row; rows of vendors that no longer have metrics are removed.
+     *
+     * @return number of vendors rated
+     */
+    @Transactional
+    public int refreshAll() {
+        Instant started = Instant.now();
+        changedVendorIds.clear();
+        int rated = write(vendorMetricRepository.sumConversionRatesByVendor(), vendorRatingRepository.findAll(), started);
+        eventPublisher.publishEvent(new VendorRatingsRefreshedEvent(Set.of(), true));
+        lastFullRefresh = started;
+        log.info("Vendor rating snapshot refreshed: {} vendors in {} ms", rated,
+                Duration.between(started, Instant.now()).toMillis());
+        return rated;
+    }
+
+    /**
+     * Time since the last full refresh, which bounds how stale any snapshot row can be.
+     */
+    public Optional<Duration> snapshotAge() {
+        Instant refreshed = lastFullRefresh;
+        return refreshed == null ? Optional.empty() : Optional.of(Duration.between(refreshed, Instant.now()));
+    }
+
+    /**
+     * Average conversion rate scaled to a 1-5 rating.
+     */
+    static BigDecimal rate(BigDecimal conversionRateSum, long metricCount) {
+        BigDecimal averageConversion = (conversionRateSum == null ? BigDecimal.ZERO : conversionRateSum)
+                .divide(BigDecimal.valueOf(metricCount), 4, RoundingMode.HALF_UP);
+
+        BigDecimal scaled = averageConversion.multiply(BigDecimal.valueOf(5));
+        if (scaled.compareTo(BigDecimal.ONE) < 0) {
+            return BigDecimal.ONE;
+        }
+        if (scaled.compareTo(BigDecimal.valueOf(5)) > 0) {
+            return BigDecimal.valueOf(5);
+        }
+        return scaled.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Upserts a row per aggregate and deletes the {@code existing} rows no aggregate matched.
+     */
+    private int write(List<Object[]> sums, List<VendorRating> existing, Instant now) {
+        Map<Long, VendorRating> stale = existing.stream()
+                .collect(Collectors.toMap(VendorRating::getVendorId, Function.identity(), (a, b) -> a, HashMap::new));
+        List<VendorRating> rows = new ArrayList<>(sums.size());
+        for (Object[] sum : sums) {
+            Long vendorId = (Long) sum[0];
+            BigDecimal conversionRateSum = sum[1] != null ? (BigDecimal) sum[1] : BigDecimal.ZERO;
+            long metricCount = ((Number) sum[2]).longValue();
+            BigDecimal rating = rate(conversionRateSum, metricCount);
+
+            VendorRating row = stale.remove(vendorId);
+            if (row == null) {
+                row = new VendorRating(vendorId);
+            }
+            row.setMetricCount((int) metricCount);
+            row.setConversionRateSum(conversionRateSum);
+            row.setRating(rating);
+            row.setTopSeller(rating.compareTo(TOP_SELLER_RATING) >= 0);
+            row.setRefreshedAt(now);
+            rows.add(row);
+        }
+        vendorRatingRepository.saveAll(rows);
+        vendorRatingRepository.deleteAll(stale.values());
+        return rows.size();
+    }
+}
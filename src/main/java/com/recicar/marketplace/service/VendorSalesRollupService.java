@@ -0,0 +1,84 @@
+package com.recicar.marketplace.service;
+
+import com.recicar.marketplace.dto.VendorSalesTotals;
+import com.recicar.marketplace.event.OrderChangedEvent;
+import com.recicar.marketplace.repository.VendorSalesRollupJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-vendor daily sales rollup. Committed order changes mark their order's day dirty; the
+ * scheduled {@link #refreshPending()} recomputes all dirty days in a few range statements, so a
+ * checkout burst costs one refresh per day rather than one per order. A nightly
+ * {@link #reconcile(int)} recomputes trailing days, which also covers changes made outside JPA.
+ * <p>
+ * Any date range is then a sum over at most one row per day.
+ */
+@Slf4j
+@Service
+public class VendorSalesRollupService {
+
+    private final VendorSalesRollupJdbcRepository rollupRepository;
+    private final Set<LocalDate> dirtyDays = ConcurrentHashMap.newKeySet();
+
+    public VendorSalesRollupService(VendorSalesRollupJdbcRepository rollupRepository) {
+        this.rollupRepository = rollupRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public VendorSalesTotals totals(Long vendorId, LocalDate fromInclusive, LocalDate toInclusive) {
+        return rollupRepository.sumBetween(vendorId, fromInclusive, toInclusive);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        dirtyDays.add(event.orderDate());
+    }
+
+    /**
+     * Recomputes the days marked dirty since the previous run; days whose refresh fails stay
+     * marked for the next one.
+     *
+     * @return number of days recomputed
+     */
+    @Transactional
+    public int refreshPending() {
+        if (dirtyDays.isEmpty()) {
+            return 0;
+        }
+        List<LocalDate> days = new ArrayList<>(dirtyDays);
+        dirtyDays.removeAll(days);
+        days.sort(null);
+        try {
+            // One statement per run of consecutive days
+            int start = 0;
+            for (int i = 1; i <= days.size(); i++) {
+                if (i == days.size() || !days.get(i).equals(days.get(i - 1).plusDays(1))) {
+                    rollupRepository.refreshDays(days.get(start), days.get(i - 1).plusDays(1));
+                    start = i;
+                }
+            }
+        } catch (RuntimeException e) {
+            dirtyDays.addAll(days);
+            throw e;
+        }
+        return days.size();
+    }
+
+    /**
+     * Recomputes the last {@code days} days, today included.
+     */
+    @Transactional
+    public void reconcile(int days) {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        rollupRepository.refreshDays(tomorrow.minusDays(Math.max(1, days)), tomorrow);
+    }
+}
@@ -10,18 +10,13 @@ import com.recicar.marketplace.entity.UserRole;
 import com.recicar.marketplace.entity.VendorStatus;
 import com.recicar.marketplace.repository.UserRepository;
 import com.recicar.marketplace.repository.VendorRepository;
+import com.recicar.marketplace.service.image.ImageUploadService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import java.util.Optional;
 import java.util.List;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.util.UUID;
 
 @Service
 public class VendorServiceImpl implements VendorService {
@@ -30,12 +25,14 @@ public class VendorServiceImpl implements VendorService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final NotificationService notificationService;
+    private final ImageUploadService imageUploadService;
 
-    public VendorServiceImpl(VendorRepository vendorRepository, UserRepository userRepository, PasswordEncoder passwordEncoder, NotificationService notificationService) {
+    public VendorServiceImpl(VendorRepository vendorRepository, UserRepository userRepository, PasswordEncoder passwordEncoder, NotificationService notificationService, ImageUploadService imageUploadService) {
         this.vendorRepository = vendorRepository;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.notificationService = notificationService;
+        this.imageUploadService = imageUploadService;
     }
 
     @Override
@@ -163,74 +160,16 @@ public class VendorServiceImpl implements VendorService {
         
         // Handle logo upload
         if (logo != null && !logo.isEmpty()) {
-            String logoUrl = saveFile(logo, "logos");
+            String logoUrl = imageUploadService.store(logo);
             vendor.setLogoUrl(logoUrl);
         }
         
         // Handle banner upload
         if (banner != null && !banner.isEmpty()) {
-            String bannerUrl = saveFile(banner, "banners");
+            String bannerUrl = imageUploadService.store(banner);
             vendor.setBannerUrl(bannerUrl);
         }
         
         vendorRepository.save(vendor);
     }
-
-    private String saveFile(MultipartFile file, String directory) {
-        try {
-            // Validate directory parameter - only allow specific values
-            if (!directory.equals("logos") && !directory.equals("banners")) {
-                throw new IllegalArgumentException("Invalid directory");
-            }
-            
-            // Validate file extension
-            String originalFilename = file.getOriginalFilename();
-            if (originalFilename == null || originalFilename.isEmpty()) {
-                throw new IllegalArgumentException("Invalid filename");
-            }
-            
-            // Get the file extension from the last dot
-            int lastDotIndex = originalFilename.lastIndexOf(".");
-            if (lastDotIndex == -1 || lastDotIndex == originalFilename.length() - 1) {
-                throw new IllegalArgumentException("File must have a valid extension");
-            }
-            
-            String extension = originalFilename.substring(lastDotIndex).toLowerCase();
-            
-            // Only allow specific image extensions
-            if (!extension.equals(".jpg") && !extension.equals(".jpeg") && 
-                !extension.equals(".png") && !extension.equals(".gif")) {
-                throw new IllegalArgumentException("Only image files are allowed");
-            }
-            
-            // Validate MIME type
-            String contentType = file.getContentType();
-            if (contentType == null || (!contentType.startsWith("image/"))) {
-                throw new IllegalArgumentException("Invalid file type");
-            }
-            
-            // Create upload directory if it doesn't exist
-            Path uploadPath = Paths.get("uploads", directory);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-            }
-            
-            // Generate unique filename with validated extension
-            String filename = UUID.randomUUID().toString() + extension;
-            
-            // Resolve path and ensure it's within the upload directory
-            Path filePath = uploadPath.resolve(filename).normalize();
-            if (!filePath.startsWith(uploadPath.normalize())) {
-                throw new SecurityException("Invalid file path");
-            }
-            
-            // Save file
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-            
-            // Return URL path
-            return "/uploads/" + directory + "/" + filename;
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to upload file", e);
-        }
-    }
 }
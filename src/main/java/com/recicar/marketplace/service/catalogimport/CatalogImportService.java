@@ -0,0 +1,412 @@
+package com.recicar.marketplace.service.catalogimport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.recicar.marketplace.dto.CatalogImportProgress;
+import com.recicar.marketplace.dto.CatalogImportRowError;
+import com.recicar.marketplace.dto.CatalogProductRow;
+import com.recicar.marketplace.dto.VehicleCompatibilitySnapshot;
+import com.recicar.marketplace.entity.CatalogImport;
+import com.recicar.marketplace.entity.CatalogImportFormat;
+import com.recicar.marketplace.entity.CatalogImportStatus;
+import com.recicar.marketplace.entity.Vendor;
+import com.recicar.marketplace.event.VehicleCompatibilityChangedEvent;
+import com.recicar.marketplace.repository.BrandRepository;
+import com.recicar.marketplace.repository.CatalogImportJdbcRepository;
+import com.recicar.marketplace.repository.CatalogImportJdbcRepository.ExistingProduct;
+import com.recicar.marketplace.repository.CatalogImportRepository;
+import com.recicar.marketplace.repository.CategoryRepository;
+import com.recicar.marketplace.service.ProductChangeNotifier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Staged import of vendor catalog feeds (CSV or JSON) into {@code products},
+ * {@code product_images} and {@code vehicle_compatibility}.
+ * <ol>
+ *     <li>The upload is copied to {@code app.catalog-import.staging-dir} and queued.</li>
+ *     <li>A worker streams the file line by line, resolving categories and vehicle makes from
+ *     lookups loaded once per run.</li>
+ *     <li>Every {@code app.catalog-import.chunk-size} lines, the chunk is deduplicated on
+ *     normalized part number (OEM number for lines without one), matched against the vendor's
+ *     existing products and written with a handful of set-based statements, in one transaction
+ *     together with the import's counters and resume point.</li>
+ * </ol>
+ * A failed or interrupted import continues after its last committed line: failed ones when the
+ * vendor resumes them, abandoned ones once their heartbeat is older than
+ * {@code app.catalog-import.stale-after}.
+ */
+@Slf4j
+@Service
+public class CatalogImportService {
+
+    static final int MAX_STORED_ERRORS = 1000;
+    private static final int SHOWN_ERRORS = 100;
+
+    private final CatalogImportRepository catalogImportRepository;
+    private final CatalogImportJdbcRepository catalogImportJdbcRepository;
+    private final CategoryRepository categoryRepository;
+    private final BrandRepository brandRepository;
+    private final ProductChangeNotifier productChangeNotifier;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Path stagingDir;
+    private final long maxFileSize;
+    private final int chunkSize;
+    private final Duration staleAfter;
+
+    public CatalogImportService(CatalogImportRepository catalogImportRepository,
+                                CatalogImportJdbcRepository catalogImportJdbcRepository,
+                                CategoryRepository categoryRepository,
+                                BrandRepository brandRepository,
+                                ProductChangeNotifier productChangeNotifier,
+                                ApplicationEventPublisher eventPublisher,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.catalog-import.staging-dir:${java.io.tmpdir}/recicar-catalog-imports}") Path stagingDir,
+                                @Value("${app.catalog-import.max-file-size:200MB}") DataSize maxFileSize,
+                                @Value("${app.catalog-import.chunk-size:500}") int chunkSize,
+                                @Value("${app.catalog-import.stale-after:2m}") Duration staleAfter) {
+        this.catalogImportRepository = catalogImportRepository;
+        this.catalogImportJdbcRepository = catalogImportJdbcRepository;
+        this.categoryRepository = categoryRepository;
+        this.brandRepository = brandRepository;
+        this.productChangeNotifier = productChangeNotifier;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.stagingDir = stagingDir;
+        this.maxFileSize = maxFileSize.toBytes();
+        this.chunkSize = chunkSize;
+        this.staleAfter = staleAfter;
+    }
+
+    /**
+     * Copies an uploaded feed to the staging directory and queues it.
+     *
+     * @throws IllegalArgumentException if the upload is larger than {@code app.catalog-import.max-file-size}
+     */
+    @Transactional
+    public CatalogImport stage(Vendor vendor, CatalogImportFormat format, InputStream body) throws IOException {
+        Files.createDirectories(stagingDir);
+        Path file = stagingDir.resolve("vendor-" + vendor.getId() + "-" + UUID.randomUUID() + "."
+                + format.name().toLowerCase());
+        try (OutputStream out = Files.newOutputStream(file)) {
+            byte[] buffer = new byte[64 * 1024];
+            long copied = 0;
+            for (int read; (read = body.read(buffer)) != -1; ) {
+                copied += read;
+                if (copied > maxFileSize) {
+                    throw new IllegalArgumentException("Catalog feed is larger than " + maxFileSize + " bytes");
+                }
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return catalogImportRepository.save(new CatalogImport(vendor.getId(), format, file.toString()));
+    }
+
+    /**
+     * Takes the next queued import, or one abandoned by a worker that stopped reporting, for this instance.
+     */
+    @Transactional
+    public Optional<CatalogImport> claimNext() {
+        LocalDateTime now = LocalDateTime.now();
+        List<CatalogImport> runnable = catalogImportRepository.lockNextRunnable(now.minus(staleAfter), PageRequest.of(0, 1));
+        if (runnable.isEmpty()) {
+            return Optional.empty();
+        }
+        CatalogImport job = runnable.get(0);
+        job.start(now);
+        return Optional.of(job);
+    }
+
+    /**
+     * Imports a claimed feed from its resume point to the end.
+     */
+    public void run(CatalogImport job) {
+        long started = System.nanoTime();
+        int committed = job.getRowsCommitted();
+        int firstRow = committed;
+        try {
+            CatalogLookups lookups = new CatalogLookups(
+                    categoryRepository.findByActiveTrueOrderBySortOrderAsc(), brandRepository.findAll());
+            int storedErrors = catalogImportJdbcRepository.countErrors(job.getId());
+            try (CatalogRowReader reader = open(job)) {
+                Chunk chunk = new Chunk(committed);
+                for (CatalogRowReader.ParsedRow parsed; (parsed = reader.next()) != null; ) {
+                    if (parsed.rowNumber() <= committed) {
+                        continue;
+                    }
+                    chunk.add(parsed, lookups);
+                    if (chunk.lines() == chunkSize) {
+                        storedErrors = write(job, chunk, storedErrors);
+                        committed = chunk.lastRow;
+                        chunk = new Chunk(committed);
+                    }
+                }
+                write(job, chunk, storedErrors);
+                committed = chunk.lastRow;
+            }
+            finish(job.getId(), null);
+            Files.deleteIfExists(Path.of(job.getStagedFile()));
+            long elapsedMillis = Math.max((System.nanoTime() - started) / 1_000_000, 1);
+            log.info("Catalog import {} for vendor {} finished: rows {}-{} in {} ms ({} rows/s)",
+                    job.getId(), job.getVendorId(), firstRow + 1, committed, elapsedMillis,
+                    (committed - firstRow) * 1000L / elapsedMillis);
+        } catch (ImportTakenOverException e) {
+            log.info("Catalog import {} was taken over by another worker at row {}", job.getId(), committed);
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Catalog import {} stopped reading its feed after row {}", job.getId(), committed, e);
+            finish(job.getId(), "Feed could not be read after row " + committed + ": " + e.getMessage());
+        } catch (RuntimeException e) {
+            log.warn("Catalog import {} failed after row {}", job.getId(), committed, e);
+            finish(job.getId(), "Import failed after row " + committed + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Queues a failed import again; it continues after its last committed line.
+     *
+     * @return the import, or empty if the vendor has no such import
+     * @throws IllegalStateException if the import has not failed
+     */
+    @Transactional
+    public Optional<CatalogImport> resume(Vendor vendor, Long importId) {
+        Optional<CatalogImport> job = catalogImportRepository.findByIdAndVendorId(importId, vendor.getId());
+        job.ifPresent(found -> {
+            if (found.getStatus() != CatalogImportStatus.FAILED) {
+                throw new IllegalStateException("Only failed imports can be resumed");
+            }
+            found.resume();
+        });
+        return job;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<CatalogImportProgress> progress(Vendor vendor, Long importId) {
+        return catalogImportRepository.findByIdAndVendorId(importId, vendor.getId())
+                .map(job -> CatalogImportProgress.of(job, catalogImportJdbcRepository.findErrors(job.getId(), SHOWN_ERRORS)));
+    }
+
+    @Transactional(readOnly = true)
+    public List<CatalogImportProgress> recent(Vendor vendor, int limit) {
+        return catalogImportRepository.findByVendorIdOrderByCreatedAtDesc(vendor.getId(), PageRequest.of(0, limit))
+                .stream()
+                .map(job -> CatalogImportProgress.of(job, List.of()))
+                .toList();
+    }
+
+    private CatalogRowReader open(CatalogImport job) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(Path.of(job.getStagedFile())));
+        try {
+            return switch (job.getFormat()) {
+                case CSV -> new CsvCatalogRowReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+                case JSON -> new JsonCatalogRowReader(objectMapper, in);
+            };
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes one chunk and moves the import's resume point past it, in one transaction.
+     *
+     * @return number of rejected lines stored for the import so far
+     */
+    private int write(CatalogImport job, Chunk chunk, int storedErrors) {
+        if (chunk.lines() == 0) {
+            return storedErrors;
+        }
+        return transactionTemplate.execute(status -> {
+            ChunkOutcome outcome = upsert(job.getVendorId(), chunk);
+            List<CatalogImportRowError> errors = chunk.errors;
+            int toStore = Math.max(0, Math.min(errors.size(), MAX_STORED_ERRORS - storedErrors));
+            catalogImportJdbcRepository.insertErrors(job.getId(), errors.subList(0, toStore));
+            if (!catalogImportJdbcRepository.advance(job.getId(), chunk.firstRow, chunk.lastRow,
+                    outcome.created, outcome.updated, errors.size())) {
+                throw new ImportTakenOverException();
+            }
+            return storedErrors + toStore;
+        });
+    }
+
+    private ChunkOutcome upsert(Long vendorId, Chunk chunk) {
+        Map<String, CatalogProductRow> byKey = new LinkedHashMap<>();
+        for (CatalogProductRow row : chunk.rows) {
+            CatalogProductRow earlier = byKey.remove(row.dedupKey());
+            if (earlier != null) {
+                chunk.reject(earlier.rowNumber(), "Duplicate of row " + row.rowNumber());
+            }
+            byKey.put(row.dedupKey(), row);
+        }
+        if (byKey.isEmpty()) {
+            return new ChunkOutcome(0, 0);
+        }
+
+        Set<String> partKeys = new LinkedHashSet<>();
+        Set<String> oemKeys = new LinkedHashSet<>();
+        for (CatalogProductRow row : byKey.values()) {
+            if (row.partNumberNormalized() != null) {
+                partKeys.add(row.partNumberNormalized());
+            }
+            if (row.oemNumberNormalized() != null) {
+                oemKeys.add(row.oemNumberNormalized());
+            }
+        }
+        Map<String, Long> byPart = new HashMap<>();
+        Map<String, Long> byOemWithoutPart = new HashMap<>();
+        Map<String, Long> byOem = new HashMap<>();
+        for (ExistingProduct existing : catalogImportJdbcRepository.findExisting(vendorId, partKeys, oemKeys)) {
+            if (existing.partNumberNormalized() != null) {
+                byPart.putIfAbsent(existing.partNumberNormalized(), existing.id());
+            }
+            if (existing.oemNumberNormalized() != null) {
+                byOem.putIfAbsent(existing.oemNumberNormalized(), existing.id());
+                if (existing.partNumberNormalized() == null) {
+                    byOemWithoutPart.putIfAbsent(existing.oemNumberNormalized(), existing.id());
+                }
+            }
+        }
+
+        Map<Long, CatalogProductRow> updates = new LinkedHashMap<>();
+        List<CatalogProductRow> inserts = new ArrayList<>();
+        for (CatalogProductRow row : byKey.values()) {
+            Long productId = row.partNumberNormalized() != null
+                    ? byPart.getOrDefault(row.partNumberNormalized(), byOemWithoutPart.get(row.oemNumberNormalized()))
+                    : byOem.get(row.oemNumberNormalized());
+            if (productId == null) {
+                inserts.add(row);
+                continue;
+            }
+            CatalogProductRow earlier = updates.put(productId, row);
+            if (earlier != null) {
+                chunk.reject(earlier.rowNumber(), "Duplicate of row " + row.rowNumber());
+            }
+        }
+
+        catalogImportJdbcRepository.updateProducts(updates);
+        Map<String, CatalogProductRow> insertsByKey = new HashMap<>();
+        inserts.forEach(row -> insertsByKey.put(row.dedupKey(), row));
+        Map<Long, CatalogProductRow> written = new LinkedHashMap<>(updates);
+        for (ExistingProduct inserted : catalogImportJdbcRepository.insertProducts(vendorId, inserts)) {
+            String key = inserted.partNumberNormalized() != null
+                    ? "P:" + inserted.partNumberNormalized()
+                    : "O:" + inserted.oemNumberNormalized();
+            written.put(inserted.id(), insertsByKey.get(key));
+        }
+
+        Map<Long, CatalogProductRow> withImages = new LinkedHashMap<>();
+        Map<Long, CatalogProductRow> withFitments = new LinkedHashMap<>();
+        written.forEach((productId, row) -> {
+            if (row.images() != null) {
+                withImages.put(productId, row);
+            }
+            if (row.fitments() != null) {
+                withFitments.put(productId, row);
+            }
+        });
+        catalogImportJdbcRepository.replaceImages(withImages);
+        List<VehicleCompatibilitySnapshot> removed = catalogImportJdbcRepository.deleteFitments(withFitments.keySet());
+        List<VehicleCompatibilitySnapshot> added = catalogImportJdbcRepository.insertFitments(withFitments);
+        publishChanged(written.keySet(), removed, added);
+        return new ChunkOutcome(inserts.size(), updates.size());
+    }
+
+    /**
+     * Set-based fitment writes bypass {@code VehicleCompatibilityChangePublisher} as product
+     * writes bypass the product listener, so both are announced here.
+     */
+    private void publishChanged(Set<Long> productIds, List<VehicleCompatibilitySnapshot> removed,
+                                List<VehicleCompatibilitySnapshot> added) {
+        productChangeNotifier.productsChanged(productIds);
+        removed.forEach(fitment -> eventPublisher.publishEvent(new VehicleCompatibilityChangedEvent(fitment, true)));
+        added.forEach(fitment -> eventPublisher.publishEvent(new VehicleCompatibilityChangedEvent(fitment, false)));
+    }
+
+    private void finish(Long importId, String error) {
+        transactionTemplate.executeWithoutResult(status -> catalogImportRepository.findById(importId).ifPresent(job -> {
+            if (error == null) {
+                job.complete(LocalDateTime.now());
+            } else {
+                job.fail(LocalDateTime.now(), error);
+            }
+        }));
+    }
+
+    /**
+     * Feed lines read since the previous chunk was committed.
+     */
+    private static final class Chunk {
+        private final int firstRow;
+        private int lastRow;
+        private final List<CatalogProductRow> rows = new ArrayList<>();
+        private final List<CatalogImportRowError> errors = new ArrayList<>();
+
+        Chunk(int committed) {
+            this.firstRow = committed;
+            this.lastRow = committed;
+        }
+
+        void add(CatalogRowReader.ParsedRow parsed, CatalogLookups lookups) {
+            lastRow = parsed.rowNumber();
+            if (parsed.error() != null) {
+                reject(parsed.rowNumber(), parsed.error());
+                return;
+            }
+            try {
+                rows.add(CatalogRowResolver.resolve(parsed.rowNumber(), parsed.row(), lookups));
+            } catch (IllegalArgumentException e) {
+                reject(parsed.rowNumber(), e.getMessage());
+            }
+        }
+
+        void reject(int rowNumber, String reason) {
+            errors.add(new CatalogImportRowError(rowNumber, reason));
+        }
+
+        int lines() {
+            return lastRow - firstRow;
+        }
+    }
+
+    private record ChunkOutcome(int created, int updated) {
+    }
+
+    /**
+     * Another worker moved the import on; the current chunk is rolled back and this run stops.
+     */
+    private static final class ImportTakenOverException extends RuntimeException {
+    }
+}
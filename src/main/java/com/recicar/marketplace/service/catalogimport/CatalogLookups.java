@@ -0,0 +1,48 @@
+package com.recicar.marketplace.service.catalogimport;
+
+import com.recicar.marketplace.entity.Brand;
+import com.recicar.marketplace.entity.Category;
+import com.recicar.marketplace.service.search.SearchTextNormalizer;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Category and vehicle make lookups loaded once per import run, so resolving a feed line never
+ * goes to the database. Keys are folded and compacted: "Motor y Transmisión", "motor-y-transmision"
+ * and "MOTOR Y TRANSMISION" all match.
+ */
+final class CatalogLookups {
+
+    private final Map<String, Long> categoryIds = new HashMap<>();
+    private final Map<String, String> makes = new HashMap<>();
+
+    CatalogLookups(List<Category> categories, List<Brand> brands) {
+        for (Category category : categories) {
+            categoryIds.putIfAbsent(SearchTextNormalizer.compact(category.getSlug()), category.getId());
+            categoryIds.putIfAbsent(SearchTextNormalizer.compact(category.getName()), category.getId());
+            categoryIds.putIfAbsent(String.valueOf(category.getId()), category.getId());
+        }
+        for (Brand brand : brands) {
+            makes.putIfAbsent(SearchTextNormalizer.compact(brand.getName()), brand.getName());
+            makes.putIfAbsent(SearchTextNormalizer.compact(brand.getSlug()), brand.getName());
+        }
+        categoryIds.remove("");
+        makes.remove("");
+    }
+
+    /**
+     * Active category by id, slug or name; {@code null} when none matches.
+     */
+    Long categoryId(String value) {
+        return categoryIds.get(SearchTextNormalizer.compact(value));
+    }
+
+    /**
+     * The brand's own spelling of a vehicle make, or the trimmed input for makes not in the brand list.
+     */
+    String make(String value) {
+        return makes.getOrDefault(SearchTextNormalizer.compact(value), value.trim());
+    }
+}
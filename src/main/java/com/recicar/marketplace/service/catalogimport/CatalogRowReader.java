@@ -0,0 +1,25 @@
+package com.recicar.marketplace.service.catalogimport;
+
+import com.recicar.marketplace.dto.CatalogImportRow;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Pulls feed lines one at a time so an import never holds more than the current chunk.
+ */
+interface CatalogRowReader extends Closeable {
+
+    /**
+     * @return the next line, or {@code null} at end of feed
+     * @throws IOException if the feed cannot be read any further
+     */
+    ParsedRow next() throws IOException;
+
+    /**
+     * A feed line: {@code rowNumber} counts data lines from 1; {@code error} is set instead of
+     * {@code row} when the line itself could not be read into a row.
+     */
+    record ParsedRow(int rowNumber, CatalogImportRow row, String error) {
+    }
+}
@@ -0,0 +1,138 @@
+package com.recicar.marketplace.service.catalogimport;
+
+import com.recicar.marketplace.dto.CatalogImportRow;
+import com.recicar.marketplace.dto.CatalogProductRow;
+import com.recicar.marketplace.entity.ProductCondition;
+import com.recicar.marketplace.util.PartCodeNormalizer;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Validates a feed line against the column limits of {@code products}, {@code product_images}
+ * and {@code vehicle_compatibility} and resolves its category and makes.
+ */
+final class CatalogRowResolver {
+
+    static final int MAX_IMAGES = 20;
+    static final int MAX_FITMENTS = 200;
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+    private static final BigDecimal MAX_WEIGHT = new BigDecimal("99999.999");
+
+    private CatalogRowResolver() {
+    }
+
+    /**
+     * @throws IllegalArgumentException with the reason the line is rejected
+     */
+    static CatalogProductRow resolve(int rowNumber, CatalogImportRow row, CatalogLookups lookups) {
+        String partNumber = limit(row.partNumber(), 100, "partNumber");
+        String oemNumber = limit(row.oemNumber(), 100, "oemNumber");
+        String partKey = PartCodeNormalizer.normalize(partNumber);
+        String oemKey = PartCodeNormalizer.normalize(oemNumber);
+        if (partKey == null && oemKey == null) {
+            throw new IllegalArgumentException("partNumber or oemNumber is required");
+        }
+        String name = limit(row.name(), 255, "name");
+        if (name == null) {
+            throw new IllegalArgumentException("name is required");
+        }
+        if (row.category() == null) {
+            throw new IllegalArgumentException("category is required");
+        }
+        Long categoryId = lookups.categoryId(row.category());
+        if (categoryId == null) {
+            throw new IllegalArgumentException("Unknown category: " + row.category());
+        }
+        BigDecimal price = row.price();
+        if (price == null || price.signum() <= 0 || price.compareTo(MAX_PRICE) > 0) {
+            throw new IllegalArgumentException("price must be between 0.01 and " + MAX_PRICE);
+        }
+        if (price.stripTrailingZeros().scale() > 2) {
+            throw new IllegalArgumentException("price must have at most 2 decimals");
+        }
+        int stock = row.stockQuantity() != null ? row.stockQuantity() : 0;
+        if (stock < 0) {
+            throw new IllegalArgumentException("stockQuantity must not be negative");
+        }
+        BigDecimal weight = row.weightKg();
+        if (weight != null && (weight.signum() < 0 || weight.compareTo(MAX_WEIGHT) > 0)) {
+            throw new IllegalArgumentException("weightKg must be between 0 and " + MAX_WEIGHT);
+        }
+        return new CatalogProductRow(rowNumber, partNumber, oemNumber, partKey, oemKey, name,
+                row.description(), categoryId, price, condition(row.condition()), stock, weight,
+                images(row.images()), fitments(row.fitments(), lookups));
+    }
+
+    private static ProductCondition condition(String value) {
+        if (value == null) {
+            return ProductCondition.USED;
+        }
+        return switch (value.trim().toUpperCase(Locale.ROOT)) {
+            case "NEW", "NUEVO" -> ProductCondition.NEW;
+            case "USED", "USADO" -> ProductCondition.USED;
+            case "REFURBISHED", "REACONDICIONADO" -> ProductCondition.REFURBISHED;
+            default -> throw new IllegalArgumentException("Unknown condition: " + value);
+        };
+    }
+
+    private static List<String> images(List<String> urls) {
+        if (urls == null) {
+            return null;
+        }
+        if (urls.size() > MAX_IMAGES) {
+            throw new IllegalArgumentException("At most " + MAX_IMAGES + " images per product");
+        }
+        List<String> images = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            String trimmed = url == null ? "" : url.trim();
+            if (!(trimmed.startsWith("https://") || trimmed.startsWith("http://") || trimmed.startsWith("/"))
+                    || trimmed.length() > 500) {
+                throw new IllegalArgumentException("Invalid image URL: " + url);
+            }
+            images.add(trimmed);
+        }
+        return images;
+    }
+
+    private static List<CatalogImportRow.Fitment> fitments(List<CatalogImportRow.Fitment> fitments,
+                                                           CatalogLookups lookups) {
+        if (fitments == null) {
+            return null;
+        }
+        if (fitments.size() > MAX_FITMENTS) {
+            throw new IllegalArgumentException("At most " + MAX_FITMENTS + " fitments per product");
+        }
+        List<CatalogImportRow.Fitment> resolved = new ArrayList<>(fitments.size());
+        for (CatalogImportRow.Fitment fitment : fitments) {
+            if (fitment == null || fitment.make() == null || fitment.make().isBlank()
+                    || fitment.model() == null || fitment.model().isBlank()) {
+                throw new IllegalArgumentException("Fitment make and model are required");
+            }
+            Integer from = fitment.yearFrom();
+            Integer to = fitment.yearTo() != null ? fitment.yearTo() : from;
+            if (from == null || from < 1900 || to > 2100 || from > to) {
+                throw new IllegalArgumentException("Invalid fitment years for " + fitment.make() + " " + fitment.model());
+            }
+            resolved.add(new CatalogImportRow.Fitment(
+                    limit(lookups.make(fitment.make()), 50, "make"),
+                    limit(fitment.model(), 100, "model"),
+                    from, to,
+                    limit(fitment.engine(), 100, "engine")));
+        }
+        return resolved;
+    }
+
+    private static String limit(String value, int maxLength, String field) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        if (trimmed.length() > maxLength) {
+            throw new IllegalArgumentException(field + " is longer than " + maxLength + " characters");
+        }
+        return trimmed;
+    }
+}
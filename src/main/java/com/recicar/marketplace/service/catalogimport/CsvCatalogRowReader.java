@@ -0,0 +1,166 @@
+package com.recicar.marketplace.service.catalogimport;
+
+import com.recicar.marketplace.dto.CatalogImportRow;
+import com.recicar.marketplace.util.CsvRecordReader;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * CSV feed with a header line. Columns are matched by name, ignoring case and separators
+ * ({@code part_number}, {@code Part Number} and {@code partNumber} are the same column).
+ * {@code images} holds URLs separated by {@code |}; {@code fitments} holds
+ * {@code make:model:yearFrom-yearTo[:engine]} entries separated by {@code |}. Decimal commas
+ * are accepted.
+ */
+class CsvCatalogRowReader implements CatalogRowReader {
+
+    private static final Map<String, String> COLUMN_ALIASES = Map.ofEntries(
+            Map.entry("partnumber", "partnumber"),
+            Map.entry("reference", "partnumber"),
+            Map.entry("oemnumber", "oemnumber"),
+            Map.entry("oem", "oemnumber"),
+            Map.entry("name", "name"),
+            Map.entry("description", "description"),
+            Map.entry("category", "category"),
+            Map.entry("price", "price"),
+            Map.entry("condition", "condition"),
+            Map.entry("stockquantity", "stockquantity"),
+            Map.entry("stock", "stockquantity"),
+            Map.entry("weightkg", "weightkg"),
+            Map.entry("weight", "weightkg"),
+            Map.entry("images", "images"),
+            Map.entry("fitments", "fitments")
+    );
+
+    private final CsvRecordReader csv;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private int rowNumber;
+
+    CsvCatalogRowReader(Reader reader) throws IOException {
+        this.csv = new CsvRecordReader(reader);
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            return;
+        }
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).replace("\uFEFF", "")
+                    .replaceAll("[^A-Za-z0-9]", "").toLowerCase(Locale.ROOT);
+            String column = COLUMN_ALIASES.get(name);
+            if (column != null) {
+                columns.putIfAbsent(column, i);
+            }
+        }
+    }
+
+    @Override
+    public ParsedRow next() throws IOException {
+        List<String> fields;
+        do {
+            fields = csv.readRecord();
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isBlank());
+        int number = ++rowNumber;
+        try {
+            return new ParsedRow(number, toRow(fields), null);
+        } catch (IllegalArgumentException e) {
+            return new ParsedRow(number, null, e.getMessage());
+        }
+    }
+
+    private CatalogImportRow toRow(List<String> fields) {
+        String images = text(fields, "images");
+        String fitments = text(fields, "fitments");
+        return new CatalogImportRow(
+                text(fields, "partnumber"),
+                text(fields, "oemnumber"),
+                text(fields, "name"),
+                text(fields, "description"),
+                text(fields, "category"),
+                decimal(fields, "price"),
+                text(fields, "condition"),
+                integer(fields, "stockquantity"),
+                decimal(fields, "weightkg"),
+                images != null ? split(images) : null,
+                fitments != null ? split(fitments).stream().map(CsvCatalogRowReader::fitment).toList() : null);
+    }
+
+    private String text(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private BigDecimal decimal(List<String> fields, String column) {
+        String value = text(fields, column);
+        if (value == null) {
+            return null;
+        }
+        // Whichever separator comes last is the decimal one: "1.234,56" and "1,234.56" agree
+        String plain = value.lastIndexOf(',') > value.lastIndexOf('.')
+                ? value.replace(".", "").replace(',', '.')
+                : value.replace(",", "");
+        try {
+            return new BigDecimal(plain);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+
+    private Integer integer(List<String> fields, String column) {
+        String value = text(fields, column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+
+    private static List<String> split(String value) {
+        List<String> parts = new ArrayList<>();
+        for (String part : value.split("\\|")) {
+            if (!part.isBlank()) {
+                parts.add(part.trim());
+            }
+        }
+        return parts;
+    }
+
+    /**
+     * {@code make:model:yearFrom-yearTo[:engine]}; a single year stands for both ends.
+     */
+    private static CatalogImportRow.Fitment fitment(String value) {
+        String[] parts = value.split(":", 4);
+        if (parts.length < 3) {
+            throw new IllegalArgumentException("Invalid fitment: " + value);
+        }
+        String[] years = parts[2].split("-", 2);
+        try {
+            Integer yearFrom = Integer.valueOf(years[0].trim());
+            Integer yearTo = years.length > 1 ? Integer.valueOf(years[1].trim()) : yearFrom;
+            String engine = parts.length > 3 && !parts[3].isBlank() ? parts[3].trim() : null;
+            return new CatalogImportRow.Fitment(parts[0].trim(), parts[1].trim(), yearFrom, yearTo, engine);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid fitment years: " + value);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        csv.close();
+    }
+}
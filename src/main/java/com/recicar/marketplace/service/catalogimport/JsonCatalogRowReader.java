@@ -0,0 +1,54 @@
+package com.recicar.marketplace.service.catalogimport;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.recicar.marketplace.dto.CatalogImportRow;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * JSON feed: an array of {@link CatalogImportRow} objects, read one element at a time. An
+ * element with values of the wrong type is rejected on its own; broken JSON ends the feed.
+ */
+class JsonCatalogRowReader implements CatalogRowReader {
+
+    private final ObjectMapper objectMapper;
+    private final JsonParser parser;
+    private int rowNumber;
+
+    JsonCatalogRowReader(ObjectMapper objectMapper, InputStream in) throws IOException {
+        this.objectMapper = objectMapper;
+        this.parser = objectMapper.getFactory().createParser(in);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new IOException("Expected a JSON array of catalog rows");
+        }
+    }
+
+    @Override
+    public ParsedRow next() throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null || token == JsonToken.END_ARRAY) {
+            return null;
+        }
+        int number = ++rowNumber;
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return new ParsedRow(number, null, "Row is not a JSON object");
+        }
+        JsonNode node = objectMapper.readTree(parser);
+        try {
+            return new ParsedRow(number, objectMapper.treeToValue(node, CatalogImportRow.class), null);
+        } catch (JsonProcessingException e) {
+            return new ParsedRow(number, null, "Invalid row: " + e.getOriginalMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
@@ -0,0 +1,85 @@
+package com.recicar.marketplace.service.image;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Layout of {@code app.images.dir}, served under {@value #URL_PREFIX}. Originals are named by the
+ * hash of their content ({@code <hash>.<ext>}) and derivatives after their original
+ * ({@code <hash>-<variant>.jpg}), so a name always denotes the same bytes and can be cached by
+ * browsers forever.
+ * <p>
+ * {@link #variantUrl} maps an image URL to its derivative once that has been written and
+ * otherwise returns the URL unchanged; so do URLs of images not stored here (theme images,
+ * external URLs, uploads from before this layout).
+ */
+@Component
+public class ImageStorage {
+
+    public static final String URL_PREFIX = "/uploads/images/";
+
+    private static final Pattern STORED = Pattern.compile(
+            Pattern.quote(URL_PREFIX) + "([0-9a-f]{32})\\.(jpg|png|gif)");
+    private static final long MAX_TRACKED = 100_000;
+
+    private final Path directory;
+    // Derivative file name -> written; misses are rechecked once the entry expires
+    private final Cache<String, Boolean> written = Caffeine.newBuilder()
+            .maximumSize(MAX_TRACKED)
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .build();
+
+    public ImageStorage(@Value("${app.images.dir:uploads/images}") String directory) {
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    Path original(String hash, String extension) {
+        return directory.resolve(hash + "." + extension);
+    }
+
+    Path derivative(String hash, ImageVariant variant) {
+        return directory.resolve(derivativeName(hash, variant));
+    }
+
+    static String originalUrl(String hash, String extension) {
+        return URL_PREFIX + hash + "." + extension;
+    }
+
+    /**
+     * The URL of the {@code variant} of the image at {@code url}, or {@code url} itself while
+     * there is none.
+     */
+    public String variantUrl(String url, ImageVariant variant) {
+        if (url == null) {
+            return null;
+        }
+        Matcher stored = STORED.matcher(url);
+        if (!stored.matches()) {
+            return url;
+        }
+        String name = derivativeName(stored.group(1), variant);
+        boolean exists = written.get(name, key -> Files.isRegularFile(directory.resolve(key)));
+        return exists ? URL_PREFIX + name : url;
+    }
+
+    void markWritten(String hash, ImageVariant variant) {
+        written.put(derivativeName(hash, variant), Boolean.TRUE);
+    }
+
+    private static String derivativeName(String hash, ImageVariant variant) {
+        return hash + "-" + variant.suffix() + ".jpg";
+    }
+}
@@ -0,0 +1,221 @@
+package com.recicar.marketplace.service.image;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Stores uploaded images under their content hash and generates their {@link ImageVariant}s in
+ * the background. The upload returns as soon as the original is on disk; resizing runs on
+ * {@code app.images.workers} threads behind a queue of {@code app.images.queue-capacity} jobs,
+ * and until a derivative exists pages keep showing the original.
+ * <p>
+ * Originals with derivatives missing, because the queue was full or the instance stopped
+ * mid-way, are queued again at the next startup.
+ */
+@Slf4j
+@Service
+public class ImageUploadService {
+
+    private static final Map<String, String> EXTENSIONS = Map.of(
+            "jpg", "jpg", "jpeg", "jpg", "png", "png", "gif", "gif");
+    private static final Pattern ORIGINAL = Pattern.compile("([0-9a-f]{32})\\.(jpg|png|gif)");
+
+    private final ImageStorage storage;
+    private final long maxPixels;
+    private final float jpegQuality;
+    private final ThreadPoolExecutor workers;
+
+    public ImageUploadService(ImageStorage storage,
+                              @Value("${app.images.workers:2}") int workers,
+                              @Value("${app.images.queue-capacity:200}") int queueCapacity,
+                              @Value("${app.images.max-pixels:40000000}") long maxPixels,
+                              @Value("${app.images.jpeg-quality:0.82}") float jpegQuality) {
+        this.storage = storage;
+        this.maxPixels = maxPixels;
+        this.jpegQuality = jpegQuality;
+        AtomicInteger threadNumber = new AtomicInteger();
+        int threads = Math.max(1, workers);
+        this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                    Thread thread = new Thread(runnable, "image-derivatives-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Validates and stores an uploaded image; uploading the same bytes twice stores them once.
+     *
+     * @return the URL of the original
+     * @throws IllegalArgumentException if the file is not a JPEG, PNG or GIF image
+     */
+    public String store(MultipartFile file) {
+        String extension = extensionOf(file.getOriginalFilename());
+        String contentType = file.getContentType();
+        if (contentType == null || !contentType.startsWith("image/")) {
+            throw new IllegalArgumentException("Invalid file type");
+        }
+        try {
+            byte[] bytes = file.getBytes();
+            checkDimensions(bytes);
+            String hash = hash(bytes);
+            Path original = storage.original(hash, extension);
+            if (!Files.exists(original)) {
+                write(original, bytes);
+            }
+            submit(hash, original);
+            return ImageStorage.originalUrl(hash, extension);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to upload file", e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Path directory = storage.directory();
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher original = ORIGINAL.matcher(file.getFileName().toString());
+                if (original.matches() && missingDerivatives(original.group(1))) {
+                    submit(original.group(1), file);
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Scanning {} for images without derivatives failed", directory, e);
+        }
+    }
+
+    private boolean missingDerivatives(String hash) {
+        for (ImageVariant variant : ImageVariant.values()) {
+            if (!Files.exists(storage.derivative(hash, variant))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void submit(String hash, Path original) {
+        try {
+            workers.execute(() -> generate(hash, original));
+        } catch (RejectedExecutionException e) {
+            log.warn("Image derivative queue full; {} is served at original size until the next restart", original);
+        }
+    }
+
+    /**
+     * Writes the missing derivatives of one original.
+     */
+    void generate(String hash, Path original) {
+        try {
+            BufferedImage source = ImageIO.read(original.toFile());
+            if (source == null) {
+                log.warn("Cannot decode {}; no derivatives generated", original);
+                return;
+            }
+            for (ImageVariant variant : ImageVariant.values()) {
+                Path target = storage.derivative(hash, variant);
+                if (!Files.exists(target)) {
+                    write(target, ImageResizer.jpeg(ImageResizer.fit(source, variant.maxSize()), jpegQuality));
+                }
+                storage.markWritten(hash, variant);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Generating derivatives of {} failed", original, e);
+        }
+    }
+
+    /**
+     * Reads the image header only, so oversized images are refused before being decoded.
+     */
+    private void checkDimensions(byte[] bytes) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("Only image files are allowed");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    throw new IllegalArgumentException("Image is too large");
+                }
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private void write(Path target, byte[] bytes) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temporary = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+        try {
+            Files.write(temporary, bytes);
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static String extensionOf(String filename) {
+        if (filename == null || filename.isEmpty()) {
+            throw new IllegalArgumentException("Invalid filename");
+        }
+        int lastDot = filename.lastIndexOf('.');
+        if (lastDot == -1 || lastDot == filename.length() - 1) {
+            throw new IllegalArgumentException("File must have a valid extension");
+        }
+        String extension = EXTENSIONS.get(filename.substring(lastDot + 1).toLowerCase(Locale.ROOT));
+        if (extension == null) {
+            throw new IllegalArgumentException("Only image files are allowed");
+        }
+        return extension;
+    }
+
+    private static String hash(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,32 @@
+package com.recicar.marketplace.service.image;
+
+/**
+ * Fixed-size derivatives generated for every uploaded image. Each fits inside a square box of
+ * {@code maxSize} pixels, keeping the aspect ratio; images already smaller are re-encoded, never
+ * enlarged.
+ */
+public enum ImageVariant {
+
+    /** Cart lines, mini cart and gallery thumbnails. */
+    THUMBNAIL("thumb", 160),
+    /** Product cards and store logos. */
+    CARD("card", 320),
+    /** Product detail gallery and store banners. */
+    GALLERY("gallery", 1200);
+
+    private final String suffix;
+    private final int maxSize;
+
+    ImageVariant(String suffix, int maxSize) {
+        this.suffix = suffix;
+        this.maxSize = maxSize;
+    }
+
+    public String suffix() {
+        return suffix;
+    }
+
+    public int maxSize() {
+        return maxSize;
+    }
+}
@@ -0,0 +1,23 @@
+package com.recicar.marketplace.service.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Per-key request rate limiting (keys are typically a purpose plus the client IP, e.g.
+ * {@code login:203.0.113.7}). Implementations decide where the counters live; the default is
+ * the in-process {@link StripedGcraRateLimiter}.
+ */
+public interface RateLimiter {
+
+    /**
+     * Takes one permit for {@code key} under a limit of {@code maxRequests} per {@code window}.
+     * A denied request takes nothing.
+     *
+     * @return 0 if the request may proceed, otherwise the nanoseconds until it would
+     */
+    long tryAcquire(String key, int maxRequests, Duration window);
+
+    default boolean allow(String key, int maxRequests, Duration window) {
+        return tryAcquire(key, maxRequests, window) == 0;
+    }
+}
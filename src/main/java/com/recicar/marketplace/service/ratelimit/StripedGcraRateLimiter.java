@@ -0,0 +1,271 @@
+package com.recicar.marketplace.service.ratelimit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory {@link RateLimiter} using GCRA: the whole state of a key is one {@code long}, its
+ * theoretical arrival time (TAT). A request is admitted while the TAT stays within
+ * {@code maxRequests} emission intervals of now, so a fresh key gets its full burst and then one
+ * permit per {@code window / maxRequests}.
+ * <p>
+ * Keys are reduced to a 64-bit hash and kept in open-addressing tables of primitive arrays, split
+ * over independently locked stripes. A key whose TAT has passed is indistinguishable from an
+ * unknown one, so each stripe drops it on a one-second timing wheel; when a stripe is full anyway,
+ * the key closest to expiry makes room. Memory stays within {@code app.rate-limit.max-keys}
+ * however many clients show up.
+ */
+@Component
+public class StripedGcraRateLimiter implements RateLimiter {
+
+    private static final long TICK_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int WHEEL_SLOTS = 64;
+
+    private final Stripe[] stripes;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public StripedGcraRateLimiter(@Value("${app.rate-limit.max-keys:100000}") int maxKeys,
+                                  @Value("${app.rate-limit.stripes:64}") int stripes) {
+        this(maxKeys, stripes, System::nanoTime);
+    }
+
+    StripedGcraRateLimiter(int maxKeys, int stripes, LongSupplier nanoClock) {
+        int stripeCount = Integer.highestOneBit(Math.max(1, Math.min(stripes, 1 << 16)));
+        int keysPerStripe = Math.max(1, (Math.max(1, maxKeys) + stripeCount - 1) / stripeCount);
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe(keysPerStripe);
+        }
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public long tryAcquire(String key, int maxRequests, Duration window) {
+        if (maxRequests <= 0 || window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("Rate limit needs a positive request count and window");
+        }
+        long interval = Math.max(1L, window.toNanos() / maxRequests);
+        long hash = hash(key);
+        // High bits pick the stripe, low bits the slot within it
+        Stripe stripe = stripes[(int) (hash >>> 48) & (stripes.length - 1)];
+        stripe.lock.lock();
+        try {
+            return stripe.acquire(hash, interval, interval * maxRequests, nanoClock.getAsLong());
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Keys currently holding state, over all stripes.
+     */
+    public int trackedKeys() {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                total += stripe.size;
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * For tests.
+     */
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                stripe.clear();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * FNV-1a over the UTF-16 code units, then a murmur3 finalizer; never 0, which marks a free slot.
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h != 0 ? h : 1;
+    }
+
+    private static final class Stripe {
+
+        final ReentrantLock lock = new ReentrantLock();
+        final int maxSize;
+        final int mask;
+        long[] keys;
+        long[] tats;
+        int size;
+
+        // Timing wheel: every tracked key sits in exactly one slot, at or after the tick its TAT passes
+        final long[][] wheel = new long[WHEEL_SLOTS][];
+        final int[] wheelSizes = new int[WHEEL_SLOTS];
+        long currentTick = Long.MIN_VALUE;
+
+        Stripe(int maxSize) {
+            this.maxSize = maxSize;
+            // At most half full, so probe runs stay short
+            int capacity = Integer.highestOneBit(Math.max(2, maxSize * 2 - 1)) << 1;
+            this.mask = capacity - 1;
+            this.keys = new long[capacity];
+            this.tats = new long[capacity];
+            for (int i = 0; i < WHEEL_SLOTS; i++) {
+                wheel[i] = new long[4];
+            }
+        }
+
+        long acquire(long hash, long interval, long burst, long now) {
+            advance(now);
+            int index = indexOf(hash);
+            long tat = index >= 0 ? Math.max(tats[index], now) : now;
+            long next = tat + interval;
+            if (next - now > burst) {
+                return next - now - burst;
+            }
+            if (index >= 0) {
+                tats[index] = next;
+            } else {
+                if (size >= maxSize) {
+                    evictSoonest();
+                }
+                insert(hash, next);
+                schedule(hash, next);
+            }
+            return 0;
+        }
+
+        void clear() {
+            Arrays.fill(keys, 0L);
+            Arrays.fill(wheelSizes, 0);
+            size = 0;
+        }
+
+        private void advance(long now) {
+            long tick = Math.floorDiv(now, TICK_NANOS);
+            if (currentTick == Long.MIN_VALUE) {
+                currentTick = tick;
+                return;
+            }
+            if (tick <= currentTick) {
+                return;
+            }
+            long from = Math.max(currentTick + 1, tick - WHEEL_SLOTS + 1);
+            currentTick = tick;
+            for (long t = from; t <= tick; t++) {
+                drain((int) (t & (WHEEL_SLOTS - 1)), now);
+            }
+        }
+
+        private void drain(int slot, long now) {
+            long[] due = wheel[slot];
+            int count = wheelSizes[slot];
+            if (count == 0) {
+                return;
+            }
+            // Release storage left over from a burst of keys
+            wheel[slot] = due.length > 256 ? new long[4] : new long[due.length];
+            wheelSizes[slot] = 0;
+            for (int i = 0; i < count; i++) {
+                int index = indexOf(due[i]);
+                if (index < 0) {
+                    continue;
+                }
+                if (tats[index] <= now) {
+                    remove(index);
+                } else {
+                    schedule(due[i], tats[index]);
+                }
+            }
+        }
+
+        private void schedule(long hash, long expiresAt) {
+            // Keys expiring beyond the wheel's horizon are parked in its last slot and rescheduled from there
+            long tick = Math.floorDiv(expiresAt, TICK_NANOS) + 1;
+            tick = Math.max(currentTick + 1, Math.min(tick, currentTick + WHEEL_SLOTS - 1));
+            int slot = (int) (tick & (WHEEL_SLOTS - 1));
+            if (wheelSizes[slot] == wheel[slot].length) {
+                wheel[slot] = Arrays.copyOf(wheel[slot], wheel[slot].length * 2);
+            }
+            wheel[slot][wheelSizes[slot]++] = hash;
+        }
+
+        private void evictSoonest() {
+            for (long t = currentTick + 1; t < currentTick + WHEEL_SLOTS; t++) {
+                int slot = (int) (t & (WHEEL_SLOTS - 1));
+                while (wheelSizes[slot] > 0) {
+                    int index = indexOf(wheel[slot][--wheelSizes[slot]]);
+                    if (index >= 0) {
+                        remove(index);
+                        return;
+                    }
+                }
+            }
+        }
+
+        private int indexOf(long hash) {
+            for (int i = (int) hash & mask; keys[i] != 0; i = (i + 1) & mask) {
+                if (keys[i] == hash) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void insert(long hash, long tat) {
+            int i = (int) hash & mask;
+            while (keys[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = hash;
+            tats[i] = tat;
+            size++;
+        }
+
+        /**
+         * Backward-shift deletion, so lookups never need tombstones.
+         */
+        private void remove(int index) {
+            size--;
+            int hole = index;
+            int i = index;
+            while (true) {
+                i = (i + 1) & mask;
+                if (keys[i] == 0) {
+                    break;
+                }
+                int home = (int) keys[i] & mask;
+                // An entry may fill the hole unless its home slot lies cyclically in (hole, i]
+                boolean homeAfterHole = hole <= i ? (hole < home && home <= i) : (hole < home || home <= i);
+                if (!homeAfterHole) {
+                    keys[hole] = keys[i];
+                    tats[hole] = tats[i];
+                    hole = i;
+                }
+            }
+            keys[hole] = 0;
+        }
+    }
+}
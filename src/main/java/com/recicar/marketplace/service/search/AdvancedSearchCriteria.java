@@ -0,0 +1,18 @@
+package com.recicar.marketplace.service.search;
+
+import java.math.BigDecimal;
+
+/**
+ * Filters of the advanced search form. Blank strings mean "no filter", as in the SQL query.
+ */
+public record AdvancedSearchCriteria(
+        String query,
+        String brand,
+        String model,
+        String modification,
+        String condition,
+        Boolean inStock,
+        BigDecimal minPrice,
+        BigDecimal maxPrice
+) {
+}
@@ -0,0 +1,673 @@
+package com.recicar.marketplace.service.search;
+
+import com.recicar.marketplace.dto.ProductSnapshot;
+import com.recicar.marketplace.dto.SearchFacets;
+import com.recicar.marketplace.dto.VehicleCompatibilitySnapshot;
+import com.recicar.marketplace.entity.ProductCondition;
+import com.recicar.marketplace.event.ProductChangedEvent;
+import com.recicar.marketplace.event.VehicleCompatibilityChangedEvent;
+import com.recicar.marketplace.repository.ProductRepository;
+import com.recicar.marketplace.repository.VehicleCompatibilityRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Bitset index behind the advanced search. Every active product gets a dense ordinal and
+ * every facet value (condition, stock, price bucket, make, make/model, make/model/engine)
+ * a {@link BitSet} over those ordinals, so a request is a handful of word-wise ANDs that
+ * yield both the matching page and all facet counts without touching the database. The text
+ * and price filters come from trigram postings and a sorted price map rather than a scan.
+ * <p>
+ * Built once the application is ready, kept current from {@link ProductChangedEvent}s and
+ * {@link VehicleCompatibilityChangedEvent}s, and reloaded nightly to pick up changes made
+ * outside JPA. Callers get {@link Optional#empty()} until the first build, or for sorts the
+ * index does not know, and should fall back to PostgreSQL.
+ */
+@Slf4j
+@Component
+public class ProductFacetIndex {
+
+    /**
+     * Upper bounds (exclusive) of the price buckets; the last bucket is open-ended.
+     */
+    static final int[] PRICE_BUCKET_BOUNDS = {25, 50, 100, 250, 500, 1000};
+    /**
+     * Removed ordinals tolerated before the bitsets are compacted, as long as they are also
+     * fewer than the live ones.
+     */
+    static final int COMPACTION_MIN_DEAD = 1024;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+    private final VehicleCompatibilityRepository vehicleCompatibilityRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Queue<Object> pendingDuringRebuild = new ArrayDeque<>();
+
+    private Bitsets bitsets = new Bitsets();
+    private boolean rebuilding;
+    private volatile boolean ready;
+
+    public ProductFacetIndex(ProductRepository productRepository,
+                             VehicleCompatibilityRepository vehicleCompatibilityRepository) {
+        this.productRepository = productRepository;
+        this.vehicleCompatibilityRepository = vehicleCompatibilityRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(cron = "${app.search.index.rebuild-cron:0 45 3 * * *}")
+    public void refresh() {
+        rebuild();
+    }
+
+    /**
+     * Reloads active products and all fitments. Changes arriving while the reload runs are
+     * queued and replayed on top of the fresh bitsets.
+     */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuilding = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        long started = System.nanoTime();
+        Bitsets fresh = new Bitsets();
+        try {
+            long afterId = 0L;
+            List<VehicleCompatibilitySnapshot> fitments;
+            do {
+                fitments = vehicleCompatibilityRepository.findSnapshotsAfter(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (VehicleCompatibilitySnapshot fitment : fitments) {
+                    fresh.putFitment(fitment);
+                    afterId = fitment.id();
+                }
+            } while (fitments.size() == REBUILD_BATCH_SIZE);
+
+            afterId = 0L;
+            List<ProductSnapshot> products;
+            do {
+                products = productRepository.findActiveSnapshotsAfter(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (ProductSnapshot product : products) {
+                    fresh.putProduct(product);
+                    afterId = product.id();
+                }
+            } while (products.size() == REBUILD_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                rebuilding = false;
+                pendingDuringRebuild.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.warn("Product facet index rebuild failed; advanced search stays on PostgreSQL", e);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            bitsets = fresh;
+            Object pending;
+            while ((pending = pendingDuringRebuild.poll()) != null) {
+                apply(pending);
+            }
+            rebuilding = false;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Product facet index built: {} products in {} ms",
+                fresh.ordinals.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        enqueueOrApply(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleCompatibilityChanged(VehicleCompatibilityChangedEvent event) {
+        enqueueOrApply(event);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Ordinals handed out since the last build or compaction, removed products included.
+     */
+    int ordinalCount() {
+        lock.readLock().lock();
+        try {
+            return bitsets.docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Matching product ids for one page plus facet counts over the whole result set.
+     * Empty when the index is not built yet or the sort is not supported.
+     */
+    public Optional<Result> search(AdvancedSearchCriteria criteria, Pageable pageable) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        Comparator<ProductSnapshot> order = ProductSearchIndex.comparatorFor(pageable.getSort());
+        if (order == null) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            return Optional.of(bitsets.search(criteria, order, pageable));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public record Result(Page<Long> ids, SearchFacets facets) {
+    }
+
+    private void enqueueOrApply(Object event) {
+        lock.writeLock().lock();
+        try {
+            if (rebuilding) {
+                pendingDuringRebuild.add(event);
+            } else {
+                apply(event);
+                if (bitsets.needsCompaction()) {
+                    compact();
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Renumbers the live products densely from the in-memory state, so deactivated products
+     * stop costing bitset width and scan time. Called under the write lock.
+     */
+    private void compact() {
+        long started = System.nanoTime();
+        int before = bitsets.docs.size();
+        bitsets = bitsets.compacted();
+        log.info("Product facet index compacted: {} ordinals down to {} in {} ms",
+                before, bitsets.docs.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void apply(Object event) {
+        if (event instanceof ProductChangedEvent changed) {
+            if (changed.removed() || !changed.product().active()) {
+                bitsets.removeProduct(changed.product().id());
+            } else {
+                bitsets.putProduct(changed.product());
+            }
+        } else if (event instanceof VehicleCompatibilityChangedEvent changed) {
+            if (changed.removed()) {
+                bitsets.removeFitment(changed.compatibility());
+            } else {
+                bitsets.putFitment(changed.compatibility());
+            }
+        }
+    }
+
+    static String priceBucketLabel(int bucket) {
+        if (bucket == PRICE_BUCKET_BOUNDS.length) {
+            return PRICE_BUCKET_BOUNDS[bucket - 1] + "+";
+        }
+        int from = bucket == 0 ? 0 : PRICE_BUCKET_BOUNDS[bucket - 1];
+        return from + "-" + PRICE_BUCKET_BOUNDS[bucket];
+    }
+
+    private static int priceBucket(BigDecimal price) {
+        for (int i = 0; i < PRICE_BUCKET_BOUNDS.length; i++) {
+            if (price.compareTo(BigDecimal.valueOf(PRICE_BUCKET_BOUNDS[i])) < 0) {
+                return i;
+            }
+        }
+        return PRICE_BUCKET_BOUNDS.length;
+    }
+
+    private static String key(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isEmpty();
+    }
+
+    private record FitmentKey(String make, String model, String engine) {
+
+        static FitmentKey of(VehicleCompatibilitySnapshot fitment) {
+            return new FitmentKey(key(fitment.make()), key(fitment.model()), key(fitment.engine()));
+        }
+    }
+
+    /**
+     * Ordinal assignment and bitsets. Ordinals of removed products are not reused until the
+     * next rebuild or compaction; the {@code live} set masks them out.
+     */
+    private static final class Bitsets {
+        private final Map<Long, Integer> ordinals = new HashMap<>();
+        private final List<ProductSnapshot> docs = new ArrayList<>();
+        private final List<String> texts = new ArrayList<>();
+        /** Trigram postings over {@link #texts}, narrowing substring matches to a few candidates. */
+        private final Map<String, Set<Integer>> textGrams = new HashMap<>();
+        /** Live ordinals by price, for the edges of a price range that cut through a bucket. */
+        private final TreeMap<BigDecimal, Set<Integer>> byPrice = new TreeMap<>();
+        private final BitSet live = new BitSet();
+        private final BitSet inStock = new BitSet();
+        private final Map<ProductCondition, BitSet> byCondition = new EnumMap<>(ProductCondition.class);
+        private final BitSet[] byPriceBucket = new BitSet[PRICE_BUCKET_BOUNDS.length + 1];
+        private final Map<String, BitSet> byMake = new HashMap<>();
+        private final Map<String, Map<String, BitSet>> byModel = new HashMap<>();
+        private final Map<FitmentKey, BitSet> byFitment = new HashMap<>();
+        /** Fitments of every product, active or not, by product id then fitment id. */
+        private final Map<Long, Map<Long, FitmentKey>> fitmentsByProduct = new HashMap<>();
+
+        Bitsets() {
+            for (ProductCondition condition : ProductCondition.values()) {
+                byCondition.put(condition, new BitSet());
+            }
+            for (int i = 0; i < byPriceBucket.length; i++) {
+                byPriceBucket[i] = new BitSet();
+            }
+        }
+
+        void putProduct(ProductSnapshot product) {
+            Integer ordinal = ordinals.get(product.id());
+            boolean added = ordinal == null;
+            if (added) {
+                ordinal = docs.size();
+                ordinals.put(product.id(), ordinal);
+                docs.add(null);
+                texts.add(null);
+            } else {
+                clearScalarBits(ordinal, docs.get(ordinal));
+                setTextGrams(ordinal, texts.get(ordinal), false);
+            }
+            String text = searchText(product);
+            docs.set(ordinal, product);
+            texts.set(ordinal, text);
+            setTextGrams(ordinal, text, true);
+            live.set(ordinal);
+            if (product.inStock()) {
+                inStock.set(ordinal);
+            }
+            if (product.condition() != null) {
+                byCondition.get(product.condition()).set(ordinal);
+            }
+            if (product.price() != null) {
+                byPriceBucket[priceBucket(product.price())].set(ordinal);
+                byPrice.computeIfAbsent(product.price(), k -> new HashSet<>()).add(ordinal);
+            }
+            if (added) {
+                setFitmentBits(ordinal, fitmentsByProduct.get(product.id()), true);
+            }
+        }
+
+        void removeProduct(Long productId) {
+            Integer ordinal = ordinals.remove(productId);
+            if (ordinal == null) {
+                return;
+            }
+            clearScalarBits(ordinal, docs.get(ordinal));
+            setTextGrams(ordinal, texts.get(ordinal), false);
+            setFitmentBits(ordinal, fitmentsByProduct.get(productId), false);
+            live.clear(ordinal);
+            docs.set(ordinal, null);
+            texts.set(ordinal, null);
+        }
+
+        /**
+         * Worth renumbering once removed ordinals outnumber both the live ones and
+         * {@link #COMPACTION_MIN_DEAD}.
+         */
+        boolean needsCompaction() {
+            int dead = docs.size() - ordinals.size();
+            return dead > COMPACTION_MIN_DEAD && dead > ordinals.size();
+        }
+
+        /**
+         * Fresh bitsets holding the same products and fitments under dense ordinals, in the
+         * current ordinal order.
+         */
+        Bitsets compacted() {
+            Bitsets out = new Bitsets();
+            out.fitmentsByProduct.putAll(fitmentsByProduct);
+            for (ProductSnapshot product : docs) {
+                if (product != null) {
+                    out.putProduct(product);
+                }
+            }
+            return out;
+        }
+
+        void putFitment(VehicleCompatibilitySnapshot fitment) {
+            if (fitment.productId() == null) {
+                return;
+            }
+            updateFitments(fitment.productId(), fitments -> fitments.put(fitment.id(), FitmentKey.of(fitment)));
+        }
+
+        void removeFitment(VehicleCompatibilitySnapshot fitment) {
+            if (fitment.productId() == null) {
+                return;
+            }
+            updateFitments(fitment.productId(), fitments -> fitments.remove(fitment.id()));
+        }
+
+        /**
+         * A product's fitment bits are recomputed from its full fitment list, since two rows
+         * may share a make or model.
+         */
+        private void updateFitments(Long productId, Consumer<Map<Long, FitmentKey>> change) {
+            Map<Long, FitmentKey> fitments = fitmentsByProduct.computeIfAbsent(productId, id -> new HashMap<>());
+            Integer ordinal = ordinals.get(productId);
+            if (ordinal != null) {
+                setFitmentBits(ordinal, fitments, false);
+            }
+            change.accept(fitments);
+            if (fitments.isEmpty()) {
+                fitmentsByProduct.remove(productId);
+            }
+            if (ordinal != null) {
+                setFitmentBits(ordinal, fitments, true);
+            }
+        }
+
+        private void setFitmentBits(int ordinal, Map<Long, FitmentKey> fitments, boolean value) {
+            if (fitments == null) {
+                return;
+            }
+            for (FitmentKey fitment : fitments.values()) {
+                byMake.computeIfAbsent(fitment.make(), k -> new BitSet()).set(ordinal, value);
+                byModel.computeIfAbsent(fitment.make(), k -> new HashMap<>())
+                        .computeIfAbsent(fitment.model(), k -> new BitSet()).set(ordinal, value);
+                byFitment.computeIfAbsent(fitment, k -> new BitSet()).set(ordinal, value);
+            }
+        }
+
+        private void clearScalarBits(int ordinal, ProductSnapshot previous) {
+            inStock.clear(ordinal);
+            if (previous.condition() != null) {
+                byCondition.get(previous.condition()).clear(ordinal);
+            }
+            if (previous.price() != null) {
+                byPriceBucket[priceBucket(previous.price())].clear(ordinal);
+                Set<Integer> samePrice = byPrice.get(previous.price());
+                if (samePrice != null && samePrice.remove(ordinal) && samePrice.isEmpty()) {
+                    byPrice.remove(previous.price());
+                }
+            }
+        }
+
+        private void setTextGrams(int ordinal, String text, boolean value) {
+            for (String gram : grams(text)) {
+                if (value) {
+                    textGrams.computeIfAbsent(gram, k -> new HashSet<>()).add(ordinal);
+                } else {
+                    Set<Integer> postings = textGrams.get(gram);
+                    if (postings != null && postings.remove(ordinal) && postings.isEmpty()) {
+                        textGrams.remove(gram);
+                    }
+                }
+            }
+        }
+
+        private static Set<String> grams(String text) {
+            Set<String> out = new HashSet<>();
+            for (int i = 0; i + ProductSearchIndex.GRAM_LENGTH <= text.length(); i++) {
+                out.add(text.substring(i, i + ProductSearchIndex.GRAM_LENGTH));
+            }
+            return out;
+        }
+
+        private static String searchText(ProductSnapshot product) {
+            String name = product.name() == null ? "" : product.name().toLowerCase(Locale.ROOT);
+            String part = product.partNumber() == null ? "" : product.partNumber().toLowerCase(Locale.ROOT);
+            return name + '\n' + part;
+        }
+
+        Result search(AdvancedSearchCriteria criteria, Comparator<ProductSnapshot> order, Pageable pageable) {
+            String brand = key(criteria.brand());
+            String model = key(criteria.model());
+            String modification = key(criteria.modification());
+
+            BitSet text = textMatches(criteria.query());
+            BitSet vehicle = vehicleMatches(brand, model, modification);
+            BitSet condition = conditionMatches(criteria.condition());
+            BitSet stock = Boolean.TRUE.equals(criteria.inStock()) ? inStock : null;
+            BitSet price = priceMatches(criteria.minPrice(), criteria.maxPrice());
+
+            BitSet results = intersect(text, vehicle, condition, stock, price);
+            List<ProductSnapshot> matches = new ArrayList<>(results.cardinality());
+            for (int i = results.nextSetBit(0); i >= 0; i = results.nextSetBit(i + 1)) {
+                matches.add(docs.get(i));
+            }
+            matches.sort(order);
+
+            SearchFacets facets = new SearchFacets(
+                    conditionCounts(intersect(text, vehicle, stock, price)),
+                    countNonEmpty(byMake, intersect(text, condition, stock, price)),
+                    brand == null ? Map.of() : countNonEmpty(
+                            byModel.getOrDefault(brand, Map.of()),
+                            intersect(text, byMake.getOrDefault(brand, new BitSet()), condition, stock, price)),
+                    priceCounts(intersect(text, vehicle, condition, stock)),
+                    stockCounts(intersect(text, vehicle, condition, price)));
+            return new Result(ProductSearchIndex.page(matches, pageable), facets);
+        }
+
+        /**
+         * Substring match on name or part number, like the SQL {@code LIKE '%q%'}. Queries of a
+         * trigram or more are checked only against the ordinals holding all of their trigrams.
+         */
+        private BitSet textMatches(String query) {
+            if (!hasText(query)) {
+                return null;
+            }
+            String needle = query.toLowerCase(Locale.ROOT);
+            BitSet out = new BitSet();
+            if (needle.length() < ProductSearchIndex.GRAM_LENGTH) {
+                for (int i = live.nextSetBit(0); i >= 0; i = live.nextSetBit(i + 1)) {
+                    if (texts.get(i).contains(needle)) {
+                        out.set(i);
+                    }
+                }
+                return out;
+            }
+            Set<Integer> smallest = null;
+            List<Set<Integer>> lists = new ArrayList<>();
+            for (String gram : grams(needle)) {
+                Set<Integer> postings = textGrams.get(gram);
+                if (postings == null) {
+                    return out;
+                }
+                lists.add(postings);
+                if (smallest == null || postings.size() < smallest.size()) {
+                    smallest = postings;
+                }
+            }
+            candidates:
+            for (Integer ordinal : smallest) {
+                for (Set<Integer> postings : lists) {
+                    if (postings != smallest && !postings.contains(ordinal)) {
+                        continue candidates;
+                    }
+                }
+                if (texts.get(ordinal).contains(needle)) {
+                    out.set(ordinal);
+                }
+            }
+            return out;
+        }
+
+        /**
+         * Same semantics as the SQL join: make, model and engine must match on one fitment row.
+         */
+        private BitSet vehicleMatches(String brand, String model, String modification) {
+            if (!hasText(brand) && !hasText(model) && !hasText(modification)) {
+                return null;
+            }
+            if (!hasText(modification) && hasText(brand)) {
+                Map<String, BitSet> models = byModel.getOrDefault(brand, Map.of());
+                BitSet exact = hasText(model) ? models.get(model) : byMake.get(brand);
+                return exact == null ? new BitSet() : exact;
+            }
+            BitSet out = new BitSet();
+            for (Map.Entry<FitmentKey, BitSet> entry : byFitment.entrySet()) {
+                FitmentKey fitment = entry.getKey();
+                if ((!hasText(brand) || brand.equals(fitment.make()))
+                        && (!hasText(model) || model.equals(fitment.model()))
+                        && (!hasText(modification) || (fitment.engine() != null && fitment.engine().contains(modification)))) {
+                    out.or(entry.getValue());
+                }
+            }
+            return out;
+        }
+
+        private BitSet conditionMatches(String condition) {
+            if (!hasText(condition)) {
+                return null;
+            }
+            for (ProductCondition value : ProductCondition.values()) {
+                if (value.name().equals(condition)) {
+                    return byCondition.get(value);
+                }
+            }
+            return new BitSet();
+        }
+
+        /**
+         * Buckets that lie wholly inside {@code [min, max]} contribute their bitset; only the
+         * buckets cut by a bound are resolved price by price from {@link #byPrice}.
+         */
+        private BitSet priceMatches(BigDecimal min, BigDecimal max) {
+            if (min == null && max == null) {
+                return null;
+            }
+            BitSet out = new BitSet();
+            if (min != null && max != null && min.compareTo(max) > 0) {
+                return out;
+            }
+            for (int bucket = 0; bucket < byPriceBucket.length; bucket++) {
+                BigDecimal from = bucket == 0 ? null : BigDecimal.valueOf(PRICE_BUCKET_BOUNDS[bucket - 1]);
+                BigDecimal to = bucket == PRICE_BUCKET_BOUNDS.length ? null : BigDecimal.valueOf(PRICE_BUCKET_BOUNDS[bucket]);
+                if ((max != null && from != null && from.compareTo(max) > 0)
+                        || (min != null && to != null && to.compareTo(min) <= 0)) {
+                    continue;
+                }
+                boolean coversFrom = min == null || (from != null && from.compareTo(min) >= 0);
+                boolean coversTo = max == null || (to != null && to.compareTo(max) <= 0);
+                if (coversFrom && coversTo) {
+                    out.or(byPriceBucket[bucket]);
+                    continue;
+                }
+                BigDecimal low = coversFrom ? from : min;
+                BigDecimal high = coversTo ? to : max;
+                Map<BigDecimal, Set<Integer>> range;
+                if (low == null) {
+                    range = byPrice.headMap(high, !coversTo);
+                } else if (high == null) {
+                    range = byPrice.tailMap(low, true);
+                } else {
+                    range = byPrice.subMap(low, true, high, !coversTo);
+                }
+                range.values().forEach(ordinals -> ordinals.forEach(out::set));
+            }
+            return out;
+        }
+
+        /**
+         * Live ordinals present in every non-null filter; a null filter matches everything.
+         */
+        private BitSet intersect(BitSet... filters) {
+            BitSet out = (BitSet) live.clone();
+            for (BitSet filter : filters) {
+                if (filter != null) {
+                    out.and(filter);
+                }
+            }
+            return out;
+        }
+
+        private static long countAnd(BitSet base, BitSet values) {
+            BitSet both = (BitSet) base.clone();
+            both.and(values);
+            return both.cardinality();
+        }
+
+        private Map<String, Long> conditionCounts(BitSet base) {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            byCondition.forEach((condition, bits) -> counts.put(condition.name(), countAnd(base, bits)));
+            return counts;
+        }
+
+        private Map<String, Long> priceCounts(BitSet base) {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            for (int i = 0; i < byPriceBucket.length; i++) {
+                counts.put(priceBucketLabel(i), countAnd(base, byPriceBucket[i]));
+            }
+            return counts;
+        }
+
+        private Map<String, Long> stockCounts(BitSet base) {
+            long available = countAnd(base, inStock);
+            Map<String, Long> counts = new LinkedHashMap<>();
+            counts.put("true", available);
+            counts.put("false", base.cardinality() - available);
+            return counts;
+        }
+
+        /**
+         * Non-zero counts, most frequent first.
+         */
+        private static Map<String, Long> countNonEmpty(Map<String, BitSet> values, BitSet base) {
+            List<Map.Entry<String, Long>> counts = new ArrayList<>();
+            values.forEach((value, bits) -> {
+                long count = countAnd(base, bits);
+                if (count > 0) {
+                    counts.add(Map.entry(value, count));
+                }
+            });
+            counts.sort(Map.Entry.<String, Long>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey()));
+            Map<String, Long> out = new LinkedHashMap<>();
+            counts.forEach(entry -> out.put(entry.getKey(), entry.getValue()));
+            return out;
+        }
+    }
+}
@@ -0,0 +1,672 @@
+package com.recicar.marketplace.service.search;
+
+import com.recicar.marketplace.dto.CursorPage;
+import com.recicar.marketplace.dto.ProductCursor;
+import com.recicar.marketplace.dto.ProductSnapshot;
+import com.recicar.marketplace.event.ProductChangedEvent;
+import com.recicar.marketplace.repository.ProductRepository;
+import com.recicar.marketplace.util.PartCodeNormalizer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Memory-resident index over active products: an inverted index of folded word tokens from
+ * name, part and OEM number, trigram postings over folded names and over compacted part and
+ * OEM numbers, and postings from canonical ({@link PartCodeNormalizer}) part/OEM codes for
+ * exact lookups. Postings are sorted {@code int[]} lists over dense product ordinals.
+ * <p>
+ * Built once the application is ready, kept current from {@link ProductChangedEvent}s and
+ * reloaded nightly to pick up changes made outside JPA. Until the first build completes (or
+ * when a query cannot be answered here) callers get {@link Optional#empty()} and should fall
+ * back to PostgreSQL.
+ */
+@Slf4j
+@Component
+public class ProductSearchIndex {
+
+    static final int GRAM_LENGTH = 3;
+    /**
+     * Replaced or removed ordinals tolerated before the postings are compacted, as long as
+     * they are also more than the live ones.
+     */
+    static final int COMPACTION_MIN_DEAD = 1024;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final int[] EMPTY = new int[0];
+
+    /**
+     * Listing default when the caller does not sort: newest first, as PostgreSQL orders
+     * {@code created_at DESC, id DESC} (microsecond precision, nulls first).
+     */
+    private static final Comparator<ProductSnapshot> DEFAULT_ORDER = Comparator
+            .comparing((ProductSnapshot p) -> ProductCursor.storedPrecision(p.createdAt()),
+                    Comparator.nullsFirst(Comparator.reverseOrder()))
+            .thenComparing(ProductSnapshot::id, Comparator.reverseOrder());
+
+    private final ProductRepository productRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Queue<ProductChangedEvent> pendingDuringRebuild = new ArrayDeque<>();
+
+    private Postings postings = new Postings();
+    private boolean rebuilding;
+    private volatile boolean ready;
+
+    public ProductSearchIndex(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(cron = "${app.search.index.rebuild-cron:0 45 3 * * *}")
+    public void refresh() {
+        rebuild();
+    }
+
+    /**
+     * Reloads every active product in id order. Changes arriving while the reload runs are
+     * queued and replayed on top of the fresh postings.
+     */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuilding = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        long started = System.nanoTime();
+        Postings fresh = new Postings();
+        try {
+            long afterId = 0L;
+            List<ProductSnapshot> batch;
+            do {
+                batch = productRepository.findActiveSnapshotsAfter(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (ProductSnapshot product : batch) {
+                    fresh.put(product);
+                    afterId = product.id();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+            fresh.trim();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                rebuilding = false;
+                pendingDuringRebuild.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.warn("Product search index rebuild failed; search stays on PostgreSQL", e);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            postings = fresh;
+            ProductChangedEvent pending;
+            while ((pending = pendingDuringRebuild.poll()) != null) {
+                apply(pending);
+            }
+            rebuilding = false;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Product search index built: {} products in {} ms",
+                fresh.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (rebuilding) {
+                pendingDuringRebuild.add(event);
+            } else {
+                apply(event);
+                if (postings.needsCompaction()) {
+                    compact();
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Renumbers the live products densely from the in-memory state, so replaced and removed
+     * products stop costing posting space. Called under the write lock.
+     */
+    private void compact() {
+        long started = System.nanoTime();
+        int before = postings.ordinalCount();
+        postings = postings.compacted();
+        log.info("Product search index compacted: {} ordinals down to {} in {} ms",
+                before, postings.ordinalCount(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Ordinals handed out since the last build or compaction, removed products included.
+     */
+    int ordinalCount() {
+        lock.readLock().lock();
+        try {
+            return postings.ordinalCount();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of active products matching the query, ordered by {@code pageable}'s sort. A product
+     * matches when its name contains the query, when its name, part and OEM words include every
+     * query word (last word as a prefix), or when its part/OEM number contains the compacted
+     * query. That covers everything the PostgreSQL fallback ({@code plainto_tsquery} over the
+     * three fields, or {@code LIKE '%q%'} on each) finds; the index additionally ignores accents,
+     * separators in codes and an unfinished last word.
+     *
+     * @return empty when the index is not built, the query is shorter than one trigram once
+     * compacted, or the sort uses a property the index does not hold
+     */
+    public Optional<Page<Long>> search(String query, Pageable pageable) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        Comparator<ProductSnapshot> order = comparatorFor(pageable.getSort());
+        if (order == null) {
+            return Optional.empty();
+        }
+        return matches(query).map(matches -> {
+            matches.sort(order);
+            return page(matches, pageable);
+        });
+    }
+
+    /**
+     * Keyset variant of {@link #search}: ids of the next {@code limit} matches after
+     * {@code after} in newest-first order. The total is always filled in, since the index
+     * has counted the matches anyway.
+     */
+    public Optional<CursorPage<Long>> searchAfter(String query, ProductCursor after, int limit) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        return matches(query).map(matches -> {
+            List<ProductSnapshot> following = new ArrayList<>();
+            for (ProductSnapshot match : matches) {
+                if (after.precedes(match.createdAt(), match.id())) {
+                    following.add(match);
+                }
+            }
+            following.sort(DEFAULT_ORDER);
+            int size = Math.min(limit, following.size());
+            List<Long> ids = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                ids.add(following.get(i).id());
+            }
+            String next = null;
+            if (following.size() > limit) {
+                ProductSnapshot last = following.get(limit - 1);
+                next = new ProductCursor(last.createdAt(), last.id()).encode();
+            }
+            return new CursorPage<>(ids, next, (long) matches.size());
+        });
+    }
+
+    /**
+     * Unordered matches for a query, or empty when it is shorter than one trigram once compacted.
+     */
+    private Optional<List<ProductSnapshot>> matches(String query) {
+        String code = SearchTextNormalizer.compact(query);
+        if (code.length() < GRAM_LENGTH) {
+            return Optional.empty();
+        }
+        List<String> words = SearchTextNormalizer.tokens(query);
+        String text = SearchTextNormalizer.fold(query);
+
+        lock.readLock().lock();
+        try {
+            int[] byWords = postings.matchWords(words);
+            int[] byName = postings.matchName(text);
+            int[] byCode = postings.matchCode(code);
+            int[] hits = new int[byWords.length + byName.length + byCode.length];
+            System.arraycopy(byWords, 0, hits, 0, byWords.length);
+            System.arraycopy(byName, 0, hits, byWords.length, byName.length);
+            System.arraycopy(byCode, 0, hits, byWords.length + byName.length, byCode.length);
+            return Optional.of(postings.docs(Arrays.copyOf(hits, distinctSorted(hits))));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Active products whose canonical part number equals {@code code}, newest first.
+     *
+     * @param code output of {@link PartCodeNormalizer#normalize(String)}
+     */
+    public Optional<List<Long>> findByPartCode(String code) {
+        return lookup(code, true);
+    }
+
+    /**
+     * Active products whose canonical OEM number equals {@code code}, newest first.
+     *
+     * @param code output of {@link PartCodeNormalizer#normalize(String)}
+     */
+    public Optional<List<Long>> findByOemCode(String code) {
+        return lookup(code, false);
+    }
+
+    private Optional<List<Long>> lookup(String code, boolean partNumber) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        List<ProductSnapshot> matches;
+        lock.readLock().lock();
+        try {
+            matches = postings.docs(partNumber ? postings.partCode(code) : postings.oemCode(code));
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort(DEFAULT_ORDER);
+        return Optional.of(matches.stream().map(ProductSnapshot::id).toList());
+    }
+
+    private void apply(ProductChangedEvent event) {
+        ProductSnapshot product = event.product();
+        if (event.removed() || !product.active()) {
+            postings.remove(product.id());
+        } else {
+            postings.put(product);
+        }
+    }
+
+    static Page<Long> page(List<ProductSnapshot> sorted, Pageable pageable) {
+        int total = sorted.size();
+        int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), total) : 0;
+        int to = pageable.isPaged() ? Math.min(from + pageable.getPageSize(), total) : total;
+        List<Long> ids = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            ids.add(sorted.get(i).id());
+        }
+        return new PageImpl<>(ids, pageable, total);
+    }
+
+    static Comparator<ProductSnapshot> comparatorFor(Sort sort) {
+        if (sort == null || sort.isUnsorted()) {
+            return DEFAULT_ORDER;
+        }
+        Comparator<ProductSnapshot> combined = null;
+        for (Sort.Order order : sort) {
+            Comparator<ProductSnapshot> next = switch (order.getProperty()) {
+                // PostgreSQL treats null as the largest value: last ascending, first descending
+                case "createdAt" -> Comparator.comparing((ProductSnapshot p) -> ProductCursor.storedPrecision(p.createdAt()),
+                        Comparator.nullsLast(Comparator.naturalOrder()));
+                case "price" -> Comparator.comparing(ProductSnapshot::price,
+                        Comparator.nullsFirst(Comparator.naturalOrder()));
+                case "name" -> Comparator.comparing(ProductSnapshot::name,
+                        Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER));
+                case "id" -> Comparator.comparing(ProductSnapshot::id);
+                default -> null;
+            };
+            if (next == null) {
+                return null;
+            }
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            combined = combined == null ? next : combined.thenComparing(next);
+        }
+        return combined.thenComparing(ProductSnapshot::id, Comparator.reverseOrder());
+    }
+
+    /**
+     * Postings over dense product ordinals. Every key maps to an {@link OrdinalList}, a sorted
+     * {@code int[]}, instead of a set of boxed ids. A changed product gets a fresh ordinal, so
+     * lists only ever grow at the end; ordinals of removed or replaced products stay in the
+     * lists, masked by a {@code null} doc, until {@link #compacted()}. Only touched under the
+     * index lock.
+     */
+    static final class Postings {
+
+        private final Map<Long, Integer> ordinals = new HashMap<>();
+        private final List<ProductSnapshot> docs = new ArrayList<>();
+        private final TreeMap<String, OrdinalList> wordTokens = new TreeMap<>();
+        private final Map<String, OrdinalList> nameGrams = new HashMap<>();
+        private final Map<String, OrdinalList> codeGrams = new HashMap<>();
+        private final Map<String, OrdinalList> partCodes = new HashMap<>();
+        private final Map<String, OrdinalList> oemCodes = new HashMap<>();
+
+        int size() {
+            return ordinals.size();
+        }
+
+        /**
+         * Ordinals handed out since the last build or compaction, removed products included.
+         */
+        int ordinalCount() {
+            return docs.size();
+        }
+
+        void put(ProductSnapshot product) {
+            remove(product.id());
+            int ordinal = docs.size();
+            docs.add(product);
+            ordinals.put(product.id(), ordinal);
+            attach(partCodes, PartCodeNormalizer.normalize(product.partNumber()), ordinal);
+            attach(oemCodes, PartCodeNormalizer.normalize(product.oemNumber()), ordinal);
+            for (String token : words(product)) {
+                attach(wordTokens, token, ordinal);
+            }
+            for (String gram : grams(SearchTextNormalizer.fold(product.name()))) {
+                attach(nameGrams, gram, ordinal);
+            }
+            for (String gram : codeGrams(product)) {
+                attach(codeGrams, gram, ordinal);
+            }
+        }
+
+        void remove(Long id) {
+            Integer ordinal = ordinals.remove(id);
+            if (ordinal != null) {
+                docs.set(ordinal, null);
+            }
+        }
+
+        /**
+         * Worth renumbering once removed ordinals outnumber both the live ones and
+         * {@link #COMPACTION_MIN_DEAD}.
+         */
+        boolean needsCompaction() {
+            int dead = docs.size() - ordinals.size();
+            return dead > COMPACTION_MIN_DEAD && dead > ordinals.size();
+        }
+
+        /**
+         * Fresh postings holding the same products under dense ordinals, in the current order.
+         */
+        Postings compacted() {
+            Postings out = new Postings();
+            for (ProductSnapshot product : docs) {
+                if (product != null) {
+                    out.put(product);
+                }
+            }
+            out.trim();
+            return out;
+        }
+
+        /**
+         * Drops the spare capacity lists keep for appends; called once a build is complete.
+         */
+        void trim() {
+            for (Map<String, OrdinalList> index : List.of(wordTokens, nameGrams, codeGrams, partCodes, oemCodes)) {
+                index.values().forEach(OrdinalList::trim);
+            }
+        }
+
+        ProductSnapshot doc(int ordinal) {
+            return docs.get(ordinal);
+        }
+
+        /**
+         * Live products behind sorted {@code ordinals}.
+         */
+        List<ProductSnapshot> docs(int[] ordinals) {
+            List<ProductSnapshot> out = new ArrayList<>(ordinals.length);
+            for (int ordinal : ordinals) {
+                ProductSnapshot product = docs.get(ordinal);
+                if (product != null) {
+                    out.add(product);
+                }
+            }
+            return out;
+        }
+
+        int[] partCode(String code) {
+            return ordinalsOf(partCodes.get(code));
+        }
+
+        int[] oemCode(String code) {
+            return ordinalsOf(oemCodes.get(code));
+        }
+
+        /**
+         * Products whose words include every query word, the last one as a prefix.
+         */
+        int[] matchWords(List<String> words) {
+            if (words.isEmpty()) {
+                return EMPTY;
+            }
+            List<OrdinalList> lists = new ArrayList<>(words.size());
+            for (int i = 0; i < words.size() - 1; i++) {
+                OrdinalList exact = wordTokens.get(words.get(i));
+                if (exact == null) {
+                    return EMPTY;
+                }
+                lists.add(exact);
+            }
+            String prefix = words.get(words.size() - 1);
+            Collection<OrdinalList> prefixed = wordTokens.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values();
+            if (prefixed.isEmpty()) {
+                return EMPTY;
+            }
+            lists.add(prefixed.size() == 1 ? prefixed.iterator().next() : OrdinalList.union(prefixed));
+            return intersect(lists);
+        }
+
+        /**
+         * Products whose folded name contains {@code text}, which is at least one trigram long.
+         */
+        int[] matchName(String text) {
+            int[] candidates = intersect(gramLists(nameGrams, text));
+            return retain(candidates, product -> SearchTextNormalizer.fold(product.name()).contains(text));
+        }
+
+        int[] matchCode(String code) {
+            int[] candidates = intersect(gramLists(codeGrams, code));
+            return retain(candidates, product -> codeContains(product, code));
+        }
+
+        private static List<OrdinalList> gramLists(Map<String, OrdinalList> index, String text) {
+            List<OrdinalList> lists = new ArrayList<>();
+            for (String gram : grams(text)) {
+                OrdinalList ordinals = index.get(gram);
+                if (ordinals == null) {
+                    return List.of();
+                }
+                lists.add(ordinals);
+            }
+            return lists;
+        }
+
+        /**
+         * The live ordinals among {@code candidates} whose product passes {@code check}.
+         */
+        private int[] retain(int[] candidates, Predicate<ProductSnapshot> check) {
+            int kept = 0;
+            for (int ordinal : candidates) {
+                ProductSnapshot product = docs.get(ordinal);
+                if (product != null && check.test(product)) {
+                    candidates[kept++] = ordinal;
+                }
+            }
+            return kept == candidates.length ? candidates : Arrays.copyOf(candidates, kept);
+        }
+
+        private static boolean codeContains(ProductSnapshot product, String code) {
+            return SearchTextNormalizer.compact(product.partNumber()).contains(code)
+                    || SearchTextNormalizer.compact(product.oemNumber()).contains(code);
+        }
+
+        private static Set<String> words(ProductSnapshot product) {
+            Set<String> out = new HashSet<>(SearchTextNormalizer.tokens(product.name()));
+            out.addAll(SearchTextNormalizer.tokens(product.partNumber()));
+            out.addAll(SearchTextNormalizer.tokens(product.oemNumber()));
+            return out;
+        }
+
+        private static Set<String> codeGrams(ProductSnapshot product) {
+            Set<String> out = grams(SearchTextNormalizer.compact(product.partNumber()));
+            out.addAll(grams(SearchTextNormalizer.compact(product.oemNumber())));
+            return out;
+        }
+
+        private static Set<String> grams(String code) {
+            Set<String> out = new HashSet<>();
+            for (int i = 0; i + GRAM_LENGTH <= code.length(); i++) {
+                out.add(code.substring(i, i + GRAM_LENGTH));
+            }
+            return out;
+        }
+
+        /**
+         * Ordinals present in every list: each ordinal of the shortest list is looked up in the
+         * others by binary search.
+         */
+        private static int[] intersect(List<OrdinalList> lists) {
+            if (lists.isEmpty()) {
+                return EMPTY;
+            }
+            OrdinalList shortest = lists.get(0);
+            for (OrdinalList ordinals : lists) {
+                if (ordinals.size < shortest.size) {
+                    shortest = ordinals;
+                }
+            }
+            int[] out = new int[shortest.size];
+            int found = 0;
+            next:
+            for (int i = 0; i < shortest.size; i++) {
+                int ordinal = shortest.ordinals[i];
+                for (OrdinalList ordinals : lists) {
+                    if (ordinals != shortest && !ordinals.contains(ordinal)) {
+                        continue next;
+                    }
+                }
+                out[found++] = ordinal;
+            }
+            return found == out.length ? out : Arrays.copyOf(out, found);
+        }
+
+        private static int[] ordinalsOf(OrdinalList list) {
+            return list == null ? EMPTY : Arrays.copyOf(list.ordinals, list.size);
+        }
+
+        private static void attach(Map<String, OrdinalList> index, String key, int ordinal) {
+            if (key != null) {
+                index.computeIfAbsent(key, k -> new OrdinalList()).append(ordinal);
+            }
+        }
+    }
+
+    /**
+     * Ascending product ordinals in a growable {@code int[]}.
+     */
+    static final class OrdinalList {
+
+        private int[] ordinals;
+        private int size;
+
+        OrdinalList() {
+            this(new int[1], 0);
+        }
+
+        private OrdinalList(int[] ordinals, int size) {
+            this.ordinals = ordinals;
+            this.size = size;
+        }
+
+        /**
+         * Adds an ordinal larger than every one already held.
+         */
+        void append(int ordinal) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size + (size >> 1) + 1);
+            }
+            ordinals[size++] = ordinal;
+        }
+
+        boolean contains(int ordinal) {
+            return Arrays.binarySearch(ordinals, 0, size, ordinal) >= 0;
+        }
+
+        void trim() {
+            if (ordinals.length > size) {
+                ordinals = Arrays.copyOf(ordinals, size);
+            }
+        }
+
+        /**
+         * Every ordinal held by any of {@code lists}, once.
+         */
+        static OrdinalList union(Collection<OrdinalList> lists) {
+            int total = 0;
+            for (OrdinalList list : lists) {
+                total += list.size;
+            }
+            int[] all = new int[total];
+            int at = 0;
+            for (OrdinalList list : lists) {
+                System.arraycopy(list.ordinals, 0, all, at, list.size);
+                at += list.size;
+            }
+            return new OrdinalList(all, distinctSorted(all));
+        }
+    }
+
+    /**
+     * Sorts {@code ordinals} and moves each distinct value to the front.
+     *
+     * @return number of distinct values
+     */
+    static int distinctSorted(int[] ordinals) {
+        Arrays.sort(ordinals);
+        int distinct = 0;
+        for (int i = 0; i < ordinals.length; i++) {
+            if (i == 0 || ordinals[i] != ordinals[i - 1]) {
+                ordinals[distinct++] = ordinals[i];
+            }
+        }
+        return distinct;
+    }
+}
@@ -0,0 +1,151 @@
+package com.recicar.marketplace.service.search;
+
+import com.recicar.marketplace.dto.ProductSnapshot;
+import com.recicar.marketplace.entity.Brand;
+import com.recicar.marketplace.entity.Category;
+import com.recicar.marketplace.repository.BrandRepository;
+import com.recicar.marketplace.repository.CategoryRepository;
+import com.recicar.marketplace.repository.ProductRepository;
+import com.recicar.marketplace.repository.VehicleCompatibilityRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Autocomplete over product names, part/OEM numbers, category names and brands, served from
+ * an immutable {@link SuggestionTrie}. Suggestions are ranked by how many active listings sit
+ * behind them. The trie is rebuilt in the background and swapped in whole; until the first
+ * build completes callers get {@link Optional#empty()} and should fall back to PostgreSQL.
+ */
+@Slf4j
+@Component
+public class SearchSuggestionIndex {
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final BrandRepository brandRepository;
+    private final VehicleCompatibilityRepository vehicleCompatibilityRepository;
+
+    private volatile SuggestionTrie trie;
+
+    public SearchSuggestionIndex(ProductRepository productRepository,
+                                 CategoryRepository categoryRepository,
+                                 BrandRepository brandRepository,
+                                 VehicleCompatibilityRepository vehicleCompatibilityRepository) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.brandRepository = brandRepository;
+        this.vehicleCompatibilityRepository = vehicleCompatibilityRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${app.search.suggestions.refresh-interval-ms:300000}",
+            fixedDelayString = "${app.search.suggestions.refresh-interval-ms:300000}")
+    public void refresh() {
+        rebuild();
+    }
+
+    /**
+     * Builds a fresh trie from the database and publishes it. A failed build keeps serving
+     * the previous trie.
+     */
+    public void rebuild() {
+        long started = System.nanoTime();
+        SuggestionTrie fresh;
+        try {
+            fresh = load();
+        } catch (RuntimeException e) {
+            log.warn("Search suggestion rebuild failed; keeping previous suggestions", e);
+            return;
+        }
+        trie = fresh;
+        log.info("Search suggestions built: {} entries in {} ms",
+                fresh.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Up to {@code limit} suggestions for a partial term, or empty when the trie is not built.
+     * The term is matched both as words (product, category and brand names) and with its
+     * separators removed (part and OEM numbers).
+     */
+    public Optional<List<String>> suggest(String partialTerm, int limit) {
+        SuggestionTrie current = trie;
+        if (current == null) {
+            return Optional.empty();
+        }
+        String wordKey = wordKey(partialTerm);
+        String codeKey = SearchTextNormalizer.compact(partialTerm);
+        List<SuggestionTrie.Suggestion> matches = new ArrayList<>(current.complete(wordKey, limit));
+        if (!codeKey.equals(wordKey)) {
+            matches.addAll(current.complete(codeKey, limit));
+        }
+        matches.sort((a, b) -> a.weight() != b.weight()
+                ? Long.compare(b.weight(), a.weight())
+                : a.text().compareTo(b.text()));
+
+        Map<String, String> distinct = new LinkedHashMap<>();
+        for (SuggestionTrie.Suggestion match : matches) {
+            distinct.putIfAbsent(match.text().toLowerCase(Locale.ROOT), match.text());
+            if (distinct.size() == limit) {
+                break;
+            }
+        }
+        return Optional.of(List.copyOf(distinct.values()));
+    }
+
+    private SuggestionTrie load() {
+        SuggestionTrie.Builder builder = SuggestionTrie.builder();
+        Map<Long, Long> productsPerCategory = new HashMap<>();
+
+        long afterId = 0L;
+        List<ProductSnapshot> batch;
+        do {
+            batch = productRepository.findActiveSnapshotsAfter(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            for (ProductSnapshot product : batch) {
+                builder.add(wordKey(product.name()), product.name(), 1);
+                builder.add(SearchTextNormalizer.compact(product.partNumber()), product.partNumber(), 1);
+                builder.add(SearchTextNormalizer.compact(product.oemNumber()), product.oemNumber(), 1);
+                if (product.categoryId() != null) {
+                    productsPerCategory.merge(product.categoryId(), 1L, Long::sum);
+                }
+                afterId = product.id();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+
+        for (Category category : categoryRepository.findByActiveTrueOrderBySortOrderAsc()) {
+            builder.add(wordKey(category.getName()), category.getName(),
+                    productsPerCategory.getOrDefault(category.getId(), 0L));
+        }
+
+        Map<String, Long> productsPerMake = new HashMap<>();
+        for (Object[] row : vehicleCompatibilityRepository.countActiveProductsByMake()) {
+            productsPerMake.merge(wordKey((String) row[0]), ((Number) row[1]).longValue(), Long::sum);
+        }
+        for (Brand brand : brandRepository.findAllByOrderByNameAsc()) {
+            String key = wordKey(brand.getName());
+            builder.add(key, brand.getName(), productsPerMake.getOrDefault(key, 0L));
+        }
+        return builder.build();
+    }
+
+    private static String wordKey(String text) {
+        return String.join(" ", SearchTextNormalizer.tokens(text));
+    }
+}
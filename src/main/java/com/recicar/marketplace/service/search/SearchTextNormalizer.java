@@ -0,0 +1,52 @@
+package com.recicar.marketplace.service.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Text folding shared by the in-memory search structures: lower case, accents stripped,
+ * split on anything that is not a letter or digit.
+ */
+public final class SearchTextNormalizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALNUM = Pattern.compile("[^a-z0-9]+");
+
+    private SearchTextNormalizer() {
+    }
+
+    /**
+     * Lower case without accents ("Válvula" becomes "valvula").
+     */
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Folded word tokens, in order of appearance.
+     */
+    public static List<String> tokens(String text) {
+        String folded = fold(text);
+        List<String> out = new ArrayList<>();
+        for (String token : NON_ALNUM.split(folded)) {
+            if (!token.isEmpty()) {
+                out.add(token);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Folded text with every separator removed ("1K0-615-301 AA" becomes "1k0615301aa").
+     */
+    public static String compact(String text) {
+        return NON_ALNUM.matcher(fold(text)).replaceAll("");
+    }
+}
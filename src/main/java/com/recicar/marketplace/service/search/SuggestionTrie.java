@@ -0,0 +1,205 @@
+package com.recicar.marketplace.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, path-compressed prefix tree used for autocomplete. Every node keeps the
+ * indices of its best {@link #MAX_SUGGESTIONS} completions precomputed at build time, so
+ * a lookup only walks the prefix and never visits the subtree below it.
+ */
+public final class SuggestionTrie {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static final int[] NO_SUGGESTIONS = new int[0];
+
+    private final String[] texts;
+    private final long[] weights;
+    private final Node root;
+
+    private SuggestionTrie(String[] texts, long[] weights, Node root) {
+        this.texts = texts;
+        this.weights = weights;
+        this.root = root;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return texts.length;
+    }
+
+    /**
+     * Best completions for an already folded prefix, highest weight first.
+     */
+    public List<Suggestion> complete(String prefix, int limit) {
+        if (prefix == null || prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Node node = root;
+        int depth = 0;
+        while (depth < prefix.length()) {
+            int slot = Arrays.binarySearch(node.firstChars, prefix.charAt(depth));
+            if (slot < 0) {
+                return List.of();
+            }
+            String label = node.labels[slot];
+            int remaining = prefix.length() - depth;
+            if (remaining <= label.length()) {
+                if (!label.regionMatches(0, prefix, depth, remaining)) {
+                    return List.of();
+                }
+            } else if (!prefix.startsWith(label, depth)) {
+                return List.of();
+            }
+            node = node.children[slot];
+            depth += label.length();
+        }
+        int count = Math.min(limit, node.top.length);
+        List<Suggestion> out = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int entry = node.top[i];
+            out.add(new Suggestion(texts[entry], weights[entry]));
+        }
+        return out;
+    }
+
+    public record Suggestion(String text, long weight) {
+    }
+
+    private static final class Node {
+        final char[] firstChars;
+        final String[] labels;
+        final Node[] children;
+        final int[] top;
+
+        Node(char[] firstChars, String[] labels, Node[] children, int[] top) {
+            this.firstChars = firstChars;
+            this.labels = labels;
+            this.children = children;
+            this.top = top;
+        }
+    }
+
+    /**
+     * Collects (key, display text, weight) entries. Entries sharing a key are merged: weights
+     * add up and the heaviest display text wins.
+     */
+    public static final class Builder {
+
+        private final Map<String, Candidate> byKey = new HashMap<>();
+
+        private Builder() {
+        }
+
+        public Builder add(String key, String text, long weight) {
+            if (key == null || key.isEmpty() || text == null || text.isBlank()) {
+                return this;
+            }
+            Candidate existing = byKey.get(key);
+            if (existing == null) {
+                byKey.put(key, new Candidate(text.trim(), weight));
+            } else {
+                existing.absorb(text.trim(), weight);
+            }
+            return this;
+        }
+
+        public SuggestionTrie build() {
+            String[] keys = byKey.keySet().toArray(new String[0]);
+            Arrays.sort(keys);
+            String[] texts = new String[keys.length];
+            long[] weights = new long[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                Candidate candidate = byKey.get(keys[i]);
+                texts[i] = candidate.text;
+                weights[i] = candidate.weight;
+            }
+            Comparator<Integer> ranking = Comparator.<Integer>comparingLong(i -> weights[i]).reversed()
+                    .thenComparing(i -> texts[i]);
+            Node root = keys.length == 0
+                    ? new Node(new char[0], new String[0], new Node[0], NO_SUGGESTIONS)
+                    : build(keys, 0, keys.length, 0, ranking);
+            return new SuggestionTrie(texts, weights, root);
+        }
+
+        /**
+         * Builds the node for the sorted key range [from, to), all of which share their first
+         * {@code depth} characters.
+         */
+        private static Node build(String[] keys, int from, int to, int depth, Comparator<Integer> ranking) {
+            List<Integer> candidates = new ArrayList<>();
+            int start = from;
+            if (keys[start].length() == depth) {
+                candidates.add(start);
+                start++;
+            }
+            List<Character> firstChars = new ArrayList<>();
+            List<String> labels = new ArrayList<>();
+            List<Node> children = new ArrayList<>();
+            int groupStart = start;
+            while (groupStart < to) {
+                char c = keys[groupStart].charAt(depth);
+                int groupEnd = groupStart + 1;
+                while (groupEnd < to && keys[groupEnd].charAt(depth) == c) {
+                    groupEnd++;
+                }
+                int split = commonPrefixLength(keys[groupStart], keys[groupEnd - 1]);
+                Node child = build(keys, groupStart, groupEnd, split, ranking);
+                firstChars.add(c);
+                labels.add(keys[groupStart].substring(depth, split));
+                children.add(child);
+                for (int entry : child.top) {
+                    candidates.add(entry);
+                }
+                groupStart = groupEnd;
+            }
+            candidates.sort(ranking);
+            int[] top = candidates.stream()
+                    .limit(MAX_SUGGESTIONS)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            char[] chars = new char[firstChars.size()];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = firstChars.get(i);
+            }
+            return new Node(chars, labels.toArray(new String[0]), children.toArray(new Node[0]), top);
+        }
+
+        private static int commonPrefixLength(String a, String b) {
+            int max = Math.min(a.length(), b.length());
+            int i = 0;
+            while (i < max && a.charAt(i) == b.charAt(i)) {
+                i++;
+            }
+            return i;
+        }
+    }
+
+    private static final class Candidate {
+        private String text;
+        private long textWeight;
+        private long weight;
+
+        Candidate(String text, long weight) {
+            this.text = text;
+            this.textWeight = weight;
+            this.weight = weight;
+        }
+
+        void absorb(String otherText, long otherWeight) {
+            weight += otherWeight;
+            if (otherWeight > textWeight) {
+                text = otherText;
+                textWeight = otherWeight;
+            }
+        }
+    }
+}
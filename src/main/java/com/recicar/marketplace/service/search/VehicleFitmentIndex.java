@@ -0,0 +1,282 @@
+package com.recicar.marketplace.service.search;
+
+import com.recicar.marketplace.dto.VehicleCompatibilitySnapshot;
+import com.recicar.marketplace.event.ProductChangedEvent;
+import com.recicar.marketplace.event.VehicleCompatibilityChangedEvent;
+import com.recicar.marketplace.repository.VehicleCompatibilityRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Memory-resident "fits my car" index: fitment rows grouped by normalized (make, model, engine),
+ * each group answering year lookups through a {@link YearIntervalTree}. Trees are built on first
+ * use and dropped whenever a row of their group changes.
+ * <p>
+ * Built once the application is ready, kept current from {@link VehicleCompatibilityChangedEvent}s
+ * and product deletions, and reloaded nightly to pick up changes made outside JPA. Until the
+ * first build callers get {@link Optional#empty()} and should query the join table instead.
+ */
+@Slf4j
+@Component
+public class VehicleFitmentIndex {
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final VehicleCompatibilityRepository vehicleCompatibilityRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Queue<Object> pendingDuringRebuild = new ArrayDeque<>();
+
+    private Fitments fitments = new Fitments();
+    private boolean rebuilding;
+    private volatile boolean ready;
+
+    public VehicleFitmentIndex(VehicleCompatibilityRepository vehicleCompatibilityRepository) {
+        this.vehicleCompatibilityRepository = vehicleCompatibilityRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(cron = "${app.search.index.rebuild-cron:0 45 3 * * *}")
+    public void refresh() {
+        rebuild();
+    }
+
+    /**
+     * Reloads every fitment row in id order. Changes arriving while the reload runs are
+     * queued and replayed on top of the fresh groups.
+     */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuilding = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        long started = System.nanoTime();
+        Fitments fresh = new Fitments();
+        try {
+            long afterId = 0L;
+            List<VehicleCompatibilitySnapshot> batch;
+            do {
+                batch = vehicleCompatibilityRepository.findSnapshotsAfter(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (VehicleCompatibilitySnapshot fitment : batch) {
+                    fresh.put(fitment);
+                    afterId = fitment.id();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                rebuilding = false;
+                pendingDuringRebuild.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.warn("Vehicle fitment index rebuild failed; fitment search stays on PostgreSQL", e);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            fitments = fresh;
+            Object pending;
+            while ((pending = pendingDuringRebuild.poll()) != null) {
+                apply(pending);
+            }
+            rebuilding = false;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Vehicle fitment index built: {} rows in {} groups in {} ms",
+                fresh.rows.size(), fresh.rowsByKey.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleCompatibilityChanged(VehicleCompatibilityChangedEvent event) {
+        enqueueOrApply(event);
+    }
+
+    /**
+     * Fitment rows go away with their product through the foreign key, without entity events.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.removed()) {
+            enqueueOrApply(event);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Ids of products with a fitment for the vehicle covering {@code year}, highest id (newest)
+     * first. Make, model and engine are matched ignoring case and surrounding blanks; a blank
+     * engine matches every engine of the model.
+     */
+    public Optional<List<Long>> findProductIds(String make, String model, String engine, int year) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        Set<Long> ids = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            String makeKey = normalize(make);
+            String modelKey = normalize(model);
+            String engineKey = normalize(engine);
+            if (engineKey.isEmpty()) {
+                for (FitmentKey key : fitments.keysByModel.getOrDefault(new ModelKey(makeKey, modelKey), Set.of())) {
+                    fitments.tree(key).collect(year, ids);
+                }
+            } else {
+                fitments.tree(new FitmentKey(makeKey, modelKey, engineKey)).collect(year, ids);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Long> ordered = new ArrayList<>(ids);
+        ordered.sort(Comparator.reverseOrder());
+        return Optional.of(ordered);
+    }
+
+    private void enqueueOrApply(Object event) {
+        lock.writeLock().lock();
+        try {
+            if (rebuilding) {
+                pendingDuringRebuild.add(event);
+            } else {
+                apply(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Object event) {
+        if (event instanceof VehicleCompatibilityChangedEvent changed) {
+            if (changed.removed()) {
+                fitments.remove(changed.compatibility().id());
+            } else {
+                fitments.put(changed.compatibility());
+            }
+        } else if (event instanceof ProductChangedEvent changed) {
+            fitments.removeProduct(changed.product().id());
+        }
+    }
+
+    static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record ModelKey(String make, String model) {
+    }
+
+    private record FitmentKey(String make, String model, String engine) {
+
+        static FitmentKey of(VehicleCompatibilitySnapshot fitment) {
+            return new FitmentKey(normalize(fitment.make()), normalize(fitment.model()), normalize(fitment.engine()));
+        }
+
+        ModelKey modelKey() {
+            return new ModelKey(make, model);
+        }
+    }
+
+    /**
+     * Row storage is only mutated under the write lock; the per-group trees are a cache that
+     * readers fill concurrently.
+     */
+    private static final class Fitments {
+        private final Map<Long, VehicleCompatibilitySnapshot> rows = new HashMap<>();
+        private final Map<FitmentKey, Map<Long, VehicleCompatibilitySnapshot>> rowsByKey = new HashMap<>();
+        private final Map<ModelKey, Set<FitmentKey>> keysByModel = new HashMap<>();
+        private final Map<Long, Set<Long>> rowIdsByProduct = new HashMap<>();
+        private final Map<FitmentKey, YearIntervalTree> trees = new ConcurrentHashMap<>();
+
+        void put(VehicleCompatibilitySnapshot fitment) {
+            if (fitment.productId() == null) {
+                return;
+            }
+            remove(fitment.id());
+            FitmentKey key = FitmentKey.of(fitment);
+            rows.put(fitment.id(), fitment);
+            rowsByKey.computeIfAbsent(key, k -> new HashMap<>()).put(fitment.id(), fitment);
+            keysByModel.computeIfAbsent(key.modelKey(), k -> new HashSet<>()).add(key);
+            rowIdsByProduct.computeIfAbsent(fitment.productId(), k -> new HashSet<>()).add(fitment.id());
+            trees.remove(key);
+        }
+
+        void remove(Long fitmentId) {
+            VehicleCompatibilitySnapshot previous = rows.remove(fitmentId);
+            if (previous == null) {
+                return;
+            }
+            FitmentKey key = FitmentKey.of(previous);
+            Map<Long, VehicleCompatibilitySnapshot> group = rowsByKey.get(key);
+            group.remove(fitmentId);
+            if (group.isEmpty()) {
+                rowsByKey.remove(key);
+                Set<FitmentKey> engines = keysByModel.get(key.modelKey());
+                engines.remove(key);
+                if (engines.isEmpty()) {
+                    keysByModel.remove(key.modelKey());
+                }
+            }
+            Set<Long> productRows = rowIdsByProduct.get(previous.productId());
+            productRows.remove(fitmentId);
+            if (productRows.isEmpty()) {
+                rowIdsByProduct.remove(previous.productId());
+            }
+            trees.remove(key);
+        }
+
+        void removeProduct(Long productId) {
+            Set<Long> rowIds = rowIdsByProduct.get(productId);
+            if (rowIds != null) {
+                new ArrayList<>(rowIds).forEach(this::remove);
+            }
+        }
+
+        YearIntervalTree tree(FitmentKey key) {
+            Map<Long, VehicleCompatibilitySnapshot> group = rowsByKey.get(key);
+            if (group == null) {
+                return YearIntervalTree.of(List.of());
+            }
+            return trees.computeIfAbsent(key, k -> {
+                List<YearIntervalTree.Interval> intervals = new ArrayList<>(group.size());
+                for (VehicleCompatibilitySnapshot fitment : group.values()) {
+                    intervals.add(new YearIntervalTree.Interval(
+                            fitment.yearFrom() != null ? fitment.yearFrom() : Integer.MIN_VALUE,
+                            fitment.yearTo() != null ? fitment.yearTo() : Integer.MAX_VALUE,
+                            fitment.productId()));
+                }
+                return YearIntervalTree.of(intervals);
+            });
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.recicar.marketplace.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable centered interval tree over model-year ranges. A stabbing query for one year
+ * costs O(log n + k): each node stores the ranges that contain its center twice, sorted by
+ * start and by end, so only the matching prefix of one list is read before descending.
+ */
+final class YearIntervalTree {
+
+    record Interval(int from, int to, long productId) {
+    }
+
+    private static final YearIntervalTree EMPTY = new YearIntervalTree(0, new Interval[0], new Interval[0], null, null);
+
+    private final int center;
+    private final Interval[] byStart;
+    private final Interval[] byEndDescending;
+    private final YearIntervalTree left;
+    private final YearIntervalTree right;
+
+    private YearIntervalTree(int center, Interval[] byStart, Interval[] byEndDescending,
+                             YearIntervalTree left, YearIntervalTree right) {
+        this.center = center;
+        this.byStart = byStart;
+        this.byEndDescending = byEndDescending;
+        this.left = left;
+        this.right = right;
+    }
+
+    static YearIntervalTree of(Collection<Interval> intervals) {
+        return intervals.isEmpty() ? EMPTY : build(new ArrayList<>(intervals));
+    }
+
+    private static YearIntervalTree build(List<Interval> intervals) {
+        if (intervals.isEmpty()) {
+            return null;
+        }
+        int[] endpoints = new int[intervals.size() * 2];
+        for (int i = 0; i < intervals.size(); i++) {
+            endpoints[2 * i] = intervals.get(i).from();
+            endpoints[2 * i + 1] = intervals.get(i).to();
+        }
+        Arrays.sort(endpoints);
+        int center = endpoints[endpoints.length / 2];
+
+        List<Interval> before = new ArrayList<>();
+        List<Interval> after = new ArrayList<>();
+        List<Interval> overlapping = new ArrayList<>();
+        for (Interval interval : intervals) {
+            if (interval.to() < center) {
+                before.add(interval);
+            } else if (interval.from() > center) {
+                after.add(interval);
+            } else {
+                overlapping.add(interval);
+            }
+        }
+        Interval[] byStart = overlapping.toArray(new Interval[0]);
+        Arrays.sort(byStart, Comparator.comparingInt(Interval::from));
+        Interval[] byEnd = overlapping.toArray(new Interval[0]);
+        Arrays.sort(byEnd, Comparator.comparingInt(Interval::to).reversed());
+        return new YearIntervalTree(center, byStart, byEnd, build(before), build(after));
+    }
+
+    /**
+     * Adds the product id of every range containing {@code year} to {@code out}.
+     */
+    void collect(int year, Collection<Long> out) {
+        YearIntervalTree node = this;
+        while (node != null) {
+            if (year < node.center) {
+                for (Interval interval : node.byStart) {
+                    if (interval.from() > year) {
+                        break;
+                    }
+                    out.add(interval.productId());
+                }
+                node = node.left;
+            } else if (year > node.center) {
+                for (Interval interval : node.byEndDescending) {
+                    if (interval.to() < year) {
+                        break;
+                    }
+                    out.add(interval.productId());
+                }
+                node = node.right;
+            } else {
+                for (Interval interval : node.byStart) {
+                    out.add(interval.productId());
+                }
+                return;
+            }
+        }
+    }
+}
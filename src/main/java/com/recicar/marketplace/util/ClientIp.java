@@ -0,0 +1,18 @@
+package com.recicar.marketplace.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Client address for per-client limits. This is the socket address as rewritten by Tomcat's
+ * remote IP handling ({@code server.forward-headers-strategy: native}), which honours
+ * {@code X-Forwarded-For} only from trusted proxies, so clients cannot pick their own key.
+ */
+public final class ClientIp {
+
+    private ClientIp() {
+    }
+
+    public static String of(HttpServletRequest request) {
+        return request == null ? "unknown" : request.getRemoteAddr();
+    }
+}
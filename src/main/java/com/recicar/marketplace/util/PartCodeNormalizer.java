@@ -0,0 +1,28 @@
+package com.recicar.marketplace.util;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Canonical form of part and OEM numbers: every character that is not an ASCII letter or
+ * digit removed, upper case. Sellers writing "1K0-615-301 AA" and buyers typing
+ * "1k0615301aa" end up on the same key. Mirrors the backfill in migration V27.
+ */
+public final class PartCodeNormalizer {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^A-Za-z0-9]");
+
+    private PartCodeNormalizer() {
+    }
+
+    /**
+     * @return the canonical code, or {@code null} when nothing alphanumeric remains
+     */
+    public static String normalize(String code) {
+        if (code == null) {
+            return null;
+        }
+        String canonical = SEPARATORS.matcher(code).replaceAll("").toUpperCase(Locale.ROOT);
+        return canonical.isEmpty() ? null : canonical;
+    }
+}
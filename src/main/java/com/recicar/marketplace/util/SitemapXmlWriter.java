@@ -0,0 +1,95 @@
+package com.recicar.marketplace.util;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Streams a sitemap ({@code urlset}) or sitemap index ({@code sitemapindex}) document entry by
+ * entry, so no document is ever held in memory. Escaping is left to StAX. {@link #close()}
+ * ends the document and flushes, but leaves the underlying stream open.
+ */
+public final class SitemapXmlWriter implements Closeable {
+
+    /**
+     * Sitemap protocol limit of URLs per file.
+     */
+    public static final int MAX_URLS = 50_000;
+
+    private static final String NAMESPACE = "http://www.sitemaps.org/schemas/sitemap/0.9";
+    private static final XMLOutputFactory FACTORY = XMLOutputFactory.newFactory();
+
+    private final XMLStreamWriter xml;
+    private final String entryElement;
+    private final ZoneId zone;
+
+    private SitemapXmlWriter(OutputStream out, String rootElement, String entryElement, ZoneId zone) {
+        this.entryElement = entryElement;
+        this.zone = zone;
+        try {
+            this.xml = FACTORY.createXMLStreamWriter(out, StandardCharsets.UTF_8.name());
+            xml.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            xml.writeCharacters("\n");
+            xml.writeStartElement(rootElement);
+            xml.writeDefaultNamespace(NAMESPACE);
+        } catch (XMLStreamException e) {
+            throw failure(e);
+        }
+    }
+
+    public static SitemapXmlWriter urlset(OutputStream out, ZoneId zone) {
+        return new SitemapXmlWriter(out, "urlset", "url", zone);
+    }
+
+    public static SitemapXmlWriter index(OutputStream out, ZoneId zone) {
+        return new SitemapXmlWriter(out, "sitemapindex", "sitemap", zone);
+    }
+
+    /**
+     * @param lastModified omitted from the entry when {@code null}
+     */
+    public void write(String loc, LocalDateTime lastModified) {
+        try {
+            xml.writeCharacters("\n  ");
+            xml.writeStartElement(entryElement);
+            xml.writeStartElement("loc");
+            xml.writeCharacters(loc);
+            xml.writeEndElement();
+            if (lastModified != null) {
+                xml.writeStartElement("lastmod");
+                xml.writeCharacters(DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(
+                        lastModified.truncatedTo(ChronoUnit.SECONDS).atZone(zone).toOffsetDateTime()));
+                xml.writeEndElement();
+            }
+            xml.writeEndElement();
+        } catch (XMLStreamException e) {
+            throw failure(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            xml.writeCharacters("\n");
+            xml.writeEndElement();
+            xml.writeEndDocument();
+            xml.flush();
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static RuntimeException failure(XMLStreamException e) {
+        return e.getCause() instanceof IOException io ? new UncheckedIOException(io) : new IllegalStateException(e);
+    }
+}
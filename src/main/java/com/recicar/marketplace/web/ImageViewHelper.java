@@ -0,0 +1,31 @@
+package com.recicar.marketplace.web;
+
+import com.recicar.marketplace.service.image.ImageStorage;
+import com.recicar.marketplace.service.image.ImageVariant;
+import org.springframework.stereotype.Component;
+
+/**
+ * Thymeleaf helper: {@code @imageView.card(product.imageUrl)} and friends pick the resized
+ * variant of an uploaded image, falling back to the URL as given.
+ */
+@Component("imageView")
+public class ImageViewHelper {
+
+    private final ImageStorage imageStorage;
+
+    public ImageViewHelper(ImageStorage imageStorage) {
+        this.imageStorage = imageStorage;
+    }
+
+    public String thumbnail(String url) {
+        return imageStorage.variantUrl(url, ImageVariant.THUMBNAIL);
+    }
+
+    public String card(String url) {
+        return imageStorage.variantUrl(url, ImageVariant.CARD);
+    }
+
+    public String gallery(String url) {
+        return imageStorage.variantUrl(url, ImageVariant.GALLERY);
+    }
+}
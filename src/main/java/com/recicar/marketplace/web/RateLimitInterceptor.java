@@ -0,0 +1,83 @@
+package com.recicar.marketplace.web;
+
+import com.recicar.marketplace.service.ratelimit.RateLimiter;
+import com.recicar.marketplace.util.ClientIp;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client limits for the public endpoints that are cheap to call and expensive to answer:
+ * search (pages and API) and contact form submissions. Registered in {@code WebMvcConfig} for
+ * those paths only. Requests pass through when no {@link RateLimiter} is in the context, as in
+ * MVC slice tests.
+ */
+@Slf4j
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final ObjectProvider<RateLimiter> rateLimiter;
+    private final int searchMaxRequests;
+    private final Duration searchWindow;
+    private final int contactMaxRequests;
+    private final Duration contactWindow;
+
+    public RateLimitInterceptor(ObjectProvider<RateLimiter> rateLimiter,
+                                @Value("${app.rate-limit.search.max-requests:120}") int searchMaxRequests,
+                                @Value("${app.rate-limit.search.window:1m}") Duration searchWindow,
+                                @Value("${app.rate-limit.contact.max-requests:5}") int contactMaxRequests,
+                                @Value("${app.rate-limit.contact.window:1h}") Duration contactWindow) {
+        this.rateLimiter = rateLimiter;
+        this.searchMaxRequests = searchMaxRequests;
+        this.searchWindow = searchWindow;
+        this.contactMaxRequests = contactMaxRequests;
+        this.contactWindow = contactWindow;
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                             @NonNull Object handler) throws Exception {
+        RateLimiter limiter = rateLimiter.getIfAvailable();
+        if (limiter == null) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String ip = ClientIp.of(request);
+        long waitNanos;
+        if (path.startsWith("/contact")) {
+            if (!"POST".equals(request.getMethod())) {
+                return true;
+            }
+            waitNanos = limiter.tryAcquire("contact:" + ip, contactMaxRequests, contactWindow);
+        } else {
+            waitNanos = limiter.tryAcquire("search:" + ip, searchMaxRequests, searchWindow);
+        }
+        if (waitNanos == 0) {
+            return true;
+        }
+        log.debug("Rate limit hit for {} on {}", ip, path);
+        response.setHeader(HttpHeaders.RETRY_AFTER,
+                String.valueOf(Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1)));
+        if (path.startsWith("/api/")) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.getWriter().write("{\"message\":\"Demasiadas solicitudes. Inténtalo más tarde.\"}");
+        } else {
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Demasiadas solicitudes. Inténtalo más tarde.");
+        }
+        return false;
+    }
+}
@@ -0,0 +1,12 @@
+-- Canonical part/OEM codes: separators removed, upper case ("1K0-615-301 AA" -> "1K0615301AA").
+-- Must stay in sync with PartCodeNormalizer.
+
+ALTER TABLE products ADD COLUMN IF NOT EXISTS part_number_normalized VARCHAR(100);
+ALTER TABLE products ADD COLUMN IF NOT EXISTS oem_number_normalized VARCHAR(100);
+
+UPDATE products
+SET part_number_normalized = NULLIF(upper(regexp_replace(part_number, '[^A-Za-z0-9]', '', 'g')), ''),
+    oem_number_normalized = NULLIF(upper(regexp_replace(oem_number, '[^A-Za-z0-9]', '', 'g')), '');
+
+CREATE INDEX IF NOT EXISTS idx_products_part_number_normalized ON products(part_number_normalized);
+CREATE INDEX IF NOT EXISTS idx_products_oem_number_normalized ON products(oem_number_normalized);
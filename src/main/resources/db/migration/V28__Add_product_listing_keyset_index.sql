@@ -0,0 +1,6 @@
+-- Keyset (seek) pagination over active products, newest first: WHERE (created_at, id) < cursor
+-- ORDER BY created_at DESC, id DESC LIMIT n reads only the rows it returns.
+
+CREATE INDEX IF NOT EXISTS idx_products_active_created_at_id
+    ON products (created_at DESC, id DESC)
+    WHERE active = true;
@@ -0,0 +1,11 @@
+-- Denormalized seller reputation derived from vendor_metrics; maintained by VendorReputationService.
+-- refreshed_at is when the row was last recomputed, so MIN(refreshed_at) bounds the snapshot age.
+
+CREATE TABLE IF NOT EXISTS vendor_rating (
+    vendor_id BIGINT PRIMARY KEY REFERENCES vendors(id) ON DELETE CASCADE,
+    metric_count INTEGER NOT NULL,
+    conversion_rate_sum DECIMAL(14,4) NOT NULL,
+    rating DECIMAL(3,2) NOT NULL,
+    top_seller BOOLEAN NOT NULL,
+    refreshed_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
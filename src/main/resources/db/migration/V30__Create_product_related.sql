@@ -0,0 +1,14 @@
+-- Precomputed related products: up to N neighbour ids per product, best first.
+-- Maintained by RelatedProductsService from category, vendor, shared fitments and co-purchases.
+
+CREATE TABLE IF NOT EXISTS product_related (
+    product_id BIGINT PRIMARY KEY REFERENCES products(id) ON DELETE CASCADE,
+    related_ids BIGINT[] NOT NULL,
+    computed_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Finds the rows listing a product once it is deactivated or deleted
+CREATE INDEX IF NOT EXISTS idx_product_related_related_ids ON product_related USING GIN (related_ids);
+
+-- Co-purchase candidates start from the order lines of a product
+CREATE INDEX IF NOT EXISTS idx_order_items_product_id ON order_items(product_id);
@@ -0,0 +1,25 @@
+-- Checkout stock holds. products.stock_quantity is the stock still available to new checkouts:
+-- a HELD row has already been subtracted from it and is added back when released.
+-- Maintained by StockReservationService; expired holds are released by StockReservationScheduler.
+
+CREATE TABLE IF NOT EXISTS stock_reservations (
+    id BIGSERIAL PRIMARY KEY,
+    customer_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    product_id BIGINT NOT NULL REFERENCES products(id) ON DELETE CASCADE,
+    quantity INTEGER NOT NULL CHECK (quantity > 0),
+    status VARCHAR(20) NOT NULL,
+    expires_at TIMESTAMPTZ NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    closed_at TIMESTAMPTZ
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_stock_reservations_held_customer_product
+    ON stock_reservations (customer_id, product_id) WHERE status = 'HELD';
+
+CREATE INDEX IF NOT EXISTS idx_stock_reservations_held_expires_at
+    ON stock_reservations (expires_at) WHERE status = 'HELD';
+
+-- Conditional decrements never go below zero; this keeps every other write path honest too.
+-- NOT VALID: enforced for new writes without rejecting the migration over legacy rows.
+ALTER TABLE products DROP CONSTRAINT IF EXISTS chk_products_stock_quantity_non_negative;
+ALTER TABLE products ADD CONSTRAINT chk_products_stock_quantity_non_negative CHECK (stock_quantity >= 0) NOT VALID;
@@ -0,0 +1,20 @@
+-- Transactional outbox. Rows are written in the same transaction as the order that causes them
+-- and delivered afterwards by OutboxDispatcher, so checkout never waits on mail or analytics I/O.
+-- A PENDING row is due once next_attempt_at has passed; a claimed row has next_attempt_at pushed
+-- out by the claim lease, so a crashed delivery is retried after the lease runs out.
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGSERIAL PRIMARY KEY,
+    event_type VARCHAR(50) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    recipient_id BIGINT,
+    status VARCHAR(20) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMPTZ NOT NULL,
+    last_error TEXT,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    delivered_at TIMESTAMPTZ
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_events_pending_next_attempt_at
+    ON outbox_events (next_attempt_at) WHERE status = 'PENDING';
@@ -0,0 +1,43 @@
+-- Vendor catalog feed imports. The uploaded file is staged on disk and processed in chunks by
+-- CatalogImportService; rows_committed moves in the same transaction as each chunk's product
+-- writes, so an interrupted import resumes after the last committed row.
+
+CREATE TABLE IF NOT EXISTS catalog_imports (
+    id BIGSERIAL PRIMARY KEY,
+    vendor_id BIGINT NOT NULL REFERENCES vendors(id) ON DELETE CASCADE,
+    format VARCHAR(10) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    staged_file VARCHAR(500) NOT NULL,
+    rows_committed INTEGER NOT NULL DEFAULT 0,
+    created_count INTEGER NOT NULL DEFAULT 0,
+    updated_count INTEGER NOT NULL DEFAULT 0,
+    rejected_count INTEGER NOT NULL DEFAULT 0,
+    error TEXT,
+    heartbeat_at TIMESTAMPTZ,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMPTZ,
+    finished_at TIMESTAMPTZ
+);
+
+CREATE INDEX IF NOT EXISTS idx_catalog_imports_vendor_created_at
+    ON catalog_imports (vendor_id, created_at DESC);
+
+CREATE INDEX IF NOT EXISTS idx_catalog_imports_open
+    ON catalog_imports (id) WHERE status IN ('PENDING', 'RUNNING');
+
+-- Rejected feed lines, capped per import; catalog_imports.rejected_count is exact.
+CREATE TABLE IF NOT EXISTS catalog_import_errors (
+    id BIGSERIAL PRIMARY KEY,
+    import_id BIGINT NOT NULL REFERENCES catalog_imports(id) ON DELETE CASCADE,
+    row_number INTEGER NOT NULL,
+    reason VARCHAR(500) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_catalog_import_errors_import_row
+    ON catalog_import_errors (import_id, row_number);
+
+-- Feed deduplication looks products up by vendor and normalized part/OEM number.
+CREATE INDEX IF NOT EXISTS idx_products_vendor_part_number_normalized
+    ON products (vendor_id, part_number_normalized);
+CREATE INDEX IF NOT EXISTS idx_products_vendor_oem_number_normalized
+    ON products (vendor_id, oem_number_normalized);
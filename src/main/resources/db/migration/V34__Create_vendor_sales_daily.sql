@@ -0,0 +1,31 @@
+-- Per-vendor, per-day sales rollup behind seller analytics and dashboard revenue. A day is the
+-- order's created_at date; a row always equals a fresh aggregate of that day's order lines.
+-- Maintained by VendorSalesRollupService: days touched by order changes are recomputed shortly
+-- after, and trailing days are reconciled nightly by VendorSalesRollupScheduler.
+
+CREATE TABLE IF NOT EXISTS vendor_sales_daily (
+    vendor_id BIGINT NOT NULL REFERENCES vendors(id) ON DELETE CASCADE,
+    sales_date DATE NOT NULL,
+    -- Lines of orders that are not canceled
+    revenue DECIMAL(14,2) NOT NULL DEFAULT 0,
+    order_count INTEGER NOT NULL DEFAULT 0,
+    line_count INTEGER NOT NULL DEFAULT 0,
+    unit_count INTEGER NOT NULL DEFAULT 0,
+    -- Canceled orders with at least one line of the vendor
+    canceled_order_count INTEGER NOT NULL DEFAULT 0,
+    refreshed_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (vendor_id, sales_date)
+);
+
+INSERT INTO vendor_sales_daily (vendor_id, sales_date, revenue, order_count, line_count, unit_count, canceled_order_count)
+SELECT oi.vendor_id,
+       CAST(o.created_at AS DATE),
+       COALESCE(SUM(oi.total_price) FILTER (WHERE o.status <> 'CANCELED'), 0),
+       COUNT(DISTINCT o.id) FILTER (WHERE o.status <> 'CANCELED'),
+       COUNT(*) FILTER (WHERE o.status <> 'CANCELED'),
+       COALESCE(SUM(oi.quantity) FILTER (WHERE o.status <> 'CANCELED'), 0),
+       COUNT(DISTINCT o.id) FILTER (WHERE o.status = 'CANCELED')
+FROM order_items oi
+JOIN orders o ON o.id = oi.order_id
+GROUP BY oi.vendor_id, CAST(o.created_at AS DATE)
+ON CONFLICT (vendor_id, sales_date) DO NOTHING;
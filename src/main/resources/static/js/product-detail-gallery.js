@@ -15,7 +15,7 @@
 
         thumbs.forEach(function (btn) {
             var img = btn.querySelector('img');
-            images.push(img ? img.getAttribute('src') : '');
+            images.push(img ? (img.getAttribute('data-pd-full') || img.getAttribute('src')) : '');
             btn.addEventListener('click', function () {
                 setActive(parseInt(btn.getAttribute('data-pd-thumb-index'), 10));
             });
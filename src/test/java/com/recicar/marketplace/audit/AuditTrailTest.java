@@ -0,0 +1,133 @@
+package com.recicar.marketplace.audit;
+
+import com.recicar.marketplace.config.AuditProperties;
+import com.recicar.marketplace.service.CategoryService;
+import com.recicar.marketplace.service.UserService;
+import com.recicar.marketplace.service.auth.EmailVerificationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditTrailTest {
+
+    private final List<AuditEvent> written = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    void allowlistedOperationsAreAlwaysRecordedAndPackagesUseTheirOwnRate() throws Exception {
+        AuditProperties properties = properties(8);
+        properties.setDefaultSampleRate(0.0);
+        properties.setSampling(Map.of("auth", 1.0));
+        properties.setAlwaysRecord(List.of("UserService.changePassword"));
+        AuditTrail trail = new AuditTrail(written::addAll, properties);
+
+        Method changePassword = UserService.class.getMethod("changePassword", Long.class, String.class, String.class);
+        Method findByEmail = UserService.class.getMethod("findByEmail", String.class);
+        Method verify = EmailVerificationService.class.getMethod("verifyAndActivate", String.class);
+        Method findById = CategoryService.class.getMethod("findById", Long.class);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(trail.sample(changePassword)).isTrue();
+            assertThat(trail.sample(verify)).isTrue();
+            assertThat(trail.sample(findByEmail)).isFalse();
+            assertThat(trail.sample(findById)).isFalse();
+        }
+    }
+
+    @Test
+    void summariesMaskCredentialsAndNeverRenderObjects() {
+        AuditTrail trail = new AuditTrail(written::addAll, properties(8));
+
+        String summary = trail.summarize(
+                new String[]{"userId", "currentPassword", "query", "products", "page", "filters", "user"},
+                new Object[]{42L, "hunter2", "x".repeat(100), List.of(1, 2, 3),
+                        new PageImpl<>(List.of("a", "b"), PageRequest.of(0, 2), 10), Map.of("a", 1), new Object() {
+                            @Override
+                            public String toString() {
+                                throw new AssertionError("toString must not run");
+                            }
+                        }});
+
+        assertThat(summary).startsWith("[userId=42, currentPassword=***, query=\"" + "x".repeat(64) + "...\"");
+        assertThat(summary).doesNotContain("hunter2");
+        assertThat(summary).contains("products=List(size=3)", "page=Page(2 of 10)", "filters=Map(size=1)");
+    }
+
+    @Test
+    void summariesAreBounded() {
+        AuditProperties properties = properties(8);
+        properties.setMaxArgumentsLength(40);
+        AuditTrail trail = new AuditTrail(written::addAll, properties);
+
+        String summary = trail.summarize(null, new Object[]{"a".repeat(60), "b".repeat(60), "c".repeat(60)});
+
+        assertThat(summary).hasSize(41).endsWith("...]");
+    }
+
+    @Test
+    void drainDeliversInOrderAndCountsDropsWhenFull() throws Exception {
+        AuditTrail trail = new AuditTrail(written::addAll, properties(4));
+        Method findById = CategoryService.class.getMethod("findById", Long.class);
+
+        for (long i = 0; i < 6; i++) {
+            trail.record(findById, new String[]{"id"}, new Object[]{i}, 1_000, "ok");
+        }
+
+        assertThat(trail.drain()).isEqualTo(4);
+        assertThat(written).extracting(AuditEvent::arguments)
+                .containsExactly("[id=0]", "[id=1]", "[id=2]", "[id=3]");
+        assertThat(written).allSatisfy(event -> {
+            assertThat(event.operation()).isEqualTo("CategoryService.findById");
+            assertThat(event.durationMicros()).isEqualTo(1);
+        });
+        assertThat(trail.drain()).isZero();
+    }
+
+    @Test
+    void concurrentProducersLoseNothingWhileTheBufferHasRoom() throws Exception {
+        AuditTrail trail = new AuditTrail(written::addAll, properties(1 << 16));
+        Method findById = CategoryService.class.getMethod("findById", Long.class);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < 8; t++) {
+            long base = t * 5_000L;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (long i = base; i < base + 5_000; i++) {
+                    trail.record(findById, null, new Object[]{i}, 0, "ok");
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(trail.drain()).isEqualTo(40_000);
+        Set<String> distinct = new HashSet<>();
+        written.forEach(event -> distinct.add(event.arguments()));
+        assertThat(distinct).hasSize(40_000);
+    }
+
+    private static AuditProperties properties(int bufferSize) {
+        AuditProperties properties = new AuditProperties();
+        properties.setBufferSize(bufferSize);
+        return properties;
+    }
+}
@@ -1,11 +1,21 @@
 package com.recicar.marketplace.client;
 
 import com.recicar.marketplace.dto.VehicleInfo;
+import com.sun.net.httpserver.HttpServer;
 import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class VehicleApiClientTest {
 
@@ -25,4 +35,63 @@ public class VehicleApiClientTest {
         VehicleInfo vehicleInfo = vehicleApiClient.lookupLicensePlate("NONEXISTENT");
         assertNull(vehicleInfo);
     }
+
+    @Test
+    public void testLookupLicensePlate_againstRegistryServer() throws IOException {
+        HttpServer server = stubRegistry(Duration.ZERO);
+        try {
+            VehicleApiClient client = new VehicleApiClient(baseUrl(server), Duration.ofSeconds(1), Duration.ofSeconds(1));
+
+            VehicleInfo vehicleInfo = client.lookupLicensePlate("1234ABC");
+            assertNotNull(vehicleInfo);
+            assertEquals("Seat", vehicleInfo.getMake());
+            assertEquals("Ibiza", vehicleInfo.getModel());
+            assertEquals(2019, vehicleInfo.getYear());
+            assertNull(client.lookupLicensePlate("9999ZZZ"));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void testLookupLicensePlate_registryTooSlow() throws IOException {
+        HttpServer server = stubRegistry(Duration.ofSeconds(1));
+        try {
+            VehicleApiClient client = new VehicleApiClient(baseUrl(server), Duration.ofSeconds(1), Duration.ofMillis(100));
+
+            assertThrows(ResourceAccessException.class, () -> client.lookupLicensePlate("1234ABC"));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    /**
+     * Local plate registry that knows 1234ABC and answers 404 for anything else.
+     */
+    private static HttpServer stubRegistry(Duration delay) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/plates/", exchange -> {
+            try {
+                Thread.sleep(delay.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            boolean known = exchange.getRequestURI().getPath().equals("/plates/1234ABC");
+            byte[] body = (known ? "{\"make\":\"Seat\",\"model\":\"Ibiza\",\"year\":2019}" : "{}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(known ? 200 : 404, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            } catch (IOException e) {
+                // The client gave up waiting
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private static String baseUrl(HttpServer server) {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
 }
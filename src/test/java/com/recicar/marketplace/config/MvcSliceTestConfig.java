@@ -1,6 +1,8 @@
 package com.recicar.marketplace.config;
 
+import com.recicar.marketplace.service.image.ImageStorage;
 import com.recicar.marketplace.web.GlobalModelAttributes;
+import com.recicar.marketplace.web.ImageViewHelper;
 import com.recicar.marketplace.web.ShopListingModelHelper;
 import com.recicar.marketplace.web.ux.ClientPreferencesService;
 import com.recicar.marketplace.web.ux.MarketDisplayPriceService;
@@ -20,7 +22,9 @@ import org.springframework.context.annotation.Import;
         MarketDisplayPriceService.class,
         PriceViewHelper.class,
         GlobalModelAttributes.class,
-        ShopListingModelHelper.class
+        ShopListingModelHelper.class,
+        ImageStorage.class,
+        ImageViewHelper.class
 })
 public class MvcSliceTestConfig {
 }
@@ -6,6 +6,7 @@ import com.recicar.marketplace.entity.BrandModel;
 import com.recicar.marketplace.entity.Category;
 import com.recicar.marketplace.service.BrandService;
 import com.recicar.marketplace.service.CategoryService;
+import com.recicar.marketplace.service.CategoryTree;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -83,7 +84,7 @@ class CategorySystemMultiDeviceMockMvcTest {
         Category sub = sampleCategory(11L, "Árbol de levas", "arbol-de-levas");
         when(categoryService.findBySlug("motor-bloque")).thenReturn(Optional.of(motorBloque));
         when(categoryService.findByParentId(10L)).thenReturn(List.of(sub));
-        when(categoryService.getCategoryHierarchy(motorBloque)).thenReturn(List.of(motorBloque));
+        when(categoryService.getCategoryHierarchy(motorBloque)).thenReturn(List.of(node(motorBloque, null, 0)));
 
         mockMvc.perform(get("/categories/view/motor-bloque").with(userAgent(userAgent)))
                 .andExpect(status().isOk())
@@ -137,7 +138,7 @@ class CategorySystemMultiDeviceMockMvcTest {
         Category parent = sampleCategory(1L, "Repuestos", "repuestos");
         Category leaf = sampleCategory(2L, "Motor — bloque", "motor-bloque");
         when(categoryService.findBySlug("motor-bloque")).thenReturn(Optional.of(leaf));
-        when(categoryService.getCategoryHierarchy(leaf)).thenReturn(List.of(parent, leaf));
+        when(categoryService.getCategoryHierarchy(leaf)).thenReturn(List.of(node(parent, null, 0), node(leaf, 1L, 1)));
 
         mockMvc.perform(get("/api/v1/categories/motor-bloque/breadcrumb").with(userAgent(userAgent)))
                 .andExpect(status().isOk())
@@ -145,6 +146,10 @@ class CategorySystemMultiDeviceMockMvcTest {
                 .andExpect(jsonPath("$[1].slug").value("motor-bloque"));
     }
 
+    private static CategoryTree.Node node(Category c, Long parentId, int depth) {
+        return new CategoryTree.Node(c.getId(), parentId, c.getName(), c.getSlug(), true, 0, depth, depth, depth + 1, 0L);
+    }
+
     private static Category sampleCategory(long id, String name, String slug) {
         Category c = new Category();
         c.setId(id);
@@ -4,6 +4,7 @@ import com.recicar.marketplace.config.MvcSliceTestConfig;
 import com.recicar.marketplace.entity.Category;
 import com.recicar.marketplace.entity.Product;
 import com.recicar.marketplace.service.CategoryService;
+import com.recicar.marketplace.service.CategoryTree;
 import com.recicar.marketplace.service.ProductService;
 import com.recicar.marketplace.web.ShopListingConstants;
 import com.recicar.marketplace.service.SearchFilterOptionsService;
@@ -110,7 +111,7 @@ class SearchControllerCategoryTest {
         when(productService.findByCategory(eq(category), any(PageRequest.class)))
                 .thenReturn(new PageImpl<>(Collections.singletonList(product)));
         when(categoryService.findRootCategories()).thenReturn(Collections.emptyList());
-        when(categoryService.getCategoryHierarchy(category)).thenReturn(List.of(category));
+        when(categoryService.getCategoryHierarchy(category)).thenReturn(List.of(node(category, null, 0)));
 
         mockMvc.perform(get("/search").param("category", "motor"))
                 .andExpect(status().isOk())
@@ -197,7 +198,8 @@ class SearchControllerCategoryTest {
         when(productService.findByCategory(eq(subcategory), any(PageRequest.class)))
                 .thenReturn(new PageImpl<>(Collections.singletonList(product)));
         when(categoryService.findRootCategories()).thenReturn(Collections.emptyList());
-        when(categoryService.getCategoryHierarchy(subcategory)).thenReturn(List.of(parentCategory, subcategory));
+        when(categoryService.getCategoryHierarchy(subcategory)).thenReturn(
+                List.of(node(parentCategory, null, 0), node(subcategory, 1L, 1)));
 
         // Execute & Verify
         mockMvc.perform(get("/search/category").param("slug", "motor"))
@@ -220,7 +222,6 @@ class SearchControllerCategoryTest {
         childCategory.setName("Motor");
         childCategory.setSlug("motor");
         childCategory.setParent(parentCategory);
-        parentCategory.setChildren(List.of(childCategory));
 
         Product product = new Product();
         product.setId(1L);
@@ -231,7 +232,8 @@ class SearchControllerCategoryTest {
         when(productService.findByCategoryIds(eq(List.of(1L, 2L)), any(PageRequest.class)))
                 .thenReturn(new PageImpl<>(Collections.singletonList(product)));
         when(categoryService.findRootCategories()).thenReturn(Collections.emptyList());
-        when(categoryService.getCategoryHierarchy(parentCategory)).thenReturn(List.of(parentCategory));
+        when(categoryService.findSubtreeIds(1L)).thenReturn(List.of(1L, 2L));
+        when(categoryService.getCategoryHierarchy(parentCategory)).thenReturn(List.of(node(parentCategory, null, 0)));
 
         mockMvc.perform(get("/search").param("category", "repuestos"))
                 .andExpect(status().isOk())
@@ -254,7 +256,7 @@ class SearchControllerCategoryTest {
         when(productService.findByCategory(eq(category), any(PageRequest.class)))
                 .thenReturn(new PageImpl<>(Collections.emptyList()));
         when(categoryService.findRootCategories()).thenReturn(Collections.emptyList());
-        when(categoryService.getCategoryHierarchy(category)).thenReturn(List.of(category));
+        when(categoryService.getCategoryHierarchy(category)).thenReturn(List.of(node(category, null, 0)));
 
         // Execute & Verify
         mockMvc.perform(get("/search/category").param("slug", "motor"))
@@ -263,4 +265,8 @@ class SearchControllerCategoryTest {
                 .andExpect(model().attributeExists("products"))
                 .andExpect(model().attribute("category", category));
     }
+
+    private static CategoryTree.Node node(Category c, Long parentId, int depth) {
+        return new CategoryTree.Node(c.getId(), parentId, c.getName(), c.getSlug(), true, 0, depth, depth, depth + 1, 0L);
+    }
 }
@@ -24,8 +24,11 @@ import java.util.List;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
 
@@ -74,5 +77,35 @@ class SearchControllerVehicleSearchTest {
                 .andExpect(status().isOk())
                 .andExpect(view().name("shop-list"));
     }
-}
 
+    @Test
+    void searchByMakeModelAndYear_withoutEngine_usesFitmentSearch() throws Exception {
+        Page<Product> page = new PageImpl<>(List.of(), PageRequest.of(0, ShopListingConstants.PAGE_SIZE), 0);
+        when(searchService.searchByVehicleCompatibility(eq("seat"), eq("leon"), isNull(), eq(2012), isNull(), any()))
+                .thenReturn(page);
+
+        mockMvc.perform(get("/search/vehicle")
+                        .param("make", "seat")
+                        .param("model", "leon")
+                        .param("year", "2012"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("shop-list"))
+                .andExpect(model().attribute("vehicleYear", 2012));
+    }
+
+    @Test
+    void searchByMakeModelAndYear_withPartName_filtersFitmentSearchByName() throws Exception {
+        Page<Product> page = new PageImpl<>(List.of(), PageRequest.of(0, ShopListingConstants.PAGE_SIZE), 0);
+        when(searchService.searchByVehicleCompatibility(eq("seat"), eq("leon"), isNull(), eq(2012), eq("faro"), any()))
+                .thenReturn(page);
+
+        mockMvc.perform(get("/search/vehicle")
+                        .param("make", "seat")
+                        .param("model", "leon")
+                        .param("year", "2012")
+                        .param("partName", "faro"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("shop-list"))
+                .andExpect(model().attribute("partName", "faro"));
+    }
+}
@@ -4,12 +4,22 @@ import com.recicar.marketplace.config.MvcSliceTestConfig;
 import com.recicar.marketplace.service.CategoryService;
 import com.recicar.marketplace.service.SitemapService;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
@@ -31,16 +41,45 @@ class SeoControllerTest {
 
     @Test
     void robotsTxtOk() throws Exception {
-        mockMvc.perform(get("/robots.txt"))
+        when(sitemapService.baseUrl()).thenReturn("https://recicar.example");
+
+        mockMvc.perform(get("/robots.txt").header("Host", "attacker.example"))
                 .andExpect(status().isOk())
-                .andExpect(content().string(org.hamcrest.Matchers.containsString("Sitemap:")));
+                .andExpect(content().string(org.hamcrest.Matchers.containsString(
+                        "Sitemap: https://recicar.example/sitemap.xml")));
     }
 
     @Test
     void sitemapXmlOk() throws Exception {
-        when(sitemapService.allPathsForSitemap()).thenReturn(java.util.List.of("/", "/blog/test"));
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("<sitemapindex><sitemap><loc>http://localhost/sitemaps/pages.xml.gz</loc></sitemap></sitemapindex>"
+                    .getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(sitemapService).writeIndex(any());
+
         mockMvc.perform(get("/sitemap.xml"))
                 .andExpect(status().isOk())
-                .andExpect(content().string(org.hamcrest.Matchers.containsString("<urlset")));
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_XML))
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("<sitemapindex")));
+    }
+
+    @Test
+    void sitemapShardServesCachedGzipFile(@TempDir Path dir) throws Exception {
+        Path file = Files.write(dir.resolve("products-0.xml.gz"), new byte[]{31, -117, 8});
+        when(sitemapService.shardFile("products-0")).thenReturn(Optional.of(file));
+
+        mockMvc.perform(get("/sitemaps/products-0.xml.gz"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/gzip"))
+                .andExpect(content().bytes(new byte[]{31, -117, 8}));
+    }
+
+    @Test
+    void unknownSitemapShardIsNotFound() throws Exception {
+        when(sitemapService.shardFile("products-9")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/sitemaps/products-9.xml.gz"))
+                .andExpect(status().isNotFound());
     }
 }
@@ -57,7 +57,9 @@ class VendorAnalyticsPageControllerWebMvcTest {
                         LocalDate.now(),
                         new BigDecimal("12.34"),
                         2,
-                        4
+                        4,
+                        5,
+                        1
                 ));
     }
 
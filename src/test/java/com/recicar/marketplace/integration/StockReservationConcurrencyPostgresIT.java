@@ -0,0 +1,240 @@
+package com.recicar.marketplace.integration;
+
+import com.recicar.marketplace.service.ProductService;
+import com.recicar.marketplace.service.StockReservationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hundreds of parallel checkouts racing for a used part with a handful of units in stock.
+ * Excluded from the default test run unless {@code -PincludeIntegration} (see {@code build.gradle});
+ * datasource selection as in {@link CategoryAndBrandSystemPostgresIT}.
+ */
+@Tag("integration")
+@SpringBootTest
+@ActiveProfiles("test")
+class StockReservationConcurrencyPostgresIT {
+
+    private static final int STOCK = 5;
+    private static final int CHECKOUTS = 300;
+    private static final int THREADS = 64;
+
+    private static final PostgreSQLContainer<?> EMBEDDED_POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("recicar_it")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void registerDatasource(DynamicPropertyRegistry registry) {
+        String url = Stream.of(System.getenv("SPRING_DATASOURCE_URL"), System.getenv("TEST_DATABASE_URL"))
+                .filter(u -> u != null && u.startsWith("jdbc:postgresql:"))
+                .findFirst()
+                .orElse(null);
+        if (url != null) {
+            registry.add("spring.datasource.url", () -> url);
+            registry.add("spring.datasource.username", () -> env("SPRING_DATASOURCE_USERNAME", "TEST_DATABASE_USERNAME"));
+            registry.add("spring.datasource.password", () -> env("SPRING_DATASOURCE_PASSWORD", "TEST_DATABASE_PASSWORD"));
+        } else {
+            EMBEDDED_POSTGRES.start();
+            registry.add("spring.datasource.url", EMBEDDED_POSTGRES::getJdbcUrl);
+            registry.add("spring.datasource.username", EMBEDDED_POSTGRES::getUsername);
+            registry.add("spring.datasource.password", EMBEDDED_POSTGRES::getPassword);
+        }
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> String.valueOf(THREADS));
+    }
+
+    private static String env(String first, String second) {
+        return Optional.ofNullable(Optional.ofNullable(System.getenv(first)).orElse(System.getenv(second))).orElse("test");
+    }
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String runId = UUID.randomUUID().toString().substring(0, 8);
+    private final List<Long> productIds = new ArrayList<>();
+    private Long productId;
+    private List<Long> customerIds;
+
+    @BeforeEach
+    void setUp() {
+        productId = insertProduct("Caja de cambios", STOCK);
+        customerIds = new ArrayList<>(CHECKOUTS);
+        for (int i = 0; i < CHECKOUTS; i++) {
+            customerIds.add(jdbcTemplate.queryForObject("""
+                    INSERT INTO users (email, password_hash, first_name, last_name, role)
+                    VALUES (?, 'x', 'Stress', 'Buyer', 'CUSTOMER')
+                    RETURNING id
+                    """, Long.class, "stress-" + runId + "-" + i + "@example.com"));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (Long id : productIds) {
+            jdbcTemplate.update("DELETE FROM stock_reservations WHERE product_id = ?", id);
+            jdbcTemplate.update("DELETE FROM products WHERE id = ?", id);
+        }
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE ?", "stress-" + runId + "-%");
+    }
+
+    @Test
+    void parallelCheckoutsNeverHoldMoreThanTheStock() throws Exception {
+        int held = race(customerId -> stockReservationService.hold(customerId, Map.of(productId, 1)));
+
+        assertThat(held).isEqualTo(STOCK);
+        assertThat(stock()).isZero();
+        assertThat(heldUnits()).isEqualTo(STOCK);
+    }
+
+    @Test
+    void checkoutsListingTheSamePartsInOppositeOrderDoNotDeadlock() throws Exception {
+        Long first = insertProduct("Faro", CHECKOUTS);
+        Long second = insertProduct("Piloto", CHECKOUTS);
+        List<Long> forward = customerIds.subList(0, CHECKOUTS / 2);
+
+        int held = race(customerId -> stockReservationService.hold(customerId, forward.contains(customerId)
+                ? orderedQuantities(first, second)
+                : orderedQuantities(second, first)));
+
+        assertThat(held).isEqualTo(CHECKOUTS);
+        assertThat(stock(first)).isZero();
+        assertThat(stock(second)).isZero();
+    }
+
+    @Test
+    void parallelOrdersSellEachUnitOnce() throws Exception {
+        int sold = race(customerId -> stockReservationService.commit(customerId, Map.of(productId, 1)));
+
+        assertThat(sold).isEqualTo(STOCK);
+        assertThat(stock()).isZero();
+    }
+
+    @Test
+    void expiredHoldsGoBackToStock() throws Exception {
+        race(customerId -> stockReservationService.hold(customerId, Map.of(productId, 1)));
+        jdbcTemplate.update("UPDATE stock_reservations SET expires_at = CURRENT_TIMESTAMP - INTERVAL '1 minute' " +
+                "WHERE product_id = ?", productId);
+
+        assertThat(stockReservationService.releaseExpired()).isEqualTo(STOCK);
+
+        assertThat(stock()).isEqualTo(STOCK);
+        assertThat(heldUnits()).isZero();
+    }
+
+    @Test
+    void parallelDirectDecrementsStopAtZero() throws Exception {
+        int decremented = race(customerId -> productService.decreaseStock(productId, 1));
+
+        assertThat(decremented).isEqualTo(STOCK);
+        assertThat(stock()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT active FROM products WHERE id = ?", Boolean.class, productId))
+                .isFalse();
+    }
+
+    /**
+     * Runs one attempt per customer, all released at once.
+     *
+     * @return number of attempts that succeeded
+     */
+    private int race(CustomerAttempt attempt) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>(CHECKOUTS);
+            for (Long customerId : customerIds) {
+                Callable<Boolean> task = () -> {
+                    start.await();
+                    try {
+                        attempt.run(customerId);
+                        return true;
+                    } catch (RuntimeException e) {
+                        return false;
+                    }
+                };
+                results.add(executor.submit(task));
+            }
+            start.countDown();
+            int succeeded = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    succeeded++;
+                }
+            }
+            return succeeded;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Long insertProduct(String name, int stock) {
+        Long id = jdbcTemplate.queryForObject("""
+                INSERT INTO products (name, part_number, price, stock_quantity, condition, active, category_id, vendor_id)
+                SELECT ? || ' stress ' || ?, 'STRESS-' || ? || '-' || ?, 450.00, ?, 'USED', true, category_id, vendor_id
+                FROM products ORDER BY id LIMIT 1
+                RETURNING id
+                """, Long.class, name, runId, runId, productIds.size(), stock);
+        productIds.add(id);
+        return id;
+    }
+
+    /**
+     * One unit of each product, in the order given, as a cart would list them.
+     */
+    private static Map<Long, Integer> orderedQuantities(Long... productIds) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (Long id : productIds) {
+            quantities.put(id, 1);
+        }
+        return quantities;
+    }
+
+    private int stock() {
+        return stock(productId);
+    }
+
+    private int stock(Long id) {
+        return jdbcTemplate.queryForObject("SELECT stock_quantity FROM products WHERE id = ?", Integer.class, id);
+    }
+
+    private int heldUnits() {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(quantity), 0) FROM stock_reservations " +
+                "WHERE product_id = ? AND status = 'HELD'", Integer.class, productId);
+    }
+
+    @FunctionalInterface
+    private interface CustomerAttempt {
+        void run(Long customerId);
+    }
+}
@@ -0,0 +1,90 @@
+package com.recicar.marketplace.security;
+
+import com.recicar.marketplace.entity.User;
+import com.recicar.marketplace.service.CustomUserDetailsService.CustomUserPrincipal;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SessionAuthVersionFilterTest {
+
+    @Mock
+    private AuthVersionCache authVersionCache;
+
+    @Mock
+    private FilterChain chain;
+
+    private SessionAuthVersionFilter filter;
+    private MockHttpSession session;
+    private MockHttpServletRequest request;
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @BeforeEach
+    void setUp() {
+        filter = new SessionAuthVersionFilter(authVersionCache);
+        User user = new User();
+        user.setId(7L);
+        CustomUserPrincipal principal = new CustomUserPrincipal(user, List.of("CUSTOMER"));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        session = new MockHttpSession();
+        request = new MockHttpServletRequest("GET", "/mini-cart");
+        request.setSession(session);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void matchingStampPassesWithoutTouchingTheSession() throws Exception {
+        session.setAttribute(SessionAuthVersionFilter.SESSION_AUTH_VERSION_ATTR, 3L);
+        when(authVersionCache.authVersion(7L)).thenReturn(3L);
+
+        filter.doFilter(request, response, chain);
+
+        verify(chain).doFilter(request, response);
+        assertThat(session.isInvalid()).isFalse();
+    }
+
+    @Test
+    void bumpedVersionEndsTheSession() throws Exception {
+        session.setAttribute(SessionAuthVersionFilter.SESSION_AUTH_VERSION_ATTR, 3L);
+        when(authVersionCache.authVersion(7L)).thenReturn(4L);
+
+        filter.doFilter(request, response, chain);
+
+        verify(chain, never()).doFilter(request, response);
+        assertThat(session.isInvalid()).isTrue();
+        assertThat(response.getRedirectedUrl()).isEqualTo("/login?session=expired");
+    }
+
+    @Test
+    void deletedUserGetsUnauthorizedOnTheApi() throws Exception {
+        request.setRequestURI("/api/v1/cart");
+        when(authVersionCache.authVersion(7L)).thenReturn(AuthVersionCache.MISSING);
+
+        filter.doFilter(request, response, chain);
+
+        verify(chain, never()).doFilter(request, response);
+        assertThat(response.getStatus()).isEqualTo(401);
+    }
+}
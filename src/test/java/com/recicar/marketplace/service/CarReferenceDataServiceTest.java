@@ -0,0 +1,47 @@
+package com.recicar.marketplace.service;
+
+import com.recicar.marketplace.dto.CarReferenceRow;
+import com.recicar.marketplace.repository.CarReferenceJdbcRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CarReferenceDataServiceTest {
+
+    @Mock
+    private CarReferenceJdbcRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void firstUseReadsAllTablesInOneRepeatableReadTransaction() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(repository.findMakes()).thenReturn(List.of(new CarReferenceRow(1L, null, "Seat")));
+        when(repository.findModels()).thenReturn(List.of(new CarReferenceRow(10L, 1L, "Ibiza")));
+        when(repository.findTrims()).thenReturn(List.of());
+        CarReferenceDataService service = new CarReferenceDataService(repository, transactionManager);
+
+        CarReferenceData data = service.current();
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertThat(definition.getValue().isReadOnly()).isTrue();
+        assertThat(definition.getValue().getIsolationLevel()).isEqualTo(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        assertThat(data.makeCount()).isEqualTo(1);
+        assertThat(service.current()).isSameAs(data);
+    }
+}
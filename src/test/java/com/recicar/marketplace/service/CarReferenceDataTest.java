@@ -0,0 +1,89 @@
+package com.recicar.marketplace.service;
+
+import com.recicar.marketplace.dto.CarReferenceRow;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CarReferenceDataTest {
+
+    private static final List<CarReferenceRow> MAKES = List.of(
+            new CarReferenceRow(2L, null, "Audi"),
+            new CarReferenceRow(1L, null, "Seat")
+    );
+
+    private static final List<CarReferenceRow> MODELS = List.of(
+            new CarReferenceRow(10L, 1L, "Ibiza"),
+            new CarReferenceRow(11L, 1L, "Leon"),
+            new CarReferenceRow(20L, 2L, "A3")
+    );
+
+    private static final List<CarReferenceRow> TRIMS = List.of(
+            new CarReferenceRow(100L, 11L, "FR"),
+            new CarReferenceRow(101L, 11L, "Cupra \"R\"")
+    );
+
+    @Test
+    void servesEachListAsJsonInDisplayOrder() {
+        CarReferenceData data = CarReferenceData.build(MAKES, MODELS, TRIMS);
+
+        assertThat(text(data.makes().body())).isEqualTo("[{\"id\":2,\"name\":\"Audi\"},{\"id\":1,\"name\":\"Seat\"}]");
+        assertThat(text(data.models(1L).body()))
+                .isEqualTo("[{\"id\":10,\"name\":\"Ibiza\"},{\"id\":11,\"name\":\"Leon\"}]");
+        assertThat(text(data.trims(11L).body()))
+                .isEqualTo("[{\"id\":100,\"name\":\"FR\"},{\"id\":101,\"name\":\"Cupra \\\"R\\\"\"}]");
+        assertThat(data.makeCount()).isEqualTo(2);
+        assertThat(data.modelCount()).isEqualTo(3);
+        assertThat(data.trimCount()).isEqualTo(2);
+    }
+
+    @Test
+    void unknownParentsGetAnEmptyList() {
+        CarReferenceData data = CarReferenceData.build(MAKES, MODELS, TRIMS);
+
+        assertThat(text(data.models(99L).body())).isEqualTo("[]");
+        assertThat(text(data.trims(10L).body())).isEqualTo("[]");
+        assertThat(text(CarReferenceData.empty().makes().body())).isEqualTo("[]");
+    }
+
+    @Test
+    void etagsOnlyMoveWhenTheContentDoes() {
+        CarReferenceData first = CarReferenceData.build(MAKES, MODELS, TRIMS);
+        CarReferenceData same = CarReferenceData.build(MAKES, MODELS, TRIMS);
+        List<CarReferenceRow> renamed = List.of(MODELS.get(0), new CarReferenceRow(11L, 1L, "León"), MODELS.get(2));
+        CarReferenceData changed = CarReferenceData.build(MAKES, renamed, TRIMS);
+
+        assertThat(same.models(1L).etag()).isEqualTo(first.models(1L).etag());
+        assertThat(changed.models(1L).etag()).isNotEqualTo(first.models(1L).etag());
+        assertThat(changed.models(2L).etag()).isEqualTo(first.models(2L).etag());
+        assertThat(first.models(1L).etag(true)).isNotEqualTo(first.models(1L).etag(false));
+    }
+
+    @Test
+    void onlyListsWorthCompressingCarryAGzipBody() throws IOException {
+        List<CarReferenceRow> trims = new ArrayList<>();
+        for (long id = 1; id <= 200; id++) {
+            trims.add(new CarReferenceRow(id, 20L, "2.0 TDI 150 CV"));
+        }
+        CarReferenceData data = CarReferenceData.build(MAKES, MODELS, trims);
+
+        assertThat(data.makes().gzipBody()).isNull();
+        CarReferenceData.Json large = data.trims(20L);
+        assertThat(large.body().length).isGreaterThanOrEqualTo(CarReferenceData.GZIP_MIN_BYTES);
+        assertThat(large.gzipBody()).isNotNull().hasSizeLessThan(large.body().length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(large.gzipBody()))) {
+            assertThat(in.readAllBytes()).isEqualTo(large.body());
+        }
+    }
+
+    private static String text(byte[] body) {
+        return new String(body, StandardCharsets.UTF_8);
+    }
+}
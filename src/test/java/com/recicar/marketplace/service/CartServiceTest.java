@@ -41,6 +41,9 @@ class CartServiceTest {
     @Mock
     private CartPricingService cartPricingService;
 
+    @Mock
+    private StockReservationService stockReservationService;
+
     @InjectMocks
     private CartServiceImpl cartService;
 
@@ -1,5 +1,6 @@
 package com.recicar.marketplace.service;
 
+import com.recicar.marketplace.dto.CategoryTreeRow;
 import com.recicar.marketplace.entity.Category;
 import com.recicar.marketplace.repository.CategoryRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,6 +12,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -24,6 +26,9 @@ class CategoryServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private CategoryTreeService categoryTreeService;
+
     @InjectMocks
     private CategoryService categoryService;
 
@@ -247,38 +252,57 @@ class CategoryServiceTest {
     @Test
     void shouldGetCategoryHierarchy() {
         // Given
-        List<Category> hierarchy = Arrays.asList(parentCategory, childCategory);
+        when(categoryTreeService.current()).thenReturn(sampleTree());
 
         // When
-        List<Category> result = categoryService.getCategoryHierarchy(childCategory);
+        List<CategoryTree.Node> result = categoryService.getCategoryHierarchy(childCategory);
 
         // Then
-        assertThat(result).hasSize(2);
-        assertThat(result.get(0)).isEqualTo(parentCategory);
-        assertThat(result.get(1)).isEqualTo(childCategory);
+        assertThat(result).extracting(CategoryTree.Node::id).containsExactly(1L, 2L);
+        assertThat(result.get(1).slug()).isEqualTo("filters");
+        verifyNoInteractions(categoryRepository);
     }
 
     @Test
     void shouldGetCategoryHierarchyForRootCategory() {
         // Given
+        when(categoryTreeService.current()).thenReturn(sampleTree());
+
         // When
-        List<Category> result = categoryService.getCategoryHierarchy(parentCategory);
+        List<CategoryTree.Node> result = categoryService.getCategoryHierarchy(parentCategory);
 
         // Then
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0)).isEqualTo(parentCategory);
+        assertThat(result).extracting(CategoryTree.Node::id).containsExactly(1L);
     }
 
     @Test
-    void shouldCountProductsInCategory() {
+    void shouldCountProductsInCategoryIncludingSubcategories() {
         // Given
-        when(categoryRepository.countProductsInCategory(1L)).thenReturn(5L);
+        when(categoryTreeService.current()).thenReturn(sampleTree());
 
         // When
         long result = categoryService.countProductsInCategory(1L);
 
         // Then
         assertThat(result).isEqualTo(5L);
-        verify(categoryRepository).countProductsInCategory(1L);
+        verifyNoInteractions(categoryRepository);
+    }
+
+    @Test
+    void shouldFindSubtreeIdsAndHierarchyBySlug() {
+        // Given
+        when(categoryTreeService.current()).thenReturn(sampleTree());
+
+        // When / Then
+        assertThat(categoryService.findSubtreeIds(1L)).containsExactly(1L, 2L, 3L);
+        assertThat(categoryService.findHierarchyBySlug("oil-filters")).containsExactly(3L, 2L, 1L);
+    }
+
+    private static CategoryTree sampleTree() {
+        return CategoryTree.build(List.of(
+                new CategoryTreeRow(1L, null, "Engine Parts", "engine-parts", true, 1),
+                new CategoryTreeRow(2L, 1L, "Filters", "filters", true, 1),
+                new CategoryTreeRow(3L, 2L, "Oil Filters", "oil-filters", true, 1)
+        ), Map.of(1L, 2L, 3L, 3L));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,83 @@
+package com.recicar.marketplace.service;
+
+import com.recicar.marketplace.dto.CategoryTreeRow;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CategoryTreeTest {
+
+    /*
+     * 1 Motor            (sort 2)
+     *   3 Filtros
+     *     5 Aceite
+     *   4 Culata         (inactive)
+     * 2 Carroceria       (sort 1)
+     *   6 Puertas
+     */
+    private static final List<CategoryTreeRow> ROWS = List.of(
+            new CategoryTreeRow(5L, 3L, "Aceite", "aceite", true, 0),
+            new CategoryTreeRow(1L, null, "Motor", "motor", true, 2),
+            new CategoryTreeRow(4L, 1L, "Culata", "culata", false, 2),
+            new CategoryTreeRow(3L, 1L, "Filtros", "filtros", true, 1),
+            new CategoryTreeRow(2L, null, "Carroceria", "carroceria", true, 1),
+            new CategoryTreeRow(6L, 2L, "Puertas", "puertas", true, 0)
+    );
+
+    @Test
+    void numbersNodesInPreOrderWithSubtreeRanges() {
+        CategoryTree tree = CategoryTree.build(ROWS, Map.of());
+
+        assertThat(tree.subtreeIds(2L)).containsExactly(2L, 6L);
+        assertThat(tree.subtreeIds(1L)).containsExactly(1L, 3L, 5L, 4L);
+        assertThat(tree.subtreeIds(5L)).containsExactly(5L);
+        assertThat(tree.isInSubtree(1L, 5L)).isTrue();
+        assertThat(tree.isInSubtree(1L, 6L)).isFalse();
+        assertThat(tree.isInSubtree(5L, 1L)).isFalse();
+        assertThat(tree.node(5L).orElseThrow().depth()).isEqualTo(2);
+    }
+
+    @Test
+    void breadcrumbRunsFromRootToCategory() {
+        CategoryTree tree = CategoryTree.build(ROWS, Map.of());
+
+        assertThat(tree.breadcrumb(5L)).extracting(CategoryTree.Node::slug)
+                .containsExactly("motor", "filtros", "aceite");
+        assertThat(tree.breadcrumb(99L)).isEmpty();
+    }
+
+    @Test
+    void rollsProductCountsUpToEveryAncestor() {
+        CategoryTree tree = CategoryTree.build(ROWS, Map.of(1L, 1L, 5L, 4L, 4L, 2L, 6L, 7L));
+
+        assertThat(tree.productCount(5L)).isEqualTo(4L);
+        assertThat(tree.productCount(3L)).isEqualTo(4L);
+        assertThat(tree.productCount(1L)).isEqualTo(7L);
+        assertThat(tree.productCount(2L)).isEqualTo(7L);
+        assertThat(tree.productCount(99L)).isZero();
+    }
+
+    @Test
+    void rootsAndChildrenSkipInactiveCategoriesInDisplayOrder() {
+        CategoryTree tree = CategoryTree.build(ROWS, Map.of());
+
+        assertThat(tree.roots()).extracting(CategoryTree.Node::id).containsExactly(2L, 1L);
+        assertThat(tree.children(1L)).extracting(CategoryTree.Node::id).containsExactly(3L);
+        assertThat(tree.node(1L).orElseThrow().hasChildren()).isTrue();
+    }
+
+    @Test
+    void parentCycleIsCutInsteadOfLoopingForever() {
+        CategoryTree tree = CategoryTree.build(List.of(
+                new CategoryTreeRow(1L, 2L, "A", "a", true, 0),
+                new CategoryTreeRow(2L, 1L, "B", "b", true, 0)
+        ), Map.of());
+
+        assertThat(tree.size()).isEqualTo(2);
+        assertThat(tree.subtreeIds(1L)).containsExactly(1L, 2L);
+        assertThat(tree.breadcrumb(2L)).extracting(CategoryTree.Node::id).containsExactly(1L, 2L);
+    }
+}
@@ -0,0 +1,139 @@
+package com.recicar.marketplace.service;
+
+import com.recicar.marketplace.dto.HomePageContent;
+import com.recicar.marketplace.dto.HomeRailProduct;
+import com.recicar.marketplace.dto.ProductCursor;
+import com.recicar.marketplace.dto.ProductSnapshot;
+import com.recicar.marketplace.entity.Category;
+import com.recicar.marketplace.entity.Product;
+import com.recicar.marketplace.entity.ProductCondition;
+import com.recicar.marketplace.event.ProductChangedEvent;
+import com.recicar.marketplace.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HomePageContentServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private HomePageContentService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new HomePageContentService(productRepository);
+    }
+
+    @Test
+    void buildsRailsFromOneProductLoad() {
+        when(productRepository.findLatestActiveCursors(any(Pageable.class))).thenReturn(cursors(5L, 4L, 3L));
+        when(productRepository.findActiveIdsByNameOrPartNumber(anyString(), any(Pageable.class))).thenReturn(List.of());
+        when(productRepository.findActiveIdsByNameOrPartNumber(eq("controller"), any(Pageable.class))).thenReturn(List.of(1L));
+        when(productRepository.findActiveIdsByNameOrPartNumber(eq("driver"), any(Pageable.class))).thenReturn(List.of(2L, 4L));
+        when(productRepository.findImageUrlsByProductIdIn(anyCollection())).thenReturn(List.of(
+                new Object[]{1L, "/img/1-primary.jpg"},
+                new Object[]{1L, "/img/1-other.jpg"}
+        ));
+        when(productRepository.findWithCategoryByIdIn(anyCollection()))
+                .thenReturn(List.of(product(1L), product(2L), product(3L), product(4L), product(5L)));
+
+        HomePageContent content = service.refresh();
+
+        assertThat(content.latest()).extracting(HomeRailProduct::id).containsExactly(5L, 4L, 3L);
+        assertThat(content.bodyParts()).extracting(HomeRailProduct::id).containsExactly(1L, 5L, 4L, 3L);
+        assertThat(content.engineParts()).extracting(HomeRailProduct::id).containsExactly(2L, 4L, 5L, 3L);
+        assertThat(content.bodyParts().get(0)).satisfies(rail -> {
+            assertThat(rail.categoryName()).isEqualTo("Carrocería");
+            assertThat(rail.primaryImageUrl()).isEqualTo("/img/1-primary.jpg");
+            assertThat(rail.secondaryImageUrl()).isEqualTo("/img/1-other.jpg");
+        });
+        verify(productRepository, times(1)).findWithCategoryByIdIn(anyCollection());
+    }
+
+    @Test
+    void servesTheSnapshotUntilAProductChanges() {
+        when(productRepository.findLatestActiveCursors(any(Pageable.class))).thenReturn(List.of());
+        HomePageContent built = service.current();
+        clearInvocations(productRepository);
+
+        assertThat(service.current()).isSameAs(built);
+        assertThat(service.refreshIfStale()).isFalse();
+        verifyNoInteractions(productRepository);
+
+        service.onProductChanged(new ProductChangedEvent(null, true));
+        assertThat(service.refreshIfStale()).isTrue();
+        assertThat(service.refreshIfStale()).isFalse();
+        assertThat(service.current()).isNotSameAs(built);
+    }
+
+    @Test
+    void ignoresChangesThatCannotMoveARail() {
+        List<ProductCursor> latest = new ArrayList<>();
+        for (long id = 100; id > 100 - HomePageContentService.LATEST_SIZE; id--) {
+            latest.add(new ProductCursor(CREATED.plusDays(id), id));
+        }
+        when(productRepository.findLatestActiveCursors(any(Pageable.class))).thenReturn(latest);
+        when(productRepository.findWithCategoryByIdIn(anyCollection())).thenReturn(List.of());
+        service.refresh();
+
+        service.onProductChanged(new ProductChangedEvent(snapshot(7L, "Faro delantero", CREATED, true), false));
+        service.onProductChanged(new ProductChangedEvent(snapshot(8L, "Faro trasero", CREATED, true), true));
+        assertThat(service.refreshIfStale()).isFalse();
+
+        service.onProductChanged(new ProductChangedEvent(snapshot(95L, "Faro delantero", CREATED, false), false));
+        assertThat(service.refreshIfStale()).isTrue();
+
+        service.onProductChanged(new ProductChangedEvent(snapshot(7L, "Engine mount", CREATED, true), false));
+        assertThat(service.refreshIfStale()).isTrue();
+
+        service.onProductChanged(new ProductChangedEvent(snapshot(101L, "Faro", CREATED.plusDays(101), true), false));
+        assertThat(service.refreshIfStale()).isTrue();
+    }
+
+    private static List<ProductCursor> cursors(Long... ids) {
+        List<ProductCursor> cursors = new ArrayList<>();
+        for (Long id : ids) {
+            cursors.add(new ProductCursor(CREATED.plusDays(id), id));
+        }
+        return cursors;
+    }
+
+    private static ProductSnapshot snapshot(Long id, String name, LocalDateTime createdAt, boolean active) {
+        return new ProductSnapshot(id, name, "P-" + id, null, new BigDecimal("25.00"), ProductCondition.USED, 1,
+                active, 1L, 1L, createdAt);
+    }
+
+    private static Product product(Long id) {
+        Category category = new Category();
+        category.setName("Carrocería");
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Pieza " + id);
+        product.setPrice(new BigDecimal("25.00"));
+        product.setCategory(category);
+        return product;
+    }
+}
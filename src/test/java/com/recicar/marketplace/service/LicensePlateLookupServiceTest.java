@@ -0,0 +1,153 @@
+package com.recicar.marketplace.service;
+
+import com.recicar.marketplace.client.VehicleApiClient;
+import com.recicar.marketplace.dto.PlateLookupResult;
+import com.recicar.marketplace.dto.PlateLookupResult.Status;
+import com.recicar.marketplace.dto.VehicleInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LicensePlateLookupServiceTest {
+
+    @Mock
+    private VehicleApiClient vehicleApiClient;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private LicensePlateLookupService service;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    private LicensePlateLookupService service(int maxConcurrent, Duration timeout) {
+        service = new LicensePlateLookupService(vehicleApiClient, Duration.ofHours(1), Duration.ofMinutes(1),
+                1000, maxConcurrent, timeout);
+        return service;
+    }
+
+    private static VehicleInfo vehicle(String make) {
+        VehicleInfo info = new VehicleInfo();
+        info.setMake(make);
+        info.setModel("Ibiza");
+        info.setYear(2019);
+        return info;
+    }
+
+    private VehicleInfo blockUntilReleased(String make) throws InterruptedException {
+        release.await(5, TimeUnit.SECONDS);
+        return vehicle(make);
+    }
+
+    /**
+     * Completions land on other threads; give them a moment to reach the cache.
+     */
+    private static boolean awaitFound(LicensePlateLookupService lookups, String plate) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            if (lookups.lookup(plate).status() == Status.FOUND) {
+                return true;
+            }
+            Thread.sleep(20);
+        }
+        return false;
+    }
+
+    @Test
+    void cachesFoundAndUnknownPlatesUnderTheirNormalizedForm() {
+        when(vehicleApiClient.lookupLicensePlate("1234ABC")).thenReturn(vehicle("Seat"));
+        LicensePlateLookupService lookups = service(4, Duration.ofSeconds(5));
+
+        PlateLookupResult first = lookups.lookup("1234 abc");
+        PlateLookupResult second = lookups.lookup("1234-ABC");
+        PlateLookupResult unknown = lookups.lookup("9999ZZZ");
+        lookups.lookup("9999 zzz");
+
+        assertThat(first.status()).isEqualTo(Status.FOUND);
+        assertThat(first.vehicle().getMake()).isEqualTo("Seat");
+        assertThat(second.vehicle()).isSameAs(first.vehicle());
+        assertThat(unknown.status()).isEqualTo(Status.NOT_FOUND);
+        verify(vehicleApiClient, times(1)).lookupLicensePlate("1234ABC");
+        verify(vehicleApiClient, times(1)).lookupLicensePlate("9999ZZZ");
+    }
+
+    @Test
+    void rejectsInputThatCannotBeAPlateWithoutCallingTheRegistry() {
+        LicensePlateLookupService lookups = service(4, Duration.ofSeconds(5));
+
+        assertThat(lookups.lookup("<script>").status()).isEqualTo(Status.NOT_FOUND);
+        assertThat(lookups.lookup("A").status()).isEqualTo(Status.NOT_FOUND);
+        verify(vehicleApiClient, never()).lookupLicensePlate(anyString());
+    }
+
+    @Test
+    void concurrentLookupsOfOnePlateShareOneRegistryCall() throws Exception {
+        when(vehicleApiClient.lookupLicensePlate("1234ABC")).thenAnswer(invocation -> blockUntilReleased("Seat"));
+        LicensePlateLookupService lookups = service(4, Duration.ofSeconds(5));
+
+        CompletableFuture<PlateLookupResult> first = lookups.lookupAsync("1234ABC");
+        CompletableFuture<PlateLookupResult> second = lookups.lookupAsync("1234 ABC");
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).status()).isEqualTo(Status.FOUND);
+        assertThat(second.get(5, TimeUnit.SECONDS).status()).isEqualTo(Status.FOUND);
+        verify(vehicleApiClient, times(1)).lookupLicensePlate("1234ABC");
+    }
+
+    @Test
+    void failsFastOnceTheRegistryCallsAreAtCapacity() throws Exception {
+        when(vehicleApiClient.lookupLicensePlate("1234ABC")).thenAnswer(invocation -> blockUntilReleased("Seat"));
+        LicensePlateLookupService lookups = service(1, Duration.ofSeconds(5));
+
+        CompletableFuture<PlateLookupResult> busy = lookups.lookupAsync("1234ABC");
+        PlateLookupResult rejected = lookups.lookup("5678DEF");
+        release.countDown();
+
+        assertThat(rejected.status()).isEqualTo(Status.UNAVAILABLE);
+        assertThat(busy.get(5, TimeUnit.SECONDS).status()).isEqualTo(Status.FOUND);
+        verify(vehicleApiClient, never()).lookupLicensePlate("5678DEF");
+    }
+
+    @Test
+    void slowCallsTimeOutForTheCallerButStillFillTheCache() throws Exception {
+        when(vehicleApiClient.lookupLicensePlate("1234ABC")).thenAnswer(invocation -> blockUntilReleased("Seat"));
+        LicensePlateLookupService lookups = service(4, Duration.ofMillis(50));
+
+        assertThat(lookups.lookup("1234ABC").status()).isEqualTo(Status.UNAVAILABLE);
+        release.countDown();
+
+        assertThat(awaitFound(lookups, "1234ABC")).isTrue();
+        verify(vehicleApiClient, times(1)).lookupLicensePlate("1234ABC");
+    }
+
+    @Test
+    void registryFailuresAreNotCached() throws Exception {
+        when(vehicleApiClient.lookupLicensePlate("1234ABC"))
+                .thenThrow(new ResourceAccessException("connection refused"))
+                .thenReturn(vehicle("Seat"));
+        LicensePlateLookupService lookups = service(4, Duration.ofSeconds(5));
+
+        assertThat(lookups.lookup("1234ABC").status()).isEqualTo(Status.UNAVAILABLE);
+        assertThat(awaitFound(lookups, "1234ABC")).isTrue();
+        verify(vehicleApiClient, times(2)).lookupLicensePlate("1234ABC");
+    }
+}
@@ -23,6 +23,7 @@ import org.springframework.data.domain.PageRequest;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -30,7 +31,8 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -50,7 +52,7 @@ class OrderServiceTest {
     private PaymentService paymentService;
 
     @Mock
-    private NotificationService notificationService;
+    private OutboxService outboxService;
 
     @Mock
     private CartService cartService;
@@ -58,6 +60,9 @@ class OrderServiceTest {
     @Mock
     private CartPricingService cartPricingService;
 
+    @Mock
+    private StockReservationService stockReservationService;
+
     @InjectMocks
     private OrderServiceImpl orderService;
 
@@ -94,7 +99,7 @@ class OrderServiceTest {
     }
 
     @Test
-    void createOrder_usesComputedAmountsAndSendsConfirmation() {
+    void createOrder_usesComputedAmountsAndQueuesSideEffects() {
         User customer = new User();
         customer.setId(1L);
 
@@ -116,7 +121,6 @@ class OrderServiceTest {
                         new BigDecimal("104.67")));
         when(paymentService.processPayment(any(Order.class), eq("VISA"))).thenReturn(processedPayment);
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        doNothing().when(notificationService).sendOrderConfirmationEmail(any(Order.class));
 
         Order order = orderService.createOrder(orderRequest);
 
@@ -126,8 +130,9 @@ class OrderServiceTest {
         assertEquals(new BigDecimal("18.17"), order.getTaxAmount());
         assertEquals(new BigDecimal("10.00"), order.getShippingAmount());
         assertEquals(new BigDecimal("104.67"), order.getTotalAmount());
-        assertEquals(3, product.getStockQuantity());
-        verify(notificationService).sendOrderConfirmationEmail(order);
+        verify(stockReservationService).commit(1L, Map.of(100L, 1));
+        verify(productRepository, never()).save(any(Product.class));
+        verify(outboxService).enqueueOrderPlaced(order);
     }
 
     @Test
@@ -147,6 +152,23 @@ class OrderServiceTest {
         assertEquals("Cart has changed; please review your order.", error.getMessage());
     }
 
+    @Test
+    void createOrder_failsWhenStockCannotBeCommitted() {
+        User customer = new User();
+        customer.setId(1L);
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(customer));
+        doThrow(new RuntimeException("Not enough stock for product: Faro delantero"))
+                .when(stockReservationService).commit(1L, Map.of(100L, 1));
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> orderService.createOrder(orderRequest));
+
+        assertEquals("Not enough stock for product: Faro delantero", error.getMessage());
+        verify(paymentService, never()).processPayment(any(Order.class), any());
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(outboxService, never()).enqueueOrderPlaced(any(Order.class));
+    }
+
     @Test
     void findOrdersByCustomerId_delegatesToRepository() {
         PageRequest pg = PageRequest.of(1, 10);
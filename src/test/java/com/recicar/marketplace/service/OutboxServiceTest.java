@@ -0,0 +1,191 @@
+package com.recicar.marketplace.service;
+
+import com.recicar.marketplace.entity.Order;
+import com.recicar.marketplace.entity.OrderItem;
+import com.recicar.marketplace.entity.OutboxEvent;
+import com.recicar.marketplace.entity.OutboxEventStatus;
+import com.recicar.marketplace.entity.OutboxEventType;
+import com.recicar.marketplace.entity.Product;
+import com.recicar.marketplace.entity.Vendor;
+import com.recicar.marketplace.repository.OrderRepository;
+import com.recicar.marketplace.repository.OutboxEventRepository;
+import com.recicar.marketplace.repository.VendorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxServiceTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private VendorRepository vendorRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private AnalyticsService analyticsService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OutboxService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new OutboxService(outboxEventRepository, orderRepository, vendorRepository, notificationService,
+                analyticsService, transactionManager, Duration.ofMinutes(5), Duration.ofSeconds(10), Duration.ofMinutes(1), MAX_ATTEMPTS);
+    }
+
+    @Test
+    void queuesConfirmationOneNotificationPerVendorAndAnalytics() {
+        Order order = new Order();
+        order.setId(42L);
+        order.setItems(List.of(item(vendor(7L)), item(vendor(7L)), item(vendor(9L))));
+
+        service.enqueueOrderPlaced(order);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Iterable<OutboxEvent>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(outboxEventRepository).saveAll(captor.capture());
+        List<OutboxEvent> events = new ArrayList<>();
+        captor.getValue().forEach(events::add);
+        assertThat(events).extracting(OutboxEvent::getEventType).containsExactly(
+                OutboxEventType.ORDER_CONFIRMATION,
+                OutboxEventType.VENDOR_ORDER_NOTIFICATION,
+                OutboxEventType.VENDOR_ORDER_NOTIFICATION,
+                OutboxEventType.ORDER_ANALYTICS);
+        assertThat(events).extracting(OutboxEvent::getRecipientId).containsExactly(null, 7L, 9L, null);
+        assertThat(events).allSatisfy(event -> {
+            assertThat(event.getAggregateId()).isEqualTo(42L);
+            assertThat(event.getStatus()).isEqualTo(OutboxEventStatus.PENDING);
+        });
+    }
+
+    @Test
+    void claimingLeasesEventsAndCountsTheAttempt() {
+        OutboxEvent due = event(OutboxEventType.ORDER_CONFIRMATION, null);
+        when(outboxEventRepository.lockDue(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(due));
+
+        assertThat(service.claimDue(100)).containsExactly(due);
+
+        assertThat(due.getAttempts()).isEqualTo(1);
+        assertThat(due.getNextAttemptAt()).isAfter(LocalDateTime.now().plusMinutes(4));
+    }
+
+    @Test
+    void deliversVendorNotificationToTheRecipientVendor() {
+        Order order = new Order();
+        Vendor vendor = vendor(7L);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(orderRepository.findWithItemsById(42L)).thenReturn(Optional.of(order));
+        when(vendorRepository.findWithUserById(7L)).thenReturn(Optional.of(vendor));
+
+        service.deliver(event(OutboxEventType.VENDOR_ORDER_NOTIFICATION, 7L));
+
+        verify(notificationService).sendVendorOrderNotification(order, vendor);
+        verify(notificationService, never()).sendOrderConfirmationEmail(any());
+    }
+
+    @Test
+    void sendsOnlyAfterTheReadTransactionHasEnded() {
+        Order order = new Order();
+        SimpleTransactionStatus status = new SimpleTransactionStatus();
+        when(transactionManager.getTransaction(any())).thenReturn(status);
+        when(orderRepository.findWithItemsById(42L)).thenReturn(Optional.of(order));
+        doAnswer(invocation -> {
+            verify(transactionManager).commit(status);
+            return null;
+        }).when(notificationService).sendOrderConfirmationEmail(order);
+
+        service.deliver(event(OutboxEventType.ORDER_CONFIRMATION, null));
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertThat(definition.getValue().isReadOnly()).isTrue();
+        verify(notificationService).sendOrderConfirmationEmail(order);
+    }
+
+    @Test
+    void failsDeliveryOfAMissingOrder() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        assertThatThrownBy(() -> service.deliver(event(OutboxEventType.ORDER_ANALYTICS, null)))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Order not found: 42");
+        verify(analyticsService, never()).recordOrderPlaced(any());
+    }
+
+    @Test
+    void backsOffExponentiallyUpToTheMaximumDelay() {
+        assertThat(service.backoff(1)).isEqualTo(Duration.ofSeconds(10));
+        assertThat(service.backoff(2)).isEqualTo(Duration.ofSeconds(20));
+        assertThat(service.backoff(3)).isEqualTo(Duration.ofSeconds(40));
+        assertThat(service.backoff(4)).isEqualTo(Duration.ofMinutes(1));
+        assertThat(service.backoff(64)).isEqualTo(Duration.ofMinutes(1));
+    }
+
+    @Test
+    void retriesFailedDeliveriesUntilOutOfAttempts() {
+        OutboxEvent event = event(OutboxEventType.ORDER_CONFIRMATION, null);
+        when(outboxEventRepository.findById(1L)).thenReturn(Optional.of(event));
+
+        event.claim(LocalDateTime.now());
+        service.markFailed(1L, new RuntimeException("SMTP timeout"));
+        assertThat(event.getStatus()).isEqualTo(OutboxEventStatus.PENDING);
+        assertThat(event.getNextAttemptAt()).isAfter(LocalDateTime.now().plusSeconds(5));
+        assertThat(event.getLastError()).isEqualTo("SMTP timeout");
+
+        event.claim(LocalDateTime.now());
+        event.claim(LocalDateTime.now());
+        service.markFailed(1L, new RuntimeException("SMTP timeout"));
+        assertThat(event.getStatus()).isEqualTo(OutboxEventStatus.FAILED);
+    }
+
+    private static OutboxEvent event(OutboxEventType type, Long recipientId) {
+        return new OutboxEvent(type, 42L, recipientId, LocalDateTime.now());
+    }
+
+    private static OrderItem item(Vendor vendor) {
+        Product product = new Product();
+        product.setVendor(vendor);
+        OrderItem item = new OrderItem();
+        item.setProduct(product);
+        return item;
+    }
+
+    private static Vendor vendor(Long id) {
+        Vendor vendor = new Vendor();
+        vendor.setId(id);
+        return vendor;
+    }
+}
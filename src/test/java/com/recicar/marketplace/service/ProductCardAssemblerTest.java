@@ -0,0 +1,149 @@
+package com.recicar.marketplace.service;
+
+import com.recicar.marketplace.dto.ProductCardDto;
+import com.recicar.marketplace.dto.ProductCardRow;
+import com.recicar.marketplace.entity.Product;
+import com.recicar.marketplace.entity.ProductCondition;
+import com.recicar.marketplace.entity.ProductImage;
+import com.recicar.marketplace.entity.Vendor;
+import com.recicar.marketplace.entity.VendorRating;
+import com.recicar.marketplace.event.VendorRatingsRefreshedEvent;
+import com.recicar.marketplace.repository.ProductRepository;
+import com.recicar.marketplace.repository.VendorRatingRepository;
+import com.recicar.marketplace.repository.VendorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCardAssemblerTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private VendorRepository vendorRepository;
+
+    @Mock
+    private VendorRatingRepository vendorRatingRepository;
+
+    private SellerRatingCache sellerRatingCache;
+    private ProductCardAssembler assembler;
+
+    @BeforeEach
+    void setUp() {
+        sellerRatingCache = new SellerRatingCache(vendorRatingRepository, Duration.ofMinutes(5));
+        assembler = new ProductCardAssembler(productRepository, vendorRepository, sellerRatingCache);
+    }
+
+    @Test
+    void assemblesCardsInRequestedOrderWithThreeQueries() {
+        when(productRepository.findCardRowsByIdIn(List.of(3L, 1L, 2L, 9L))).thenReturn(List.of(
+                row(1L, 10L, "Desguace Norte", 5),
+                row(2L, 20L, "Desguace Sur", 0),
+                row(3L, 10L, "Desguace Norte", 1)
+        ));
+        when(productRepository.findImageUrlsByProductIdIn(Set.of(1L, 2L, 3L))).thenReturn(List.of(
+                new Object[]{1L, "/img/1-primary.jpg"},
+                new Object[]{1L, "/img/1-other.jpg"},
+                new Object[]{3L, "/img/3.jpg"}
+        ));
+        when(vendorRatingRepository.findAllById(anyIterable())).thenReturn(List.of(rating(10L, "4.50", true)));
+
+        List<ProductCardDto> cards = assembler.assemble(List.of(3L, 1L, 2L, 9L));
+
+        assertThat(cards).extracting(ProductCardDto::getId).containsExactly(3L, 1L, 2L);
+        assertThat(cards).extracting(ProductCardDto::getImageUrl)
+                .containsExactly("/img/3.jpg", "/img/1-primary.jpg", null);
+        assertThat(cards.get(1).getSellerRating()).isEqualByComparingTo("4.50");
+        assertThat(cards.get(1).isTopSeller()).isTrue();
+        assertThat(cards.get(2).getSellerRating()).isEqualByComparingTo("4.00");
+        assertThat(cards.get(2).isTopSeller()).isFalse();
+        assertThat(cards.get(2).isInStock()).isFalse();
+        assertThat(cards.get(0).getCondition()).isEqualTo("USED");
+        verify(vendorRatingRepository, times(1)).findAllById(anyIterable());
+    }
+
+    @Test
+    void buildsCardsFromLoadedProductsWithoutRereadingThem() {
+        Vendor vendor = new Vendor();
+        vendor.setId(10L);
+        vendor.setBusinessName("Desguace Norte");
+        Product withImage = product(1L, vendor, 2);
+        withImage.getImages().add(new ProductImage(withImage, "/img/1.jpg", null));
+        Product withoutImage = product(2L, vendor, 0);
+        when(vendorRatingRepository.findAllById(anyIterable())).thenReturn(List.of(rating(10L, "4.50", true)));
+
+        List<ProductCardDto> cards = assembler.assembleLoaded(List.of(withoutImage, withImage));
+
+        assertThat(cards).extracting(ProductCardDto::getId).containsExactly(2L, 1L);
+        assertThat(cards).extracting(ProductCardDto::getImageUrl).containsExactly(null, "/img/1.jpg");
+        assertThat(cards).extracting(ProductCardDto::getSellerName).containsOnly("Desguace Norte");
+        assertThat(cards.get(0).isInStock()).isFalse();
+        assertThat(cards.get(1).isTopSeller()).isTrue();
+        verify(productRepository, never()).findCardRowsByIdIn(anyCollection());
+        verify(productRepository, never()).findImageUrlsByProductIdIn(anyCollection());
+        verify(vendorRepository, never()).findBusinessNamesByIdIn(anyCollection());
+    }
+
+    @Test
+    void reusesCachedSellerRatingsUntilTheyAreRefreshed() {
+        when(productRepository.findCardRowsByIdIn(List.of(1L))).thenReturn(List.of(row(1L, 10L, "Desguace Norte", 1)));
+        when(vendorRatingRepository.findAllById(anyIterable())).thenReturn(List.of());
+
+        assembler.assemble(List.of(1L));
+        assembler.assemble(List.of(1L));
+        sellerRatingCache.onVendorRatingsRefreshed(new VendorRatingsRefreshedEvent(Set.of(10L), false));
+        assembler.assemble(List.of(1L));
+
+        verify(vendorRatingRepository, times(2)).findAllById(anyIterable());
+    }
+
+    @Test
+    void skipsQueriesForEmptyPages() {
+        assertThat(assembler.assemble(List.of())).isEmpty();
+
+        verify(productRepository, never()).findCardRowsByIdIn(anyCollection());
+        verify(vendorRatingRepository, never()).findAllById(anyIterable());
+    }
+
+    private static ProductCardRow row(Long id, Long vendorId, String seller, int stock) {
+        return new ProductCardRow(id, "Pieza " + id, "P-" + id, new BigDecimal("25.00"), ProductCondition.USED,
+                stock, vendorId, seller);
+    }
+
+    private static Product product(Long id, Vendor vendor, int stock) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Pieza " + id);
+        product.setPrice(new BigDecimal("25.00"));
+        product.setCondition(ProductCondition.USED);
+        product.setStockQuantity(stock);
+        product.setVendor(vendor);
+        return product;
+    }
+
+    private static VendorRating rating(Long vendorId, String value, boolean topSeller) {
+        VendorRating rating = new VendorRating(vendorId);
+        rating.setRating(new BigDecimal(value));
+        rating.setTopSeller(topSeller);
+        rating.setRefreshedAt(Instant.parse("2024-01-01T00:00:00Z"));
+        return rating;
+    }
+}
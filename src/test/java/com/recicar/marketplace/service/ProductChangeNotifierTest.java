@@ -0,0 +1,61 @@
+package com.recicar.marketplace.service;
+
+import com.recicar.marketplace.dto.ProductSnapshot;
+import com.recicar.marketplace.entity.ProductCondition;
+import com.recicar.marketplace.event.ProductChangedEvent;
+import com.recicar.marketplace.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductChangeNotifierTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private ProductChangeNotifier notifier;
+
+    @Test
+    void publishesOneEventPerChangedProduct() {
+        when(productRepository.findSnapshotsByIdIn(Set.of(3L, 7L))).thenReturn(List.of(snapshot(3L), snapshot(7L)));
+
+        notifier.productsChanged(Set.of(3L, 7L));
+
+        ArgumentCaptor<ProductChangedEvent> events = ArgumentCaptor.forClass(ProductChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertThat(events.getAllValues()).extracting(event -> event.product().id()).containsExactly(3L, 7L);
+        assertThat(events.getAllValues()).noneMatch(ProductChangedEvent::removed);
+    }
+
+    @Test
+    void skipsTheLookupWhenNothingChanged() {
+        notifier.productsChanged(List.of());
+
+        verifyNoInteractions(productRepository, eventPublisher);
+    }
+
+    private static ProductSnapshot snapshot(Long id) {
+        return new ProductSnapshot(id, "Pieza " + id, "P-" + id, null, new BigDecimal("25.00"), ProductCondition.USED, 1,
+                true, 1L, 1L, LocalDateTime.of(2024, 1, 1, 0, 0));
+    }
+}
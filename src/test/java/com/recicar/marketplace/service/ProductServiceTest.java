@@ -1,5 +1,8 @@
 package com.recicar.marketplace.service;
 
+import com.recicar.marketplace.dto.CursorPage;
+import com.recicar.marketplace.dto.ProductCardDto;
+import com.recicar.marketplace.dto.ProductCursor;
 import com.recicar.marketplace.dto.ProductRequest;
 import com.recicar.marketplace.entity.*;
 import com.recicar.marketplace.repository.ProductRepository;
@@ -8,6 +11,7 @@ import com.recicar.marketplace.repository.VendorRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -18,6 +22,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -40,6 +45,21 @@ class ProductServiceTest {
     @Mock
     private VendorRepository vendorRepository;
 
+    @Mock
+    private ProductCardAssembler productCardAssembler;
+
+    @Mock
+    private SellerRatingCache sellerRatingCache;
+
+    @Mock
+    private RelatedProductsService relatedProductsService;
+
+    @Mock
+    private StockReservationService stockReservationService;
+
+    @Mock
+    private ProductChangeNotifier productChangeNotifier;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -95,6 +115,51 @@ class ProductServiceTest {
         verify(productRepository).findByActiveTrue(pageable);
     }
 
+    @Test
+    void shouldPageListingCardsByCursorWithoutCounting() {
+        // Given
+        LocalDateTime newest = LocalDateTime.of(2024, 5, 1, 10, 0);
+        ProductCursor first = new ProductCursor(newest, 1L);
+        ProductCursor second = new ProductCursor(newest.minusDays(1), 2L);
+        when(productRepository.findActiveCursorsAfter(eq(ProductCursor.START.createdAt()), eq(Long.MAX_VALUE),
+                eq(PageRequest.of(0, 2)))).thenReturn(List.of(first, second));
+        ProductCardDto card = new ProductCardDto();
+        card.setId(1L);
+        when(productCardAssembler.assemble(List.of(1L))).thenReturn(List.of(card));
+
+        // When
+        CursorPage<ProductCardDto> result = productService.getProductCardsAfter(null, 1, false);
+
+        // Then
+        assertThat(result.content()).extracting(ProductCardDto::getId).containsExactly(1L);
+        assertThat(result.nextCursor()).isEqualTo(first.encode());
+        assertThat(result.totalElements()).isNull();
+        assertThat(ProductCursor.decode(result.nextCursor())).isEqualTo(first);
+        verify(productRepository, never()).countByActiveTrue();
+    }
+
+    @Test
+    void shouldBuildRelatedCardsFromPrecomputedNeighbours() {
+        // Given
+        ProductCardDto card = new ProductCardDto();
+        card.setId(2L);
+        when(relatedProductsService.findRelatedIds(1L)).thenReturn(List.of(2L));
+        when(productCardAssembler.assemble(List.of(2L))).thenReturn(List.of(card));
+
+        // When
+        List<ProductCardDto> result = productService.getRelatedProductCards(1L);
+
+        // Then
+        assertThat(result).containsExactly(card);
+        verify(productRepository, never()).findByActiveTrue(any(Pageable.class));
+    }
+
+    @Test
+    void shouldRejectMalformedListingCursor() {
+        assertThatThrownBy(() -> productService.getProductCardsAfter("not-a-cursor", 20, false))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     void shouldFindProductById() {
         // Given
@@ -223,29 +288,28 @@ class ProductServiceTest {
     @Test
     void shouldDeactivateProduct() {
         // Given
-        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
-        when(productRepository.save(testProduct)).thenReturn(testProduct);
+        when(productRepository.decrementStockIfAvailable(1L, 10)).thenReturn(1);
 
         // When
-        productService.decreaseStock(1L, testProduct.getStockQuantity());
+        productService.decreaseStock(1L, 10);
 
         // Then
-        assertThat(testProduct.isActive()).isFalse();
-        verify(productRepository).findById(1L);
-        verify(productRepository).save(testProduct);
+        verify(productRepository).deactivateIfSoldOut(1L);
+        verify(productRepository, never()).save(any());
     }
 
     @Test
     void shouldThrowExceptionWhenDeactivatingNonExistentProduct() {
         // Given
-        when(productRepository.findById(1L)).thenReturn(Optional.empty());
+        when(productRepository.decrementStockIfAvailable(1L, 1)).thenReturn(0);
+        when(productRepository.existsById(1L)).thenReturn(false);
 
         // When & Then
         assertThatThrownBy(() -> productService.decreaseStock(1L, 1))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessage("Product not found");
         
-        verify(productRepository).findById(1L);
+        verify(productRepository, never()).deactivateIfSoldOut(any());
         verify(productRepository, never()).save(any());
     }
 
@@ -264,51 +328,76 @@ class ProductServiceTest {
         verify(productRepository).save(testProduct);
     }
 
+    @Test
+    void shouldPublishSoldOutProductSoTheCatalogIndexesDropIt() {
+        when(productRepository.decrementStockIfAvailable(1L, 1)).thenReturn(1);
+
+        productService.decreaseStock(1L, 1);
+
+        InOrder changes = inOrder(productRepository, productChangeNotifier);
+        changes.verify(productRepository).deactivateIfSoldOut(1L);
+        changes.verify(productChangeNotifier).productsChanged(List.of(1L));
+    }
+
+    @Test
+    void shouldStoreStockNetOfOpenHolds() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(stockReservationService.heldQuantity(1L)).thenReturn(3);
+
+        productService.updateStock(1L, 20);
+
+        assertThat(testProduct.getStockQuantity()).isEqualTo(17);
+        verify(productRepository).save(testProduct);
+    }
+
+    @Test
+    void shouldReportStockOnHandIncludingOpenHolds() {
+        testProduct.setStockQuantity(17);
+        when(stockReservationService.heldQuantity(1L)).thenReturn(3);
+
+        assertThat(productService.getStockOnHand(testProduct)).isEqualTo(20);
+    }
+
     @Test
     void shouldDecreaseStock() {
         // Given
-        testProduct.setStockQuantity(10);
-        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
-        when(productRepository.save(testProduct)).thenReturn(testProduct);
+        when(productRepository.decrementStockIfAvailable(1L, 3)).thenReturn(1);
 
         // When
         productService.decreaseStock(1L, 3);
 
         // Then
-        assertThat(testProduct.getStockQuantity()).isEqualTo(7);
-        verify(productRepository).findById(1L);
-        verify(productRepository).save(testProduct);
+        verify(productRepository).decrementStockIfAvailable(1L, 3);
+        verify(productRepository, never()).findById(any());
+        verify(productRepository, never()).save(any());
     }
 
     @Test
     void shouldThrowExceptionWhenDecreasingStockBelowZero() {
         // Given
-        testProduct.setStockQuantity(5);
-        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(productRepository.decrementStockIfAvailable(1L, 10)).thenReturn(0);
+        when(productRepository.existsById(1L)).thenReturn(true);
 
         // When & Then
         assertThatThrownBy(() -> productService.decreaseStock(1L, 10))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessage("Insufficient stock");
         
-        verify(productRepository).findById(1L);
+        verify(productRepository, never()).deactivateIfSoldOut(any());
         verify(productRepository, never()).save(any());
     }
 
     @Test
     void shouldIncreaseStock() {
         // Given
-        testProduct.setStockQuantity(10);
-        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
-        when(productRepository.save(testProduct)).thenReturn(testProduct);
+        when(productRepository.incrementStock(1L, 5)).thenReturn(1);
 
         // When
         productService.increaseStock(1L, 5);
 
         // Then
-        assertThat(testProduct.getStockQuantity()).isEqualTo(15);
-        verify(productRepository).findById(1L);
-        verify(productRepository).save(testProduct);
+        verify(productRepository).incrementStock(1L, 5);
+        verify(productRepository, never()).save(any());
     }
 
     @Test
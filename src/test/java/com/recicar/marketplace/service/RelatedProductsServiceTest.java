@@ -0,0 +1,154 @@
+package com.recicar.marketplace.service;
+
+import com.recicar.marketplace.dto.ProductSnapshot;
+import com.recicar.marketplace.entity.ProductCondition;
+import com.recicar.marketplace.entity.ProductRelated;
+import com.recicar.marketplace.event.OrderItemCreatedEvent;
+import com.recicar.marketplace.event.ProductChangedEvent;
+import com.recicar.marketplace.repository.ProductRelatedRepository;
+import com.recicar.marketplace.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RelatedProductsServiceTest {
+
+    @Mock
+    private ProductRelatedRepository productRelatedRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private RelatedProductsService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new RelatedProductsService(productRelatedRepository, productRepository);
+    }
+
+    @Test
+    void ranksCandidatesBySummedSignalWeights() {
+        Map<Long, List<Long>> ranked = RelatedProductsService.rank(List.of(
+                candidate(1L, 10L, 3, 1),
+                candidate(1L, 11L, 3, 1),
+                candidate(1L, 11L, 4, 1),
+                candidate(1L, 12L, 1, 2),
+                candidate(1L, 13L, 2, 1),
+                candidate(2L, 10L, 4, 1)
+        ));
+
+        assertThat(ranked.get(1L)).containsExactly(12L, 13L, 11L, 10L);
+        assertThat(ranked.get(2L)).containsExactly(10L);
+    }
+
+    @Test
+    void keepsTheBestNeighboursOnly() {
+        List<Object[]> candidates = new ArrayList<>();
+        for (long id = 100; id < 120; id++) {
+            candidates.add(candidate(1L, id, 3, 1));
+        }
+
+        assertThat(RelatedProductsService.rank(candidates).get(1L))
+                .hasSize(RelatedProductsService.MAX_RELATED)
+                .startsWith(119L, 118L);
+    }
+
+    @Test
+    void readsStoredNeighboursWithOneLookup() {
+        ProductRelated stored = new ProductRelated(1L);
+        stored.setRelatedIds(List.of(5L, 3L, 4L, 6L, 7L, 8L, 9L, 10L));
+        when(productRelatedRepository.findById(1L)).thenReturn(Optional.of(stored));
+
+        assertThat(service.findRelatedIds(1L)).containsExactly(5L, 3L, 4L, 6L, 7L, 8L, 9L, 10L);
+        verify(productRelatedRepository, never()).findCandidates(anyCollection(), anyInt());
+        verify(productRepository, never()).findActiveIdsInSameCategory(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void topsUpShortNeighbourListsFromTheSameCategory() {
+        ProductRelated stored = new ProductRelated(1L);
+        stored.setRelatedIds(List.of(5L, 3L));
+        when(productRelatedRepository.findById(1L)).thenReturn(Optional.of(stored));
+        when(productRepository.findActiveIdsInSameCategory(eq(1L), any(Pageable.class)))
+                .thenReturn(List.of(3L, 20L, 19L, 18L, 17L, 16L, 15L, 14L));
+
+        assertThat(service.findRelatedIds(1L)).containsExactly(5L, 3L, 20L, 19L, 18L, 17L, 16L, 15L);
+        assertThat(service.refreshChanged()).isZero();
+    }
+
+    @Test
+    void servesTheCategoryFallbackForUnstoredProductsAndScoresThemOnRefresh() {
+        when(productRepository.findActiveIdsInSameCategory(eq(1L), any(Pageable.class))).thenReturn(List.of(4L));
+        when(productRelatedRepository.findCandidates(eq(List.of(1L)), anyInt()))
+                .thenReturn(List.<Object[]>of(candidate(1L, 7L, 3, 1)));
+        when(productRepository.findExistingIds(List.of(1L))).thenReturn(List.of(1L));
+
+        assertThat(service.findRelatedIds(1L)).containsExactly(4L);
+        verify(productRelatedRepository, never()).findCandidates(anyCollection(), anyInt());
+        assertThat(service.refreshChanged()).isEqualTo(1);
+
+        assertThat(savedRows()).singleElement().satisfies(row -> {
+            assertThat(row.getProductId()).isEqualTo(1L);
+            assertThat(row.getRelatedIds()).containsExactly(7L);
+            assertThat(row.isNew()).isTrue();
+        });
+    }
+
+    @Test
+    void rescoresProductsListingARetiredProduct() {
+        service.onProductChanged(new ProductChangedEvent(snapshot(9L, false), false));
+        service.onOrderItemCreated(new OrderItemCreatedEvent(100L, 4L));
+        when(productRelatedRepository.findProductIdsListingAny(List.of(9L))).thenReturn(List.of(2L, 4L));
+        when(productRepository.findExistingIds(anyCollection())).thenReturn(List.of(9L, 4L, 2L));
+        ProductRelated listing = new ProductRelated(2L);
+        listing.setRelatedIds(List.of(9L, 3L));
+        when(productRelatedRepository.findAllById(anyIterable())).thenReturn(List.of(listing));
+
+        assertThat(service.refreshChanged()).isEqualTo(3);
+
+        assertThat(savedRows()).extracting(ProductRelated::getProductId).containsExactly(9L, 4L, 2L);
+        assertThat(listing.getRelatedIds()).isEmpty();
+        assertThat(service.refreshChanged()).isZero();
+    }
+
+    private List<ProductRelated> savedRows() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Iterable<ProductRelated>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(productRelatedRepository).saveAll(captor.capture());
+        List<ProductRelated> rows = new ArrayList<>();
+        captor.getValue().forEach(rows::add);
+        return rows;
+    }
+
+    private static Object[] candidate(Long sourceId, Long candidateId, int signal, long strength) {
+        return new Object[]{sourceId, candidateId, signal, strength};
+    }
+
+    private static ProductSnapshot snapshot(Long id, boolean active) {
+        return new ProductSnapshot(id, "Pieza " + id, "P-" + id, null, new BigDecimal("10.00"),
+                ProductCondition.USED, 1, active, 1L, 1L, LocalDateTime.of(2024, 1, 1, 0, 0));
+    }
+}
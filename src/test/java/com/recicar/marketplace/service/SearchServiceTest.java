@@ -1,5 +1,9 @@
 package com.recicar.marketplace.service;
 
+import com.recicar.marketplace.dto.CursorPage;
+import com.recicar.marketplace.dto.FacetedPage;
+import com.recicar.marketplace.dto.ProductCursor;
+import com.recicar.marketplace.dto.SearchFacets;
 import com.recicar.marketplace.entity.Product;
 import com.recicar.marketplace.entity.Category;
 import com.recicar.marketplace.entity.ProductCondition;
@@ -10,6 +14,10 @@ import com.recicar.marketplace.repository.ProductRepository;
 import com.recicar.marketplace.repository.SavedSearchRepository;
 import com.recicar.marketplace.repository.SearchRepository;
 import com.recicar.marketplace.repository.UserRepository;
+import com.recicar.marketplace.service.search.ProductFacetIndex;
+import com.recicar.marketplace.service.search.ProductSearchIndex;
+import com.recicar.marketplace.service.search.SearchSuggestionIndex;
+import com.recicar.marketplace.service.search.VehicleFitmentIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -22,7 +30,9 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -48,6 +58,18 @@ class SearchServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private SearchSuggestionIndex searchSuggestionIndex;
+
+    @Mock
+    private ProductFacetIndex productFacetIndex;
+
+    @Mock
+    private VehicleFitmentIndex vehicleFitmentIndex;
+
     @InjectMocks
     private SearchService searchService;
 
@@ -174,11 +196,28 @@ class SearchServiceTest {
         verify(searchRepository).searchSimple(expectedTruncatedTerm, pageable);
     }
 
+    @Test
+    void searchProducts_WhenIndexAnswers_ShouldLoadIdsInIndexOrderWithoutSql() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Product second = new Product();
+        second.setId(2L);
+        second.setName("Brake disc");
+        when(productSearchIndex.search("brake", pageable))
+                .thenReturn(Optional.of(new PageImpl<>(List.of(2L, 1L), pageable, 2)));
+        when(productRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(testProduct, second));
+
+        Page<Product> result = searchService.searchProducts("brake", pageable);
+
+        assertEquals(List.of(second, testProduct), result.getContent());
+        assertEquals(2, result.getTotalElements());
+        verify(searchRepository, never()).searchSimple(anyString(), any(Pageable.class));
+    }
+
     @Test
     void searchByPartNumber_WithValidPartNumber_ShouldReturnResults() {
         // Arrange
         String partNumber = "TP001";
-        when(productRepository.findByPartNumberIgnoreCase(partNumber))
+        when(productRepository.findByPartNumberNormalizedAndActiveTrue(partNumber))
                 .thenReturn(List.of(testProduct));
 
         // Act
@@ -188,7 +227,7 @@ class SearchServiceTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(testProduct, result.get(0));
-        verify(productRepository).findByPartNumberIgnoreCase(partNumber);
+        verify(productRepository).findByPartNumberNormalizedAndActiveTrue(partNumber);
     }
 
     @Test
@@ -201,14 +240,14 @@ class SearchServiceTest {
             searchService.searchByPartNumber(partNumber);
         });
         
-        verify(productRepository, never()).findByPartNumberIgnoreCase(anyString());
+        verify(productRepository, never()).findByPartNumberNormalizedAndActiveTrue(anyString());
     }
 
     @Test
     void searchByOemNumber_WithValidOemNumber_ShouldReturnResults() {
         // Arrange
         String oemNumber = "OEM001";
-        when(productRepository.findByOemNumberIgnoreCase(oemNumber))
+        when(productRepository.findByOemNumberNormalizedAndActiveTrue(oemNumber))
                 .thenReturn(List.of(testProduct));
 
         // Act
@@ -218,7 +257,19 @@ class SearchServiceTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(testProduct, result.get(0));
-        verify(productRepository).findByOemNumberIgnoreCase(oemNumber);
+        verify(productRepository).findByOemNumberNormalizedAndActiveTrue(oemNumber);
+    }
+
+    @Test
+    void searchByOemNumber_IgnoresSeparatorsAndCaseUsingIndex() {
+        testProduct.setOemNumber("1K0-615-301 AA");
+        when(productSearchIndex.findByOemCode("1K0615301AA")).thenReturn(Optional.of(List.of(1L)));
+        when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(testProduct));
+
+        List<Product> result = searchService.searchByOemNumber("1k0615301aa");
+
+        assertEquals(List.of(testProduct), result);
+        verify(productRepository, never()).findByOemNumberNormalizedAndActiveTrue(anyString());
     }
 
     @Test
@@ -243,6 +294,32 @@ class SearchServiceTest {
         verify(productRepository).findByVehicleCompatibility(make, model, engine, year, pageable);
     }
 
+    @Test
+    void searchByVehicleCompatibility_WhenIndexBuilt_ShouldPageIndexedIdsWithoutJoinQuery() {
+        Pageable pageable = PageRequest.of(0, 1);
+        when(vehicleFitmentIndex.findProductIds("Toyota", "Camry", null, 2020)).thenReturn(Optional.of(List.of(1L, 7L)));
+        when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(testProduct));
+
+        Page<Product> result = searchService.searchByVehicleCompatibility("Toyota", "Camry", null, 2020, pageable);
+
+        assertEquals(List.of(testProduct), result.getContent());
+        assertEquals(2, result.getTotalElements());
+        verify(productRepository, never()).findByVehicleCompatibility(any(), any(), any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    void searchByVehicleCompatibility_WithPartName_ShouldFilterByNameInTheJoinQuery() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<Product> expectedPage = new PageImpl<>(List.of(testProduct), pageable, 1);
+        when(productRepository.findByVehicleCompatibilityAndPartName("Toyota", "Camry", null, 2020, "faro", pageable))
+                .thenReturn(expectedPage);
+
+        Page<Product> result = searchService.searchByVehicleCompatibility("Toyota", "Camry", " ", 2020, " faro ", pageable);
+
+        assertEquals(expectedPage, result);
+        verify(vehicleFitmentIndex, never()).findProductIds(any(), any(), any(), anyInt());
+    }
+
     @Test
     void searchByVehicleCompatibility_WithNullMake_ShouldThrowException() {
         // Arrange
@@ -358,6 +435,64 @@ class SearchServiceTest {
         verify(searchRepository).fetchSuggestions(partialTerm);
     }
 
+    @Test
+    void getSearchSuggestions_WhenIndexBuilt_ShouldNotQueryDatabase() {
+        when(searchSuggestionIndex.suggest("fre", 10))
+                .thenReturn(Optional.of(List.of("Freno de mano", "Frenos")));
+
+        List<String> result = searchService.getSearchSuggestions(" fre ");
+
+        assertEquals(List.of("Freno de mano", "Frenos"), result);
+        verify(searchRepository, never()).fetchSuggestions(anyString());
+    }
+
+    @Test
+    void searchAdvancedWithFacets_WhenIndexAnswers_ShouldReturnPageAndCountsWithoutSql() {
+        Pageable pageable = PageRequest.of(0, 12);
+        SearchFacets facets = new SearchFacets(Map.of("USED", 1L), Map.of("audi", 1L), Map.of(),
+                Map.of("50-100", 1L), Map.of("true", 1L, "false", 0L));
+        when(productFacetIndex.search(any(), eq(pageable))).thenReturn(Optional.of(
+                new ProductFacetIndex.Result(new PageImpl<>(List.of(1L), pageable, 1), facets)));
+        when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(testProduct));
+
+        FacetedPage<Product> result = searchService.searchAdvancedWithFacets(
+                null, "audi", null, null, "USED", null, null, null, pageable);
+
+        assertEquals(List.of(testProduct), result.page().getContent());
+        assertEquals(facets, result.facets());
+        verify(searchRepository, never()).searchAdvanced(any(), any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void searchAdvancedWithFacets_BeforeIndexIsBuilt_ShouldQueryDatabaseWithoutFacets() {
+        Pageable pageable = PageRequest.of(0, 12);
+        Page<Product> page = new PageImpl<>(List.of(testProduct), pageable, 1);
+        when(searchRepository.searchAdvanced(null, "audi", null, null, null, null, null, null, pageable))
+                .thenReturn(page);
+
+        FacetedPage<Product> result = searchService.searchAdvancedWithFacets(
+                null, "audi", null, null, null, null, null, null, pageable);
+
+        assertSame(page, result.page());
+        assertEquals(SearchFacets.empty(), result.facets());
+    }
+
+    @Test
+    void searchProductsAfter_BeforeIndexIsBuilt_ShouldSeekInDatabaseAndSkipCount() {
+        testProduct.setCreatedAt(LocalDateTime.of(2024, 5, 1, 10, 0));
+        Product older = new Product();
+        older.setId(2L);
+        when(searchRepository.searchSimpleAfter("brake", ProductCursor.START.createdAt(), Long.MAX_VALUE, 2))
+                .thenReturn(List.of(testProduct, older));
+
+        CursorPage<Product> result = searchService.searchProductsAfter("brake", null, 1, false);
+
+        assertEquals(List.of(testProduct), result.content());
+        assertEquals(new ProductCursor(testProduct.getCreatedAt(), 1L), ProductCursor.decode(result.nextCursor()));
+        assertNull(result.totalElements());
+        verify(searchRepository, never()).countSimple(anyString());
+    }
+
     @Test
     void getSearchSuggestions_WithShortPartialTerm_ShouldReturnEmptyList() {
         // Arrange
@@ -0,0 +1,153 @@
+package com.recicar.marketplace.service;
+
+import com.recicar.marketplace.dto.CategoryTreeRow;
+import com.recicar.marketplace.dto.SitemapUrl;
+import com.recicar.marketplace.repository.SitemapJdbcRepository;
+import com.recicar.marketplace.repository.SitemapJdbcRepository.ProductShardStamp;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SitemapServiceTest {
+
+    private static final String BASE = "https://recicar.example";
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2026, 3, 14, 9, 30, 15);
+
+    @Mock
+    private SitemapJdbcRepository sitemapJdbcRepository;
+
+    @Mock
+    private CategoryTreeService categoryTreeService;
+
+    @TempDir
+    Path cacheDir;
+
+    private SitemapService sitemapService;
+
+    @BeforeEach
+    void setUp() {
+        sitemapService = new SitemapService(sitemapJdbcRepository, categoryTreeService, cacheDir, 100, BASE);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubProducts(long... ids) {
+        doAnswer(invocation -> {
+            Consumer<SitemapUrl> consumer = invocation.getArgument(2);
+            for (long id : ids) {
+                consumer.accept(new SitemapUrl("/product-details?id=" + id, UPDATED));
+            }
+            return null;
+        }).when(sitemapJdbcRepository).streamProductShard(eq(1L), eq(100), any(Consumer.class));
+    }
+
+    @Test
+    void productShardIsWrittenOnceAndReusedWhileItsStampHolds() throws IOException {
+        ProductShardStamp stamp = new ProductShardStamp(1, 2, 250, UPDATED);
+        when(sitemapJdbcRepository.findProductShardStamp(1, 100)).thenReturn(stamp);
+        stubProducts(120, 130);
+
+        Path first = sitemapService.shardFile("products-1").orElseThrow();
+        Path second = sitemapService.shardFile("products-1").orElseThrow();
+
+        assertThat(second).isEqualTo(first);
+        assertThat(first.getParent()).isEqualTo(cacheDir);
+        verify(sitemapJdbcRepository, times(1)).streamProductShard(eq(1L), eq(100), any());
+        String xml = gunzip(first);
+        assertThat(xml).contains("<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">");
+        assertThat(xml).contains("<loc>https://recicar.example/product-details?id=120</loc>");
+        assertThat(xml).contains("<lastmod>2026-03-14T09:30:15");
+        assertThat(xml).contains("<loc>https://recicar.example/product-details?id=130</loc>");
+    }
+
+    @Test
+    void productShardIsRewrittenWhenItsStampMoves() throws IOException {
+        when(sitemapJdbcRepository.findProductShardStamp(1, 100)).thenReturn(
+                new ProductShardStamp(1, 1, 120, UPDATED),
+                new ProductShardStamp(1, 2, 250, UPDATED.plusMinutes(1)));
+        stubProducts(120);
+
+        sitemapService.shardFile("products-1");
+        sitemapService.shardFile("products-1");
+
+        verify(sitemapJdbcRepository, times(2)).streamProductShard(eq(1L), eq(100), any());
+    }
+
+    @Test
+    void emptyOrUnknownShardsAreNotServed() throws IOException {
+        when(sitemapJdbcRepository.findProductShardStamp(7, 100)).thenReturn(new ProductShardStamp(7, 0, 0, null));
+
+        assertThat(sitemapService.shardFile("products-7")).isEmpty();
+        assertThat(sitemapService.shardFile("../etc/passwd")).isEmpty();
+        verify(sitemapJdbcRepository, never()).streamProductShard(eq(7L), eq(100), any());
+    }
+
+    @Test
+    void categoryShardListsActiveCategoriesOnly() throws IOException {
+        when(categoryTreeService.current()).thenReturn(CategoryTree.build(List.of(
+                new CategoryTreeRow(1L, null, "Motor", "motor", true, 0),
+                new CategoryTreeRow(2L, 1L, "Culata", "culata", false, 0),
+                new CategoryTreeRow(3L, 1L, "Filtros & juntas", "filtros-juntas", true, 1)
+        ), Map.of()));
+
+        String xml = gunzip(sitemapService.shardFile("categories").orElseThrow());
+
+        assertThat(xml).contains("https://recicar.example/categories/view/motor</loc>");
+        assertThat(xml).contains("https://recicar.example/categories/view/filtros-juntas</loc>");
+        assertThat(xml).doesNotContain("culata");
+    }
+
+    @Test
+    void indexListsFixedShardsAndNonEmptyProductRanges() throws IOException {
+        when(sitemapJdbcRepository.findPublishedBlogPosts())
+                .thenReturn(List.of(new SitemapUrl("/blog/como-elegir-pastillas", UPDATED)));
+        when(categoryTreeService.current()).thenReturn(CategoryTree.empty());
+        when(sitemapJdbcRepository.findBrands()).thenReturn(List.of(new SitemapUrl("/marcas/seat", null)));
+        when(sitemapJdbcRepository.findProductShardStamps(100)).thenReturn(List.of(
+                new ProductShardStamp(0, 40, 1200, UPDATED), new ProductShardStamp(3, 2, 640, UPDATED)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        sitemapService.writeIndex(out);
+
+        String xml = out.toString(StandardCharsets.UTF_8);
+        assertThat(xml).contains("<sitemapindex xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">");
+        assertThat(xml).contains(
+                "<loc>https://recicar.example/sitemaps/pages.xml.gz</loc>",
+                "<loc>https://recicar.example/sitemaps/categories.xml.gz</loc>",
+                "<loc>https://recicar.example/sitemaps/brands.xml.gz</loc>",
+                "<loc>https://recicar.example/sitemaps/products-0.xml.gz</loc>",
+                "<loc>https://recicar.example/sitemaps/products-3.xml.gz</loc>");
+        assertThat(xml).doesNotContain("products-1.xml.gz");
+        assertThat(xml).endsWith("</sitemapindex>");
+    }
+
+    private static String gunzip(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
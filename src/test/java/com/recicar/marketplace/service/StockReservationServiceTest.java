@@ -0,0 +1,177 @@
+package com.recicar.marketplace.service;
+
+import com.recicar.marketplace.entity.Product;
+import com.recicar.marketplace.entity.StockReservation;
+import com.recicar.marketplace.entity.StockReservationStatus;
+import com.recicar.marketplace.repository.ProductRepository;
+import com.recicar.marketplace.repository.StockReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StockReservationServiceTest {
+
+    private static final Long CUSTOMER_ID = 7L;
+
+    @Mock
+    private StockReservationRepository stockReservationRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductChangeNotifier productChangeNotifier;
+
+    private StockReservationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new StockReservationService(stockReservationRepository, productRepository, productChangeNotifier,
+                Duration.ofMinutes(15));
+    }
+
+    @Test
+    void holdTakesOnlyTheDifferenceToExistingHolds() {
+        StockReservation kept = held(1L, 2);
+        StockReservation dropped = held(2L, 1);
+        StockReservation unchanged = held(3L, 1);
+        LocalDateTime previousExpiry = unchanged.getExpiresAt();
+        when(stockReservationRepository.lockHeldByCustomerId(CUSTOMER_ID)).thenReturn(List.of(kept, dropped, unchanged));
+        when(productRepository.decrementStockIfAvailable(1L, 1)).thenReturn(1);
+        when(productRepository.decrementStockIfAvailable(4L, 2)).thenReturn(1);
+
+        service.hold(CUSTOMER_ID, quantities(1L, 3, 3L, 1, 4L, 2));
+
+        assertThat(kept.getQuantity()).isEqualTo(3);
+        assertThat(dropped.getStatus()).isEqualTo(StockReservationStatus.RELEASED);
+        assertThat(unchanged.getExpiresAt()).isAfter(previousExpiry);
+        verify(productRepository).incrementStock(2L, 1);
+        verify(productRepository, never()).decrementStockIfAvailable(3L, 0);
+        ArgumentCaptor<StockReservation> created = ArgumentCaptor.forClass(StockReservation.class);
+        verify(stockReservationRepository).save(created.capture());
+        assertThat(created.getValue().getProductId()).isEqualTo(4L);
+        assertThat(created.getValue().getQuantity()).isEqualTo(2);
+        verify(productChangeNotifier).productsChanged(Set.of(1L, 4L, 2L));
+    }
+
+    @Test
+    void touchesProductRowsInAscendingIdOrder() {
+        when(stockReservationRepository.lockHeldByCustomerId(CUSTOMER_ID)).thenReturn(List.of(held(2L, 1)));
+        when(productRepository.decrementStockIfAvailable(anyLong(), anyInt())).thenReturn(1);
+
+        service.hold(CUSTOMER_ID, quantities(3L, 1, 1L, 1));
+
+        InOrder rowLocks = inOrder(productRepository);
+        rowLocks.verify(productRepository).decrementStockIfAvailable(1L, 1);
+        rowLocks.verify(productRepository).incrementStock(2L, 1);
+        rowLocks.verify(productRepository).decrementStockIfAvailable(3L, 1);
+    }
+
+    @Test
+    void releasesExpiredHoldsInAscendingProductOrder() {
+        when(stockReservationRepository.lockExpiredHolds(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(held(9L, 1), held(4L, 1)));
+
+        service.releaseExpired();
+
+        InOrder rowLocks = inOrder(productRepository);
+        rowLocks.verify(productRepository).incrementStock(4L, 1);
+        rowLocks.verify(productRepository).incrementStock(9L, 1);
+    }
+
+    @Test
+    void holdFailsWhenStockRunsOut() {
+        Product product = new Product();
+        product.setName("Caja de cambios");
+        when(productRepository.decrementStockIfAvailable(1L, 1)).thenReturn(0);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+        assertThatThrownBy(() -> service.hold(CUSTOMER_ID, Map.of(1L, 1)))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Not enough stock for product: Caja de cambios");
+        verify(stockReservationRepository, never()).save(any());
+    }
+
+    @Test
+    void commitConsumesHoldsAndTakesWhatTheyDoNotCover() {
+        StockReservation covering = held(1L, 2);
+        StockReservation abandoned = held(2L, 1);
+        when(stockReservationRepository.lockHeldByCustomerId(CUSTOMER_ID)).thenReturn(List.of(covering, abandoned));
+        when(productRepository.decrementStockIfAvailable(3L, 1)).thenReturn(1);
+
+        service.commit(CUSTOMER_ID, quantities(1L, 2, 3L, 1));
+
+        assertThat(covering.getStatus()).isEqualTo(StockReservationStatus.COMMITTED);
+        assertThat(abandoned.getStatus()).isEqualTo(StockReservationStatus.RELEASED);
+        verify(productRepository, never()).decrementStockIfAvailable(1L, 0);
+        verify(productRepository).incrementStock(2L, 1);
+        verify(stockReservationRepository, never()).save(any());
+    }
+
+    @Test
+    void releasesExpiredHoldsBackIntoStock() {
+        StockReservation expired = held(5L, 2);
+        when(stockReservationRepository.lockExpiredHolds(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(expired));
+
+        assertThat(service.releaseExpired()).isEqualTo(1);
+
+        assertThat(expired.getStatus()).isEqualTo(StockReservationStatus.RELEASED);
+        assertThat(expired.getClosedAt()).isNotNull();
+        verify(productRepository).incrementStock(5L, 2);
+    }
+
+    @Test
+    void doesNothingWithoutExpiredHolds() {
+        assertThat(service.releaseExpired()).isZero();
+
+        verify(productRepository, never()).incrementStock(anyLong(), anyInt());
+        verify(productChangeNotifier).productsChanged(Set.of());
+    }
+
+    @Test
+    void sumsHeldQuantitiesPerProduct() {
+        when(stockReservationRepository.findHeldQuantitiesByCustomerId(CUSTOMER_ID)).thenReturn(List.of(
+                new Object[]{1L, 2},
+                new Object[]{4L, 1}
+        ));
+
+        assertThat(service.heldQuantities(CUSTOMER_ID)).containsOnly(Map.entry(1L, 2), Map.entry(4L, 1));
+    }
+
+    private static StockReservation held(Long productId, int quantity) {
+        return new StockReservation(CUSTOMER_ID, productId, quantity, LocalDateTime.now().minusMinutes(1));
+    }
+
+    private static Map<Long, Integer> quantities(Object... productIdsAndQuantities) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (int i = 0; i < productIdsAndQuantities.length; i += 2) {
+            quantities.put((Long) productIdsAndQuantities[i], (Integer) productIdsAndQuantities[i + 1]);
+        }
+        return quantities;
+    }
+}
@@ -2,6 +2,7 @@ package com.recicar.marketplace.service;
 
 import com.recicar.marketplace.entity.PasswordResetToken;
 import com.recicar.marketplace.entity.User;
+import com.recicar.marketplace.event.UserAuthVersionChangedEvent;
 import com.recicar.marketplace.repository.PasswordResetTokenRepository;
 import com.recicar.marketplace.repository.UserRepository;
 import com.recicar.marketplace.repository.UserPasswordHistoryRepository;
@@ -12,6 +13,7 @@ import com.recicar.marketplace.service.notification.AuthMailNotificationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Collections;
@@ -32,6 +34,7 @@ class UserServicePasswordResetTest {
     private UserRoleGrantService userRoleGrantService;
     private AuthMailNotificationService mailNotificationService;
     private VendorRepository vendorRepository;
+    private ApplicationEventPublisher eventPublisher;
     private UserService userService;
 
     private User user;
@@ -46,6 +49,7 @@ class UserServicePasswordResetTest {
         userRoleGrantService = mock(UserRoleGrantService.class);
         mailNotificationService = mock(AuthMailNotificationService.class);
         vendorRepository = mock(VendorRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
 
         userService = new UserService(
                 userRepository,
@@ -55,7 +59,8 @@ class UserServicePasswordResetTest {
                 emailVerificationService,
                 userRoleGrantService,
                 mailNotificationService,
-                vendorRepository);
+                vendorRepository,
+                eventPublisher);
 
         user = new User();
         user.setId(1L);
@@ -88,5 +93,17 @@ class UserServicePasswordResetTest {
         verify(userRepository, atLeastOnce()).save(user);
         verify(tokenRepository, atLeast(2)).save(any());
         assertThat(saved.isUsed()).isTrue();
+        assertThat(user.getAuthVersion()).isEqualTo(1L);
+        verify(eventPublisher).publishEvent(new UserAuthVersionChangedEvent(1L));
+    }
+
+    @Test
+    void revokeAllSessions_bumpsAuthVersionAndAnnouncesIt() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        userService.revokeAllSessions(1L);
+
+        assertThat(user.getAuthVersion()).isEqualTo(1L);
+        verify(eventPublisher).publishEvent(new UserAuthVersionChangedEvent(1L));
     }
 }
@@ -0,0 +1,160 @@
+package com.recicar.marketplace.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.recicar.marketplace.dto.CarReferenceRow;
+import com.recicar.marketplace.repository.CarReferenceJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class VehicleDatasetLoaderTest {
+
+    private static final String DATASET = """
+            [
+              {"make": "Seat", "models": [
+                {"model": "Ibiza", "trims": [{"trim": "FR"}, {"trim": "Style"}]},
+                {"model": "Leon", "trims": [{"trim": "Cupra"}]}
+              ]},
+              {"make": "Audi", "models": [{"model": "A3", "trims": []}]},
+              {"make": "Seat", "models": [{"model": "Ibiza", "trims": [{"trim": "FR"}]}]},
+              {"make": "  "}
+            ]
+            """;
+
+    @Mock
+    private CarReferenceJdbcRepository repository;
+
+    private final AtomicLong sequence = new AtomicLong(1000);
+    private final List<Long> insertedMakeIds = new ArrayList<>();
+    private final List<String> insertedMakes = new ArrayList<>();
+    private final List<Long> insertedModelParents = new ArrayList<>();
+    private final List<String> insertedModels = new ArrayList<>();
+    private final List<Long> insertedModelIds = new ArrayList<>();
+    private final List<String> insertedTrims = new ArrayList<>();
+    private final List<Long> orphans = new ArrayList<>();
+    private int statements;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(repository.reserveIds(anyString(), anyInt())).thenAnswer(invocation -> LongStream
+                .range(0, invocation.<Integer>getArgument(1)).map(i -> sequence.getAndIncrement()).toArray());
+        // The loader reuses its chunk lists, so copy them as they are written
+        // and note any row written before its parent
+        lenient().doAnswer(invocation -> {
+            statements += invocation.<List<Long>>getArgument(0).isEmpty() ? 0 : 1;
+            insertedMakeIds.addAll(invocation.getArgument(0));
+            insertedMakes.addAll(invocation.getArgument(1));
+            return null;
+        }).when(repository).insertMakes(anyList(), anyList());
+        lenient().doAnswer(invocation -> {
+            statements += invocation.<List<Long>>getArgument(0).isEmpty() ? 0 : 1;
+            List<Long> parents = invocation.getArgument(1);
+            parents.stream().filter(id -> !insertedMakeIds.contains(id)).forEach(orphans::add);
+            insertedModelIds.addAll(invocation.getArgument(0));
+            insertedModelParents.addAll(parents);
+            insertedModels.addAll(invocation.getArgument(2));
+            return null;
+        }).when(repository).insertModels(anyList(), anyList(), anyList());
+        lenient().doAnswer(invocation -> {
+            statements += invocation.<List<Long>>getArgument(0).isEmpty() ? 0 : 1;
+            List<Long> parents = invocation.getArgument(1);
+            parents.stream().filter(id -> !insertedModelIds.contains(id)).forEach(orphans::add);
+            insertedTrims.addAll(invocation.getArgument(2));
+            return null;
+        }).when(repository).insertTrims(anyList(), anyList(), anyList());
+    }
+
+    private VehicleDatasetLoader loader(int chunkSize) {
+        return new VehicleDatasetLoader(repository, new ObjectMapper(), chunkSize);
+    }
+
+    private static ByteArrayInputStream json(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void loadsEmptyTablesWritingDuplicatesOnce() throws IOException {
+        VehicleDatasetLoader.Result result = loader(100).load(json(DATASET), false);
+
+        assertThat(insertedMakes).containsExactly("Seat", "Audi");
+        assertThat(insertedModels).containsExactly("Ibiza", "Leon", "A3");
+        assertThat(insertedModelParents).containsExactly(
+                insertedMakeIds.get(0), insertedMakeIds.get(0), insertedMakeIds.get(1));
+        assertThat(insertedTrims).containsExactly("FR", "Style", "Cupra");
+        assertThat(result.makesAdded()).isEqualTo(2);
+        assertThat(result.modelsAdded()).isEqualTo(3);
+        assertThat(result.trimsAdded()).isEqualTo(3);
+        assertThat(result.rowsRead()).isEqualTo(11);
+        verify(repository, never()).delete(anyList(), anyList(), anyList());
+    }
+
+    @Test
+    void writesParentsBeforeChildrenInEveryChunk() throws IOException {
+        loader(2).load(json(DATASET), false);
+
+        assertThat(statements).isGreaterThan(3);
+        assertThat(orphans).isEmpty();
+        assertThat(insertedTrims).containsExactly("FR", "Style", "Cupra");
+    }
+
+    @Test
+    void refreshAddsMissingRowsAndRemovesRowsNoLongerInTheDataset() throws IOException {
+        when(repository.findMakes()).thenReturn(List.of(
+                new CarReferenceRow(1L, null, "Seat"), new CarReferenceRow(2L, null, "Lancia")));
+        when(repository.findModels()).thenReturn(List.of(
+                new CarReferenceRow(10L, 1L, "Ibiza"), new CarReferenceRow(20L, 2L, "Delta")));
+        when(repository.findTrims()).thenReturn(List.of(
+                new CarReferenceRow(100L, 10L, "FR"), new CarReferenceRow(101L, 10L, "Reference"),
+                new CarReferenceRow(200L, 20L, "Integrale")));
+
+        VehicleDatasetLoader.Result result = loader(100).load(json(DATASET), true);
+
+        assertThat(insertedMakes).containsExactly("Audi");
+        assertThat(insertedModels).containsExactly("Leon", "A3");
+        assertThat(insertedTrims).containsExactly("Style", "Cupra");
+        ArgumentCaptor<List<Long>> trims = listCaptor();
+        ArgumentCaptor<List<Long>> models = listCaptor();
+        ArgumentCaptor<List<Long>> makes = listCaptor();
+        verify(repository).delete(trims.capture(), models.capture(), makes.capture());
+        assertThat(trims.getValue()).containsExactlyInAnyOrder(101L, 200L);
+        assertThat(models.getValue()).containsExactly(20L);
+        assertThat(makes.getValue()).containsExactly(2L);
+        assertThat(result.makesRemoved()).isEqualTo(1);
+        assertThat(result.modelsRemoved()).isEqualTo(1);
+        assertThat(result.trimsRemoved()).isEqualTo(2);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<Long>> listCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+
+    @Test
+    void rejectsADatasetThatIsNotAnArray() {
+        assertThatThrownBy(() -> loader(100).load(json("{\"make\": \"Seat\"}"), false))
+                .isInstanceOf(IOException.class);
+    }
+}
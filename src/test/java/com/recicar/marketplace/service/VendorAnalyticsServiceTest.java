@@ -1,8 +1,8 @@
 package com.recicar.marketplace.service;
 
 import com.recicar.marketplace.dto.VendorSalesAnalyticsDto;
+import com.recicar.marketplace.dto.VendorSalesTotals;
 import com.recicar.marketplace.entity.Vendor;
-import com.recicar.marketplace.repository.OrderItemRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -22,32 +22,31 @@ import static org.mockito.Mockito.when;
 class VendorAnalyticsServiceTest {
 
     @Mock
-    private OrderItemRepository orderItemRepository;
+    private VendorSalesRollupService vendorSalesRollupService;
 
     @InjectMocks
     private VendorAnalyticsService vendorAnalyticsService;
 
     @Test
-    void salesBetween_aggregatesRepositories() {
+    void salesBetween_readsTheRollupForTheRange() {
         Vendor v = new Vendor();
         v.setId(42L);
 
         LocalDate from = LocalDate.of(2026, 4, 1);
         LocalDate to = LocalDate.of(2026, 4, 10);
 
-        when(orderItemRepository.sumLineTotalForVendorBetween(eq(42L), any(), any())).thenReturn(new BigDecimal("150.505"));
-        when(orderItemRepository.countDistinctOrdersForVendorBetween(eq(42L), any(), any())).thenReturn(3L);
-        when(orderItemRepository.countLinesForVendorBetween(eq(42L), any(), any())).thenReturn(8L);
+        when(vendorSalesRollupService.totals(42L, from, to))
+                .thenReturn(new VendorSalesTotals(new BigDecimal("150.505"), 3, 8, 11, 2));
 
         VendorSalesAnalyticsDto dto = vendorAnalyticsService.salesBetween(v, from, to);
 
         assertThat(dto.distinctOrderCount()).isEqualTo(3);
         assertThat(dto.lineItemCount()).isEqualTo(8);
+        assertThat(dto.unitsSold()).isEqualTo(11);
+        assertThat(dto.canceledOrderCount()).isEqualTo(2);
         assertThat(dto.grossLineRevenue()).isEqualByComparingTo(new BigDecimal("150.51"));
         assertThat(dto.periodFromInclusive()).isEqualTo(from);
         assertThat(dto.periodToInclusive()).isEqualTo(to);
-
-        verify(orderItemRepository).sumLineTotalForVendorBetween(eq(42L), eq(from.atStartOfDay()), eq(to.plusDays(1).atStartOfDay()));
     }
 
     @Test
@@ -57,13 +56,26 @@ class VendorAnalyticsServiceTest {
         LocalDate a = LocalDate.of(2026, 5, 2);
         LocalDate b = LocalDate.of(2026, 4, 1);
 
-        when(orderItemRepository.sumLineTotalForVendorBetween(eq(1L), any(), any())).thenReturn(BigDecimal.ZERO);
-        when(orderItemRepository.countDistinctOrdersForVendorBetween(eq(1L), any(), any())).thenReturn(0L);
-        when(orderItemRepository.countLinesForVendorBetween(eq(1L), any(), any())).thenReturn(0L);
+        when(vendorSalesRollupService.totals(eq(1L), any(), any())).thenReturn(VendorSalesTotals.EMPTY);
 
         VendorSalesAnalyticsDto dto = vendorAnalyticsService.salesBetween(v, a, b);
 
         assertThat(dto.periodFromInclusive()).isEqualTo(b);
         assertThat(dto.periodToInclusive()).isEqualTo(a);
+        verify(vendorSalesRollupService).totals(1L, b, a);
+    }
+
+    @Test
+    void salesBetween_defaultsToTheLastThirtyDays() {
+        Vendor v = new Vendor();
+        v.setId(5L);
+        LocalDate today = LocalDate.now();
+        when(vendorSalesRollupService.totals(eq(5L), any(), any())).thenReturn(VendorSalesTotals.EMPTY);
+
+        VendorSalesAnalyticsDto dto = vendorAnalyticsService.salesBetween(v, null, null);
+
+        assertThat(dto.periodToInclusive()).isEqualTo(today);
+        assertThat(dto.periodFromInclusive()).isEqualTo(today.minusDays(29));
+        assertThat(dto.grossLineRevenue()).isEqualByComparingTo(BigDecimal.ZERO);
     }
 }
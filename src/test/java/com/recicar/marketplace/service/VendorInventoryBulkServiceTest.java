@@ -0,0 +1,178 @@
+package com.recicar.marketplace.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.recicar.marketplace.dto.BulkInventoryResult;
+import com.recicar.marketplace.dto.BulkInventoryRow;
+import com.recicar.marketplace.dto.BulkInventoryRowError;
+import com.recicar.marketplace.entity.Vendor;
+import com.recicar.marketplace.repository.ProductInventoryJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class VendorInventoryBulkServiceTest {
+
+    private static final Long VENDOR_ID = 88L;
+
+    @Mock
+    private ProductInventoryJdbcRepository productInventoryJdbcRepository;
+
+    @Mock
+    private ProductChangeNotifier productChangeNotifier;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private VendorInventoryBulkService service;
+    private Vendor vendor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new VendorInventoryBulkService(productInventoryJdbcRepository, productChangeNotifier,
+                new ObjectMapper(), transactionManager, meterRegistry, 2, 5);
+        vendor = new Vendor();
+        vendor.setId(VENDOR_ID);
+    }
+
+    @Test
+    void appliesValidRowsInChunksAndReportsTheRest() {
+        when(productInventoryJdbcRepository.applyForVendor(eq(VENDOR_ID), anyList()))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of());
+
+        BulkInventoryResult result = service.apply(vendor, payload("""
+                [{"productId": 1, "stockQuantity": 3},
+                 {"productId": 2, "price": 45.50},
+                 {"productId": 3, "stockQuantity": -1},
+                 {"productId": 4, "stockQuantity": 1}]
+                """));
+
+        assertThat(result.received()).isEqualTo(4);
+        assertThat(result.updated()).isEqualTo(2);
+        assertThat(result.rejected()).isEqualTo(2);
+        assertThat(result.error()).isNull();
+        assertThat(result.rejectedRows()).containsExactly(
+                new BulkInventoryRowError(2, 3L, "stockQuantity must not be negative"),
+                new BulkInventoryRowError(3, 4L, "Product not found"));
+        verify(productInventoryJdbcRepository).applyForVendor(VENDOR_ID, List.of(
+                new BulkInventoryRow(1L, 3, null),
+                new BulkInventoryRow(2L, null, new BigDecimal("45.50"))));
+        verify(productInventoryJdbcRepository).applyForVendor(VENDOR_ID, List.of(new BulkInventoryRow(4L, 1, null)));
+        verify(productChangeNotifier).productsChanged(any());
+        assertThat(meterRegistry.get("vendor.inventory.bulk.rows").tag("result", "updated").counter().count())
+                .isEqualTo(2.0);
+    }
+
+    @Test
+    void laterRowForTheSameProductSupersedesTheEarlierOne() {
+        when(productInventoryJdbcRepository.applyForVendor(eq(VENDOR_ID), anyList())).thenReturn(List.of(1L));
+
+        BulkInventoryResult result = service.apply(vendor, payload("""
+                [{"productId": 1, "stockQuantity": 3}, {"productId": 1, "stockQuantity": 2}]
+                """));
+
+        assertThat(result.updated()).isEqualTo(1);
+        assertThat(result.rejectedRows()).containsExactly(new BulkInventoryRowError(0, 1L, "Superseded by row 1"));
+        verify(productInventoryJdbcRepository).applyForVendor(VENDOR_ID, List.of(new BulkInventoryRow(1L, 2, null)));
+    }
+
+    @Test
+    void keepsAppliedChunksWhenThePayloadBreaksOff() {
+        when(productInventoryJdbcRepository.applyForVendor(eq(VENDOR_ID), anyList())).thenReturn(List.of(1L, 2L));
+
+        BulkInventoryResult result = service.apply(vendor, payload("""
+                [{"productId": 1, "stockQuantity": 3}, {"productId": 2, "stockQuantity": 1}, {"productId":
+                """));
+
+        assertThat(result.updated()).isEqualTo(2);
+        assertThat(result.error()).startsWith("Malformed payload at row 2");
+        verify(productInventoryJdbcRepository, times(1)).applyForVendor(eq(VENDOR_ID), anyList());
+    }
+
+    @Test
+    void stopsAtAChunkTheDatabaseRefuses() {
+        when(productInventoryJdbcRepository.applyForVendor(eq(VENDOR_ID), anyList()))
+                .thenReturn(List.of(1L, 2L))
+                .thenThrow(new QueryTimeoutException("statement timeout"));
+
+        BulkInventoryResult result = service.apply(vendor, payload("""
+                [{"productId": 1, "stockQuantity": 1}, {"productId": 2, "stockQuantity": 1},
+                 {"productId": 3, "stockQuantity": 1}, {"productId": 4, "stockQuantity": 1},
+                 {"productId": 5, "stockQuantity": 1}]
+                """));
+
+        assertThat(result.received()).isEqualTo(4);
+        assertThat(result.updated()).isEqualTo(2);
+        assertThat(result.rejected()).isEqualTo(2);
+        assertThat(result.error()).isEqualTo("Rows 2-3 could not be saved; the upload stopped there");
+        assertThat(result.rejectedRows()).containsExactly(
+                new BulkInventoryRowError(2, 3L, "Not saved"),
+                new BulkInventoryRowError(3, 4L, "Not saved"));
+        verify(productInventoryJdbcRepository, times(2)).applyForVendor(eq(VENDOR_ID), anyList());
+    }
+
+    @Test
+    void stopsAtTheRowLimit() {
+        when(productInventoryJdbcRepository.applyForVendor(eq(VENDOR_ID), anyList())).thenReturn(List.of());
+
+        BulkInventoryResult result = service.apply(vendor, payload("""
+                [{"productId": 1, "stockQuantity": 1}, {"productId": 2, "stockQuantity": 1},
+                 {"productId": 3, "stockQuantity": 1}, {"productId": 4, "stockQuantity": 1},
+                 {"productId": 5, "stockQuantity": 1}, {"productId": 6, "stockQuantity": 1}]
+                """));
+
+        assertThat(result.received()).isEqualTo(5);
+        assertThat(result.error()).isEqualTo("Payload exceeds 5 rows");
+    }
+
+    @Test
+    void rejectsAPayloadThatIsNotAnArray() {
+        BulkInventoryResult result = service.apply(vendor, payload("{\"productId\": 1}"));
+
+        assertThat(result.received()).isZero();
+        assertThat(result.error()).isEqualTo("Expected a JSON array of inventory rows");
+        verify(productInventoryJdbcRepository, never()).applyForVendor(any(), anyList());
+        verify(productChangeNotifier, never()).productsChanged(anyCollection());
+    }
+
+    @Test
+    void validatesRows() {
+        assertThat(VendorInventoryBulkService.validate(new BulkInventoryRow(null, 1, null)))
+                .isEqualTo("productId is required");
+        assertThat(VendorInventoryBulkService.validate(new BulkInventoryRow(1L, null, null)))
+                .isEqualTo("Nothing to update");
+        assertThat(VendorInventoryBulkService.validate(new BulkInventoryRow(1L, null, BigDecimal.ZERO)))
+                .startsWith("price must be between");
+        assertThat(VendorInventoryBulkService.validate(new BulkInventoryRow(1L, null, new BigDecimal("9.999"))))
+                .isEqualTo("price must have at most 2 decimals");
+        assertThat(VendorInventoryBulkService.validate(new BulkInventoryRow(1L, 0, new BigDecimal("9.90"))))
+                .isNull();
+    }
+
+    private static ByteArrayInputStream payload(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,10 +1,10 @@
 package com.recicar.marketplace.service;
 
 import com.recicar.marketplace.dto.VendorOrderListItemDto;
+import com.recicar.marketplace.dto.VendorSalesTotals;
 import com.recicar.marketplace.entity.Order;
 import com.recicar.marketplace.entity.OrderItem;
 import com.recicar.marketplace.entity.Vendor;
-import com.recicar.marketplace.repository.OrderItemRepository;
 import com.recicar.marketplace.repository.OrderRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,6 +15,7 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -32,7 +33,7 @@ class VendorOrderMetricsServiceTest {
     private OrderRepository orderRepository;
 
     @Mock
-    private OrderItemRepository orderItemRepository;
+    private VendorSalesRollupService vendorSalesRollupService;
 
     @InjectMocks
     private VendorOrderMetricsService metricsService;
@@ -85,4 +86,15 @@ class VendorOrderMetricsServiceTest {
         assertThat(recent.get(0).lineTotalForVendor()).isEqualByComparingTo(new BigDecimal("40.00"));
         assertThat(recent.get(0).lineItemCount()).isEqualTo(1);
     }
+
+    @Test
+    void sumMonthRevenue_readsTheRollupFromTheFirstOfTheMonth() {
+        Vendor v = new Vendor();
+        v.setId(12L);
+        LocalDate today = LocalDate.now();
+        when(vendorSalesRollupService.totals(12L, today.withDayOfMonth(1), today))
+                .thenReturn(new VendorSalesTotals(new BigDecimal("310.00"), 4, 6, 9, 1));
+
+        assertThat(metricsService.sumMonthRevenueExcludingCanceled(v)).isEqualByComparingTo("310.00");
+    }
 }
@@ -0,0 +1,135 @@
+package com.recicar.marketplace.service;
+
+import com.recicar.marketplace.entity.VendorRating;
+import com.recicar.marketplace.event.VendorMetricChangedEvent;
+import com.recicar.marketplace.event.VendorRatingsRefreshedEvent;
+import com.recicar.marketplace.repository.VendorMetricRepository;
+import com.recicar.marketplace.repository.VendorRatingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class VendorReputationServiceTest {
+
+    @Mock
+    private VendorMetricRepository vendorMetricRepository;
+
+    @Mock
+    private VendorRatingRepository vendorRatingRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+    private VendorReputationService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new VendorReputationService(vendorMetricRepository, vendorRatingRepository, eventPublisher, meterRegistry);
+    }
+
+    @Test
+    void fullRefreshRewritesEveryRowAndDropsVendorsWithoutMetrics() {
+        VendorRating existing = new VendorRating(1L);
+        VendorRating orphan = new VendorRating(3L);
+        when(vendorRatingRepository.findAll()).thenReturn(List.of(existing, orphan));
+        when(vendorMetricRepository.sumConversionRatesByVendor()).thenReturn(List.of(
+                new Object[]{1L, new BigDecimal("1.8000"), 2L},
+                new Object[]{2L, new BigDecimal("0.1000"), 4L}
+        ));
+        assertThat(meterRegistry.get("vendor.rating.snapshot.age").gauge().value()).isNaN();
+
+        assertThat(service.refreshAll()).isEqualTo(2);
+
+        List<VendorRating> saved = savedRows();
+        assertThat(saved).extracting(VendorRating::getVendorId).containsExactly(1L, 2L);
+        assertThat(saved.get(0)).isSameAs(existing);
+        assertThat(saved.get(0).getRating()).isEqualByComparingTo("4.50");
+        assertThat(saved.get(0).isTopSeller()).isTrue();
+        assertThat(saved.get(1).getRating()).isEqualByComparingTo("1.00");
+        assertThat(saved.get(1).isNew()).isTrue();
+        ArgumentCaptor<Iterable<VendorRating>> deleted = iterableCaptor();
+        verify(vendorRatingRepository).deleteAll(deleted.capture());
+        assertThat(deleted.getValue()).containsExactly(orphan);
+        verify(eventPublisher).publishEvent(new VendorRatingsRefreshedEvent(Set.of(), true));
+        assertThat(service.snapshotAge()).isPresent();
+        assertThat(meterRegistry.get("vendor.rating.snapshot.age").gauge().value()).isGreaterThanOrEqualTo(0.0);
+    }
+
+    @Test
+    void incrementalRefreshOnlyReratesChangedVendors() {
+        assertThat(service.refreshChanged()).isZero();
+        verify(vendorMetricRepository, never()).sumConversionRatesByVendorIdIn(anyCollection());
+
+        service.onVendorMetricChanged(new VendorMetricChangedEvent(7L));
+        service.onVendorMetricChanged(new VendorMetricChangedEvent(7L));
+        when(vendorMetricRepository.sumConversionRatesByVendorIdIn(List.of(7L))).thenReturn(List.<Object[]>of(
+                new Object[]{7L, new BigDecimal("2.7000"), 3L}
+        ));
+
+        assertThat(service.refreshChanged()).isEqualTo(1);
+        assertThat(service.refreshChanged()).isZero();
+
+        assertThat(savedRows()).singleElement().satisfies(row -> {
+            assertThat(row.getVendorId()).isEqualTo(7L);
+            assertThat(row.getMetricCount()).isEqualTo(3);
+            assertThat(row.getRating()).isEqualByComparingTo("4.50");
+        });
+        verify(eventPublisher).publishEvent(new VendorRatingsRefreshedEvent(Set.of(7L), false));
+        assertThat(service.snapshotAge()).isEmpty();
+    }
+
+    @Test
+    void keepsVendorsMarkedWhenTheirRefreshFails() {
+        service.onVendorMetricChanged(new VendorMetricChangedEvent(7L));
+        when(vendorMetricRepository.sumConversionRatesByVendorIdIn(List.of(7L)))
+                .thenThrow(new IllegalStateException("connection reset"))
+                .thenReturn(List.<Object[]>of(new Object[]{7L, new BigDecimal("0.5000"), 1L}));
+
+        assertThatThrownBy(service::refreshChanged).isInstanceOf(IllegalStateException.class);
+        verify(eventPublisher, never()).publishEvent(any(VendorRatingsRefreshedEvent.class));
+
+        assertThat(service.refreshChanged()).isEqualTo(1);
+        assertThat(savedRows()).singleElement().satisfies(row -> assertThat(row.getRefreshedAt()).isNotNull());
+    }
+
+    @Test
+    void clampsRatingsBetweenOneAndFive() {
+        assertThat(VendorReputationService.rate(new BigDecimal("0.0500"), 1)).isEqualByComparingTo("1");
+        assertThat(VendorReputationService.rate(new BigDecimal("0.7500"), 1)).isEqualByComparingTo("3.75");
+        assertThat(VendorReputationService.rate(new BigDecimal("1.0000"), 1)).isEqualByComparingTo("5.00");
+    }
+
+    private List<VendorRating> savedRows() {
+        ArgumentCaptor<Iterable<VendorRating>> captor = iterableCaptor();
+        verify(vendorRatingRepository).saveAll(captor.capture());
+        List<VendorRating> rows = new ArrayList<>();
+        captor.getValue().forEach(rows::add);
+        return rows;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<Iterable<VendorRating>> iterableCaptor() {
+        return ArgumentCaptor.forClass(Iterable.class);
+    }
+}
@@ -0,0 +1,67 @@
+package com.recicar.marketplace.service;
+
+import com.recicar.marketplace.event.OrderChangedEvent;
+import com.recicar.marketplace.repository.VendorSalesRollupJdbcRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class VendorSalesRollupServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 10);
+
+    @Mock
+    private VendorSalesRollupJdbcRepository rollupRepository;
+
+    @InjectMocks
+    private VendorSalesRollupService rollupService;
+
+    @Test
+    void refreshPending_doesNothingWithoutChanges() {
+        assertThat(rollupService.refreshPending()).isZero();
+
+        verifyNoInteractions(rollupRepository);
+    }
+
+    @Test
+    void refreshPending_recomputesEachChangedDayOnceInConsecutiveRuns() {
+        rollupService.onOrderChanged(new OrderChangedEvent(1L, DAY));
+        rollupService.onOrderChanged(new OrderChangedEvent(2L, DAY));
+        rollupService.onOrderChanged(new OrderChangedEvent(3L, DAY.plusDays(1)));
+        rollupService.onOrderChanged(new OrderChangedEvent(4L, DAY.plusDays(5)));
+
+        assertThat(rollupService.refreshPending()).isEqualTo(3);
+
+        verify(rollupRepository).refreshDays(DAY, DAY.plusDays(2));
+        verify(rollupRepository).refreshDays(DAY.plusDays(5), DAY.plusDays(6));
+        verifyNoMoreInteractions(rollupRepository);
+        assertThat(rollupService.refreshPending()).isZero();
+    }
+
+    @Test
+    void refreshPending_keepsDaysMarkedWhenTheRefreshFails() {
+        rollupService.onOrderChanged(new OrderChangedEvent(1L, DAY));
+        when(rollupRepository.refreshDays(any(), any()))
+                .thenThrow(new IllegalStateException("db down"))
+                .thenReturn(1);
+
+        assertThatThrownBy(() -> rollupService.refreshPending()).isInstanceOf(IllegalStateException.class);
+
+        assertThat(rollupService.refreshPending()).isEqualTo(1);
+        verify(rollupRepository, times(2)).refreshDays(DAY, DAY.plusDays(1));
+    }
+}
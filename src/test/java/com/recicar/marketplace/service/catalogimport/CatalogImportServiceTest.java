@@ -0,0 +1,203 @@
+package com.recicar.marketplace.service.catalogimport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.recicar.marketplace.dto.CatalogImportRowError;
+import com.recicar.marketplace.dto.CatalogProductRow;
+import com.recicar.marketplace.entity.CatalogImport;
+import com.recicar.marketplace.entity.CatalogImportFormat;
+import com.recicar.marketplace.entity.CatalogImportStatus;
+import com.recicar.marketplace.entity.Category;
+import com.recicar.marketplace.entity.Vendor;
+import com.recicar.marketplace.repository.BrandRepository;
+import com.recicar.marketplace.repository.CatalogImportJdbcRepository;
+import com.recicar.marketplace.repository.CatalogImportJdbcRepository.ExistingProduct;
+import com.recicar.marketplace.repository.CatalogImportRepository;
+import com.recicar.marketplace.repository.CategoryRepository;
+import com.recicar.marketplace.service.ProductChangeNotifier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogImportServiceTest {
+
+    private static final Long VENDOR_ID = 42L;
+    private static final Long IMPORT_ID = 7L;
+    private static final String FEED = """
+            partNumber;name;category;price;stock
+            ABC-1;Alternador;motor;10,50;2
+            XYZ-2;Faro;motor;20;1
+            abc1;Alternador B;motor;11;3
+            Q-9;Rueda;llantas;5;1
+            """;
+
+    @Mock
+    private CatalogImportRepository catalogImportRepository;
+
+    @Mock
+    private CatalogImportJdbcRepository catalogImportJdbcRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private BrandRepository brandRepository;
+
+    @Mock
+    private ProductChangeNotifier productChangeNotifier;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path stagingDir;
+
+    private Vendor vendor;
+
+    @BeforeEach
+    void setUp() {
+        vendor = new Vendor();
+        vendor.setId(VENDOR_ID);
+    }
+
+    private CatalogImportService service(int chunkSize) {
+        return new CatalogImportService(catalogImportRepository, catalogImportJdbcRepository, categoryRepository,
+                brandRepository, productChangeNotifier, eventPublisher, new ObjectMapper(), transactionManager,
+                stagingDir, DataSize.ofKilobytes(1), chunkSize, Duration.ofMinutes(2));
+    }
+
+    private CatalogImport runningImport(int rowsCommitted) throws IOException {
+        Path file = Files.writeString(stagingDir.resolve("feed.csv"), FEED, StandardCharsets.UTF_8);
+        CatalogImport job = new CatalogImport(VENDOR_ID, CatalogImportFormat.CSV, file.toString());
+        ReflectionTestUtils.setField(job, "id", IMPORT_ID);
+        ReflectionTestUtils.setField(job, "rowsCommitted", rowsCommitted);
+        job.start(LocalDateTime.now());
+        return job;
+    }
+
+    private void stubLookups() {
+        Category motor = new Category();
+        motor.setId(3L);
+        motor.setName("Motor");
+        motor.setSlug("motor");
+        when(categoryRepository.findByActiveTrueOrderBySortOrderAsc()).thenReturn(List.of(motor));
+        when(brandRepository.findAll()).thenReturn(List.of());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void run_upsertsDeduplicatedChunkAndCompletes() throws IOException {
+        CatalogImport job = runningImport(0);
+        stubLookups();
+        when(catalogImportJdbcRepository.findExisting(eq(VENDOR_ID), any(), any()))
+                .thenReturn(List.of(new ExistingProduct(5L, "XYZ2", null)));
+        when(catalogImportJdbcRepository.insertProducts(eq(VENDOR_ID), any()))
+                .thenReturn(List.of(new ExistingProduct(9L, "ABC1", null)));
+        when(catalogImportJdbcRepository.advance(IMPORT_ID, 0, 4, 1, 1, 2)).thenReturn(true);
+        when(catalogImportRepository.findById(IMPORT_ID)).thenReturn(Optional.of(job));
+
+        service(10).run(job);
+
+        ArgumentCaptor<Map<Long, CatalogProductRow>> updates = ArgumentCaptor.forClass(Map.class);
+        verify(catalogImportJdbcRepository).updateProducts(updates.capture());
+        assertThat(updates.getValue()).containsOnlyKeys(5L);
+        assertThat(updates.getValue().get(5L).rowNumber()).isEqualTo(2);
+
+        ArgumentCaptor<List<CatalogProductRow>> inserts = ArgumentCaptor.forClass(List.class);
+        verify(catalogImportJdbcRepository).insertProducts(eq(VENDOR_ID), inserts.capture());
+        assertThat(inserts.getValue()).extracting(CatalogProductRow::rowNumber).containsExactly(3);
+        assertThat(inserts.getValue().get(0).stockQuantity()).isEqualTo(3);
+
+        ArgumentCaptor<List<CatalogImportRowError>> errors = ArgumentCaptor.forClass(List.class);
+        verify(catalogImportJdbcRepository).insertErrors(eq(IMPORT_ID), errors.capture());
+        assertThat(errors.getValue()).containsExactlyInAnyOrder(
+                new CatalogImportRowError(1, "Duplicate of row 3"),
+                new CatalogImportRowError(4, "Unknown category: llantas"));
+
+        verify(productChangeNotifier).productsChanged(Set.of(5L, 9L));
+        assertThat(job.getStatus()).isEqualTo(CatalogImportStatus.COMPLETED);
+        assertThat(Files.exists(Path.of(job.getStagedFile()))).isFalse();
+    }
+
+    @Test
+    void run_resumesAfterCommittedRows() throws IOException {
+        CatalogImport job = runningImport(2);
+        stubLookups();
+        when(catalogImportJdbcRepository.findExisting(eq(VENDOR_ID), any(), any())).thenReturn(List.of());
+        when(catalogImportJdbcRepository.insertProducts(eq(VENDOR_ID), any()))
+                .thenReturn(List.of(new ExistingProduct(9L, "ABC1", null)));
+        when(catalogImportJdbcRepository.advance(IMPORT_ID, 2, 4, 1, 0, 1)).thenReturn(true);
+        when(catalogImportRepository.findById(IMPORT_ID)).thenReturn(Optional.of(job));
+
+        service(10).run(job);
+
+        verify(catalogImportJdbcRepository).advance(IMPORT_ID, 2, 4, 1, 0, 1);
+        assertThat(job.getStatus()).isEqualTo(CatalogImportStatus.COMPLETED);
+    }
+
+    @Test
+    void run_stopsWithoutTouchingImportWhenAnotherWorkerTookItOver() throws IOException {
+        CatalogImport job = runningImport(0);
+        stubLookups();
+        when(catalogImportJdbcRepository.findExisting(eq(VENDOR_ID), any(), any())).thenReturn(List.of());
+        when(catalogImportJdbcRepository.insertProducts(eq(VENDOR_ID), any())).thenReturn(List.of(
+                new ExistingProduct(8L, "ABC1", null), new ExistingProduct(9L, "XYZ2", null)));
+        when(catalogImportJdbcRepository.advance(IMPORT_ID, 0, 2, 2, 0, 0))
+                .thenReturn(false);
+
+        service(2).run(job);
+
+        verify(catalogImportJdbcRepository, times(1)).advance(any(), anyInt(), anyInt(), anyInt(), anyInt(), anyInt());
+        verify(transactionManager).rollback(any());
+        verify(catalogImportRepository, never()).findById(any());
+        assertThat(job.getStatus()).isEqualTo(CatalogImportStatus.RUNNING);
+        assertThat(Files.exists(Path.of(job.getStagedFile()))).isTrue();
+    }
+
+    @Test
+    void stage_refusesOversizedUploadAndRemovesPartialFile() throws IOException {
+        CatalogImportService service = service(10);
+        byte[] body = new byte[2048];
+
+        assertThatThrownBy(() -> service.stage(vendor, CatalogImportFormat.CSV, new ByteArrayInputStream(body)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verify(catalogImportRepository, never()).save(any());
+        try (var files = Files.list(stagingDir)) {
+            assertThat(files).isEmpty();
+        }
+    }
+}
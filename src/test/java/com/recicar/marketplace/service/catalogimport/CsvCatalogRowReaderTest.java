@@ -0,0 +1,67 @@
+package com.recicar.marketplace.service.catalogimport;
+
+import com.recicar.marketplace.dto.CatalogImportRow;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvCatalogRowReaderTest {
+
+    @Test
+    void readsSemicolonFeedWithAliasedHeadersAndDecimalCommas() throws IOException {
+        String csv = "\uFEFFReference;OEM;Name;Category;Price;Stock;Images;Fitments\n"
+                + "ABC-1;1K0 615 301;\"Alternador; 90A\";motor;1.234,50;3;"
+                + "https://img/1.jpg|/uploads/2.jpg;Volkswagen:Golf:2004-2008:1.9 TDI|Seat:Leon:2006\n";
+
+        try (CsvCatalogRowReader reader = new CsvCatalogRowReader(new StringReader(csv))) {
+            CatalogRowReader.ParsedRow parsed = reader.next();
+
+            assertThat(parsed.rowNumber()).isEqualTo(1);
+            assertThat(parsed.error()).isNull();
+            CatalogImportRow row = parsed.row();
+            assertThat(row.partNumber()).isEqualTo("ABC-1");
+            assertThat(row.oemNumber()).isEqualTo("1K0 615 301");
+            assertThat(row.name()).isEqualTo("Alternador; 90A");
+            assertThat(row.price()).isEqualByComparingTo(new BigDecimal("1234.50"));
+            assertThat(row.stockQuantity()).isEqualTo(3);
+            assertThat(row.images()).containsExactly("https://img/1.jpg", "/uploads/2.jpg");
+            assertThat(row.fitments()).containsExactly(
+                    new CatalogImportRow.Fitment("Volkswagen", "Golf", 2004, 2008, "1.9 TDI"),
+                    new CatalogImportRow.Fitment("Seat", "Leon", 2006, 2006, null));
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void malformedLineIsReportedWithoutStoppingTheFeed() throws IOException {
+        String csv = "part_number,name,category,price,stock_quantity\n"
+                + "A1,Faro,luces,12.00,two\n"
+                + "\n"
+                + "A2,Piloto,luces,8.5,1\n";
+
+        try (CsvCatalogRowReader reader = new CsvCatalogRowReader(new StringReader(csv))) {
+            CatalogRowReader.ParsedRow first = reader.next();
+            CatalogRowReader.ParsedRow second = reader.next();
+
+            assertThat(first.rowNumber()).isEqualTo(1);
+            assertThat(first.row()).isNull();
+            assertThat(first.error()).isNotBlank();
+            assertThat(second.rowNumber()).isEqualTo(2);
+            assertThat(second.row().partNumber()).isEqualTo("A2");
+            assertThat(second.row().price()).isEqualByComparingTo("8.5");
+            assertThat(second.row().images()).isNull();
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void emptyFeedHasNoRows() throws IOException {
+        try (CsvCatalogRowReader reader = new CsvCatalogRowReader(new StringReader(""))) {
+            assertThat(reader.next()).isNull();
+        }
+    }
+}
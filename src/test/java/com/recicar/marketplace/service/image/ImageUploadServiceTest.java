@@ -0,0 +1,99 @@
+package com.recicar.marketplace.service.image;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImageUploadServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private ImageStorage storage;
+    private ImageUploadService service;
+
+    @BeforeEach
+    void setUp() {
+        storage = new ImageStorage(directory.toString());
+        service = new ImageUploadService(storage, 1, 10, 4_000_000, 0.8f);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", bytes);
+        return bytes.toByteArray();
+    }
+
+    @Test
+    void storesUploadsUnderTheirContentHashOnce() throws IOException {
+        byte[] bytes = png(40, 30);
+
+        String first = service.store(new MockMultipartFile("logo", "shop.PNG", "image/png", bytes));
+        String second = service.store(new MockMultipartFile("logo", "other-name.png", "image/png", bytes));
+
+        assertThat(first).matches("/uploads/images/[0-9a-f]{32}\\.png").isEqualTo(second);
+        assertThat(Files.list(directory).filter(file -> file.toString().endsWith(".png"))).hasSize(1);
+    }
+
+    @Test
+    void rejectsFilesThatAreNotImages() {
+        assertThatThrownBy(() -> service.store(new MockMultipartFile("logo", "shop.svg", "image/svg+xml", new byte[]{1})))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.store(new MockMultipartFile("logo", "shop.png", "image/png", "<html>".getBytes())))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsImagesAboveThePixelLimit() throws IOException {
+        byte[] bytes = png(2001, 2000);
+
+        assertThatThrownBy(() -> service.store(new MockMultipartFile("banner", "banner.png", "image/png", bytes)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("too large");
+    }
+
+    @Test
+    void generatesEveryVariantWithinItsBoundsAndServesThem() throws IOException {
+        String hash = "0123456789abcdef0123456789abcdef";
+        Path original = storage.original(hash, "png");
+        Files.write(original, png(2400, 1200));
+        String url = ImageStorage.originalUrl(hash, "png");
+
+        assertThat(storage.variantUrl(url, ImageVariant.CARD)).isEqualTo(url);
+
+        service.generate(hash, original);
+
+        for (ImageVariant variant : ImageVariant.values()) {
+            BufferedImage written = ImageIO.read(storage.derivative(hash, variant).toFile());
+            assertThat(written.getWidth()).isEqualTo(variant.maxSize());
+            assertThat(written.getHeight()).isEqualTo(variant.maxSize() / 2);
+            assertThat(storage.variantUrl(url, variant))
+                    .isEqualTo("/uploads/images/" + hash + "-" + variant.suffix() + ".jpg");
+        }
+    }
+
+    @Test
+    void leavesUrlsOfImagesStoredElsewhereUnchanged() {
+        assertThat(storage.variantUrl("/uploads/logos/3f1c.png", ImageVariant.THUMBNAIL)).isEqualTo("/uploads/logos/3f1c.png");
+        assertThat(storage.variantUrl("https://cdn.example.com/p.jpg", ImageVariant.CARD)).isEqualTo("https://cdn.example.com/p.jpg");
+        assertThat(storage.variantUrl(null, ImageVariant.GALLERY)).isNull();
+    }
+}
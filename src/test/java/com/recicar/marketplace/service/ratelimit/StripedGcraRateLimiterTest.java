@@ -0,0 +1,114 @@
+package com.recicar.marketplace.service.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StripedGcraRateLimiterTest {
+
+    private static final Duration MINUTE = Duration.ofMinutes(1);
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+    @Test
+    void admitsTheFullBurstThenOnePermitPerInterval() {
+        StripedGcraRateLimiter limiter = new StripedGcraRateLimiter(1000, 4, now::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.allow("login:1.2.3.4", 3, MINUTE)).isTrue();
+        }
+        long wait = limiter.tryAcquire("login:1.2.3.4", 3, MINUTE);
+        assertThat(wait).isEqualTo(TimeUnit.SECONDS.toNanos(20));
+
+        advance(Duration.ofSeconds(19));
+        assertThat(limiter.allow("login:1.2.3.4", 3, MINUTE)).isFalse();
+        advance(Duration.ofSeconds(1));
+        assertThat(limiter.allow("login:1.2.3.4", 3, MINUTE)).isTrue();
+        assertThat(limiter.allow("login:1.2.3.4", 3, MINUTE)).isFalse();
+    }
+
+    @Test
+    void keysAreLimitedIndependently() {
+        StripedGcraRateLimiter limiter = new StripedGcraRateLimiter(1000, 4, now::get);
+
+        assertThat(limiter.allow("login:1.2.3.4", 1, MINUTE)).isTrue();
+        assertThat(limiter.allow("login:1.2.3.4", 1, MINUTE)).isFalse();
+        assertThat(limiter.allow("login:5.6.7.8", 1, MINUTE)).isTrue();
+        assertThat(limiter.allow("reg:1.2.3.4", 1, MINUTE)).isTrue();
+    }
+
+    @Test
+    void idleKeysAreDroppedOnceTheirStateExpires() {
+        StripedGcraRateLimiter limiter = new StripedGcraRateLimiter(1000, 1, now::get);
+        for (int i = 0; i < 100; i++) {
+            limiter.allow("search:10.0.0." + i, 10, MINUTE);
+        }
+        assertThat(limiter.trackedKeys()).isEqualTo(100);
+
+        advance(Duration.ofSeconds(7));
+        limiter.allow("search:other", 10, MINUTE);
+        assertThat(limiter.trackedKeys()).isEqualTo(1);
+    }
+
+    @Test
+    void longWindowsOutliveTheWheelHorizon() {
+        StripedGcraRateLimiter limiter = new StripedGcraRateLimiter(1000, 1, now::get);
+        assertThat(limiter.allow("contact:1.2.3.4", 1, Duration.ofHours(1))).isTrue();
+
+        for (int minute = 1; minute < 60; minute++) {
+            advance(MINUTE);
+            assertThat(limiter.allow("contact:1.2.3.4", 1, Duration.ofHours(1))).isFalse();
+        }
+        advance(MINUTE);
+        assertThat(limiter.allow("contact:1.2.3.4", 1, Duration.ofHours(1))).isTrue();
+    }
+
+    @Test
+    void memoryStaysBoundedUnderKeyChurn() {
+        StripedGcraRateLimiter limiter = new StripedGcraRateLimiter(64, 4, now::get);
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(limiter.allow("login:" + i, 5, Duration.ofMinutes(15))).isTrue();
+        }
+        assertThat(limiter.trackedKeys()).isLessThanOrEqualTo(64);
+    }
+
+    @Test
+    void agreesWithAReferenceModelUnderRandomTraffic() {
+        StripedGcraRateLimiter limiter = new StripedGcraRateLimiter(10_000, 2, now::get);
+        Map<String, Long> tats = new HashMap<>();
+        long interval = TimeUnit.SECONDS.toNanos(2);
+        Random random = new Random(42);
+
+        for (int i = 0; i < 50_000; i++) {
+            advance(Duration.ofMillis(random.nextInt(50)));
+            String key = "k" + random.nextInt(300);
+            long tat = Math.max(tats.getOrDefault(key, now.get()), now.get());
+            boolean expected = tat + interval - now.get() <= 5 * interval;
+            if (expected) {
+                tats.put(key, tat + interval);
+            }
+            assertThat(limiter.allow(key, 5, Duration.ofSeconds(10))).as("request %d for %s", i, key).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void rejectsLimitsWithoutPermits() {
+        StripedGcraRateLimiter limiter = new StripedGcraRateLimiter(10, 1, now::get);
+
+        assertThatThrownBy(() -> limiter.tryAcquire("x", 0, MINUTE)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> limiter.tryAcquire("x", 1, Duration.ZERO)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void advance(Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+}
@@ -0,0 +1,181 @@
+package com.recicar.marketplace.service.search;
+
+import com.recicar.marketplace.dto.ProductSnapshot;
+import com.recicar.marketplace.dto.SearchFacets;
+import com.recicar.marketplace.dto.VehicleCompatibilitySnapshot;
+import com.recicar.marketplace.entity.ProductCondition;
+import com.recicar.marketplace.event.ProductChangedEvent;
+import com.recicar.marketplace.event.VehicleCompatibilityChangedEvent;
+import com.recicar.marketplace.repository.ProductRepository;
+import com.recicar.marketplace.repository.VehicleCompatibilityRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductFacetIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private VehicleCompatibilityRepository vehicleCompatibilityRepository;
+
+    private ProductFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductFacetIndex(productRepository, vehicleCompatibilityRepository);
+        when(productRepository.findActiveSnapshotsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                snapshot(1L, "Pastillas de freno", ProductCondition.USED, "45.00", 2, 1),
+                snapshot(2L, "Disco de freno", ProductCondition.NEW, "80.00", 0, 2),
+                snapshot(3L, "Bomba de agua", ProductCondition.USED, "60.00", 1, 3)
+        ));
+        when(vehicleCompatibilityRepository.findSnapshotsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                fitment(10L, 1L, "Audi", "A4", "2.0 TDI"),
+                fitment(11L, 2L, "Audi", "A6", "3.0 TDI"),
+                fitment(12L, 2L, "BMW", "X5", null),
+                fitment(13L, 3L, "BMW", "320", "2.0d")
+        ));
+        index.rebuild();
+    }
+
+    @Test
+    void returnsPageAndFacetCountsInOneCall() {
+        ProductFacetIndex.Result result = index.search(
+                criteria("freno", null, null, null, null, null), PageRequest.of(0, 10)).orElseThrow();
+
+        SearchFacets facets = result.facets();
+        assertThat(result.ids().getContent()).containsExactly(2L, 1L);
+        assertThat(facets.condition()).containsExactly(entry("NEW", 1L), entry("USED", 1L), entry("REFURBISHED", 0L));
+        assertThat(facets.make()).containsExactly(entry("audi", 2L), entry("bmw", 1L));
+        assertThat(facets.model()).isEmpty();
+        assertThat(facets.priceRange()).containsEntry("25-50", 1L).containsEntry("50-100", 1L);
+        assertThat(facets.inStock()).containsExactly(entry("true", 1L), entry("false", 1L));
+    }
+
+    @Test
+    void countsEachFacetWithoutItsOwnFilter() {
+        ProductFacetIndex.Result result = index.search(
+                criteria(null, "audi", null, null, "USED", null), PageRequest.of(0, 10)).orElseThrow();
+
+        assertThat(result.ids().getContent()).containsExactly(1L);
+        assertThat(result.facets().condition()).containsEntry("NEW", 1L).containsEntry("USED", 1L);
+        assertThat(result.facets().make()).containsExactly(entry("audi", 1L), entry("bmw", 1L));
+        assertThat(result.facets().model()).containsExactly(entry("a4", 1L));
+    }
+
+    @Test
+    void requiresMakeModelAndEngineOnTheSameFitment() {
+        assertThat(index.search(criteria(null, "bmw", "x5", null, null, null), PageRequest.of(0, 10))
+                .orElseThrow().ids().getContent()).containsExactly(2L);
+        assertThat(index.search(criteria(null, "audi", "x5", null, null, null), PageRequest.of(0, 10))
+                .orElseThrow().ids().getContent()).isEmpty();
+        assertThat(index.search(new AdvancedSearchCriteria(null, null, null, "tdi", null, null, null, null),
+                PageRequest.of(0, 10)).orElseThrow().ids().getContent()).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void appliesPriceStockAndSort() {
+        ProductFacetIndex.Result result = index.search(
+                criteria(null, null, null, null, null, new BigDecimal("50")),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "price"))).orElseThrow();
+
+        assertThat(result.ids().getContent()).containsExactly(3L, 2L);
+        assertThat(result.facets().inStock()).containsExactly(entry("true", 1L), entry("false", 1L));
+    }
+
+    @Test
+    void matchesPriceRangesThatCutThroughBuckets() {
+        assertThat(index.search(new AdvancedSearchCriteria(null, null, null, null, null, null,
+                        new BigDecimal("45.00"), new BigDecimal("60")), PageRequest.of(0, 10))
+                .orElseThrow().ids().getContent()).containsExactly(3L, 1L);
+        assertThat(index.search(new AdvancedSearchCriteria(null, null, null, null, null, null,
+                        null, new BigDecimal("44.99")), PageRequest.of(0, 10))
+                .orElseThrow().ids().getContent()).isEmpty();
+        assertThat(index.search(new AdvancedSearchCriteria(null, null, null, null, null, null,
+                        new BigDecimal("90"), new BigDecimal("10")), PageRequest.of(0, 10))
+                .orElseThrow().ids().getContent()).isEmpty();
+    }
+
+    @Test
+    void matchesTextAnywhereInNameOrPartNumber() {
+        assertThat(index.search(criteria("de fre", null, null, null, null, null), PageRequest.of(0, 10))
+                .orElseThrow().ids().getContent()).containsExactly(2L, 1L);
+        assertThat(index.search(criteria("p-3", null, null, null, null, null), PageRequest.of(0, 10))
+                .orElseThrow().ids().getContent()).containsExactly(3L);
+        assertThat(index.search(criteria("freno agua", null, null, null, null, null), PageRequest.of(0, 10))
+                .orElseThrow().ids().getContent()).isEmpty();
+    }
+
+    @Test
+    void compactsOrdinalsOnceRemovedProductsDominate() {
+        int churn = ProductFacetIndex.COMPACTION_MIN_DEAD + 1;
+        for (long id = 100; id < 100 + churn; id++) {
+            ProductSnapshot product = snapshot(id, "Faro " + id, ProductCondition.USED, "30.00", 1, 5);
+            index.onProductChanged(new ProductChangedEvent(product, false));
+            index.onProductChanged(new ProductChangedEvent(product, true));
+        }
+
+        assertThat(index.ordinalCount()).isLessThan(churn);
+        assertThat(index.search(criteria("freno", "audi", null, null, null, null), PageRequest.of(0, 10))
+                .orElseThrow().ids().getContent()).containsExactly(2L, 1L);
+        assertThat(index.search(criteria(null, null, null, null, null, new BigDecimal("50")), PageRequest.of(0, 10))
+                .orElseThrow().facets().make()).containsExactly(entry("bmw", 2L), entry("audi", 1L));
+    }
+
+    @Test
+    void appliesIncrementalProductAndFitmentChanges() {
+        index.onProductChanged(new ProductChangedEvent(
+                snapshot(4L, "Freno de mano", ProductCondition.REFURBISHED, "20.00", 1, 4), false));
+        index.onVehicleCompatibilityChanged(new VehicleCompatibilityChangedEvent(
+                fitment(14L, 4L, "Audi", "A4", null), false));
+        index.onVehicleCompatibilityChanged(new VehicleCompatibilityChangedEvent(
+                fitment(10L, 1L, "Audi", "A4", "2.0 TDI"), true));
+        index.onProductChanged(new ProductChangedEvent(
+                snapshot(2L, "Disco de freno", ProductCondition.NEW, "80.00", 0, 2), true));
+
+        ProductFacetIndex.Result result = index.search(
+                criteria(null, "audi", "a4", null, null, null), PageRequest.of(0, 10)).orElseThrow();
+
+        assertThat(result.ids().getContent()).containsExactly(4L);
+        assertThat(result.facets().make()).containsExactly(entry("audi", 1L), entry("bmw", 1L));
+    }
+
+    @Test
+    void defersToDatabaseForUnknownSorts() {
+        assertThat(index.search(criteria(null, null, null, null, null, null),
+                PageRequest.of(0, 10, Sort.by("stockQuantity")))).isEmpty();
+    }
+
+    private static AdvancedSearchCriteria criteria(String query, String brand, String model, String modification,
+                                                   String condition, BigDecimal minPrice) {
+        return new AdvancedSearchCriteria(query, brand, model, modification, condition, null, minPrice, null);
+    }
+
+    private static ProductSnapshot snapshot(Long id, String name, ProductCondition condition, String price,
+                                            int stock, int ageRank) {
+        return new ProductSnapshot(id, name, "P-" + id, null, new BigDecimal(price), condition, stock, true,
+                10L, 20L, LocalDateTime.of(2024, 1, 1, 0, 0).plusDays(ageRank));
+    }
+
+    private static VehicleCompatibilitySnapshot fitment(Long id, Long productId, String make, String model,
+                                                        String engine) {
+        return new VehicleCompatibilitySnapshot(id, productId, make, model, 2010, 2015, engine);
+    }
+}
@@ -0,0 +1,190 @@
+package com.recicar.marketplace.service.search;
+
+import com.recicar.marketplace.dto.CursorPage;
+import com.recicar.marketplace.dto.ProductCursor;
+import com.recicar.marketplace.dto.ProductSnapshot;
+import com.recicar.marketplace.entity.ProductCondition;
+import com.recicar.marketplace.event.ProductChangedEvent;
+import com.recicar.marketplace.repository.ProductRepository;
+import com.recicar.marketplace.util.PartCodeNormalizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex(productRepository);
+        when(productRepository.findActiveSnapshotsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                snapshot(1L, "Pastillas de freno delanteras", "BP-1001", "1K0-615-301 AA", "45.00", 1),
+                snapshot(2L, "Disco de freno ventilado", "BD-2002", null, "80.00", 2),
+                snapshot(3L, "Bomba de agua", "WP-3003", "06H 121 026", "60.00", 3)
+        ));
+        index.rebuild();
+    }
+
+    @Test
+    void matchesNameWordsWithLastWordAsPrefix() {
+        Page<Long> page = index.search("freno del", PageRequest.of(0, 10)).orElseThrow();
+
+        assertThat(page.getContent()).containsExactly(1L);
+    }
+
+    @Test
+    void matchesEverythingTheSqlFallbackMatches() {
+        // LIKE '%q%' on the name, inside and across words
+        assertThat(index.search("reno", PageRequest.of(0, 10)).orElseThrow().getContent()).containsExactly(2L, 1L);
+        assertThat(index.search("de fre", PageRequest.of(0, 10)).orElseThrow().getContent()).containsExactly(2L, 1L);
+        // plainto_tsquery over name, part and OEM number together
+        assertThat(index.search("freno bp-1001", PageRequest.of(0, 10)).orElseThrow().getContent()).containsExactly(1L);
+        assertThat(index.search("agua 06h", PageRequest.of(0, 10)).orElseThrow().getContent()).containsExactly(3L);
+    }
+
+    @Test
+    void matchesPartCodesIgnoringSeparatorsAndCase() {
+        assertThat(index.search("1k0615301aa", PageRequest.of(0, 10)).orElseThrow().getContent())
+                .containsExactly(1L);
+        assertThat(index.search("121-026", PageRequest.of(0, 10)).orElseThrow().getContent())
+                .containsExactly(3L);
+    }
+
+    @Test
+    void looksUpCanonicalPartAndOemCodes() {
+        assertThat(index.findByOemCode(PartCodeNormalizer.normalize("1k0 615 301-aa"))).contains(List.of(1L));
+        assertThat(index.findByPartCode(PartCodeNormalizer.normalize("wp3003"))).contains(List.of(3L));
+        assertThat(index.findByPartCode("WP300")).contains(List.of());
+    }
+
+    @Test
+    void defaultsToNewestFirstAndHonoursPriceSort() {
+        Page<Long> newest = index.search("freno", PageRequest.of(0, 10)).orElseThrow();
+        Page<Long> cheapest = index.search("freno",
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "price"))).orElseThrow();
+
+        assertThat(newest.getContent()).containsExactly(2L, 1L);
+        assertThat(cheapest.getContent()).containsExactly(1L, 2L);
+        assertThat(newest.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    void appliesIncrementalChanges() {
+        index.onProductChanged(new ProductChangedEvent(
+                snapshot(4L, "Freno de mano", "HB-4004", null, "20.00", 4), false));
+        index.onProductChanged(new ProductChangedEvent(
+                snapshot(2L, "Disco de freno ventilado", "BD-2002", null, "80.00", 2), true));
+
+        assertThat(index.search("freno", PageRequest.of(0, 10)).orElseThrow().getContent())
+                .containsExactly(4L, 1L);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void replacedProductsDropTheirOldPostings() {
+        index.onProductChanged(new ProductChangedEvent(
+                snapshot(2L, "Disco de embrague", "CL-2002", null, "80.00", 2), false));
+
+        assertThat(index.search("freno", PageRequest.of(0, 10)).orElseThrow().getContent()).containsExactly(1L);
+        assertThat(index.search("embrague", PageRequest.of(0, 10)).orElseThrow().getContent()).containsExactly(2L);
+        assertThat(index.findByPartCode(PartCodeNormalizer.normalize("BD-2002"))).contains(List.of());
+        assertThat(index.findByPartCode(PartCodeNormalizer.normalize("CL-2002"))).contains(List.of(2L));
+    }
+
+    @Test
+    void compactsOrdinalsOnceReplacedProductsDominate() {
+        int churn = ProductSearchIndex.COMPACTION_MIN_DEAD + 1;
+        for (int i = 0; i < churn; i++) {
+            index.onProductChanged(new ProductChangedEvent(
+                    snapshot(4L, "Freno de mano", "HB-4004", null, "20.00", 4), false));
+        }
+
+        assertThat(index.ordinalCount()).isLessThan(churn);
+        assertThat(index.search("freno", PageRequest.of(0, 10)).orElseThrow().getContent())
+                .containsExactly(4L, 2L, 1L);
+        assertThat(index.findByPartCode(PartCodeNormalizer.normalize("hb4004"))).contains(List.of(4L));
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    void pagesMatchesByCursorNewestFirst() {
+        CursorPage<Long> first = index.searchAfter("freno", ProductCursor.START, 1).orElseThrow();
+        CursorPage<Long> second = index.searchAfter("freno", ProductCursor.decode(first.nextCursor()), 1).orElseThrow();
+
+        assertThat(first.content()).containsExactly(2L);
+        assertThat(first.totalElements()).isEqualTo(2);
+        assertThat(second.content()).containsExactly(1L);
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    @Test
+    void comparesCursorsAtDatabasePrecision() {
+        LocalDateTime stored = LocalDateTime.of(2024, 1, 10, 12, 0, 0, 123_456_000);
+        index.onProductChanged(new ProductChangedEvent(
+                snapshot(4L, "Freno de mano", "HB-4004", null, "20.00", stored.plusNanos(789)), false));
+        index.onProductChanged(new ProductChangedEvent(
+                snapshot(5L, "Freno de mano", "HB-5005", null, "20.00", stored), false));
+
+        // Both rows hold the same microsecond in PostgreSQL, so id breaks the tie
+        CursorPage<Long> first = index.searchAfter("freno de mano", ProductCursor.START, 1).orElseThrow();
+        CursorPage<Long> second = index.searchAfter("freno de mano", ProductCursor.decode(first.nextCursor()), 1).orElseThrow();
+
+        assertThat(first.content()).containsExactly(5L);
+        assertThat(ProductCursor.decode(first.nextCursor()).createdAt()).isEqualTo(stored);
+        assertThat(second.content()).containsExactly(4L);
+    }
+
+    @Test
+    void ordersRowsWithoutCreationDateLikeTheDatabase() {
+        index.onProductChanged(new ProductChangedEvent(
+                snapshot(4L, "Freno de mano", "HB-4004", null, "20.00", (LocalDateTime) null), false));
+
+        // ORDER BY created_at DESC puts nulls first; the keyset comparison never returns them
+        assertThat(index.search("freno", PageRequest.of(0, 10)).orElseThrow().getContent())
+                .containsExactly(4L, 2L, 1L);
+        assertThat(index.search("freno", PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "createdAt")))
+                .orElseThrow().getContent()).containsExactly(1L, 2L, 4L);
+        assertThat(index.searchAfter("freno", ProductCursor.START, 10).orElseThrow().content())
+                .containsExactly(2L, 1L);
+    }
+
+    @Test
+    void defersToDatabaseForShortQueriesAndUnknownSorts() {
+        assertThat(index.search("ab", PageRequest.of(0, 10))).isEmpty();
+        assertThat(index.search("freno", PageRequest.of(0, 10, Sort.by("stockQuantity")))).isEqualTo(Optional.empty());
+    }
+
+    private static ProductSnapshot snapshot(Long id, String name, String partNumber, String oemNumber,
+                                            String price, int ageRank) {
+        return new ProductSnapshot(id, name, partNumber, oemNumber, new BigDecimal(price),
+                ProductCondition.USED, 1, true, 10L, 20L,
+                LocalDateTime.of(2024, 1, 1, 0, 0).plusDays(ageRank));
+    }
+
+    private static ProductSnapshot snapshot(Long id, String name, String partNumber, String oemNumber,
+                                            String price, LocalDateTime createdAt) {
+        return new ProductSnapshot(id, name, partNumber, oemNumber, new BigDecimal(price),
+                ProductCondition.USED, 1, true, 10L, 20L, createdAt);
+    }
+}
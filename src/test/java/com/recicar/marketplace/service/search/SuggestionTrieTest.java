@@ -0,0 +1,69 @@
+package com.recicar.marketplace.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestionTrieTest {
+
+    @Test
+    void ranksCompletionsByWeightThenText() {
+        SuggestionTrie trie = SuggestionTrie.builder()
+                .add("freno de mano", "Freno de mano", 3)
+                .add("frenos", "Frenos", 12)
+                .add("filtro de aceite", "Filtro de aceite", 40)
+                .add("fresa", "Fresa", 3)
+                .build();
+
+        assertThat(texts(trie.complete("fre", 10))).containsExactly("Frenos", "Freno de mano", "Fresa");
+        assertThat(texts(trie.complete("f", 2))).containsExactly("Filtro de aceite", "Frenos");
+        assertThat(texts(trie.complete("freno ", 10))).containsExactly("Freno de mano");
+    }
+
+    @Test
+    void matchesPrefixesEndingInsideCompressedEdges() {
+        SuggestionTrie trie = SuggestionTrie.builder()
+                .add("bomba de agua", "Bomba de agua", 1)
+                .build();
+
+        assertThat(texts(trie.complete("bomba d", 10))).containsExactly("Bomba de agua");
+        assertThat(texts(trie.complete("bomba de agua", 10))).containsExactly("Bomba de agua");
+        assertThat(trie.complete("bomba x", 10)).isEmpty();
+        assertThat(trie.complete("bomba de agua fria", 10)).isEmpty();
+    }
+
+    @Test
+    void mergesEntriesSharingAKey() {
+        SuggestionTrie trie = SuggestionTrie.builder()
+                .add("alternador", "alternador", 1)
+                .add("alternador", "Alternador", 5)
+                .add("alternador", "ALTERNADOR", 2)
+                .build();
+
+        List<SuggestionTrie.Suggestion> result = trie.complete("alt", 10);
+
+        assertThat(result).containsExactly(new SuggestionTrie.Suggestion("Alternador", 8));
+        assertThat(trie.size()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsOnlyTheBestCompletionsPerNode() {
+        SuggestionTrie.Builder builder = SuggestionTrie.builder();
+        for (int i = 0; i < 50; i++) {
+            builder.add("pieza " + i, "Pieza " + i, i);
+        }
+        SuggestionTrie trie = builder.build();
+
+        List<SuggestionTrie.Suggestion> result = trie.complete("pie", 100);
+
+        assertThat(result).hasSize(SuggestionTrie.MAX_SUGGESTIONS);
+        assertThat(result.get(0).text()).isEqualTo("Pieza 49");
+        assertThat(result.get(9).text()).isEqualTo("Pieza 40");
+    }
+
+    private static List<String> texts(List<SuggestionTrie.Suggestion> suggestions) {
+        return suggestions.stream().map(SuggestionTrie.Suggestion::text).toList();
+    }
+}
@@ -0,0 +1,141 @@
+package com.recicar.marketplace.service.search;
+
+import com.recicar.marketplace.dto.ProductSnapshot;
+import com.recicar.marketplace.dto.VehicleCompatibilitySnapshot;
+import com.recicar.marketplace.entity.ProductCondition;
+import com.recicar.marketplace.event.ProductChangedEvent;
+import com.recicar.marketplace.event.VehicleCompatibilityChangedEvent;
+import com.recicar.marketplace.repository.VehicleCompatibilityRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class VehicleFitmentIndexTest {
+
+    @Mock
+    private VehicleCompatibilityRepository vehicleCompatibilityRepository;
+
+    private VehicleFitmentIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new VehicleFitmentIndex(vehicleCompatibilityRepository);
+    }
+
+    @Test
+    void isEmptyUntilBuilt() {
+        assertThat(index.findProductIds("Audi", "A4", "2.0 TDI", 2012)).isEmpty();
+    }
+
+    @Test
+    void matchesYearRangesInclusively() {
+        build(
+                fitment(10L, 1L, "Audi", "A4", "2.0 TDI", 2008, 2012),
+                fitment(11L, 2L, "Audi", "A4", "2.0 TDI", 2012, 2016),
+                fitment(12L, 3L, "Audi", "A4", "2.0 TDI", 2017, null),
+                fitment(13L, 4L, "Audi", "A4", "2.0 TDI", null, 2005)
+        );
+
+        assertThat(index.findProductIds("Audi", "A4", "2.0 TDI", 2012)).contains(List.of(2L, 1L));
+        assertThat(index.findProductIds("Audi", "A4", "2.0 TDI", 2016)).contains(List.of(2L));
+        assertThat(index.findProductIds("Audi", "A4", "2.0 TDI", 2030)).contains(List.of(3L));
+        assertThat(index.findProductIds("Audi", "A4", "2.0 TDI", 1990)).contains(List.of(4L));
+        assertThat(index.findProductIds("Audi", "A4", "2.0 TDI", 2006)).contains(List.of());
+    }
+
+    @Test
+    void normalizesKeysAndTreatsBlankEngineAsAnyEngine() {
+        build(
+                fitment(10L, 1L, "Audi", "A4", "2.0 TDI", 2008, 2012),
+                fitment(11L, 2L, "AUDI ", "a4", "1.8 TFSI", 2010, 2014),
+                fitment(12L, 3L, "Audi", "A6", "2.0 TDI", 2010, 2014)
+        );
+
+        assertThat(index.findProductIds(" audi", "A4 ", "2.0 tdi", 2010)).contains(List.of(1L));
+        assertThat(index.findProductIds("audi", "a4", " ", 2010)).contains(List.of(2L, 1L));
+        assertThat(index.findProductIds("audi", "a4", null, 2013)).contains(List.of(2L));
+        assertThat(index.findProductIds("seat", "ibiza", null, 2010)).contains(List.of());
+    }
+
+    @Test
+    void listsAProductOnceWhenSeveralOfItsRangesMatch() {
+        build(
+                fitment(10L, 1L, "BMW", "320", "2.0d", 2005, 2012),
+                fitment(11L, 1L, "BMW", "320", "2.0d", 2010, 2015)
+        );
+
+        assertThat(index.findProductIds("bmw", "320", "2.0d", 2011)).contains(List.of(1L));
+    }
+
+    @Test
+    void appliesIncrementalFitmentAndProductChanges() {
+        build(
+                fitment(10L, 1L, "Audi", "A4", "2.0 TDI", 2008, 2012),
+                fitment(11L, 2L, "Audi", "A4", "2.0 TDI", 2010, 2014),
+                fitment(12L, 3L, "Audi", "A4", "2.0 TDI", 2009, 2011)
+        );
+        assertThat(index.findProductIds("audi", "a4", "2.0 tdi", 2010)).contains(List.of(3L, 2L, 1L));
+
+        index.onVehicleCompatibilityChanged(new VehicleCompatibilityChangedEvent(
+                fitment(14L, 4L, "Audi", "A4", "2.0 TDI", 2010, 2010), false));
+        index.onVehicleCompatibilityChanged(new VehicleCompatibilityChangedEvent(
+                fitment(10L, 1L, "Audi", "A4", "2.0 TDI", 2013, 2015), false));
+        index.onVehicleCompatibilityChanged(new VehicleCompatibilityChangedEvent(
+                fitment(11L, 2L, "Audi", "A4", "2.0 TDI", 2010, 2014), true));
+        index.onProductChanged(new ProductChangedEvent(product(3L), true));
+        index.onProductChanged(new ProductChangedEvent(product(4L), false));
+
+        assertThat(index.findProductIds("audi", "a4", "2.0 tdi", 2010)).contains(List.of(4L));
+        assertThat(index.findProductIds("audi", "a4", "2.0 tdi", 2014)).contains(List.of(1L));
+    }
+
+    @Test
+    void answersLargeOverlappingSetsLikeALinearScan() {
+        List<VehicleCompatibilitySnapshot> rows = new ArrayList<>();
+        for (long i = 1; i <= 500; i++) {
+            int from = 1990 + (int) (i * 7 % 30);
+            int to = from + (int) (i * 3 % 12);
+            rows.add(fitment(i, i, "Seat", "Leon", "1.9 TDI", from, to));
+        }
+        build(rows.toArray(new VehicleCompatibilitySnapshot[0]));
+
+        for (int year = 1985; year <= 2035; year++) {
+            int y = year;
+            List<Long> expected = rows.stream()
+                    .filter(row -> row.yearFrom() <= y && y <= row.yearTo())
+                    .map(VehicleCompatibilitySnapshot::productId)
+                    .sorted((a, b) -> Long.compare(b, a))
+                    .toList();
+            assertThat(index.findProductIds("seat", "leon", "1.9 tdi", year)).contains(expected);
+        }
+    }
+
+    private void build(VehicleCompatibilitySnapshot... rows) {
+        when(vehicleCompatibilityRepository.findSnapshotsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(rows));
+        index.rebuild();
+    }
+
+    private static VehicleCompatibilitySnapshot fitment(Long id, Long productId, String make, String model,
+                                                        String engine, Integer yearFrom, Integer yearTo) {
+        return new VehicleCompatibilitySnapshot(id, productId, make, model, yearFrom, yearTo, engine);
+    }
+
+    private static ProductSnapshot product(Long id) {
+        return new ProductSnapshot(id, "Pieza " + id, "P-" + id, null, new BigDecimal("10.00"), ProductCondition.USED,
+                1, true, 10L, 20L, LocalDateTime.of(2024, 1, 1, 0, 0));
+    }
+}